@@ -139,6 +139,7 @@ public class ClientProcess {
 		RuntimeSettings.mockSystemIn = Properties.REPLACE_SYSTEM_IN;
 		RuntimeSettings.mockGUI = Properties.REPLACE_GUI;
 		RuntimeSettings.sandboxMode = Properties.SANDBOX_MODE;
+		RuntimeSettings.restoreStaticStateFromSnapshot = Properties.RESET_STATIC_FIELDS_FROM_SNAPSHOT;
         RuntimeSettings.maxNumberOfThreads = Properties.MAX_STARTED_THREADS;
         RuntimeSettings.maxNumberOfIterationsPerLoop = Properties.MAX_LOOP_ITERATIONS;
         RuntimeSettings.useVNET = Properties.VIRTUAL_NET;
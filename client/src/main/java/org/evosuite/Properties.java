@@ -116,6 +116,9 @@ public class Properties {
 	@Parameter(key = "reset_static_final_fields", group = "Test Creation", description = "Remove the static modifier in target fields")
 	public static boolean RESET_STATIC_FINAL_FIELDS = true;
 
+	@Parameter(key = "reset_static_fields_from_snapshot", group = "Test Creation", description = "After the first re-initialization of a class, restore its static fields from a snapshot rather than calling the static constructor again, if possible. Effects of the static constructor outside the static fields of the class are not redone")
+	public static boolean RESET_STATIC_FIELDS_FROM_SNAPSHOT = false;
+
 	@Parameter(key = "reset_static_field_gets", group = "Test Creation", description = "Call static constructors also after each static field was read")
 	public static boolean RESET_STATIC_FIELD_GETS = false;
 
@@ -304,6 +307,13 @@ public class Properties {
 	@Parameter(key = "migrants_communication_rate", group = "Test Creation", description = "Determines amount of migrants per communication step")
 	public static int MIGRANTS_COMMUNICATION_RATE = 3;
 
+	public enum MigrationTopology {
+		RING, STAR, RANDOM
+	}
+
+	@Parameter(key = "migration_topology", group = "Test Creation", description = "Which clients receive the migrants of a client: the next one (ring), client 0 and from there all others (star), or a random one")
+	public static MigrationTopology MIGRATION_TOPOLOGY = MigrationTopology.RING;
+
 	// ---------------------------------------------------------------
 	// Search algorithm
 	public enum Algorithm {
@@ -827,6 +837,15 @@ public class Properties {
 	@Parameter(key = "ctg_project_info", group = "Continuous Test Generation", description = "XML file which stores stats about all CTG executions")
 	public static String CTG_PROJECT_INFO = "project_info.xml";
 
+	@Parameter(key = "ctg_indexed_database", group = "Continuous Test Generation", description = "If true, store the stats about all CTG executions in an indexed, append-only database instead of rewriting the whole XML file at each execution. An existing XML file is imported on the first execution")
+	public static boolean CTG_INDEXED_DATABASE = false;
+
+	@Parameter(key = "ctg_project_database", group = "Continuous Test Generation", description = "File of the indexed database, used if ctg_indexed_database is true")
+	public static String CTG_PROJECT_DATABASE = "project_info.db";
+
+	@Parameter(key = "ctg_export_project_info", group = "Continuous Test Generation", description = "If ctg_indexed_database is true, also export the whole database to the XML file at the end of the execution. Only needed by tools reading that file (eg, the Jenkins plugin), as it rewrites the whole file each time")
+	public static boolean CTG_EXPORT_PROJECT_INFO = false;
+
 	@Parameter(key = "ctg_history_file", group = "Continuous Test Generation", description = "File with the list of new(A)/modified(M)/deleted(D) files")
 	public static String CTG_HISTORY_FILE = null;
 
@@ -842,6 +861,33 @@ public class Properties {
 	@Parameter(key = "ctg_debug_port", group = "Continuous Test Generation", description = "Port for remote debugging of 'Master' spawn processes. 'Clinet' process will have port+1. This only applies when for a single CUT.")
 	public static Integer CTG_DEBUG_PORT = null;
 
+	@Parameter(key = "ctg_incremental", group = "Continuous Test Generation", description = "If true, only test the classes whose bytecode changed since they were last tested, plus the classes depending on them. The other classes keep their current best test suites")
+	public static boolean CTG_INCREMENTAL = false;
+
+	@Parameter(key = "ctg_adaptive_budget", group = "Continuous Test Generation", description = "If true, stop the search of a job once its coverage saturates, and give the time it did not use to the jobs that still have to run")
+	public static boolean CTG_ADAPTIVE_BUDGET = false;
+
+	@Parameter(key = "ctg_saturation_window", group = "Continuous Test Generation", description = "Fraction of its time budget after which a job whose coverage did not improve is considered saturated. Only used with ctg_adaptive_budget")
+	public static double CTG_SATURATION_WINDOW = 0.2;
+
+	@Parameter(key = "ctg_progress_file", group = "Continuous Test Generation", description = "File where a process started by CTG writes the progress of its search. This is set by CTG, and not meant to be used directly")
+	public static String CTG_PROGRESS_FILE = null;
+
+	@Parameter(key = "ctg_farm_port", group = "Continuous Test Generation", description = "If set, jobs are not run as local processes, but dispatched to worker daemons (see FarmWorker) connecting to a RMI registry on this port. 'ctg_cores' should then be the total number of slots of the workers. Anyone knowing 'ctg_farm_token' and able to reach 'ctg_farm_host' can take jobs and write results into the CTG folder, and the traffic is not encrypted: only use it on a trusted network")
+	public static Integer CTG_FARM_PORT = null;
+
+	@Parameter(key = "ctg_farm_host", group = "Continuous Test Generation", description = "Address of the network interface on which the farm waits for the workers. The default only accepts workers on the same machine")
+	public static String CTG_FARM_HOST = "127.0.0.1";
+
+	@Parameter(key = "ctg_farm_token", group = "Continuous Test Generation", description = "Shared secret that the farm workers must present (see FarmWorker). Mandatory when 'ctg_farm_port' is set. Better put in a properties file than on the command line")
+	public static String CTG_FARM_TOKEN = null;
+
+	@Parameter(key = "ctg_farm_heartbeat_timeout", group = "Continuous Test Generation", description = "Seconds without heartbeat after which a farm worker is considered dead, and its running jobs are given to other workers")
+	public static int CTG_FARM_HEARTBEAT_TIMEOUT = 30;
+
+	@Parameter(key = "ctg_farm_max_attempts", group = "Continuous Test Generation", description = "How many times a job can be lost by dead farm workers before it is considered failed")
+	public static int CTG_FARM_MAX_ATTEMPTS = 3;
+
 	/**
 	 * The types of CTG schedules that can be used
 	 */
@@ -913,6 +959,9 @@ public class Properties {
 	@Parameter(key = "coverage_matrix_filename", group = "Output", description = "File to which the coverage matrix is written")
 	public static String COVERAGE_MATRIX_FILENAME = "matrix";
 
+	@Parameter(key = "mutation_kill_matrix", group = "Output", description = "If set, the mutation analysis of existing test suites runs one test at a time and records kills in this file, suffixed with the criterion (eg .MUTATION), as they happen; an interrupted analysis is resumed from it")
+	public static String MUTATION_KILL_MATRIX = null;
+
 	@Parameter(key = "junit_tests", group = "Output", description = "Create JUnit test suites")
 	public static boolean JUNIT_TESTS = true;
 
@@ -1068,6 +1117,12 @@ public class Properties {
 	@Parameter(key = "max_mutants_per_method", group = "Output", description = "How many mutants can be inserted into a single method")
 	public static int MAX_MUTANTS_PER_METHOD = 700;
 
+	@Parameter(key = "max_mutants_per_operator", group = "Output", description = "How many mutants of each mutation operator can be inserted into a single method, preferring the easiest to reach (0 = no limit)")
+	public static int MAX_MUTANTS_PER_OPERATOR = 0;
+
+	@Parameter(key = "remove_equivalent_mutants", group = "Output", description = "Do not instrument mutants whose bytecode is identical to the original instruction or to another mutant of the same instruction")
+	public static boolean REMOVE_EQUIVALENT_MUTANTS = false;
+
 	@Parameter(key = "max_mutants_per_class", group = "Output", description = "How many mutants can be used as target for a single class")
 	public static int MAX_MUTANTS_PER_CLASS = 1000;
 
@@ -1092,6 +1147,21 @@ public class Properties {
 	@Parameter(key = "new_statistics", group = "Output", description = "Use the new statistics backend on the master")
 	public static boolean NEW_STATISTICS = true;
 
+	@Parameter(key = "statistics_stream", group = "Output", description = "Send output variables and timeline values from clients to master as batched binary frames over a local socket, instead of one RMI call each")
+	public static boolean STATISTICS_STREAM = false;
+
+	@Parameter(key = "statistics_stream_buffer", group = "Output", description = "Maximum number of statistics records a client buffers before waiting for the master to read them")
+	public static int STATISTICS_STREAM_BUFFER = 1024;
+
+	@Parameter(key = "telemetry_file", group = "Output", description = "If set, record per-generation and periodic search metrics (evaluations, archive size, timeouts, GC and phase times) into this columnar file")
+	public static String TELEMETRY_FILE = null;
+
+	@Parameter(key = "telemetry_interval", group = "Output", description = "Interval in milliseconds between periodic telemetry samples")
+	public static long TELEMETRY_INTERVAL = 1000;
+
+	@Parameter(key = "profiling", group = "Output", description = "Measure the time spent in test execution, fitness computation, ranking, crowding distance, mutation, crossover, archive updates, class reset and sandbox checks. Can be switched while the search runs")
+	public static boolean PROFILING = false;
+
 	@Parameter(key = "ignore_missing_statistics", group = "Output", description = "Return an empty string for missing output variables")
 	public static boolean IGNORE_MISSING_STATISTICS = false;
 
@@ -1112,7 +1182,7 @@ public class Properties {
 
 
 	public enum StatisticsBackend {
-		NONE, CONSOLE, CSV, HTML, DEBUG;
+		NONE, CONSOLE, CSV, HTML, DEBUG, COLUMNAR;
 	}
 
 	@Parameter(key = "statistics_backend", group = "Output", description = "Which backend to use to collect data")
@@ -565,23 +565,10 @@ public class TestSuiteGenerator {
 		// first, let's just get rid of all the tests that do not compile
 		JUnitAnalyzer.removeTestsThatDoNotCompile(testCases);
 
-		// compile and run each test one at a time. and keep track of total time
+		// compile all tests at once, and run each test one at a time. and keep track of total time.
+		// if a test was unstable and deleted, it is removed from testCases
 		long start = java.lang.System.currentTimeMillis();
-		Iterator<TestCase> iter = testCases.iterator();
-		while (iter.hasNext()) {
-			if (!TimeController.getInstance().hasTimeToExecuteATestCase()) {
-				break;
-			}
-			TestCase tc = iter.next();
-			List<TestCase> list = new ArrayList<>();
-			list.add(tc);
-			numUnstable += JUnitAnalyzer.handleTestsThatAreUnstable(list);
-			if (list.isEmpty()) {
-				// if the test was unstable and deleted, need to remove it from
-				// final testSuite
-				iter.remove();
-			}
-		}
+		numUnstable += JUnitAnalyzer.handleEachTestThatIsUnstable(testCases);
 		/*
 		 * compiling and running each single test individually will take more
 		 * than compiling/running everything in on single suite. so it can be
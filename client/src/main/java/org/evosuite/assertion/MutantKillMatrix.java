@@ -0,0 +1,226 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.assertion;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.evosuite.coverage.mutation.Mutation;
+
+/**
+ * Kill relation between the assertions of a test and the mutants it executes.
+ *
+ * Each assertion is associated with a bitset over the indices of the executed
+ * mutants, so that each assertion/trace pair is checked with
+ * {@link OutputTrace#isDetectedBy(Assertion)} exactly once. Assertion
+ * minimization is then a greedy set cover over these bitsets.
+ */
+public class MutantKillMatrix {
+
+	private final List<Assertion> assertions;
+
+	private final List<Mutation> mutants;
+
+	/** One bitset over mutant indices per assertion index */
+	private final BitSet[] killedBy;
+
+	/**
+	 * Build the kill relation for the given assertions and mutants
+	 *
+	 * @param assertions
+	 *            all candidate assertions of the test
+	 * @param mutants
+	 *            the mutants executed by the test
+	 * @param mutationTraces
+	 *            the output traces observed on each mutant; mutants without
+	 *            traces are never considered killed
+	 */
+	public MutantKillMatrix(List<Assertion> assertions, List<Mutation> mutants,
+	        Map<Mutation, List<OutputTrace<?>>> mutationTraces) {
+		this.assertions = new ArrayList<>(assertions);
+		this.mutants = new ArrayList<>(mutants);
+		this.killedBy = new BitSet[this.assertions.size()];
+
+		for (int a = 0; a < killedBy.length; a++) {
+			killedBy[a] = new BitSet(this.mutants.size());
+		}
+
+		for (int m = 0; m < this.mutants.size(); m++) {
+			List<OutputTrace<?>> traces = mutationTraces.get(this.mutants.get(m));
+			if (traces == null)
+				continue;
+			for (int a = 0; a < killedBy.length; a++) {
+				Assertion assertion = this.assertions.get(a);
+				for (OutputTrace<?> trace : traces) {
+					if (trace.isDetectedBy(assertion)) {
+						killedBy[a].set(m);
+						break;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Number of assertions in the matrix
+	 *
+	 * @return a int.
+	 */
+	public int getNumAssertions() {
+		return killedBy.length;
+	}
+
+	/**
+	 * The assertion at the given index
+	 *
+	 * @param index
+	 *            a int.
+	 * @return a {@link org.evosuite.assertion.Assertion} object.
+	 */
+	public Assertion getAssertion(int index) {
+		return assertions.get(index);
+	}
+
+	/**
+	 * Mutants that are killed by the assertion at the given index
+	 *
+	 * @param index
+	 *            a int.
+	 * @return a {@link java.util.List} object.
+	 */
+	public List<Mutation> getKilledMutants(int index) {
+		List<Mutation> result = new ArrayList<>();
+		BitSet killed = killedBy[index];
+		for (int m = killed.nextSetBit(0); m >= 0; m = killed.nextSetBit(m + 1)) {
+			result.add(mutants.get(m));
+		}
+		return result;
+	}
+
+	/**
+	 * Ids of the mutants killed by the assertion at the given index
+	 *
+	 * @param index
+	 *            a int.
+	 * @return a {@link java.util.Set} object.
+	 */
+	public Set<Integer> getKilledMutantIds(int index) {
+		Set<Integer> result = new HashSet<>();
+		for (Mutation m : getKilledMutants(index)) {
+			result.add(m.getId());
+		}
+		return result;
+	}
+
+	/**
+	 * Number of distinct mutants killed by any of the given assertions.
+	 * Assertions that are not part of the matrix are ignored.
+	 *
+	 * @param selected
+	 *            a {@link java.util.Collection} object.
+	 * @return a int.
+	 */
+	public int getNumKilledMutants(Collection<Assertion> selected) {
+		Set<Assertion> lookup = new HashSet<>(selected);
+		Set<Integer> killed = new HashSet<>();
+		for (int a = 0; a < killedBy.length; a++) {
+			if (!lookup.contains(assertions.get(a)))
+				continue;
+			BitSet bits = killedBy[a];
+			for (int m = bits.nextSetBit(0); m >= 0; m = bits.nextSetBit(m + 1)) {
+				killed.add(mutants.get(m).getId());
+			}
+		}
+		return killed.size();
+	}
+
+	/**
+	 * Number of distinct mutants killed by all assertions of the matrix
+	 *
+	 * @return a int.
+	 */
+	public int getNumKillableMutants() {
+		return getNumKilledMutants(assertions);
+	}
+
+	/**
+	 * Greedy set cover: repeatedly pick the assertion that kills most of the
+	 * mutants not yet killed, until no assertion kills anything new. Ties are
+	 * broken in favour of primitive assertions, and then by the higher
+	 * assertion index.
+	 *
+	 * @return the selected assertions, in the order they were chosen
+	 */
+	public Set<Assertion> minimize() {
+		Set<Assertion> result = new LinkedHashSet<>();
+		BitSet remaining = new BitSet(mutants.size());
+		for (BitSet bits : killedBy) {
+			remaining.or(bits);
+		}
+
+		BitSet scratch = new BitSet(mutants.size());
+		while (!remaining.isEmpty()) {
+			int best = -1;
+			int bestKilled = 0;
+			for (int a = 0; a < killedBy.length; a++) {
+				scratch.clear();
+				scratch.or(killedBy[a]);
+				scratch.and(remaining);
+				int num = scratch.cardinality();
+				if (num == 0)
+					continue;
+				if (best < 0 || num > bestKilled
+				        || (num == bestKilled && isPreferredOver(a, best))) {
+					best = a;
+					bestKilled = num;
+				}
+			}
+			if (best < 0)
+				break;
+			result.add(assertions.get(best));
+			remaining.andNot(killedBy[best]);
+		}
+
+		return Collections.unmodifiableSet(result);
+	}
+
+	/**
+	 * Tie breaking of the greedy selection: primitive assertions rank highest,
+	 * otherwise the higher index wins
+	 */
+	private boolean isPreferredOver(int candidate, int current) {
+		Assertion first = assertions.get(candidate);
+		Assertion second = assertions.get(current);
+		if (first instanceof PrimitiveAssertion) {
+			return true;
+		} else if (second instanceof PrimitiveAssertion) {
+			return false;
+		} else {
+			return candidate > current;
+		}
+	}
+}
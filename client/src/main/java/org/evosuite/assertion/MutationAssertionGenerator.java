@@ -24,7 +24,6 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -44,7 +43,6 @@ import org.evosuite.testcase.execution.ExecutionResult;
 import org.evosuite.testcase.execution.TestCaseExecutor;
 import org.evosuite.testcase.execution.reset.ClassReInitializer;
 import org.evosuite.testcase.statements.ConstructorStatement;
-import org.evosuite.testcase.statements.FieldStatement;
 import org.evosuite.testcase.statements.MethodStatement;
 //import org.evosuite.testsuite.SearchStatistics;
 import org.evosuite.testsuite.TestSuiteChromosome;
@@ -224,41 +222,6 @@ public abstract class MutationAssertionGenerator extends AssertionGenerator {
 		}
 	}
 
-	/**
-	 * @param test
-	 * @param mutation_traces
-	 * @param executedMutants
-	 * @return
-	 */
-	protected int getNumKilledMutants(TestCase test, Map<Mutation, List<OutputTrace<?>>> mutation_traces,
-			List<Mutation> executedMutants) {
-		List<Assertion> assertions;
-		Set<Integer> killed = new HashSet<>();
-		assertions = test.getAssertions();
-		for (Assertion assertion : assertions) {
-			for (Mutation m : executedMutants) {
-
-				boolean isKilled = false;
-				if (mutation_traces.containsKey(m)) {
-					int i = 0;
-					for (OutputTrace<?> trace : mutation_traces.get(m)) {
-						isKilled = trace.isDetectedBy(assertion);
-						if (isKilled) {
-							logger.debug("Mutation killed: " + m.getId() + " by trace " + i++);
-							killed.add(m.getId());
-							break;
-						}
-						i++;
-					}
-				} else {
-					isKilled = true;
-				}
-			}
-		}
-		logger.debug("Killed mutants: " + killed);
-		return killed.size();
-	}
-
 	/**
 	 * Returns true if the statement has nothing but null assertions
 	 * 
@@ -314,29 +277,6 @@ public abstract class MutationAssertionGenerator extends AssertionGenerator {
 		}
 	}
 
-	/**
-	 * Returns true if the variable var is used as callee later on in the test
-	 * 
-	 * @param test
-	 * @param var
-	 * @return
-	 */
-	protected boolean isUsedAsCallee(TestCase test, VariableReference var) {
-		for (int pos = var.getStPosition() + 1; pos < test.size(); pos++) {
-			Statement statement = test.getStatement(pos);
-			if (statement instanceof MethodStatement) {
-				if (((MethodStatement) statement).getCallee() == var)
-					return true;
-			} else if (statement instanceof FieldStatement) {
-				if (((FieldStatement) statement).getSource() == var)
-					return true;
-			}
-
-		}
-
-		return false;
-	}
-
 	/**
 	 * Remove assertNonNull assertions for all cases where we have further
 	 * assertions
@@ -348,16 +288,25 @@ public abstract class MutationAssertionGenerator extends AssertionGenerator {
 		for (Statement statement : test) {
 			if (statement instanceof ConstructorStatement) {
 				ConstructorStatement cs = (ConstructorStatement) statement;
-				for (Assertion a : cs.getAssertions()) {
+				Set<Assertion> assertions = cs.getAssertions();
+				if (assertions.isEmpty())
+					continue;
+
+				// Whether there is any assertion on the constructed object does
+				// not depend on the null assertion, so only check it once
+				boolean hasAssertionOnReturnValue = false;
+				for (Assertion a2 : assertions) {
+					if (a2.getSource() == cs.getReturnValue()) {
+						hasAssertionOnReturnValue = true;
+						break;
+					}
+				}
+				if (!hasAssertionOnReturnValue)
+					continue;
+
+				for (Assertion a : assertions) {
 					if (a instanceof NullAssertion) {
-						if (cs.getAssertions().size() > 0) {
-							for (Assertion a2 : cs.getAssertions()) {
-								if (a2.getSource() == cs.getReturnValue())
-									redundantAssertions.add(a);
-							}
-						} else if (isUsedAsCallee(test, cs.getReturnValue())) {
-							redundantAssertions.add(a);
-						}
+						redundantAssertions.add(a);
 					}
 				}
 			}
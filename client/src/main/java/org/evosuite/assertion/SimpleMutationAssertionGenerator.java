@@ -21,13 +21,11 @@ package org.evosuite.assertion;
 
 import java.lang.reflect.Method;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.Map.Entry;
 
 import org.evosuite.Properties;
 import org.evosuite.TimeController;
@@ -240,38 +238,20 @@ public class SimpleMutationAssertionGenerator extends MutationAssertionGenerator
 
 		List<Assertion> assertions = test.getAssertions();
 		logger.info("Got " + assertions.size() + " assertions");
-		Map<Integer, Set<Integer>> killMap = new HashMap<>();
-		int num = 0;
-		for (Assertion assertion : assertions) {
-			Set<Integer> killedMutations = new HashSet<>();
-			for (Mutation m : executedMutants) {
-
-				boolean isKilled = false;
-				if (mutationTraces.containsKey(m)) {
-					for (OutputTrace<?> trace : mutationTraces.get(m)) {
-						if (trace.isDetectedBy(assertion)) {
-							isKilled = true;
-							break;
-						}
-					}
-				}
-				if (isKilled) {
-					killedMutations.add(m.getId());
-					assertion.addKilledMutation(m);
-				}
+		MutantKillMatrix killMatrix = new MutantKillMatrix(assertions, executedMutants, mutationTraces);
+		for (int num = 0; num < killMatrix.getNumAssertions(); num++) {
+			Assertion assertion = killMatrix.getAssertion(num);
+			for (Mutation m : killMatrix.getKilledMutants(num)) {
+				assertion.addKilledMutation(m);
 			}
-			killMap.put(num, killedMutations);
-			//logger.info("Assertion " + num + " kills mutants " + killedMutations);
-			num++;
 		}
 
-		int killedBefore = getNumKilledMutants(test, mutationTraces, executedMutants);
+		int killedBefore = killMatrix.getNumKillableMutants();
 
 		logger.debug("Need to kill mutants: " + killedBefore);
-		logger.debug(killMap.toString());
-		minimize(test, executedMutants, assertions, killMap);
+		minimize(test, killMatrix);
 
-		int killedAfter = getNumKilledMutants(test, mutationTraces, executedMutants);
+		int killedAfter = killMatrix.getNumKilledMutants(test.getAssertions());
 
 		int s2 = killed.size() - s1;
 		assert (killedBefore == killedAfter) : "Mutants killed before / after / should be: "
@@ -442,88 +422,18 @@ public class SimpleMutationAssertionGenerator extends MutationAssertionGenerator
 	 * 
 	 * @param test
 	 *            The test case that should be executed
-	 * @param mutants
-	 *            The list of mutants of the unit
-	 * @param assertions
-	 *            All assertions that can be generated for the test case
-	 * @param killMap
-	 *            Mapping of assertion to mutant ids that are killed by the
-	 *            assertion
+	 * @param killMatrix
+	 *            Kill relation between all assertions that can be generated
+	 *            for the test case and the executed mutants
 	 */
-	private void minimize(TestCase test, List<Mutation> mutants,
-	        final List<Assertion> assertions, Map<Integer, Set<Integer>> killMap) {
+	private void minimize(TestCase test, MutantKillMatrix killMatrix) {
 
-		class Pair implements Comparable<Object> {
-			Integer assertion;
-			Integer num_killed;
-
-			public Pair(int a, int k) {
-				assertion = a;
-				num_killed = k;
-			}
-
-			@Override
-			public int compareTo(Object o) {
-				Pair other = (Pair) o;
-				if (num_killed.equals(other.num_killed)) {
-					Assertion first = assertions.get(assertion);
-					Assertion second = assertions.get(other.assertion);
-					if (first instanceof PrimitiveAssertion) {
-						return 1;
-					} else if (second instanceof PrimitiveAssertion) {
-						return -1;
-					} else {
-						return assertion.compareTo(other.assertion);
-					}
-				}
-				// return assertion.compareTo(other.assertion);
-				//				return other.assertion.compareTo(assertion);
-				else
-					return num_killed.compareTo(other.num_killed);
-			}
-		}
-		Set<Integer> to_kill = new HashSet<>();
-		for (Entry<Integer, Set<Integer>> entry : killMap.entrySet()) {
-			to_kill.addAll(entry.getValue());
-		}
-		logger.debug("Need to kill mutants: " + to_kill.size());
-
-		Set<Integer> killed = new HashSet<>();
-		Set<Assertion> result = new HashSet<>();
-
-		boolean done = false;
-		while (!done) {
-			// logger.info("Have to kill "+to_kill.size());
-			List<Pair> a = new ArrayList<>();
-			for (Entry<Integer, Set<Integer>> entry : killMap.entrySet()) {
-				int num = 0;
-				for (Integer m : entry.getValue()) {
-					if (!killed.contains(m))
-						num++;
-				}
-				if (num > 0) {
-					a.add(new Pair(entry.getKey(), num));
-				}
-			}
-			if (a.isEmpty())
-				done = true;
-			else {
-				Pair best = Collections.max(a);
-				// logger.info("Chosen "+best.assertion);
-				result.add(assertions.get(best.assertion));
-				for (Integer m : killMap.get(best.assertion)) {
-					// logger.info("Killed "+m);
-					killed.add(m);
-					to_kill.remove(m);
-				}
-			}
-		}
-		logger.debug("Killed mutants: " + killed.size());
+		Set<Assertion> result = killMatrix.minimize();
 
 		// sort by number of assertions killed
 		// pick assertion that kills most
 		// remove all mutations that are already killed
-		logger.debug("Minimized assertions from " + assertions.size() + " to "
+		logger.debug("Minimized assertions from " + killMatrix.getNumAssertions() + " to "
 		        + result.size());
 
 		if (!result.isEmpty()) {
@@ -57,6 +57,7 @@ public class MutationPool {
 	// maps the mutationIDs assigned by this pool to their respective Mutations
 	private Map<Integer, Mutation> mutationIdMap = new LinkedHashMap<>();
 
+	// the next mutation ID; mutants may have been removed since, see getMutantCounter()
 	private int numMutations = 0;
 
 	public Mutation addMutation(String className, String methodName,
@@ -129,6 +130,22 @@ public class MutationPool {
 		return mutationIdMap.get(id);
 	}
 
+	/**
+	 * Remove a single mutant, e.g. because it was not selected for
+	 * instrumentation. Ids of other mutants are not affected.
+	 *
+	 * @param mutation a {@link org.evosuite.coverage.mutation.Mutation} object.
+	 */
+	public void removeMutation(Mutation mutation) {
+		mutationIdMap.remove(mutation.getId());
+		Map<String, List<Mutation>> methods = mutationMap.get(mutation.getClassName());
+		if (methods == null)
+			return;
+		List<Mutation> mutants = methods.get(mutation.getMethodName());
+		if (mutants != null)
+			mutants.remove(mutation);
+	}
+
 	/**
 	 * Remove all known mutants
 	 */
@@ -144,6 +161,6 @@ public class MutationPool {
 	 * @return The number of currently known mutants
 	 */
 	public int getMutantCounter() {
-		return numMutations;
+		return mutationIdMap.size();
 	}
 }
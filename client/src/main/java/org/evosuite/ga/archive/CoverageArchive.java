@@ -22,6 +22,7 @@ package org.evosuite.ga.archive;
 import org.evosuite.Properties;
 import org.evosuite.ga.FitnessFunction;
 import org.evosuite.runtime.util.AtMostOnceLogger;
+import org.evosuite.statistics.profiling.Profiler;
 import org.evosuite.testcase.TestChromosome;
 import org.evosuite.testcase.TestFitnessFunction;
 import org.evosuite.testcase.execution.ExecutionResult;
@@ -89,22 +90,27 @@ public class CoverageArchive extends Archive {
       return;
     }
 
-    boolean isNewCoveredTarget = false;
-    boolean isNewSolutionBetterThanCurrent = false;
+    long start = Profiler.start();
+    try {
+      boolean isNewCoveredTarget = false;
+      boolean isNewSolutionBetterThanCurrent = false;
 
-    TestChromosome currentSolution = this.covered.get(target);
+      TestChromosome currentSolution = this.covered.get(target);
 
-    if (currentSolution == null) {
-      logger.debug("Solution for non-covered target '" + target + "'");
-      isNewCoveredTarget = true;
-    } else {
-      isNewSolutionBetterThanCurrent = this.isBetterThanCurrent(currentSolution, solution);
-    }
+      if (currentSolution == null) {
+        logger.debug("Solution for non-covered target '" + target + "'");
+        isNewCoveredTarget = true;
+      } else {
+        isNewSolutionBetterThanCurrent = this.isBetterThanCurrent(currentSolution, solution);
+      }
 
-    if (isNewCoveredTarget || isNewSolutionBetterThanCurrent) {
-      // update the archive if a new target has been covered, or if solution covers already existing
-      // covered targets but it has been considered a better solution
-      this.addToArchive(target, solution);
+      if (isNewCoveredTarget || isNewSolutionBetterThanCurrent) {
+        // update the archive if a new target has been covered, or if solution covers already existing
+        // covered targets but it has been considered a better solution
+        this.addToArchive(target, solution);
+      }
+    } finally {
+      Profiler.stop(Profiler.Section.ARCHIVE_UPDATE, start);
     }
   }
 
@@ -32,6 +32,7 @@ import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 import org.evosuite.Properties;
 import org.evosuite.ga.FitnessFunction;
+import org.evosuite.statistics.profiling.Profiler;
 import org.evosuite.testcase.TestChromosome;
 import org.evosuite.testcase.TestFitnessFunction;
 import org.evosuite.testcase.execution.ExecutionResult;
@@ -84,18 +85,22 @@ public class MIOArchive extends Archive {
   public void updateArchive(TestFitnessFunction target, TestChromosome solution, double fitnessValue) {
     super.updateArchive(target, solution, fitnessValue);
     assert this.archive.containsKey(target);
+    long start = Profiler.start();
+    try {
+      ExecutionResult executionResult = solution.getLastExecutionResult();
+      // remove all statements after an exception
+      if (!executionResult.noThrownExceptions()) {
+        solution.getTestCase().chop(executionResult.getFirstPositionOfThrownException() + 1);
+      }
 
-    ExecutionResult executionResult = solution.getLastExecutionResult();
-    // remove all statements after an exception
-    if (!executionResult.noThrownExceptions()) {
-      solution.getTestCase().chop(executionResult.getFirstPositionOfThrownException() + 1);
-    }
-
-    boolean isNewCoveredTarget = this.archive.get(target)
-        .addSolution(1.0 - FitnessFunction.normalize(fitnessValue), solution);
-    if (isNewCoveredTarget) {
-      this.removeNonCoveredTargetOfAMethod(target);
-      this.hasBeenUpdated = true;
+      boolean isNewCoveredTarget = this.archive.get(target)
+          .addSolution(1.0 - FitnessFunction.normalize(fitnessValue), solution);
+      if (isNewCoveredTarget) {
+        this.removeNonCoveredTargetOfAMethod(target);
+        this.hasBeenUpdated = true;
+      }
+    } finally {
+      Profiler.stop(Profiler.Section.ARCHIVE_UPDATE, start);
     }
   }
 
@@ -28,6 +28,7 @@ import java.io.Serializable;
 import java.text.DecimalFormat;
 import java.util.*;
 
+import org.evosuite.ClientProcess;
 import org.evosuite.Properties;
 import org.evosuite.Properties.Algorithm;
 import org.evosuite.ga.Chromosome;
@@ -42,13 +43,19 @@ import org.evosuite.ga.operators.crossover.CrossOverFunction;
 import org.evosuite.ga.operators.crossover.SinglePointCrossOver;
 import org.evosuite.ga.operators.ranking.RankBasedPreferenceSorting;
 import org.evosuite.ga.operators.ranking.RankingFunction;
+import org.evosuite.ga.operators.selection.BestKSelection;
+import org.evosuite.ga.operators.selection.RandomKSelection;
 import org.evosuite.ga.operators.selection.RankSelection;
 import org.evosuite.ga.operators.selection.SelectionFunction;
 import org.evosuite.ga.populationlimit.IndividualPopulationLimit;
 import org.evosuite.ga.populationlimit.PopulationLimit;
 import org.evosuite.ga.stoppingconditions.MaxGenerationStoppingCondition;
 import org.evosuite.ga.stoppingconditions.StoppingCondition;
+import org.evosuite.rmi.ClientServices;
+import org.evosuite.rmi.service.MigrantBatch;
+import org.evosuite.statistics.profiling.Profiler;
 import org.evosuite.symbolic.DSEStats;
+import org.evosuite.testcase.TestChromosome;
 import org.evosuite.testcase.execution.ExecutionTracer;
 import org.evosuite.testsuite.TestSuiteChromosome;
 import org.evosuite.utils.ArrayUtil;
@@ -83,6 +90,12 @@ public abstract class GeneticAlgorithm<T extends Chromosome<T>> implements Searc
      */
     protected SelectionFunction<T> selectionFunction = new RankSelection<>();
 
+    /**
+     * Selects the individuals sent to other clients in a parallel run, see
+     * {@link Properties#EMIGRANT_SELECTION_FUNCTION}. Created on first use.
+     */
+    private SelectionFunction<T> emigrantsSelection;
+
     /**
      * CrossOver function
      */
@@ -588,7 +601,12 @@ public abstract class GeneticAlgorithm<T extends Chromosome<T>> implements Searc
      */
     protected void calculateFitness(T c) {
         fitnessFunctions.forEach(ff -> {
-            ff.getFitness(c);
+            long start = Profiler.start();
+            try {
+                ff.getFitness(c);
+            } finally {
+                Profiler.stopFitness(ff, start);
+            }
             notifyEvaluation(c);
         });
     }
@@ -864,6 +882,117 @@ public abstract class GeneticAlgorithm<T extends Chromosome<T>> implements Searc
         return Collections.unmodifiableList(population);
     }
 
+    /**
+     * Whether this search exchanges individuals with the other clients of a
+     * parallel run
+     */
+    protected boolean isMigrationEnabled() {
+        return Properties.NUM_PARALLEL_CLIENTS > 1 && Properties.MIGRANTS_ITERATION_FREQUENCY > 0;
+    }
+
+    /**
+     * Sends some individuals of the population to other clients, every
+     * {@link Properties#MIGRANTS_ITERATION_FREQUENCY} generations. The
+     * individuals are encoded here and sent in the background.
+     */
+    protected void emigrate() {
+        if (!isMigrationEnabled() || population.isEmpty()
+                || (currentIteration + 1) % Properties.MIGRANTS_ITERATION_FREQUENCY != 0)
+            return;
+
+        Set<T> emigrants = new LinkedHashSet<>(selectEmigrants());
+        if (emigrants.isEmpty())
+            return;
+        MigrantBatch batch = MigrantBatch.of(ClientProcess.getIdentifier(), emigrants);
+        ClientServices.<T>getInstance().getClientNode().emigrate(batch);
+    }
+
+    /**
+     * @return the individuals to send to other clients
+     */
+    protected List<T> selectEmigrants() {
+        if (emigrantsSelection == null) {
+            switch (Properties.EMIGRANT_SELECTION_FUNCTION) {
+                case RANK:
+                    emigrantsSelection = new RankSelection<>();
+                    break;
+                case RANDOMK:
+                    emigrantsSelection = new RandomKSelection<>();
+                    break;
+                default:
+                    emigrantsSelection = new BestKSelection<>();
+            }
+        }
+        return emigrantsSelection.select(population, Properties.MIGRANTS_COMMUNICATION_RATE);
+    }
+
+    /**
+     * Takes the individuals received from other clients since the last call,
+     * and evaluates them. This also updates the archive with the goals they
+     * cover.
+     *
+     * @return the evaluated immigrants, possibly none
+     */
+    protected List<T> receiveImmigrants() {
+        if (!isMigrationEnabled())
+            return Collections.emptyList();
+        List<MigrantBatch> batches = ClientServices.<T>getInstance().getClientNode().pollImmigrants();
+        if (batches.isEmpty())
+            return Collections.emptyList();
+
+        List<T> immigrants = new ArrayList<>();
+        for (MigrantBatch batch : batches) {
+            for (T immigrant : decodeImmigrants(batch)) {
+                if (isFinished())
+                    return immigrants;
+                calculateFitness(immigrant);
+                immigrants.add(immigrant);
+            }
+        }
+        logger.debug("Received {} immigrants", immigrants.size());
+        return immigrants;
+    }
+
+    /**
+     * Creates individuals of the type of this search from received migrants
+     *
+     * @param batch the received migrants
+     * @return new individuals, not yet evaluated
+     */
+    @SuppressWarnings("unchecked")
+    protected List<T> decodeImmigrants(MigrantBatch batch) {
+        if (population.isEmpty())
+            return Collections.emptyList();
+        T sample = population.get(0);
+        if (sample instanceof TestChromosome)
+            return (List<T>) batch.toTestChromosomes();
+        if (sample instanceof TestSuiteChromosome)
+            return (List<T>) batch.toTestSuiteChromosomes((ChromosomeFactory<TestChromosome>)
+                    ((TestSuiteChromosome) sample).getTestChromosomeFactory());
+        return Collections.emptyList();
+    }
+
+    /**
+     * Island-model migration for single-objective searches, to be called at
+     * the end of a generation on an evaluated population: sends emigrants if
+     * it is time to, and lets received immigrants replace the worst
+     * individuals.
+     */
+    protected void migrate() {
+        if (!isMigrationEnabled())
+            return;
+        emigrate();
+
+        List<T> immigrants = receiveImmigrants();
+        if (immigrants.isEmpty())
+            return;
+        sortPopulation();
+        int replaced = Math.min(immigrants.size(), population.size() / 2);
+        for (int i = 0; i < replaced; i++)
+            population.set(population.size() - 1 - i, immigrants.get(i));
+        sortPopulation();
+    }
+
     /**
      * Determine if the next generation has reached its size limit
      *
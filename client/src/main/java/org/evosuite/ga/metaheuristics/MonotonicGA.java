@@ -181,6 +181,9 @@ public class MonotonicGA<T extends Chromosome<T>> extends GeneticAlgorithm<T> {
 		// archive
 		updateFitnessFunctionsAndValues();
 
+		// for parallel runs: exchange individuals with other clients
+		migrate();
+
 		currentIteration++;
 	}
 
@@ -143,6 +143,8 @@ public class StandardGA<T extends Chromosome<T>> extends GeneticAlgorithm<T> {
 			evolve();
 			// Determine fitness
 			calculateFitnessAndSortPopulation();
+			// for parallel runs: exchange individuals with other clients
+			migrate();
 
 			applyLocalSearch();
 
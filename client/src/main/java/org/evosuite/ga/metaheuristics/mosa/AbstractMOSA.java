@@ -29,6 +29,7 @@ import org.evosuite.ga.FitnessFunction;
 import org.evosuite.ga.archive.Archive;
 import org.evosuite.ga.comparators.DominanceComparator;
 import org.evosuite.ga.metaheuristics.GeneticAlgorithm;
+import org.evosuite.statistics.profiling.Profiler;
 import org.evosuite.testcase.TestCase;
 import org.evosuite.testcase.TestChromosome;
 import org.evosuite.testcase.TestFitnessFunction;
@@ -414,6 +415,23 @@ public abstract class AbstractMOSA extends GeneticAlgorithm<TestChromosome> {
 		return new ArrayList<>(Archive.getArchiveInstance().getSolutions());
 	}
 
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Besides individuals of the population, also sends some tests of the archive, so that the
+	 * receiving client covers the same goals and can focus on the others.
+	 */
+	@Override
+	protected List<TestChromosome> selectEmigrants() {
+		List<TestChromosome> emigrants = new ArrayList<>(super.selectEmigrants());
+		if (Properties.TEST_ARCHIVE) {
+			List<TestChromosome> solutions = this.getSolutions();
+			Randomness.shuffle(solutions);
+			emigrants.addAll(solutions.subList(0, Math.min(solutions.size(), Properties.MIGRANTS_COMMUNICATION_RATE)));
+		}
+		return emigrants;
+	}
+
 	/**
 	 * Generates a {@link org.evosuite.testsuite.TestSuiteChromosome} object with all test cases
 	 * in the archive.
@@ -483,7 +501,14 @@ public abstract class AbstractMOSA extends GeneticAlgorithm<TestChromosome> {
 	 */
 	@Override
 	protected void calculateFitness(TestChromosome c) {
-		this.fitnessFunctions.forEach(fitnessFunction -> fitnessFunction.getFitness(c));
+		this.fitnessFunctions.forEach(fitnessFunction -> {
+			long start = Profiler.start();
+			try {
+				fitnessFunction.getFitness(c);
+			} finally {
+				Profiler.stopFitness(fitnessFunction, start);
+			}
+		});
 
 		// if one of the coverage criterion is Criterion.EXCEPTION, then we have to analyse the results
 		// of the execution to look for generated exceptions
@@ -27,6 +27,7 @@ import org.evosuite.ga.comparators.OnlyCrowdingComparator;
 import org.evosuite.ga.metaheuristics.mosa.structural.MultiCriteriaManager;
 import org.evosuite.ga.operators.ranking.CrowdingDistance;
 import org.evosuite.kex.KexTestGenerator;
+import org.evosuite.statistics.telemetry.Telemetry;
 import org.evosuite.testcase.TestCase;
 import org.evosuite.testcase.TestChromosome;
 import org.evosuite.utils.LoggingUtils;
@@ -126,6 +127,8 @@ public class DynaMOSA extends AbstractMOSA {
 			statLogger.debug("Kex generation time: {}", endTime - endExecutionTime);
 			statLogger.debug("Kex execution time: {}", endExecutionTime - startTime);
 			statLogger.debug("Kex iteration time: {}", endTime - startTime);
+			Telemetry.addPhaseTime(Telemetry.Phase.KEX_EXECUTION, endExecutionTime - startTime);
+			Telemetry.addPhaseTime(Telemetry.Phase.KEX_GENERATION, endTime - endExecutionTime);
 
 			if (additional.isEmpty()) {
 				return;
@@ -145,6 +148,9 @@ public class DynaMOSA extends AbstractMOSA {
 		union.addAll(this.population);
 		union.addAll(offspringPopulation);
 
+		// for parallel runs: integrate possible immigrants
+		union.addAll(this.receiveImmigrants());
+
 		// Ranking the union
 		logger.debug("Union Size = {}", union.size());
 
@@ -195,6 +201,9 @@ public class DynaMOSA extends AbstractMOSA {
 			}
 		}
 
+		// for parallel runs: send some individuals to other clients
+		this.emigrate();
+
 		this.currentIteration++;
 		//logger.debug("N. fronts = {}", ranking.getNumberOfSubfronts());
 		//logger.debug("1* front size = {}", ranking.getSubfront(0).size());
@@ -24,21 +24,15 @@ import org.evosuite.Properties;
 import org.evosuite.ga.ChromosomeFactory;
 import org.evosuite.ga.comparators.OnlyCrowdingComparator;
 import org.evosuite.ga.operators.ranking.CrowdingDistance;
-import org.evosuite.ga.operators.selection.BestKSelection;
-import org.evosuite.ga.operators.selection.RandomKSelection;
-import org.evosuite.ga.operators.selection.RankSelection;
-import org.evosuite.ga.operators.selection.SelectionFunction;
 import org.evosuite.rmi.ClientServices;
 import org.evosuite.rmi.service.ClientNodeLocal;
 import org.evosuite.statistics.RuntimeVariable;
 import org.evosuite.testcase.TestChromosome;
 import org.evosuite.testcase.TestFitnessFunction;
-import org.evosuite.utils.Listener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Implementation of the Many-Objective Sorting Algorithm (MOSA) described in the
@@ -52,12 +46,6 @@ public class MOSA extends AbstractMOSA {
 
 	private static final Logger logger = LoggerFactory.getLogger(MOSA.class);
 
-	/** immigrant groups from neighbouring client */
-	private final ConcurrentLinkedQueue<List<TestChromosome>> immigrants =
-			new ConcurrentLinkedQueue<>();
-
-	private final SelectionFunction<TestChromosome> emigrantsSelection;
-
 	/** Crowding distance measure to use */
 	protected CrowdingDistance<TestChromosome> distance = new CrowdingDistance<>();
 
@@ -67,17 +55,6 @@ public class MOSA extends AbstractMOSA {
 	 */
 	public MOSA(ChromosomeFactory<TestChromosome> factory) {
 		super(factory);
-
-		switch (Properties.EMIGRANT_SELECTION_FUNCTION) {
-			case RANK:
-				this.emigrantsSelection = new RankSelection<>();
-				break;
-			case RANDOMK:
-				this.emigrantsSelection = new RandomKSelection<>();
-				break;
-			default:
-				this.emigrantsSelection = new BestKSelection<>();
-		}
 	}
 
 	/**
@@ -93,9 +70,7 @@ public class MOSA extends AbstractMOSA {
 		union.addAll(offspringPopulation);
 
 		// for parallel runs: integrate possible immigrants
-		if (Properties.NUM_PARALLEL_CLIENTS > 1 && !immigrants.isEmpty()) {
-			union.addAll(immigrants.poll());
-		}
+		union.addAll(this.receiveImmigrants());
 
 		Set<TestFitnessFunction> uncoveredGoals = this.getUncoveredGoals();
 
@@ -139,14 +114,8 @@ public class MOSA extends AbstractMOSA {
 			remain = 0;
 		}
 
-		// for parallel runs: collect best k individuals for migration
-		if (Properties.NUM_PARALLEL_CLIENTS > 1 && Properties.MIGRANTS_ITERATION_FREQUENCY > 0) {
-			if ((currentIteration + 1) % Properties.MIGRANTS_ITERATION_FREQUENCY == 0 && !this.population.isEmpty()) {
-				HashSet<TestChromosome> emigrants = new HashSet<>(emigrantsSelection.select(this.population,
-						Properties.MIGRANTS_COMMUNICATION_RATE));
-				ClientServices.<TestChromosome>getInstance().getClientNode().emigrate(emigrants);
-			}
-		}
+		// for parallel runs: send some individuals to other clients
+		this.emigrate();
 
 		this.currentIteration++;
 	}
@@ -175,12 +144,6 @@ public class MOSA extends AbstractMOSA {
 		final ClientNodeLocal<TestChromosome> clientNode =
 				ClientServices.<TestChromosome>getInstance().getClientNode();
 
-		Listener<Set<TestChromosome>> listener = null;
-		if (Properties.NUM_PARALLEL_CLIENTS > 1) {
-			listener = event -> immigrants.add(new LinkedList<>(event));
-			clientNode.addListener(listener);
-		}
-
 		// TODO add here dynamic stopping condition
 		while (!this.isFinished() && this.getNumberOfUncoveredGoals() > 0) {
 			this.evolve();
@@ -188,8 +151,6 @@ public class MOSA extends AbstractMOSA {
 		}
 
 		if (Properties.NUM_PARALLEL_CLIENTS > 1) {
-			clientNode.deleteListener(listener);
-
 			if (ClientProcess.DEFAULT_CLIENT_NAME.equals(ClientProcess.getIdentifier())) {
 				//collect all end result test cases
 				Set<Set<TestChromosome>> collectedSolutions = clientNode.getBestSolutions();
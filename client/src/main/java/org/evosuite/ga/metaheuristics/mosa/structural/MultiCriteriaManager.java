@@ -46,6 +46,7 @@ import org.evosuite.graphs.cfg.ControlDependency;
 import org.evosuite.setup.CallContext;
 import org.evosuite.setup.DependencyAnalysis;
 import org.evosuite.setup.callgraph.CallGraph;
+import org.evosuite.statistics.profiling.Profiler;
 import org.evosuite.testcase.TestCase;
 import org.evosuite.testcase.TestChromosome;
 import org.evosuite.testcase.TestFitnessFunction;
@@ -416,7 +417,13 @@ public class MultiCriteriaManager extends StructuralGoalManager implements Seria
 			if (pastSize == visitedTargets.size())
 				continue;
 
-			double fitness = target.getFitness(c);
+			double fitness;
+			long start = Profiler.start();
+			try {
+				fitness = target.getFitness(c);
+			} finally {
+				Profiler.stopFitness(target, start);
+			}
 
 			/*
 			 * Checks if the current test target has been reached and, in accordance, marks it as
@@ -25,6 +25,7 @@ import java.util.Set;
 import org.evosuite.ga.Chromosome;
 import org.evosuite.ga.FitnessFunction;
 import org.evosuite.ga.comparators.SortByFitness;
+import org.evosuite.statistics.profiling.Profiler;
 
 /**
  * This class implements different variants of Crowding Distance for many-objective problems
@@ -56,29 +57,34 @@ public class CrowdingDistance<T extends Chromosome<T>> implements Serializable {
 			return;
 		}
 
-		front.forEach(t -> t.setDistance(0.0));
+		long start = Profiler.start();
+		try {
+			front.forEach(t -> t.setDistance(0.0));
 
-		double objetiveMaxn;
-		double objetiveMinn;
-		double distance;
+			double objetiveMaxn;
+			double objetiveMinn;
+			double distance;
 
-		for (final FitnessFunction<T> ff : set) {
-			// Sort the population by Fit n
-			front.sort(new SortByFitness<>(ff, false));
+			for (final FitnessFunction<T> ff : set) {
+				// Sort the population by Fit n
+				front.sort(new SortByFitness<>(ff, false));
 
-			objetiveMinn = front.get(0).getFitness(ff);
-			objetiveMaxn = front.get(front.size() - 1).getFitness(ff);
+				objetiveMinn = front.get(0).getFitness(ff);
+				objetiveMaxn = front.get(front.size() - 1).getFitness(ff);
 
-			// set crowding distance
-			front.get(0).setDistance(Double.POSITIVE_INFINITY);
-			front.get(size - 1).setDistance(Double.POSITIVE_INFINITY);
+				// set crowding distance
+				front.get(0).setDistance(Double.POSITIVE_INFINITY);
+				front.get(size - 1).setDistance(Double.POSITIVE_INFINITY);
 
-			for (int j = 1; j < size - 1; j++) {
-				distance = front.get(j + 1).getFitness(ff) - front.get(j - 1).getFitness(ff);
-				distance = distance / (objetiveMaxn - objetiveMinn);
-				distance += front.get(j).getDistance();
-				front.get(j).setDistance(distance);
+				for (int j = 1; j < size - 1; j++) {
+					distance = front.get(j + 1).getFitness(ff) - front.get(j - 1).getFitness(ff);
+					distance = distance / (objetiveMaxn - objetiveMinn);
+					distance += front.get(j).getDistance();
+					front.get(j).setDistance(distance);
+				}
 			}
+		} finally {
+			Profiler.stop(Profiler.Section.CROWDING_DISTANCE, start);
 		}
 	}
 
@@ -99,26 +105,31 @@ public class CrowdingDistance<T extends Chromosome<T>> implements Serializable {
 			return;
 		}
 
-		front.forEach(t -> t.setDistance(Double.MAX_VALUE));
-
-		int dominate1, dominate2;
-		for (int i = 0; i<front.size()-1; i++){
-			T p1 = front.get(i);
-			for (int j = i+1; j<front.size(); j++){
-				T p2 = front.get(j);
-				dominate1 = 0;
-				dominate2 = 0;
-				for (final FitnessFunction<T> ff : set) {
-					double value1 = p1.getFitness(ff);
-					double value2 = p2.getFitness(ff);
-					if (value1 < value2)
-						dominate1++;
-					else if (value1 > value2)
-						dominate2++;
+		long start = Profiler.start();
+		try {
+			front.forEach(t -> t.setDistance(Double.MAX_VALUE));
+
+			int dominate1, dominate2;
+			for (int i = 0; i<front.size()-1; i++){
+				T p1 = front.get(i);
+				for (int j = i+1; j<front.size(); j++){
+					T p2 = front.get(j);
+					dominate1 = 0;
+					dominate2 = 0;
+					for (final FitnessFunction<T> ff : set) {
+						double value1 = p1.getFitness(ff);
+						double value2 = p2.getFitness(ff);
+						if (value1 < value2)
+							dominate1++;
+						else if (value1 > value2)
+							dominate2++;
+					}
+					p1.setDistance(Math.min(dominate1, p1.getDistance()));
+					p2.setDistance(Math.min(dominate2, p2.getDistance()));
 				}
-				p1.setDistance(Math.min(dominate1, p1.getDistance()));
-				p2.setDistance(Math.min(dominate2, p2.getDistance()));
 			}
+		} finally {
+			Profiler.stop(Profiler.Section.CROWDING_DISTANCE, start);
 		}
 	}
 
@@ -133,35 +144,40 @@ public class CrowdingDistance<T extends Chromosome<T>> implements Serializable {
 	 * @param set set of goals/targets (e.g., branches) to consider
 	 */
 	public void fastEpsilonDominanceAssignment(List<T> front, Set<? extends FitnessFunction<T>> set) {
-		double value;
-		front.forEach(test -> test.setDistance(0));
-
-		for (final FitnessFunction<T> ff : set) {
-			double min = Double.POSITIVE_INFINITY;
-			List<T> minSet = new ArrayList<>(front.size());
-			double max = 0;
-			for (T test : front){
-				value = test.getFitness(ff);
-				if (value < min){
-					min = value;
-					minSet.clear();
-					minSet.add(test);
-				} else if (value == min)
-					minSet.add(test);
+		long start = Profiler.start();
+		try {
+			double value;
+			front.forEach(test -> test.setDistance(0));
+
+			for (final FitnessFunction<T> ff : set) {
+				double min = Double.POSITIVE_INFINITY;
+				List<T> minSet = new ArrayList<>(front.size());
+				double max = 0;
+				for (T test : front){
+					value = test.getFitness(ff);
+					if (value < min){
+						min = value;
+						minSet.clear();
+						minSet.add(test);
+					} else if (value == min)
+						minSet.add(test);
 				
-				if (value > max){
-					max = value;
-				} 
-			}
+					if (value > max){
+						max = value;
+					} 
+				}
 
-			if (max == min)
-				continue;
+				if (max == min)
+					continue;
 			
-			for (T test : minSet){
-				double numer = (front.size() - minSet.size());
-				double demon = front.size();
-				test.setDistance(Math.max(test.getDistance(), numer/demon));
+				for (T test : minSet){
+					double numer = (front.size() - minSet.size());
+					double demon = front.size();
+					test.setDistance(Math.max(test.getDistance(), numer/demon));
+				}
 			}
+		} finally {
+			Profiler.stop(Profiler.Section.CROWDING_DISTANCE, start);
 		}
 	}
 
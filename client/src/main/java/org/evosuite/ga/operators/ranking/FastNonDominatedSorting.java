@@ -27,6 +27,7 @@ import java.util.Set;
 import org.evosuite.ga.Chromosome;
 import org.evosuite.ga.FitnessFunction;
 import org.evosuite.ga.comparators.DominanceComparator;
+import org.evosuite.statistics.profiling.Profiler;
 
 /**
  * This class ranks the test cases according to the 
@@ -53,9 +54,14 @@ public class FastNonDominatedSorting<T extends Chromosome<T>> implements Ranking
 	@Override
 	public void computeRankingAssignment(List<T> solutions,
 										 Set<? extends FitnessFunction<T>> uncovered_goals) {
-		List<T>[] fronts = getNextNonDominatedFronts(solutions, uncovered_goals);
-		ranking_ = new ArrayList[fronts.length];
-		System.arraycopy(fronts, 0, ranking_, 0, fronts.length);
+		long start = Profiler.start();
+		try {
+			List<T>[] fronts = getNextNonDominatedFronts(solutions, uncovered_goals);
+			ranking_ = new ArrayList[fronts.length];
+			System.arraycopy(fronts, 0, ranking_, 0, fronts.length);
+		} finally {
+			Profiler.stop(Profiler.Section.RANKING, start);
+		}
 	}
 
 
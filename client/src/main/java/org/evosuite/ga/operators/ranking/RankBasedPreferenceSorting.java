@@ -26,6 +26,7 @@ import org.evosuite.ga.Chromosome;
 import org.evosuite.ga.FitnessFunction;
 import org.evosuite.ga.comparators.DominanceComparator;
 import org.evosuite.ga.comparators.PreferenceSortingComparator;
+import org.evosuite.statistics.profiling.Profiler;
 import org.evosuite.utils.Randomness;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -57,39 +58,43 @@ public class RankBasedPreferenceSorting<T extends Chromosome<T>> implements Rank
 			logger.debug("solution is empty");
 			return;
 		}
+		long start = Profiler.start();
+		try {
+			this.fronts = new ArrayList<>(solutions.size());
+
+			// first apply the "preference sorting" to the first front only
+			// then compute the ranks according to the non-dominate sorting algorithm
+			List<T> zero_front = this.getZeroFront(solutions, uncovered_goals);
+			this.fronts.add(zero_front);
+			int frontIndex = 1;
+
+			if (zero_front.size() < Properties.POPULATION) {
+				int rankedSolutions = zero_front.size();
+				DominanceComparator<T> comparator = new DominanceComparator<>(uncovered_goals);
+
+				List<T> remaining = new ArrayList<>(solutions.size());
+				remaining.addAll(solutions);
+				remaining.removeAll(zero_front);
+				while(rankedSolutions < Properties.POPULATION && remaining.size() > 0) {
+					List<T> new_front = this.getNonDominatedSolutions(remaining, comparator, frontIndex);
+					this.fronts.add(new_front);
+					remaining.removeAll(new_front);
+					rankedSolutions += new_front.size();
+					frontIndex++;
+				}
 
-		this.fronts = new ArrayList<>(solutions.size());
-
-		// first apply the "preference sorting" to the first front only
-		// then compute the ranks according to the non-dominate sorting algorithm
-		List<T> zero_front = this.getZeroFront(solutions, uncovered_goals);
-		this.fronts.add(zero_front);
-		int frontIndex = 1;
-
-		if (zero_front.size() < Properties.POPULATION) {
-			int rankedSolutions = zero_front.size();
-			DominanceComparator<T> comparator = new DominanceComparator<>(uncovered_goals);
-
-			List<T> remaining = new ArrayList<>(solutions.size());
-			remaining.addAll(solutions);
-			remaining.removeAll(zero_front);
-			while(rankedSolutions < Properties.POPULATION && remaining.size() > 0) {
-				List<T> new_front = this.getNonDominatedSolutions(remaining, comparator, frontIndex);
-				this.fronts.add(new_front);
-				remaining.removeAll(new_front);
-				rankedSolutions += new_front.size();
-				frontIndex++;
-			}
-
-		} else {
-			List<T> remaining = new ArrayList<>(solutions.size());
-			remaining.addAll(solutions);
-			remaining.removeAll(zero_front);
+			} else {
+				List<T> remaining = new ArrayList<>(solutions.size());
+				remaining.addAll(solutions);
+				remaining.removeAll(zero_front);
 
-			for (T t : remaining) {
-				t.setRank(frontIndex);
+				for (T t : remaining) {
+					t.setRank(frontIndex);
+				}
+				this.fronts.add(remaining);
 			}
-			this.fronts.add(remaining);
+		} finally {
+			Profiler.stop(Profiler.Section.RANKING, start);
 		}
 	}
 
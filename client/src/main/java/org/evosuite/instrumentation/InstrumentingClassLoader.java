@@ -19,6 +19,7 @@
  */
 package org.evosuite.instrumentation;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -89,10 +90,37 @@ public class InstrumentingClassLoader extends ClassLoader {
 	
 	public Class<?> loadClassFromFile(String fullyQualifiedTargetClass, String fileName) throws ClassNotFoundException {
 
-		String className = fullyQualifiedTargetClass.replace('.', '/');
-
 		try(InputStream is = new FileInputStream(new File(fileName))) {
+			return loadClassFromStream(fullyQualifiedTargetClass, is, fileName);
+		} catch (IOException e) {
+			logger.info("Error while loading class " + fullyQualifiedTargetClass + " : " + e);
+			throw new ClassNotFoundException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Define a class directly from its bytecode, eg as produced by an in-memory compilation
+	 *
+	 * @param fullyQualifiedTargetClass name of the class to define
+	 * @param bytes content of the .class file
+	 * @return the defined class
+	 * @throws ClassNotFoundException if the bytecode cannot be transformed or defined
+	 */
+	public Class<?> loadClassFromBytes(String fullyQualifiedTargetClass, byte[] bytes) throws ClassNotFoundException {
 
+		try(InputStream is = new ByteArrayInputStream(bytes)) {
+			return loadClassFromStream(fullyQualifiedTargetClass, is, "memory");
+		} catch (IOException e) {
+			logger.info("Error while loading class " + fullyQualifiedTargetClass + " : " + e);
+			throw new ClassNotFoundException(e.getMessage(), e);
+		}
+	}
+
+	private Class<?> loadClassFromStream(String fullyQualifiedTargetClass, InputStream is, String origin) throws ClassNotFoundException {
+
+		String className = fullyQualifiedTargetClass.replace('.', '/');
+
+		try {
 			byte[] byteBuffer = getTransformedBytes(className, is);
 
 			createPackageDefinition(fullyQualifiedTargetClass);
@@ -100,7 +128,7 @@ public class InstrumentingClassLoader extends ClassLoader {
 
 			classes.put(fullyQualifiedTargetClass, result);
 
-			logger.info("Loaded class " + fullyQualifiedTargetClass + " directly from "+fileName);
+			logger.info("Loaded class " + fullyQualifiedTargetClass + " directly from "+origin);
 			return result;
 		} catch (Throwable t) {
 			logger.info("Error while loading class " + fullyQualifiedTargetClass + " : " + t);
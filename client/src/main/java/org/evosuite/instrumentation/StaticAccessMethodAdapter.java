@@ -22,9 +22,14 @@ package org.evosuite.instrumentation;
 
 import static org.objectweb.asm.Opcodes.INVOKESTATIC;
 
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
 import org.evosuite.runtime.classhandling.ClassResetter;
 import org.evosuite.runtime.instrumentation.RuntimeInstrumentation;
 import org.evosuite.testcase.execution.ExecutionTracer;
+import org.evosuite.testcase.execution.reset.DirtyClassTracker;
 import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.Type;
@@ -33,6 +38,10 @@ import org.objectweb.asm.Type;
  * For each PUTSTATIC or GETSTATIC we include a call to
  * <code>ExecutionTracer.passedPutStatic(String,String)</code> passing the class
  * name and the field name of the PUTSTATIC statement.
+ * <p>
+ * Besides, the owner class is marked as dirty in {@link DirtyClassTracker} on
+ * each PUTSTATIC, and on each GETSTATIC of a field that holds an array or a
+ * java.util container, as these are commonly changed in place.
  *
  * @author Juan Galeotti
  */
@@ -41,6 +50,19 @@ public class StaticAccessMethodAdapter extends MethodVisitor {
 	private static final String PASSED_PUT_STATIC = "passedPutStatic";
 	private static final String PASSED_GET_STATIC = "passedGetStatic";
 
+	private static final String DIRTY_CLASS_TRACKER = DirtyClassTracker.class.getName().replace('.', '/');
+	private static final String MARK_DIRTY = "markDirty";
+
+	/**
+	 * Types in java.util that cannot be changed
+	 */
+	private static final Set<String> IMMUTABLE_UTIL_TYPES = new HashSet<>(Arrays.asList("Ljava/util/Optional;",
+			"Ljava/util/OptionalInt;", "Ljava/util/OptionalLong;", "Ljava/util/OptionalDouble;", "Ljava/util/UUID;",
+			"Ljava/util/Locale;", "Ljava/util/Currency;"));
+
+	private static final String[] MUTABLE_PACKAGES = { "Ljava/util/", "Ljava/util/concurrent/",
+			"Ljava/util/concurrent/atomic/" };
+
 	private final String className;
 	private final String methodName;
 
@@ -81,6 +103,11 @@ public class StaticAccessMethodAdapter extends MethodVisitor {
 				String executionTracerDescriptor = Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(String.class),
 						Type.getType(String.class));
 
+				if (opcode == Opcodes.PUTSTATIC || isMutableContainer(desc)) {
+					super.visitLdcInsn(DirtyClassTracker.getId(classNameWithDots));
+					super.visitMethodInsn(INVOKESTATIC, DIRTY_CLASS_TRACKER, MARK_DIRTY, "(I)V", false);
+				}
+
 				super.visitLdcInsn(classNameWithDots);
 				super.visitLdcInsn(name);
 				if (opcode == Opcodes.PUTSTATIC)
@@ -93,4 +120,24 @@ public class StaticAccessMethodAdapter extends MethodVisitor {
 		}
 		super.visitFieldInsn(opcode, owner, name, desc);
 	}
+
+	/**
+	 * Whether a static field of this type may be changed without a PUTSTATIC,
+	 * ie arrays, and the types of java.util, java.util.concurrent and
+	 * java.util.concurrent.atomic
+	 */
+	private static boolean isMutableContainer(String desc) {
+		if (desc.startsWith("[")) {
+			return true;
+		}
+		if (IMMUTABLE_UTIL_TYPES.contains(desc)) {
+			return false;
+		}
+		for (String mutablePackage : MUTABLE_PACKAGES) {
+			if (desc.startsWith(mutablePackage) && desc.indexOf('/', mutablePackage.length()) < 0) {
+				return true;
+			}
+		}
+		return false;
+	}
 }
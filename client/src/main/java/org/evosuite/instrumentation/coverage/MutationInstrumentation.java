@@ -23,8 +23,8 @@ package org.evosuite.instrumentation.coverage;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.evosuite.Properties;
@@ -36,6 +36,7 @@ import org.evosuite.graphs.cfg.BytecodeInstruction;
 import org.evosuite.graphs.cfg.RawControlFlowGraph;
 import org.evosuite.instrumentation.BooleanValueInterpreter;
 import org.evosuite.instrumentation.mutation.InsertUnaryOperator;
+import org.evosuite.instrumentation.mutation.MutantSelector;
 import org.evosuite.instrumentation.mutation.MutationOperator;
 import org.evosuite.instrumentation.mutation.ReplaceArithmeticOperator;
 import org.evosuite.instrumentation.mutation.ReplaceBitwiseOperator;
@@ -142,6 +143,7 @@ public class MutationInstrumentation implements MethodInstrumentation {
 		logger.info("Applying mutation operators ");
 		int frameIndex = 0;
 		int numMutants = 0;
+		MutantSelector selector = new MutantSelector();
 		if (frames.length != mn.instructions.size()) {
 			logger.error("Number of frames does not match number number of bytecode instructions: "
 			        + frames.length + "/" + mn.instructions.size());
@@ -196,7 +198,6 @@ public class MutationInstrumentation implements MethodInstrumentation {
 				// If this is in the CFG
 				if (in.equals(v.getASMNode())) {
 					logger.info(v.toString());
-					List<Mutation> mutations = new LinkedList<>();
 
 					// TODO: More than one mutation operator might apply to the same instruction
 					for (MutationOperator mutationOperator : mutationOperators) {
@@ -209,16 +210,12 @@ public class MutationInstrumentation implements MethodInstrumentation {
 						if (mutationOperator.isApplicable(v)) {
 							logger.info("Applying mutation operator "
 							        + mutationOperator.getClass().getSimpleName());
-							mutations.addAll(mutationOperator.apply(mn, className,
-							                                        methodName, v,
-							                                        currentFrame));
+							selector.addMutants(v, mutationOperator,
+							                    mutationOperator.apply(mn, className,
+							                                           methodName, v,
+							                                           currentFrame));
 						}
 					}
-					if (!mutations.isEmpty()) {
-						logger.info("Adding instrumentation for mutation");
-						//InsnList instrumentation = getInstrumentation(in, mutations);
-						addInstrumentation(mn, in, mutations);
-					}
 				}
 				if (numMutants > Properties.MAX_MUTANTS_PER_METHOD) {
 					break;
@@ -226,6 +223,14 @@ public class MutationInstrumentation implements MethodInstrumentation {
 
 			}
 		}
+
+		// Only the selected mutants are instrumented, the others are dropped from the pool
+		for (Map.Entry<AbstractInsnNode, List<Mutation>> entry : selector.select().entrySet()) {
+			logger.info("Adding instrumentation for mutation");
+			//InsnList instrumentation = getInstrumentation(in, mutations);
+			addInstrumentation(mn, entry.getKey(), entry.getValue());
+		}
+
 		j = mn.instructions.iterator();
 
 		logger.info("Result of mutation: ");
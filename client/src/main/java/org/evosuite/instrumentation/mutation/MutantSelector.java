@@ -0,0 +1,295 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.instrumentation.mutation;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.evosuite.Properties;
+import org.evosuite.TestGenerationContext;
+import org.evosuite.coverage.mutation.Mutation;
+import org.evosuite.coverage.mutation.MutationPool;
+import org.evosuite.graphs.cfg.BytecodeInstruction;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.FieldInsnNode;
+import org.objectweb.asm.tree.FrameNode;
+import org.objectweb.asm.tree.IincInsnNode;
+import org.objectweb.asm.tree.InsnList;
+import org.objectweb.asm.tree.InsnNode;
+import org.objectweb.asm.tree.IntInsnNode;
+import org.objectweb.asm.tree.JumpInsnNode;
+import org.objectweb.asm.tree.LabelNode;
+import org.objectweb.asm.tree.LdcInsnNode;
+import org.objectweb.asm.tree.LineNumberNode;
+import org.objectweb.asm.tree.MethodInsnNode;
+import org.objectweb.asm.tree.TypeInsnNode;
+import org.objectweb.asm.tree.VarInsnNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Decides which of the mutants produced for a method are actually
+ * instrumented. The mutation operators register every mutant they create in
+ * the {@link MutationPool}; the selector then drops
+ * <ul>
+ * <li>mutants whose bytecode is identical to the original instruction or to
+ * another mutant of the same instruction (if
+ * {@link Properties#REMOVE_EQUIVALENT_MUTANTS} is set), and</li>
+ * <li>mutants beyond the per-operator budget
+ * {@link Properties#MAX_MUTANTS_PER_OPERATOR}, keeping those whose
+ * instruction has the lowest control dependence depth, i.e., is the easiest
+ * to reach.</li>
+ * </ul>
+ * Dropped mutants are removed from the pool again, so they are neither
+ * instrumented nor considered as coverage goals.
+ */
+public class MutantSelector {
+
+	private static final Logger logger = LoggerFactory.getLogger(MutantSelector.class);
+
+	private static class Candidate {
+
+		private final int index;
+
+		private final BytecodeInstruction instruction;
+
+		private final String operator;
+
+		private final Mutation mutation;
+
+		private int depth = -1;
+
+		public Candidate(int index, BytecodeInstruction instruction, String operator,
+		        Mutation mutation) {
+			this.index = index;
+			this.instruction = instruction;
+			this.operator = operator;
+			this.mutation = mutation;
+		}
+
+		public int getDepth() {
+			if (depth < 0) {
+				try {
+					depth = instruction.getCDGDepth();
+				} catch (IllegalStateException e) {
+					// No CDG known, treat as hard to reach
+					depth = Integer.MAX_VALUE;
+				}
+			}
+			return depth;
+		}
+	}
+
+	private final List<Candidate> candidates = new ArrayList<>();
+
+	/** Shared by all signatures so that the same label gets the same name */
+	private final Map<LabelNode, Integer> labelIds = new IdentityHashMap<>();
+
+	/**
+	 * Register the mutants an operator created for an instruction
+	 *
+	 * @param instruction
+	 *            the mutated instruction
+	 * @param operator
+	 *            the operator that created the mutants
+	 * @param mutations
+	 *            the mutants, already added to the {@link MutationPool}
+	 */
+	public void addMutants(BytecodeInstruction instruction, MutationOperator operator,
+	        List<Mutation> mutations) {
+		String operatorName = operator.getClass().getSimpleName();
+		for (Mutation mutation : mutations) {
+			candidates.add(new Candidate(candidates.size(), instruction, operatorName,
+			        mutation));
+		}
+	}
+
+	/**
+	 * Select the mutants to instrument, and remove all others from the
+	 * {@link MutationPool}
+	 *
+	 * @return the selected mutants grouped by the original instruction, in the
+	 *         order they were added
+	 */
+	public Map<AbstractInsnNode, List<Mutation>> select() {
+		List<Candidate> selected = new ArrayList<>(candidates);
+
+		if (Properties.REMOVE_EQUIVALENT_MUTANTS) {
+			selected = removeEquivalentMutants(selected);
+		}
+		if (Properties.MAX_MUTANTS_PER_OPERATOR > 0) {
+			selected = applyOperatorBudget(selected);
+		}
+
+		if (selected.size() < candidates.size()) {
+			logger.info("Selected " + selected.size() + " out of " + candidates.size()
+			        + " mutants");
+			Set<Candidate> keep = new HashSet<>(selected);
+			MutationPool pool = MutationPool.getInstance(TestGenerationContext.getInstance().getClassLoaderForSUT());
+			for (Candidate candidate : candidates) {
+				if (!keep.contains(candidate))
+					pool.removeMutation(candidate.mutation);
+			}
+		}
+
+		selected.sort(Comparator.comparingInt(c -> c.index));
+		Map<AbstractInsnNode, List<Mutation>> result = new LinkedHashMap<>();
+		for (Candidate candidate : selected) {
+			AbstractInsnNode node = candidate.instruction.getASMNode();
+			if (!result.containsKey(node))
+				result.put(node, new ArrayList<>());
+			result.get(node).add(candidate.mutation);
+		}
+		return result;
+	}
+
+	/**
+	 * Drop mutants that do not change the original instruction, and all but
+	 * the first of the mutants of an instruction that have the same bytecode
+	 */
+	private List<Candidate> removeEquivalentMutants(List<Candidate> list) {
+		List<Candidate> result = new ArrayList<>();
+		Map<AbstractInsnNode, Set<String>> seen = new IdentityHashMap<>();
+		for (Candidate candidate : list) {
+			AbstractInsnNode original = candidate.instruction.getASMNode();
+			String signature = getSignature(candidate.mutation.getMutation(), labelIds);
+			if (signature == null) {
+				// Contains something we do not know how to compare
+				result.add(candidate);
+				continue;
+			}
+			if (signature.equals(getSignature(original, labelIds))) {
+				logger.debug("Mutant is identical to original: " + candidate.mutation);
+				continue;
+			}
+			if (!seen.containsKey(original))
+				seen.put(original, new HashSet<>());
+			if (!seen.get(original).add(signature)) {
+				logger.debug("Mutant is a duplicate: " + candidate.mutation);
+				continue;
+			}
+			result.add(candidate);
+		}
+		return result;
+	}
+
+	/**
+	 * Keep at most {@link Properties#MAX_MUTANTS_PER_OPERATOR} mutants per
+	 * operator, preferring those with lowest control dependence depth
+	 */
+	private List<Candidate> applyOperatorBudget(List<Candidate> list) {
+		List<Candidate> sorted = new ArrayList<>(list);
+		// Stable sort: among same depth, earlier mutants win
+		sorted.sort(Comparator.comparingInt(Candidate::getDepth));
+
+		Map<String, Integer> counts = new HashMap<>();
+		List<Candidate> result = new ArrayList<>();
+		for (Candidate candidate : sorted) {
+			int count = counts.getOrDefault(candidate.operator, 0);
+			if (count >= Properties.MAX_MUTANTS_PER_OPERATOR)
+				continue;
+			counts.put(candidate.operator, count + 1);
+			result.add(candidate);
+		}
+		return result;
+	}
+
+	/**
+	 * Canonical textual form of the given bytecode, such that two lists with
+	 * the same signature behave identically. Line numbers and frames are
+	 * ignored, labels are named consistently across calls sharing the same
+	 * label map.
+	 *
+	 * @param list
+	 *            the instructions
+	 * @param labelIds
+	 *            names assigned to labels so far
+	 * @return the signature, or null if the list contains instructions that
+	 *         cannot be compared
+	 */
+	static String getSignature(InsnList list, Map<LabelNode, Integer> labelIds) {
+		StringBuilder builder = new StringBuilder();
+		for (AbstractInsnNode node = list.getFirst(); node != null; node = node.getNext()) {
+			if (!appendSignature(builder, node, labelIds))
+				return null;
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Signature of a single instruction, comparable to the signature of a list
+	 * consisting of only this instruction
+	 */
+	static String getSignature(AbstractInsnNode node, Map<LabelNode, Integer> labelIds) {
+		StringBuilder builder = new StringBuilder();
+		if (!appendSignature(builder, node, labelIds))
+			return null;
+		return builder.toString();
+	}
+
+	private static boolean appendSignature(StringBuilder builder, AbstractInsnNode node,
+	        Map<LabelNode, Integer> labelIds) {
+		if (node instanceof LineNumberNode || node instanceof FrameNode)
+			return true;
+
+		if (node instanceof LabelNode) {
+			builder.append("L").append(getLabelId((LabelNode) node, labelIds));
+		} else if (node instanceof InsnNode) {
+			builder.append(node.getOpcode());
+		} else if (node instanceof IntInsnNode) {
+			builder.append(node.getOpcode()).append(" ").append(((IntInsnNode) node).operand);
+		} else if (node instanceof VarInsnNode) {
+			builder.append(node.getOpcode()).append(" ").append(((VarInsnNode) node).var);
+		} else if (node instanceof IincInsnNode) {
+			IincInsnNode iinc = (IincInsnNode) node;
+			builder.append(node.getOpcode()).append(" ").append(iinc.var).append(" ").append(iinc.incr);
+		} else if (node instanceof LdcInsnNode) {
+			Object cst = ((LdcInsnNode) node).cst;
+			builder.append(node.getOpcode()).append(" ").append(cst.getClass().getName()).append(" ").append(cst);
+		} else if (node instanceof TypeInsnNode) {
+			builder.append(node.getOpcode()).append(" ").append(((TypeInsnNode) node).desc);
+		} else if (node instanceof FieldInsnNode) {
+			FieldInsnNode field = (FieldInsnNode) node;
+			builder.append(node.getOpcode()).append(" ").append(field.owner).append(".").append(field.name).append(" ").append(field.desc);
+		} else if (node instanceof MethodInsnNode) {
+			MethodInsnNode method = (MethodInsnNode) node;
+			builder.append(node.getOpcode()).append(" ").append(method.owner).append(".").append(method.name).append(method.desc).append(" ").append(method.itf);
+		} else if (node instanceof JumpInsnNode) {
+			builder.append(node.getOpcode()).append(" L").append(getLabelId(((JumpInsnNode) node).label, labelIds));
+		} else {
+			return false;
+		}
+		builder.append(";");
+		return true;
+	}
+
+	private static int getLabelId(LabelNode label, Map<LabelNode, Integer> labelIds) {
+		if (!labelIds.containsKey(label))
+			labelIds.put(label, labelIds.size());
+		return labelIds.get(label);
+	}
+}
@@ -53,7 +53,9 @@ import org.evosuite.testsuite.TestSuiteFitnessFunction;
 import org.evosuite.utils.ExternalProcessUtilities;
 import org.evosuite.utils.LoggingUtils;
 import org.junit.Test;
+import org.junit.runner.notification.RunNotifier;
 import org.junit.runners.model.FrameworkMethod;
+import org.junit.runners.model.InitializationError;
 import org.junit.runners.model.TestClass;
 import org.objectweb.asm.ClassReader;
 import org.slf4j.Logger;
@@ -152,8 +154,14 @@ public class CoverageAnalysis {
 				EvoRunner.useAgent = false; //avoid double instrumentation
 				EvoRunner.useClassLoader = false; //avoid double instrumentation
 
-				List<JUnitResult> results = executeTests(tests);
-				printReport(results);
+				List<JUnitResult> results;
+				if (isStreamingMutationAnalysisOnly()) {
+					// Tests are run one at a time by the mutation analysis itself
+					results = Collections.emptyList();
+				} else {
+					results = executeTests(tests);
+				}
+				printReport(results, tests);
 			} finally {
 				EvoRunner.useAgent = origUseAgent;
 				EvoRunner.useClassLoader = origUseClassLoader;
@@ -455,6 +463,91 @@ public class CoverageAnalysis {
 		return testClasses;
 	}
 
+	private static boolean isMutationCriterion(Properties.Criterion criterion) {
+		return criterion == Criterion.MUTATION || criterion == Criterion.STRONGMUTATION;
+	}
+
+	private static boolean isStreamingMutationAnalysis() {
+		return Properties.MUTATION_KILL_MATRIX != null && !Properties.MUTATION_KILL_MATRIX.isEmpty();
+	}
+
+	private static boolean isStreamingMutationAnalysisOnly() {
+		if (!isStreamingMutationAnalysis())
+			return false;
+		for (Criterion criterion : Properties.CRITERION) {
+			if (!isMutationCriterion(criterion))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * MUTATION and STRONGMUTATION kill different mutants with the same
+	 * tests, so each criterion gets its own kill matrix
+	 *
+	 * @param criterion
+	 * @return {@link Properties#MUTATION_KILL_MATRIX} suffixed with the criterion
+	 */
+	static File getKillMatrixFile(Properties.Criterion criterion) {
+		return new File(Properties.MUTATION_KILL_MATRIX + "." + criterion.name());
+	}
+
+	/**
+	 * Mutation analysis that runs one test at a time against the mutants it
+	 * touches, skipping mutants that are already killed. Kills are written to
+	 * the file given by {@link #getKillMatrixFile(Properties.Criterion)} as
+	 * they are found, and progress is reported after each test class, so that
+	 * neither the execution results nor the kill matrix need to be kept in
+	 * memory.
+	 */
+	private static void analyzeMutationCriterionStreaming(Class<?>[] testClasses,
+			Properties.Criterion criterion) {
+
+		logger.info("analysing coverage of " + criterion + " one test at a time");
+
+		List<Mutation> goals = MutationPool.getInstance(TestGenerationContext.getInstance().getClassLoaderForSUT()).getMutants();
+		totalGoals += goals.size();
+
+		File killMatrix = getKillMatrixFile(criterion);
+		if (Properties.COVERAGE_MATRIX) {
+			logger.warn("Coverage matrix is not written for streaming mutation analysis, see "
+					+ killMatrix + " instead");
+		}
+
+		BitSet covered = new BitSet(goals.size());
+		try (MutationKillLog killLog = MutationKillLog.open(killMatrix,
+				MutationKillLog.fingerprint(Properties.TARGET_CLASS, criterion.name(), goals))) {
+			ExecutionTracer.enable();
+			ExecutionTracer.setCheckCallerThread(false);
+
+			for (Class<?> testClass : testClasses) {
+				LoggingUtils.getEvoLogger().info("  Executing " + testClass.getSimpleName());
+				Thread.currentThread().setContextClassLoader(testClass.getClassLoader());
+				try {
+					MutationAnalysisRunner runner = new MutationAnalysisRunner(testClass, goals, killLog);
+					runner.run(new RunNotifier());
+				} catch (InitializationError e) {
+					logger.warn("Cannot run " + testClass.getName() + " for mutation analysis: " + e);
+					continue;
+				}
+				LoggingUtils.getEvoLogger().info("* " + ClientProcess.getPrettyPrintIdentifier() + "Killed mutants: "
+						+ killLog.getNumKilledMutants() + " / " + goals.size());
+			}
+
+			ExecutionTracer.disable();
+
+			for (int index_component = 0; index_component < goals.size(); index_component++) {
+				if (killLog.isKilled(goals.get(index_component).getId()))
+					covered.set(index_component);
+			}
+		} catch (IOException e) {
+			logger.error("Could not use kill matrix " + killMatrix + ": " + e);
+		}
+		totalCoveredGoals += covered.cardinality();
+
+		reportCoverage(criterion, goals.size(), covered);
+	}
+
 	private static void analyzeCoverageCriterion(List<JUnitResult> results, Properties.Criterion criterion) {
 
 		logger.info("analysing coverage of " + criterion);
@@ -499,7 +592,9 @@ public class CoverageAnalysis {
             	for (Integer mutationID : trace.getTouchedMutants()) {
 					Mutation mutation = MutationPool.getInstance(TestGenerationContext.getInstance().getClassLoaderForSUT()).getMutant(mutationID);
 
-            		if (goals.contains(mutation)) {
+            		// mutant ids are not necessarily contiguous, see MutantSelector
+            		int index_component = goals.indexOf(mutation);
+            		if (index_component >= 0) {
             			MutationObserver.activateMutation(mutationID);
             			List<JUnitResult> mutationResults = executeTests(tR.getJUnitClass());
             			MutationObserver.deactivateMutation();
@@ -507,8 +602,8 @@ public class CoverageAnalysis {
             			for (JUnitResult mR : mutationResults) {
             				if (mR.getFailureCount() != tR.getFailureCount()) {
             					logger.info("Mutation killed: " + mutationID);
-            					covered.set(mutation.getId());
-                                coverage_matrix[index_test][mutationID] = true;
+            					covered.set(index_component);
+                                coverage_matrix[index_test][index_component] = true;
                                 break;
             				}
             			}
@@ -541,14 +636,18 @@ public class CoverageAnalysis {
 		    CoverageReportGenerator.writeCoverage(coverage_matrix, criterion);
         }
 
+        reportCoverage(criterion, goals.size(), covered);
+	}
+
+	private static void reportCoverage(Properties.Criterion criterion, int numGoals, BitSet covered) {
         StringBuilder str = new StringBuilder();
-        for (int index_component = 0; index_component < goals.size(); index_component++) {
+        for (int index_component = 0; index_component < numGoals; index_component++) {
         	str.append(covered.get(index_component) ? "1" : "0");
         }
         logger.info("* CoverageBitString " + str.toString());
 
         RuntimeVariable bitStringVariable = CoverageCriteriaAnalyzer.getBitStringVariable(criterion);
-        if (goals.isEmpty()) {
+        if (numGoals == 0) {
 			LoggingUtils.getEvoLogger().info("* " + ClientProcess.getPrettyPrintIdentifier() + "Coverage of criterion "
                     + criterion + ": 100% (no goals)");
 			ClientServices.getInstance().getClientNode().trackOutputVariable(CoverageCriteriaAnalyzer.getCoverageVariable(criterion), 1.0);
@@ -557,11 +656,11 @@ public class CoverageAnalysis {
 			}
 		} 
         else {
-        	double coverage = ((double) covered.cardinality()) / ((double) goals.size());
+        	double coverage = ((double) covered.cardinality()) / ((double) numGoals);
         	LoggingUtils.getEvoLogger().info("* " + ClientProcess.getPrettyPrintIdentifier() + "Coverage of criterion " + criterion
                     + ": " + NumberFormat.getPercentInstance().format(coverage));
 			LoggingUtils.getEvoLogger().info("* " + ClientProcess.getPrettyPrintIdentifier() + "Number of covered goals: "
-                    + covered.cardinality() + " / " + goals.size());
+                    + covered.cardinality() + " / " + numGoals);
 
 			ClientServices.getInstance().getClientNode().trackOutputVariable(CoverageCriteriaAnalyzer.getCoverageVariable(criterion), coverage);
 			if (bitStringVariable != null) {
@@ -570,7 +669,7 @@ public class CoverageAnalysis {
         }
 	}
 
-	private static void printReport(List<JUnitResult> results) {
+	private static void printReport(List<JUnitResult> results, Class<?>[] tests) {
 
 		Iterator<String> it = targetClasses.iterator();
 		Criterion[] criterion = Properties.CRITERION;
@@ -590,7 +689,11 @@ public class CoverageAnalysis {
 			for (Criterion c : criterion) {
 				Properties.CRITERION = new Criterion[]{c};
 
-				analyzeCoverageCriterion(results, c);
+				if (isMutationCriterion(c) && isStreamingMutationAnalysis()) {
+					analyzeMutationCriterionStreaming(tests, c);
+				} else {
+					analyzeCoverageCriterion(results, c);
+				}
 			}
 
 			// restore
@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.junit;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+
+/**
+ * File manager that keeps the bytecode produced by javac in memory instead of
+ * writing .class files to disk. Sources can be given as strings with
+ * {@link #createSource(String, String)}. Everything else (e.g., classpath
+ * lookups) is delegated to the standard file manager.
+ */
+public class InMemoryJavaFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+
+	/**
+	 * Fully qualified class name to bytecode, in the order javac produced them
+	 */
+	private final Map<String, ByteArrayClassFile> classes = new LinkedHashMap<>();
+
+	/**
+	 * Fully qualified class name to the source file it was compiled from
+	 */
+	private final Map<String, FileObject> origins = new HashMap<>();
+
+	public InMemoryJavaFileManager(StandardJavaFileManager fileManager) {
+		super(fileManager);
+	}
+
+	/**
+	 * Create a compilation unit for the given source code
+	 *
+	 * @param className
+	 *            fully qualified name of the top-level class in the source
+	 * @param code
+	 *            the Java source code
+	 * @return a compilation unit that can be given to a compilation task
+	 */
+	public static JavaFileObject createSource(String className, String code) {
+		return new StringSourceFile(className, code);
+	}
+
+	@Override
+	public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind,
+			FileObject sibling) {
+		ByteArrayClassFile file = new ByteArrayClassFile(className, kind);
+		classes.put(className, file);
+		if (sibling != null) {
+			origins.put(className, sibling);
+		}
+		return file;
+	}
+
+	/**
+	 * @return a view of all the classes compiled so far, from fully qualified
+	 *         class name to bytecode
+	 */
+	public Map<String, byte[]> getCompiledClasses() {
+		Map<String, byte[]> map = new LinkedHashMap<>();
+		for (Map.Entry<String, ByteArrayClassFile> entry : classes.entrySet()) {
+			map.put(entry.getKey(), entry.getValue().getBytes());
+		}
+		return Collections.unmodifiableMap(map);
+	}
+
+	/**
+	 * Classes compiled from the given sources only, including their inner and
+	 * anonymous classes
+	 *
+	 * @param sources
+	 *            compilation units created with {@link #createSource(String, String)}
+	 * @return map from fully qualified class name to bytecode
+	 */
+	public Map<String, byte[]> getCompiledClasses(Collection<? extends JavaFileObject> sources) {
+		Set<FileObject> lookup = Collections.newSetFromMap(new IdentityHashMap<>());
+		lookup.addAll(sources);
+		Map<String, byte[]> map = new LinkedHashMap<>();
+		for (Map.Entry<String, ByteArrayClassFile> entry : classes.entrySet()) {
+			if (lookup.contains(origins.get(entry.getKey()))) {
+				map.put(entry.getKey(), entry.getValue().getBytes());
+			}
+		}
+		return Collections.unmodifiableMap(map);
+	}
+
+	/**
+	 * Drop all the bytecode compiled so far
+	 */
+	public void clearCompiledClasses() {
+		classes.clear();
+		origins.clear();
+	}
+
+	private static URI toURI(String className, JavaFileObject.Kind kind) {
+		return URI.create("string:///" + className.replace('.', '/') + kind.extension);
+	}
+
+	private static class StringSourceFile extends SimpleJavaFileObject {
+
+		private final String code;
+
+		public StringSourceFile(String className, String code) {
+			super(toURI(className, Kind.SOURCE), Kind.SOURCE);
+			this.code = code;
+		}
+
+		@Override
+		public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+			return code;
+		}
+	}
+
+	private static class ByteArrayClassFile extends SimpleJavaFileObject {
+
+		private final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+
+		public ByteArrayClassFile(String className, Kind kind) {
+			super(toURI(className, kind), kind);
+		}
+
+		@Override
+		public OutputStream openOutputStream() {
+			return stream;
+		}
+
+		public byte[] getBytes() {
+			return stream.toByteArray();
+		}
+	}
+}
@@ -29,10 +29,8 @@ import javax.tools.DiagnosticCollector;
 import javax.tools.JavaCompiler;
 import javax.tools.JavaCompiler.CompilationTask;
 import javax.tools.JavaFileObject;
-import javax.tools.StandardJavaFileManager;
 import javax.tools.ToolProvider;
 
-import org.apache.commons.io.FileUtils;
 import org.evosuite.Properties;
 import org.evosuite.TestGenerationContext;
 import org.evosuite.TimeController;
@@ -53,6 +51,10 @@ import org.slf4j.LoggerFactory;
  * This class is used to check if a set of test cases are valid for JUnit: ie,
  * if they can be compiled, they do not fail, and if running them a second time
  * produces same result (ie not fail).
+ *
+ * <p>
+ * Source code, bytecode and class loading are all kept in memory: files are
+ * only written for the final output of EvoSuite, once the tests are verified.
  * 
  * @author arcuri
  * 
@@ -61,17 +63,18 @@ public class JUnitAnalyzer {
 
 	private static final Logger logger = LoggerFactory.getLogger(JUnitAnalyzer.class);
 
-	private static int dirCounter = 0;
-
-	private static final String JAVA = ".java";
-	private static final String CLASS = ".class";
-
 	
 	private static NonInstrumentingClassLoader loader = new NonInstrumentingClassLoader();
 	
 	/**
 	 * Try to compile each test separately, and remove the ones that cannot be
-	 * compiled
+	 * compiled.
+	 *
+	 * <p>
+	 * Each test is written in its own test class, but all of them are compiled
+	 * in memory with a single javac invocation. Compilation errors are mapped
+	 * back to the test class they are reported in, and the remaining tests are
+	 * recompiled until there is no error left.
 	 * 
 	 * @param tests
 	 */
@@ -83,44 +86,23 @@ public class JUnitAnalyzer {
 			return;
 		}
 
-		Iterator<TestCase> iter = tests.iterator();
-
-		while (iter.hasNext()) {
+		List<TestSuiteSources> pending = new ArrayList<>();
+		for (TestCase test : tests) {
 			if(!TimeController.getInstance().hasTimeToExecuteATestCase()) {
 				break;
 			}
+			pending.add(new TestSuiteSources(Collections.singletonList(test)));
+		}
 
-			TestCase test = iter.next();
+		List<TestSuiteSources> failed = new ArrayList<>();
+		compileDroppingFailures(pending, failed);
 
-			File dir = createNewTmpDir();
-			if (dir == null) {
-				logger.warn("Failed to create tmp dir");
-				return;
+		for (TestSuiteSources suite : failed) {
+			for (TestCase test : suite.tests) {
+				removeByIdentity(tests, test);
+				logger.error("Failed to compile test case:\n" + test.toCode());
 			}
-			logger.debug("Created tmp folder: " + dir.getAbsolutePath());
-
-			try {
-				List<TestCase> singleList = new ArrayList<>();
-				singleList.add(test);
-				List<File> generated = compileTests(singleList, dir);
-				if (generated == null) {
-					iter.remove();
-					String code = test.toCode();
-					logger.error("Failed to compile test case:\n" + code);
-				}
-			} finally {
-				//let's be sure we clean up all what we wrote on disk
-				if (dir != null) {
-					try {
-						FileUtils.deleteDirectory(dir);
-						logger.debug("Deleted tmp folder: " + dir.getAbsolutePath());
-					} catch (Exception e) {
-						logger.error("Cannot delete tmp dir: " + dir.getAbsolutePath(), e);
-					}
-				}
-			}
-
-		} // end of while
+		}
 	}
 
 	/**
@@ -143,139 +125,218 @@ public class JUnitAnalyzer {
 			return numUnstable;
 		}
 
-		File dir = createNewTmpDir();
-		if (dir == null) {
-			logger.error("Failed to create tmp dir");
-			return numUnstable;
-		}
-		logger.debug("Created tmp folder: " + dir.getAbsolutePath());
-
 		try {
-			List<File> generated = compileTests(tests, dir);
-			if (generated == null) {
+			TestSuiteSources suite = new TestSuiteSources(tests);
+			DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+			InMemoryJavaFileManager fileManager = compileInMemory(suite.units, diagnostics);
+			if (fileManager == null) {
 				/*
 				 * Note: in theory this shouldn't really happen, as check for compilation
 				 * is done before calling this method
 				 */
 				logger.warn("Failed to compile the test cases ");
+				logDiagnostics(diagnostics);
 				return numUnstable;
 			}
 
-            if(!TimeController.getInstance().hasTimeToExecuteATestCase()) {
-                logger.error("Ran out of time while checking tests");
-                return numUnstable;
-            }
+			if(!TimeController.getInstance().hasTimeToExecuteATestCase()) {
+				logger.error("Ran out of time while checking tests");
+				return numUnstable;
+			}
 
-            // Create a new classloader so that each test gets freshly loaded classes
+			// Create a new classloader so that each test gets freshly loaded classes
 			loader = new NonInstrumentingClassLoader();
-            Class<?>[] testClasses = loadTests(generated);
+			Class<?>[] testClasses = loadTests(suite, fileManager.getCompiledClasses(suite.units));
 
-			if (testClasses == null) {
+			if (testClasses.length == 0) {
 				logger.error("Found no classes for compiled tests");
 				return numUnstable;
 			}
 
-			JUnitResult result = runTests(testClasses, dir);
+			JUnitResult result = runJUnitOnCurrentProcess(testClasses);
 
 			if (result.wasSuccessful()) {
 				return numUnstable; //everything is OK
 			}
 
+			numUnstable += handleFailures(tests, result);
 
-			failure_loop: for (JUnitFailure failure : result.getFailures()) {
-				String testName = failure.getDescriptionMethodName();//TODO check if correct
-				for (int i = 0; i < tests.size(); i++) {
-					if (TestSuiteWriterUtils.getNameOfTest(tests, i).equals(testName)) {
-						if (tests.get(i).isFailing()) {
-							logger.info("Failure is expected, continuing...");
-							continue failure_loop;
-						}
-					}
+		} catch (Exception e) {
+			logger.error("" + e, e);
+			return numUnstable;
+		}
+
+		//if we arrive here, then it means at least one test was unstable
+		return numUnstable;
+	}
+
+	/**
+	 * Same as {@link #handleTestsThatAreUnstable(List)}, but each test is run
+	 * on its own, with freshly loaded classes.
+	 *
+	 * <p>
+	 * All the tests are compiled in memory with a single javac invocation, and
+	 * then each test class is loaded from its bytecode in a new classloader.
+	 * Tests that do not compile are left out of the check, without preventing
+	 * the others from being checked.
+	 * Note: the tests are still run one after the other, as the mocked
+	 * environment of the runtime (eg VFS and sandbox) is shared by the whole JVM.
+	 *
+	 * @param tests
+	 * @return the number of unstable tests
+	 */
+	public static int handleEachTestThatIsUnstable(List<TestCase> tests) {
+
+		int numUnstable = 0;
+		logger.info("Going to execute: handleEachTestThatIsUnstable");
+
+		if (tests == null || tests.isEmpty()) { //nothing to do
+			return numUnstable;
+		}
+
+		List<TestSuiteSources> suites = new ArrayList<>();
+		for (TestCase test : tests) {
+			if (!TimeController.getInstance().hasTimeToExecuteATestCase()) {
+				break;
+			}
+			suites.add(new TestSuiteSources(Collections.singletonList(test)));
+		}
+
+		List<TestSuiteSources> failed = new ArrayList<>();
+		InMemoryJavaFileManager fileManager = compileDroppingFailures(suites, failed);
+		for (TestSuiteSources suite : failed) {
+			/*
+			 * Note: in theory this shouldn't really happen, as check for compilation
+			 * is done before calling this method
+			 */
+			for (TestCase test : suite.tests) {
+				logger.warn("Failed to compile test case, so its stability is not checked:\n" + test.toCode());
+			}
+		}
+		if (fileManager == null) {
+			return numUnstable;
+		}
+
+		for (TestSuiteSources suite : suites) {
+			if (!TimeController.getInstance().hasTimeToExecuteATestCase()) {
+				logger.error("Ran out of time while checking tests");
+				break;
+			}
+
+			List<TestCase> list = new ArrayList<>(suite.tests);
+			try {
+				// Create a new classloader so that each test gets freshly loaded classes
+				loader = new NonInstrumentingClassLoader();
+				Class<?>[] testClasses = loadTests(suite, fileManager.getCompiledClasses(suite.units));
+
+				if (testClasses.length == 0) {
+					logger.error("Found no classes for compiled tests");
+					continue;
 				}
 
-				if(testName == null){
-					/*
-					 * this can happen if there is a failure in the scaffolding (eg @AfterClass/@BeforeClass).
-					 * in such case, everything need to be deleted
-					 */
-                    StringBuilder sb = new StringBuilder();
-                    sb.append("Issue in scaffolding of the test suite: ").append(failure.getMessage()).append("\n");
-                    sb.append("Stack trace:\n");
-					for (String elem : failure.getExceptionStackTrace()) {
-                        sb.append(elem).append("\n");
-					}
-                    logger.error(sb.toString());
-					numUnstable = tests.size();
-					tests.clear();
-					return numUnstable;
+				JUnitResult result = runJUnitOnCurrentProcess(testClasses);
+				if (!result.wasSuccessful()) {
+					numUnstable += handleFailures(list, result);
 				}
+			} catch (Exception e) {
+				logger.error("" + e, e);
+			}
 
-				// On the Sheffield cluster, the "well-known fle is not secure" issue is impossible to understand,
-				// so it might be best to ignore it for now.
-				if(testName.equals("initializationError") && failure.getMessage().contains("Failed to attach Java Agent")) {
-					logger.warn("Likely error with EvoSuite instrumentation, ignoring failure in test execution");
-					continue failure_loop;
+			for (TestCase test : suite.tests) {
+				if (!containsByIdentity(list, test)) {
+					// the test was unstable and deleted
+					removeByIdentity(tests, test);
 				}
+			}
+		}
 
+		return numUnstable;
+	}
 
-				logger.warn("Found unstable test named " + testName + " -> "
-				        + failure.getExceptionClassName() + ": " + failure.getMessage());
-				
-				for (String elem : failure.getExceptionStackTrace()) {
-					logger.info(elem);
-				}
+	/**
+	 * Mark as unstable or remove the tests that failed in the given JUnit run
+	 *
+	 * @param tests the tests that were run
+	 * @param result the result of running them
+	 * @return the number of unstable tests
+	 */
+	private static int handleFailures(List<TestCase> tests, JUnitResult result) {
 
-				boolean toRemove = !(failure.isAssertionError());
-
-				for (int i = 0; i < tests.size(); i++) {
-					if (TestSuiteWriterUtils.getNameOfTest(tests, i).equals(testName)) {
-						logger.warn("Failing test:\n " + tests.get(i).toCode());
-						numUnstable++;
-						/*
-						 * we have a match. should we remove it or mark as unstable?
-						 * When we have an Assert.* failing, we can just comment out
-						 * all the assertions in the test case. If it is an "assert"
-						 * in the SUT that fails, we do want to have the JUnit test fail.
-						 * On the other hand, if a test fail due to an uncaught exception,
-						 * we should delete it, as it would either represent a bug in EvoSuite
-						 * or something we cannot (easily) fix here 
-						 */
-						if (!toRemove) {
-							logger.debug("Going to mark test as unstable: " + testName);
-							tests.get(i).setUnstable(true);
-						} else {
-							logger.debug("Going to remove unstable test: " + testName);
-							tests.remove(i);
-						}
-						break;
+		int numUnstable = 0;
+
+		failure_loop: for (JUnitFailure failure : result.getFailures()) {
+			String testName = failure.getDescriptionMethodName();//TODO check if correct
+			for (int i = 0; i < tests.size(); i++) {
+				if (TestSuiteWriterUtils.getNameOfTest(tests, i).equals(testName)) {
+					if (tests.get(i).isFailing()) {
+						logger.info("Failure is expected, continuing...");
+						continue failure_loop;
 					}
 				}
 			}
-		} catch (Exception e) {
-			logger.error("" + e, e);
-			return numUnstable;
-		} finally {
-			//let's be sure we clean up all what we wrote on disk
 
-			if (dir != null) {
-				try {
-					FileUtils.deleteDirectory(dir);
-				} catch (Exception e) {
-					logger.warn("Cannot delete tmp dir: " + dir.getName(), e);
+			if(testName == null){
+				/*
+				 * this can happen if there is a failure in the scaffolding (eg @AfterClass/@BeforeClass).
+				 * in such case, everything need to be deleted
+				 */
+				StringBuilder sb = new StringBuilder();
+				sb.append("Issue in scaffolding of the test suite: ").append(failure.getMessage()).append("\n");
+				sb.append("Stack trace:\n");
+				for (String elem : failure.getExceptionStackTrace()) {
+					sb.append(elem).append("\n");
 				}
+				logger.error(sb.toString());
+				numUnstable = tests.size();
+				tests.clear();
+				return numUnstable;
+			}
+
+			// On the Sheffield cluster, the "well-known fle is not secure" issue is impossible to understand,
+			// so it might be best to ignore it for now.
+			if(testName.equals("initializationError") && failure.getMessage().contains("Failed to attach Java Agent")) {
+				logger.warn("Likely error with EvoSuite instrumentation, ignoring failure in test execution");
+				continue failure_loop;
 			}
 
+
+			logger.warn("Found unstable test named " + testName + " -> "
+			        + failure.getExceptionClassName() + ": " + failure.getMessage());
+			
+			for (String elem : failure.getExceptionStackTrace()) {
+				logger.info(elem);
+			}
+
+			boolean toRemove = !(failure.isAssertionError());
+
+			for (int i = 0; i < tests.size(); i++) {
+				if (TestSuiteWriterUtils.getNameOfTest(tests, i).equals(testName)) {
+					logger.warn("Failing test:\n " + tests.get(i).toCode());
+					numUnstable++;
+					/*
+					 * we have a match. should we remove it or mark as unstable?
+					 * When we have an Assert.* failing, we can just comment out
+					 * all the assertions in the test case. If it is an "assert"
+					 * in the SUT that fails, we do want to have the JUnit test fail.
+					 * On the other hand, if a test fail due to an uncaught exception,
+					 * we should delete it, as it would either represent a bug in EvoSuite
+					 * or something we cannot (easily) fix here 
+					 */
+					if (!toRemove) {
+						logger.debug("Going to mark test as unstable: " + testName);
+						tests.get(i).setUnstable(true);
+					} else {
+						logger.debug("Going to remove unstable test: " + testName);
+						tests.remove(i);
+					}
+					break;
+				}
+			}
 		}
 
-		//if we arrive here, then it means at least one test was unstable
 		return numUnstable;
 	}
 
-	private static JUnitResult runTests(Class<?>[] testClasses, File testClassDir)
-	        throws JUnitExecutionException {
-		return runJUnitOnCurrentProcess(testClasses);
-	}
-
 	private static JUnitResult runJUnitOnCurrentProcess(Class<?>[] testClasses) {
 
 		JUnitCore runner = new JUnitCore();
@@ -340,196 +401,289 @@ public class JUnitAnalyzer {
 	// EvoSuite classloader, and thus cannot easily be re-loaded
 	private static int NUM = 0;
 
-	private static List<File> compileTests(List<TestCase> tests, File dir) {
-
-		TestSuiteWriter suite = new TestSuiteWriter();
-		suite.insertAllTests(tests);
+	/**
+	 * Source code of a test suite generated for a subset of the tests, which
+	 * is not written to disk
+	 */
+	private static class TestSuiteSources {
 
-        //to get name, remove all package before last '.'
-        int beginIndex = Properties.TARGET_CLASS.lastIndexOf(".") + 1;
-		String name = Properties.TARGET_CLASS.substring(beginIndex);
-		name += "_" +(NUM++) + "_tmp_" + Properties.JUNIT_SUFFIX ; //postfix
+		private final List<TestCase> tests;
 
-		try {
-			//now generate the JUnit test case
-			List<File> generated = suite.writeTestSuite(name, dir.getAbsolutePath(), Collections.EMPTY_LIST);
-			for (File file : generated) {
-				if (!file.exists()) {
-					logger.error("Supposed to generate " + file
-					        + " but it does not exist");
-					return null;
-				}
-			}
+		/** Compilation units of all the files of the suite, including scaffolding */
+		private final List<JavaFileObject> units = new ArrayList<>();
 
-			//try to compile the test cases
-			JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
-			if (compiler == null) {
-				logger.error("No Java compiler is available");
-				return null;
-			}
+		/** Fully qualified names of the classes containing the test methods */
+		private final List<String> testClassNames = new ArrayList<>();
 
-			DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
-			Locale locale = Locale.getDefault();
-			Charset charset = Charset.forName("UTF-8");
-			StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics,
-			                                                                      locale,
-			                                                                      charset);
+		/** Fully qualified names of the scaffolding classes */
+		private final List<String> scaffoldingClassNames = new ArrayList<>();
 
-			Iterable<? extends JavaFileObject> compilationUnits = fileManager.getJavaFileObjectsFromFiles(generated);
+		public TestSuiteSources(List<TestCase> tests) {
+			this.tests = tests;
 
-			String evosuiteCP = ClassPathHandler.getInstance().getEvoSuiteClassPath();
-			if(JarPathing.containsAPathingJar(evosuiteCP)){
-				evosuiteCP = JarPathing.expandPathingJars(evosuiteCP);
-			}
+			TestSuiteWriter suite = new TestSuiteWriter();
+			suite.insertAllTests(tests);
 
-			String targetProjectCP = ClassPathHandler.getInstance().getTargetProjectClasspath();
-			if(JarPathing.containsAPathingJar(targetProjectCP)){
-				targetProjectCP = JarPathing.expandPathingJars(targetProjectCP);
+			Map<String, String> sources = suite.getTestSuiteSources(getNewTestSuiteName(), Collections.emptyList());
+			for (Map.Entry<String, String> source : sources.entrySet()) {
+				String className = getPackagePrefix() + source.getKey();
+				units.add(InMemoryJavaFileManager.createSource(className, source.getValue()));
+				if (source.getKey().endsWith("_" + Properties.SCAFFOLDING_SUFFIX)) {
+					scaffoldingClassNames.add(className);
+				} else {
+					testClassNames.add(className);
+				}
 			}
+		}
+	}
 
-			String classpath = targetProjectCP + File.pathSeparator + evosuiteCP;
+	private static List<JavaFileObject> getCompilationUnits(List<TestSuiteSources> suites) {
+		List<JavaFileObject> units = new ArrayList<>();
+		for (TestSuiteSources suite : suites) {
+			units.addAll(suite.units);
+		}
+		return units;
+	}
 
-			List<String> optionList = new ArrayList<>(Arrays.asList("-classpath", classpath));
+	/**
+	 * Find the suites whose source files are the location of at least one compilation error
+	 */
+	private static Set<TestSuiteSources> getSuitesWithErrors(List<TestSuiteSources> suites,
+			DiagnosticCollector<JavaFileObject> diagnostics) {
 
-			CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
-			                                        optionList, null, compilationUnits);
-			boolean compiled = task.call();
-			fileManager.close();
+		Map<JavaFileObject, TestSuiteSources> suiteOfUnit = new IdentityHashMap<>();
+		for (TestSuiteSources suite : suites) {
+			for (JavaFileObject unit : suite.units) {
+				suiteOfUnit.put(unit, suite);
+			}
+		}
 
-			if (!compiled) {
-				logger.error("Compilation failed on compilation units: "+ compilationUnits);
-				logger.error("Classpath: "+classpath);
-				//TODO remove
-				logger.error("evosuiteCP: "+evosuiteCP);
+		Set<TestSuiteSources> failing = new LinkedHashSet<>();
+		for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+			if (diagnostic.getKind() != Diagnostic.Kind.ERROR) {
+				continue;
+			}
+			TestSuiteSources suite = suiteOfUnit.get(diagnostic.getSource());
+			if (suite != null) {
+				failing.add(suite);
+				logger.error("Diagnostic: " + diagnostic.getMessage(null) + ": "
+				        + diagnostic.getLineNumber());
+			}
+		}
+		return failing;
+	}
 
+	private static void logDiagnostics(DiagnosticCollector<JavaFileObject> diagnostics) {
+		Set<JavaFileObject> sources = Collections.newSetFromMap(new IdentityHashMap<>());
+		for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+			logger.error("Diagnostic: " + diagnostic.getMessage(null) + ": "
+			        + diagnostic.getLineNumber());
+			if (diagnostic.getSource() != null) {
+				sources.add(diagnostic.getSource());
+			}
+		}
 
-				for (Diagnostic<?> diagnostic : diagnostics.getDiagnostics()) {
-					if (diagnostic.getMessage(null).startsWith("error while writing")) {
-						logger.error("Error is due to file permissions, ignoring...");
-						return generated;
-					}
-					logger.error("Diagnostic: " + diagnostic.getMessage(null) + ": "
-					        + diagnostic.getLineNumber());
+		StringBuilder buffer = new StringBuilder();
+		for (JavaFileObject source : sources) {
+			buffer.append(source.getName()).append("\n");
+			try {
+				String[] lines = source.getCharContent(true).toString().split("\r?\n");
+				for (int i = 0; i < lines.length; i++) {
+					buffer.append(i + 1).append(": ").append(lines[i]).append("\n");
 				}
+			} catch (IOException e) {
+				buffer.append(e).append("\n");
+			}
+		}
+		if (buffer.length() > 0) {
+			logger.error(buffer.toString());
+		}
+	}
 
-				StringBuffer buffer = new StringBuffer();
-				for (JavaFileObject sourceFile : compilationUnits) {
-					List<String> lines = FileUtils.readLines(new File(sourceFile.toUri().getPath()));
+	/**
+	 * Compile the given suites with a single javac invocation. The suites that
+	 * compilation errors are reported in are moved from {@code suites} to
+	 * {@code failed}, and the remaining ones are recompiled until there is no
+	 * error left.
+	 *
+	 * @return the file manager holding the compiled classes of the suites left
+	 *         in {@code suites}, or {@code null} if they could not be compiled
+	 */
+	private static InMemoryJavaFileManager compileDroppingFailures(List<TestSuiteSources> suites,
+			List<TestSuiteSources> failed) {
 
-					buffer.append(compilationUnits.iterator().next().toString()+"\n");
+		boolean checkedOneAtATime = false;
+		while (!suites.isEmpty()) {
+			DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+			InMemoryJavaFileManager fileManager = compileInMemory(getCompilationUnits(suites), diagnostics);
+			if (fileManager != null) {
+				return fileManager;
+			}
 
-					for (int i = 0; i < lines.size(); i++) {
-						buffer.append((i + 1) + ": " + lines.get(i) +"\n");
+			Set<TestSuiteSources> failing = getSuitesWithErrors(suites, diagnostics);
+			if (failing.isEmpty()) {
+				if (checkedOneAtATime) {
+					// each suite compiles on its own, but not together
+					logger.warn("Failed to compile the test cases ");
+					logDiagnostics(diagnostics);
+					return null;
+				}
+				/*
+				 * errors are not related to any specific test (eg, issues with the classpath),
+				 * so we can only check the tests one at a time
+				 */
+				for (TestSuiteSources suite : suites) {
+					if (compileInMemory(suite.units, new DiagnosticCollector<>()) == null) {
+						failing.add(suite);
 					}
 				}
-				logger.error(buffer.toString());
-				return null;
+				checkedOneAtATime = true;
 			}
 
-			return generated;
-
-		} catch (IOException e) {
-			logger.error("" + e, e);
-			return null;
+			suites.removeAll(failing);
+			failed.addAll(failing);
 		}
+		return null;
 	}
 
-	protected static File createNewTmpDir() {
-		File dir = null;
-		String dirName = FileUtils.getTempDirectoryPath() + File.separator + "EvoSuite_"
-		        + (dirCounter++) + "_" + +System.currentTimeMillis();
+	/**
+	 * Compile the given units with a single javac invocation, keeping the
+	 * bytecode in memory
+	 *
+	 * @return the file manager holding the compiled classes, or {@code null} if
+	 *         compilation failed
+	 */
+	private static InMemoryJavaFileManager compileInMemory(List<JavaFileObject> units,
+			DiagnosticCollector<JavaFileObject> diagnostics) {
 
-		//first create a tmp folder
-		dir = new File(dirName);
-		if (!dir.mkdirs()) {
-			logger.error("Cannot create tmp dir: " + dirName);
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		if (compiler == null) {
+			logger.error("No Java compiler is available");
 			return null;
 		}
 
-		if (!dir.exists()) {
-			logger.error("Weird behavior: we created folder, but Java cannot determine if it exists? Folder: "
-			        + dirName);
+		InMemoryJavaFileManager fileManager = new InMemoryJavaFileManager(
+				compiler.getStandardFileManager(diagnostics, Locale.getDefault(), Charset.forName("UTF-8")));
+
+		List<String> optionList = new ArrayList<>(Arrays.asList("-classpath", getCompilationClasspath()));
+
+		try {
+			CompilationTask task = compiler.getTask(null, fileManager, diagnostics, optionList, null, units);
+			boolean compiled = task.call();
+			fileManager.close();
+			return compiled ? fileManager : null;
+		} catch (IOException | RuntimeException e) {
+			logger.error("" + e, e);
 			return null;
 		}
-
-		return dir;
 	}
 
-	private static Class<?>[] loadTests(List<File> tests) {
+	private static String getCompilationClasspath() {
+		String evosuiteCP = ClassPathHandler.getInstance().getEvoSuiteClassPath();
+		if(JarPathing.containsAPathingJar(evosuiteCP)){
+			evosuiteCP = JarPathing.expandPathingJars(evosuiteCP);
+		}
 
-		/*
-		 * Ideally, when we run a generated test case, it
-		 * will automatically use JavaAgent to instrument the CUT.
-		 * But here we have already loaded the CUT by now, so that 
-		 * mechanism will not work.
-		 * 
-		 * A simple option is to just use an instrumenting class loader,
-		 * as it does exactly the same type of instrumentation.
-		 * But a better idea would be to use a new
-		 * non-instrumenting classloader to re-load the CUT, and so see
-		 * if the JavaAgent works properly.
-		 */
-		Class<?>[] testClasses = getClassesFromFiles(tests);
-		List<File> otherClasses = listOnlyFiles(tests);
-		/*
-		 * this is important to force the loading of all files generated
-		 * in the target folder.
-		 * If we do not do that, then we will miss all the anonymous classes 
-		 */
-		getClassesFromFiles(otherClasses);
+		String targetProjectCP = ClassPathHandler.getInstance().getTargetProjectClasspath();
+		if(JarPathing.containsAPathingJar(targetProjectCP)){
+			targetProjectCP = JarPathing.expandPathingJars(targetProjectCP);
+		}
 
-		return testClasses;
+		return targetProjectCP + File.pathSeparator + evosuiteCP;
 	}
 
-	private static List<File> listOnlyFiles(List<File> tests) throws IllegalArgumentException{
-		if(tests==null || tests.isEmpty()){
-			return null;
+	private static String getNewTestSuiteName() {
+		//to get name, remove all package before last '.'
+		int beginIndex = Properties.TARGET_CLASS.lastIndexOf(".") + 1;
+		String name = Properties.TARGET_CLASS.substring(beginIndex);
+		name += "_" +(NUM++) + "_tmp_" + Properties.JUNIT_SUFFIX ; //postfix
+		return name;
+	}
+
+	private static String getPackagePrefix() {
+		String packagePrefix = Properties.CLASS_PREFIX;
+		if (!packagePrefix.isEmpty() && !packagePrefix.endsWith(".")) {
+			packagePrefix += ".";
 		}
+		return packagePrefix;
+	}
 
-		Set<String> classNames = new LinkedHashSet<>();
-		
-		File parentFolder = tests.get(0).getParentFile();
-		for(File file : tests){
-			if(!file.getParentFile().equals(parentFolder)){
-				throw new IllegalArgumentException("Tests file are not in the same folder");
+	private static boolean containsByIdentity(List<TestCase> tests, TestCase test) {
+		for (TestCase other : tests) {
+			if (other == test) {
+				return true;
 			}
-			classNames.add(removeFileExtension(file.getName()));
 		}
-		
+		return false;
+	}
+
+	private static void removeByIdentity(List<TestCase> tests, TestCase test) {
+		Iterator<TestCase> iter = tests.iterator();
+		while (iter.hasNext()) {
+			if (iter.next() == test) {
+				iter.remove();
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Load the classes of a suite compiled in memory (it assumes the classpath
+	 * to be correctly set)
+	 *
+	 * @param suite
+	 * @param bytecode all the classes compiled from the sources of the suite
+	 * @return the test classes to run
+	 */
+	private static Class<?>[] loadTests(TestSuiteSources suite, Map<String, byte[]> bytecode) {
+
+		Set<String> loaded = new LinkedHashSet<>();
+
 		/*
-		 * if we already loaded a CUT due to its .java, do not want
-		 * to re-loaded it for a .class file that is in the same folder
+		 * first load only the scaffolding classes, as the tests depend on them
 		 */
-		
-		List<File> otherClasses = new LinkedList<>();
-		
-		for(File file : parentFolder.listFiles()){
-			String  name = removeFileExtension(file.getName());
+		for (String className : suite.scaffoldingClassNames) {
+			loadClass(className, bytecode);
+			loaded.add(className);
+		}
 
-			if(classNames.contains(name)){
-				continue;
+		List<Class<?>> classes = new ArrayList<>();
+		for (String className : suite.testClassNames) {
+			Class<?> clazz = loadClass(className, bytecode);
+			if (clazz != null) {
+				classes.add(clazz);
 			}
-			
-			classNames.add(name);
-			otherClasses.add(file);
+			loaded.add(className);
 		}
-		
-		return otherClasses;
-	}
-	
 
-	private static String removeFileExtension(String str) {
-		if (str == null) {
-			return null;
+		/*
+		 * this is important to force the loading of all the other compiled classes,
+		 * as they are not on the classpath.
+		 * If we do not do that, then we will miss all the anonymous classes
+		 */
+		for (String className : bytecode.keySet()) {
+			if (!loaded.contains(className)) {
+				loadClass(className, bytecode);
+			}
 		}
 
-		int pos = str.lastIndexOf(".");
+		return classes.toArray(new Class<?>[classes.size()]);
+	}
 
-		if (pos == -1) {
-			return str;
+	private static Class<?> loadClass(String className, Map<String, byte[]> bytecode) {
+		byte[] bytes = bytecode.get(className);
+		if (bytes == null) {
+			logger.error("No bytecode was compiled for " + className);
+			return null;
 		}
 
-		return str.substring(0, pos);
+		try {
+			logger.info("Loading class " + className);
+			return loader.loadClassFromBytes(className, bytes);
+		} catch (ClassNotFoundException e) {
+			logger.error("Failed to load test case " + className + " from memory, error " + e, e);
+			return null;
+		}
 	}
 
 	/**
@@ -542,8 +696,8 @@ public class JUnitAnalyzer {
 	 * </p>
 	 * 
 	 * <p>
-	 * Here we compile to a tmp folder, load and execute the test cases, and
-	 * then clean up (ie delete all generated files).
+	 * Here we compile in memory, and load and execute the test cases directly
+	 * from their bytecode. Nothing is written to disk.
 	 * </p>
 	 * 
 	 * @param tests
@@ -557,29 +711,27 @@ public class JUnitAnalyzer {
 			return true;
 		}
 
-		File dir = createNewTmpDir();
-		if (dir == null) {
-			logger.warn("Failed to create tmp dir");
-			return false;
-		}
-
 		try {
-			List<File> generated = compileTests(tests, dir);
-			if (generated == null) {
+			TestSuiteSources suite = new TestSuiteSources(tests);
+			DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+			InMemoryJavaFileManager fileManager = compileInMemory(suite.units, diagnostics);
+			if (fileManager == null) {
 				logger.warn("Failed to compile the test cases ");
+				logDiagnostics(diagnostics);
 				return false;
 			}
 
 			//as last step, execute the generated/compiled test cases
 
-			Class<?>[] testClasses = loadTests(generated);
+			loader = new NonInstrumentingClassLoader();
+			Class<?>[] testClasses = loadTests(suite, fileManager.getCompiledClasses(suite.units));
 
-			if (testClasses == null) {
+			if (testClasses.length == 0) {
 				logger.error("Found no classes for compiled tests");
 				return false;
 			}
 
-			JUnitResult result = runTests(testClasses, dir);
+			JUnitResult result = runJUnitOnCurrentProcess(testClasses);
 
 			if (!result.wasSuccessful()) {
 				logger.error("" + result.getFailureCount() + " test cases failed");
@@ -603,106 +755,10 @@ public class JUnitAnalyzer {
 		} catch (Exception e) {
 			logger.error("" + e, e);
 			return false;
-		} finally {
-			//let's be sure we clean up all what we wrote on disk
-			if (dir != null) {
-				try {
-					FileUtils.deleteDirectory(dir);
-				} catch (IOException e) {
-					logger.warn("Cannot delete tmp dir: " + dir.getName(), e);
-				}
-			}
 		}
 
 		logger.debug("Successfully compiled and run test cases generated for "
 		        + Properties.TARGET_CLASS);
 		return true;
 	}
-
-	/**
-	 * Given a list of files representing .java/.class classes, load them (it
-	 * assumes the classpath to be correctly set)
-	 * 
-	 * @param files
-	 * @return
-	 */
-	private static Class<?>[] getClassesFromFiles(Collection<File> files) {
-		/*
-		 * first load only the scaffolding files
-		 */
-		for (File file : files) {
-			if(!isScaffolding(file)){
-				continue;
-			}
-			loadClass(file);			
-		}
-		
-		List<Class<?>> classes = new ArrayList<>();
-		
-		/*
-		 * once the scaffoldings are loaded, we can load the tests that
-		 * depend on them 
-		 */
-		for (File file : files) {
-			if(isScaffolding(file)){
-				continue;
-			}
-			Class<?> clazz = loadClass(file);
-			if(clazz != null){
-				classes.add(clazz);
-			}
-		}
-		
-		return classes.toArray(new Class<?>[classes.size()]);
-	}
-
-	private static boolean isScaffolding(File file){
-		String name = file.getName();
-		return name.endsWith("_"+Properties.SCAFFOLDING_SUFFIX+JAVA) || 
-				name.endsWith("_"+Properties.SCAFFOLDING_SUFFIX+CLASS);
-	}
-	
-	private static Class<?> loadClass(File file){
-		if (!file.isFile()) {
-			return null;
-		}
-
-		String packagePrefix = Properties.CLASS_PREFIX;
-		if (!packagePrefix.isEmpty() && !packagePrefix.endsWith(".")) {
-			packagePrefix += ".";
-		}
-
-		String name = file.getName();
-
-		if (!name.endsWith(JAVA) && !name.endsWith(CLASS)) {
-			/*
-			 * this could happen when we scan a folder for all src/compiled
-			 * files
-			 */
-			return null;
-		}
-
-		String fileName = file.getAbsolutePath();
-
-		if (name.endsWith(JAVA)) {
-			name = name.substring(0, name.length() - JAVA.length());
-			fileName = fileName.substring(0, fileName.length() - JAVA.length()) + ".class";
-		} else {
-			assert name.endsWith(CLASS);
-			name = name.substring(0, name.length() - CLASS.length());
-		}
-
-		String className = packagePrefix + name;
-
-		Class<?> testClass = null;
-		try {
-			logger.info("Loading class " + className);
-			//testClass = ((InstrumentingClassLoader) TestGenerationContext.getInstance().getClassLoaderForSUT()).loadClassFromFile(className,
-			testClass = loader.loadClassFromFile(className,fileName);
-		} catch (ClassNotFoundException e) {
-			logger.error("Failed to load test case " + className + " from file "
-			        + file.getAbsolutePath() + " , error " + e, e);
-		}
-		return testClass;
-	}
 }
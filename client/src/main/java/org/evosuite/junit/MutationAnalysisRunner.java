@@ -19,6 +19,7 @@
  */
 package org.evosuite.junit;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.LinkedHashSet;
 import java.util.Set;
@@ -37,6 +38,12 @@ import org.junit.runners.model.InitializationError;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Runs each test of a JUnit class first without mutants, and then once for
+ * each mutant it touches that has not been killed yet. If a
+ * {@link MutationKillLog} is given, kills are recorded in it as soon as they
+ * are found, and tests it lists as completed are not run again.
+ */
 public class MutationAnalysisRunner extends BlockJUnit4ClassRunner {
 
 	private static final Logger logger = LoggerFactory.getLogger(MutationAnalysisRunner.class);
@@ -45,9 +52,24 @@ public class MutationAnalysisRunner extends BlockJUnit4ClassRunner {
 
 	private Set<Mutation> liveMutants;
 
+	private final MutationKillLog killLog;
+
 	public MutationAnalysisRunner(Class<?> klass, Collection<Mutation> allMutants) throws InitializationError {
+		this(klass, allMutants, null);
+	}
+
+	public MutationAnalysisRunner(Class<?> klass, Collection<Mutation> allMutants, MutationKillLog killLog) throws InitializationError {
 		super(klass);
 		this.liveMutants = new LinkedHashSet<>(allMutants);
+		this.killLog = killLog;
+		if (killLog != null) {
+			for (Mutation m : allMutants) {
+				if (killLog.isKilled(m.getId())) {
+					liveMutants.remove(m);
+					killedMutants.add(m);
+				}
+			}
+		}
 	}
 	
 	public MutationAnalysisRunner(Class<?> klass) throws InitializationError {
@@ -75,12 +97,18 @@ public class MutationAnalysisRunner extends BlockJUnit4ClassRunner {
 	
 	@Override
 	protected void runChild(FrameworkMethod method, RunNotifier notifier) {
+		String testName = getTestClass().getName() + "#" + method.getName();
+		if (killLog != null && killLog.isCompleted(testName)) {
+			logger.info("Already analyzed: " + testName);
+			return;
+		}
 		logger.info("Running method "+method.getName());
 		SimpleRunListener resultListener = new SimpleRunListener();
 		notifier.addListener(resultListener);
 		
 		// First run without mutants
 		ExecutionTracer.enable();
+		ExecutionTracer.getExecutionTracer().clear();
 		super.runChild(method, notifier);
 		boolean result = resultListener.hasFailure;
 		logger.info("Result without mutant: "+result);
@@ -88,13 +116,13 @@ public class MutationAnalysisRunner extends BlockJUnit4ClassRunner {
 			logger.info("Failure: "+resultListener.lastFailure.getMessage());
 		}
 		
-		Set<Integer> touchedMutants = ExecutionTracer.getExecutionTracer().getTrace().getTouchedMutants();
+		Set<Integer> touchedMutants = new LinkedHashSet<>(ExecutionTracer.getExecutionTracer().getTrace().getTouchedMutants());
 		logger.info("Touched mutants: "+touchedMutants.size());
 		// Now run it for all touched mutants
 		for(Integer mutantID : touchedMutants) {
 			// logger.info("Current mutant: "+mutantID);
 			Mutation m = MutationPool.getInstance(TestGenerationContext.getInstance().getClassLoaderForSUT()).getMutant(mutantID);
-			if(killedMutants.contains(m)) {
+			if(m == null || killedMutants.contains(m)) {
 				// logger.info("Already dead: "+mutantID);
 				continue;
 			}
@@ -120,12 +148,30 @@ public class MutationAnalysisRunner extends BlockJUnit4ClassRunner {
 					logger.info("Error: "+t);
 					t.printStackTrace();
 				}
+				recordKill(testName, m);
 				
 			//} else {
 			//	logger.info("Remains live: "+mutantID);
 			}
 		}
 		notifier.removeListener(resultListener);
+		if (killLog != null) {
+			try {
+				killLog.recordCompleted(testName);
+			} catch (IOException e) {
+				logger.error("Could not record completed test " + testName + ": " + e);
+			}
+		}
 		logger.info("Done with "+method.getName());
 	}
+
+	private void recordKill(String testName, Mutation m) {
+		if (killLog == null)
+			return;
+		try {
+			killLog.recordKill(testName, m.getId());
+		} catch (IOException e) {
+			logger.error("Could not record kill of mutant " + m.getId() + ": " + e);
+		}
+	}
 }
@@ -0,0 +1,262 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.junit;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.evosuite.coverage.mutation.Mutation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Kill matrix of a mutation analysis, kept in an append-only file so that it
+ * does not need to be held in memory and an interrupted analysis can be
+ * resumed. Every line is one record:
+ * <ul>
+ * <li><code>M,&lt;fingerprint of the mutants&gt;</code>: header</li>
+ * <li><code>K,&lt;test&gt;,&lt;mutant id&gt;</code>: the test kills the
+ * mutant</li>
+ * <li><code>T,&lt;test&gt;</code>: the test has been run against all mutants
+ * it had to be run against</li>
+ * </ul>
+ * Records are flushed as soon as they are written. Only the set of killed
+ * mutants and the set of completed tests are kept in memory.
+ */
+public class MutationKillLog implements Closeable {
+
+	private static final Logger logger = LoggerFactory.getLogger(MutationKillLog.class);
+
+	private static final String HEADER = "M";
+
+	private static final String KILL = "K";
+
+	private static final String TEST = "T";
+
+	private final BitSet killed = new BitSet();
+
+	private final Set<String> completedTests = new HashSet<>();
+
+	private final Writer writer;
+
+	private MutationKillLog(Writer writer) {
+		this.writer = writer;
+	}
+
+	/**
+	 * Open the kill log in the given file. If the file exists and was created
+	 * for the same mutants, its kills and completed tests are loaded and new
+	 * records are appended. Otherwise, a new log is started.
+	 *
+	 * @param file
+	 *            a {@link java.io.File} object.
+	 * @param fingerprint
+	 *            identifies the mutants under analysis, see
+	 *            {@link #fingerprint(String, String, List)}
+	 * @return a {@link org.evosuite.junit.MutationKillLog} object.
+	 * @throws IOException
+	 *             if the file cannot be read or written
+	 */
+	public static MutationKillLog open(File file, String fingerprint) throws IOException {
+		boolean resume = file.exists() && fingerprint.equals(readHeader(file));
+		if (file.exists() && !resume) {
+			logger.warn("Kill matrix " + file + " does not match the current mutants, starting over");
+		}
+
+		Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, resume),
+		        StandardCharsets.UTF_8));
+		MutationKillLog log = new MutationKillLog(writer);
+		if (resume) {
+			boolean complete = endsWithNewline(file);
+			if (!complete) {
+				// Terminate the record truncated by an interruption
+				writer.write('\n');
+			}
+			log.load(file, complete);
+			logger.info("Resuming mutation analysis with " + log.completedTests.size()
+			        + " completed tests and " + log.getNumKilledMutants() + " killed mutants");
+		} else {
+			log.write(HEADER + "," + fingerprint);
+		}
+		return log;
+	}
+
+	/**
+	 * Mutant ids are only stable as long as the class under test and the
+	 * mutation operators do not change, so a kill log can only be resumed if
+	 * the mutants are the same, in the same order.
+	 *
+	 * @param targetClass
+	 *            name of the class under test
+	 * @param criterion
+	 *            the mutation criterion the mutants are killed for
+	 * @param mutants
+	 *            the mutants under analysis
+	 * @return a hash of the class name, of the criterion and of the id and
+	 *         description of each mutant
+	 */
+	public static String fingerprint(String targetClass, String criterion, List<Mutation> mutants) {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			// every JVM has to support SHA-256
+			throw new IllegalStateException(e);
+		}
+		update(digest, targetClass);
+		update(digest, criterion);
+		for (Mutation mutant : mutants) {
+			update(digest, mutant.getId() + "," + mutant.getClassName() + "," + mutant.getMethodName() + ","
+			        + mutant.getMutationName());
+		}
+
+		StringBuilder hex = new StringBuilder();
+		for (byte b : digest.digest()) {
+			hex.append(String.format("%02x", b));
+		}
+		return hex.toString();
+	}
+
+	private static void update(MessageDigest digest, String value) {
+		digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+		// so that values cannot run into each other
+		digest.update((byte) '\n');
+	}
+
+	private static String readHeader(File file) throws IOException {
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file),
+		        StandardCharsets.UTF_8))) {
+			String line = reader.readLine();
+			if (line == null || !line.startsWith(HEADER + ","))
+				return null;
+			return line.substring(HEADER.length() + 1);
+		}
+	}
+
+	private static boolean endsWithNewline(File file) throws IOException {
+		try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+			if (raf.length() == 0)
+				return true;
+			raf.seek(raf.length() - 1);
+			return raf.read() == '\n';
+		}
+	}
+
+	/**
+	 * @param complete
+	 *            false if the last line is a truncated record that has to be
+	 *            ignored
+	 */
+	private void load(File file, boolean complete) throws IOException {
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file),
+		        StandardCharsets.UTF_8))) {
+			String line = reader.readLine();
+			while (line != null) {
+				String next = reader.readLine();
+				if (next == null && !complete) {
+					logger.debug("Ignoring truncated record: " + line);
+					break;
+				}
+				parse(line);
+				line = next;
+			}
+		}
+	}
+
+	private void parse(String line) {
+		if (line.startsWith(KILL + ",")) {
+			int separator = line.lastIndexOf(',');
+			try {
+				killed.set(Integer.parseInt(line.substring(separator + 1)));
+			} catch (NumberFormatException e) {
+				logger.debug("Ignoring malformed record: " + line);
+			}
+		} else if (line.startsWith(TEST + ",")) {
+			completedTests.add(line.substring(TEST.length() + 1));
+		}
+	}
+
+	private void write(String record) throws IOException {
+		writer.write(record);
+		writer.write('\n');
+		writer.flush();
+	}
+
+	/**
+	 * Record that the test kills the mutant
+	 *
+	 * @param test
+	 *            name of the test
+	 * @param mutantId
+	 *            id of the mutant
+	 * @throws IOException
+	 *             if the record cannot be written
+	 */
+	public void recordKill(String test, int mutantId) throws IOException {
+		killed.set(mutantId);
+		write(KILL + "," + test + "," + mutantId);
+	}
+
+	/**
+	 * Record that the test does not need to be run again
+	 *
+	 * @param test
+	 *            name of the test
+	 * @throws IOException
+	 *             if the record cannot be written
+	 */
+	public void recordCompleted(String test) throws IOException {
+		completedTests.add(test);
+		write(TEST + "," + test);
+	}
+
+	public boolean isKilled(int mutantId) {
+		return killed.get(mutantId);
+	}
+
+	public boolean isCompleted(String test) {
+		return completedTests.contains(test);
+	}
+
+	public int getNumKilledMutants() {
+		return killed.cardinality();
+	}
+
+	@Override
+	public void close() throws IOException {
+		writer.close();
+	}
+}
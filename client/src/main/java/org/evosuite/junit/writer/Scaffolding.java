@@ -751,6 +751,11 @@ public class Scaffolding {
 			bd.append(EXECUTOR_SERVICE + " = Executors.newCachedThreadPool(); \n");
 		}
 
+		if (Properties.RESET_STATIC_FIELDS && Properties.RESET_STATIC_FIELDS_FROM_SNAPSHOT) {
+			bd.append(BLOCK_SPACE);
+			bd.append(RuntimeSettings.class.getName() + ".restoreStaticStateFromSnapshot = true; \n");
+		}
+
 		if (Properties.RESET_STATIC_FIELDS && Properties.REPLACE_CALLS) {
 			bd.append(BLOCK_SPACE);
 			bd.append(JDKClassResetter.class.getName() + ".init();\n");
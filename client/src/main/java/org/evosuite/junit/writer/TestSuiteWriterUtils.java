@@ -30,6 +30,7 @@ import org.evosuite.Properties.OutputFormat;
 import org.evosuite.junit.JUnit3TestAdapter;
 import org.evosuite.junit.JUnit4TestAdapter;
 import org.evosuite.junit.UnitTestAdapter;
+import org.evosuite.runtime.sandbox.Sandbox;
 import org.evosuite.testcarver.testcase.CarvedTestCase;
 import org.evosuite.testcase.TestCase;
 import org.evosuite.testcase.execution.ExecutionResult;
@@ -61,7 +62,8 @@ public class TestSuiteWriterUtils {
      */
 	public static boolean needToUseAgent(){
 		return Properties.REPLACE_CALLS || Properties.VIRTUAL_FS
-				|| Properties.RESET_STATIC_FIELDS || Properties.VIRTUAL_NET;
+				|| Properties.RESET_STATIC_FIELDS || Properties.VIRTUAL_NET
+				|| (Properties.SANDBOX && Properties.SANDBOX_MODE == Sandbox.SandboxMode.CALL_SITE);
 	}
 
 
@@ -19,6 +19,7 @@
  */
 package org.evosuite.rmi.service;
 
+import java.io.IOException;
 import java.rmi.RemoteException;
 import java.rmi.registry.Registry;
 import java.util.ArrayList;
@@ -27,8 +28,10 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -48,8 +51,10 @@ import org.evosuite.runtime.sandbox.PermissionStatistics;
 import org.evosuite.runtime.sandbox.Sandbox;
 import org.evosuite.setup.DependencyAnalysis;
 import org.evosuite.setup.TestCluster;
+import org.evosuite.statistics.IndividualStatistics;
 import org.evosuite.statistics.RuntimeVariable;
-import org.evosuite.utils.Listener;
+import org.evosuite.statistics.StatisticsStreamWriter;
+import org.evosuite.testsuite.TestSuiteChromosome;
 import org.evosuite.utils.LoggingUtils;
 import org.evosuite.utils.Randomness;
 import org.evosuite.utils.FileIOUtils;
@@ -90,17 +95,29 @@ public class ClientNodeImpl<T extends Chromosome<T>>
 
 	protected Registry registry;
 
-    protected final Collection<Listener<Set<T>>> listeners = Collections.synchronizedList(
-			new ArrayList<>());
-
 	protected final ExecutorService searchExecutor = Executors.newSingleThreadExecutor();
 
+	/**
+	 * Sends migrants to the master, so that the search does not wait for the
+	 * remote calls. Created on first use.
+	 */
+	private ExecutorService migrationExecutor;
+
+	/** Migrants received from other clients, not yet taken by the search */
+	private final Queue<MigrantBatch> immigrants = new ConcurrentLinkedQueue<>();
+
 	private final BlockingQueue<OutputVariable> outputVariableQueue = new LinkedBlockingQueue<>();
 
 	private Collection<Set<T>> bestSolutions;
 	
 	private Thread statisticsThread; 
 
+	/**
+	 * Binary channel used instead of RMI to send statistics to the master,
+	 * <code>null</code> if not used (see {@link Properties#STATISTICS_STREAM})
+	 */
+	private volatile StatisticsStreamWriter statisticsStream;
+
 	//only for testing
 	protected ClientNodeImpl() {
 	}
@@ -204,13 +221,32 @@ public class ClientNodeImpl<T extends Chromosome<T>>
 	}
 
     @Override
-    public void emigrate(Set<T> immigrants) {
-        try {
-            logger.debug(ClientProcess.getPrettyPrintIdentifier() + "Sending " + immigrants.size() + " immigrants");
-            masterNode.evosuite_migrate(clientRmiIdentifier, immigrants);
-        } catch (RemoteException e) {
-            logger.error(ClientProcess.getPrettyPrintIdentifier() + "Cannot send immigrating individuals to master", e);
+    public synchronized void emigrate(MigrantBatch emigrants) {
+        if (migrationExecutor == null) {
+            migrationExecutor = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, "Migrant sender in client process");
+                thread.setDaemon(true);
+                Sandbox.addPrivilegedThread(thread);
+                return thread;
+            });
         }
+        migrationExecutor.submit(() -> {
+            try {
+                logger.debug(ClientProcess.getPrettyPrintIdentifier() + "Sending " + emigrants.size() + " emigrants");
+                masterNode.evosuite_migrate(clientRmiIdentifier, emigrants);
+            } catch (RemoteException e) {
+                logger.error(ClientProcess.getPrettyPrintIdentifier() + "Cannot send emigrating individuals to master", e);
+            }
+        });
+    }
+
+    @Override
+    public List<MigrantBatch> pollImmigrants() {
+        List<MigrantBatch> batches = new ArrayList<>();
+        MigrantBatch batch;
+        while ((batch = immigrants.poll()) != null)
+            batches.add(batch);
+        return batches;
     }
 
     @Override
@@ -264,6 +300,22 @@ public class ClientNodeImpl<T extends Chromosome<T>>
 		}
 	}
 
+	@Override
+	public void updateTimelineStatistics(T individual) {
+		StatisticsStreamWriter stream = statisticsStream;
+		if (stream != null && individual instanceof TestSuiteChromosome) {
+			try {
+				if (stream.sendIndividual(IndividualStatistics.of((TestSuiteChromosome) individual))) {
+					return;
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+		updateStatistics(individual);
+	}
+
 	@Override
 	public void flushStatisticsForClassChange() {
 		logger.info("Flushing output variables to master process");
@@ -346,10 +398,13 @@ public class ClientNodeImpl<T extends Chromosome<T>>
 			outputVariableQueue.drainTo(vars);
 			for(OutputVariable ov : vars) {
 				try {
-					masterNode.evosuite_collectStatistics(clientRmiIdentifier, ov.variable, ov.value);
+					sendOutputVariable(ov);
 				} catch (RemoteException e) {
 					logger.error("Error when exporting statistics: "+ov.variable+"="+ov.value, e);
 					break;
+				} catch (InterruptedException e) {
+					logger.error("Interrupted when exporting statistics");
+					break;
 				}
 			}
 
@@ -361,6 +416,20 @@ public class ClientNodeImpl<T extends Chromosome<T>>
 			statisticsThread = null;
 		}
 
+		if(statisticsStream != null){
+			// wait for the master to have processed all the statistics before
+			// telling it that this client is finished
+			statisticsStream.close();
+			statisticsStream = null;
+		}
+
+		synchronized (this) {
+			if (migrationExecutor != null) {
+				migrationExecutor.shutdownNow();
+				migrationExecutor = null;
+			}
+		}
+
 		changeState(ClientState.FINISHED);
 	}
 
@@ -372,6 +441,10 @@ public class ClientNodeImpl<T extends Chromosome<T>>
 			masterNode.evosuite_informChangeOfStateInClient(clientRmiIdentifier, state,
 					new ClientStateInformation(state));
 
+			if (Properties.STATISTICS_STREAM) {
+				openStatisticsStream();
+			}
+
 			statisticsThread = new Thread() {
 				@Override
 				public void run() {
@@ -379,7 +452,7 @@ public class ClientNodeImpl<T extends Chromosome<T>>
 						OutputVariable ov = null;
 						try {
 							ov = outputVariableQueue.take(); //this is blocking
-							masterNode.evosuite_collectStatistics(clientRmiIdentifier, ov.variable, ov.value);
+							sendOutputVariable(ov);
 						} catch (InterruptedException e) {
 							break;
 						} catch (RemoteException e) {
@@ -400,6 +473,37 @@ public class ClientNodeImpl<T extends Chromosome<T>>
 		return true;
 	}
 
+	private void openStatisticsStream() {
+		try {
+			int port = masterNode.evosuite_getStatisticsStreamPort();
+			if (port <= 0) {
+				logger.warn("Master has no statistics stream, using RMI instead");
+				return;
+			}
+			statisticsStream = StatisticsStreamWriter.connect(port, clientRmiIdentifier,
+					Properties.STATISTICS_STREAM_BUFFER, frame -> {
+						try {
+							masterNode.evosuite_collectStatistics(clientRmiIdentifier, frame);
+						} catch (RemoteException e) {
+							logger.error("Cannot send statistics to master", e);
+						}
+					});
+		} catch (IOException e) {
+			logger.warn("Failed to open statistics stream to master, using RMI instead: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Send through the statistics stream if possible, otherwise with RMI
+	 */
+	private void sendOutputVariable(OutputVariable ov) throws RemoteException, InterruptedException {
+		StatisticsStreamWriter stream = statisticsStream;
+		if (stream != null && stream.sendOutputVariable(ov.variable, ov.value)) {
+			return;
+		}
+		masterNode.evosuite_collectStatistics(clientRmiIdentifier, ov.variable, ov.value);
+	}
+
 	public String getClientRmiIdentifier() {
 		return clientRmiIdentifier;
 	}
@@ -529,10 +633,12 @@ public class ClientNodeImpl<T extends Chromosome<T>>
 	}
 	
     @Override
-    public void immigrate(Set<T> migrants) throws RemoteException {
+    public void immigrate(MigrantBatch migrants) throws RemoteException {
+        if (migrants == null || migrants.isEmpty())
+            return;
         logger.debug(ClientProcess.getPrettyPrintIdentifier() + "receiving "
-                + (migrants != null ? migrants.size() : 0) + " immigrants");
-        fireEvent(migrants);
+                + migrants.size() + " immigrants from " + migrants.getSender());
+        immigrants.add(migrants);
     }
 
     @Override
@@ -541,28 +647,6 @@ public class ClientNodeImpl<T extends Chromosome<T>>
         bestSolutions.add(solutions);
     }
 
-    @Override
-    public void addListener(Listener<Set<T>> listener) {
-	    listeners.add(listener);
-    }
-
-    @Override
-    public void deleteListener(Listener<Set<T>> listener) {
-	    listeners.remove(listener);
-    }
-
-    /**
-     * Fires event to all registered listeners.
-     *
-     * @param event
-     *            the event to fire
-     */
-    private void fireEvent(Set<T> event) {
-        for (Listener<Set<T>> listener : listeners) {
-            listener.receiveEvent(event);
-        }
-    }
-
     /**
      * Returns collected solutions of all clients other than client 0. This method blocks until all solutions are 
      * collected.
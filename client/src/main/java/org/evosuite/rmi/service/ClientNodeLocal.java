@@ -21,8 +21,8 @@ package org.evosuite.rmi.service;
 
 import org.evosuite.ga.Chromosome;
 import org.evosuite.statistics.RuntimeVariable;
-import org.evosuite.utils.Listenable;
 
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -30,7 +30,7 @@ import java.util.Set;
  * @author arcuri
  *
  */
-public interface ClientNodeLocal<T extends Chromosome<T>> extends Listenable<Set<T>> {
+public interface ClientNodeLocal<T extends Chromosome<T>> {
 
 	boolean init();
 
@@ -44,13 +44,28 @@ public interface ClientNodeLocal<T extends Chromosome<T>> extends Listenable<Set
 
 	void updateStatistics(T individual);
 
+	/**
+	 * Send the individual only for the timeline values computed from it, so
+	 * it is enough to send the statistics derived from it if the client can
+	 */
+	void updateTimelineStatistics(T individual);
+
 	void flushStatisticsForClassChange();
 
 	void updateProperty(String propertyName, Object value);
 
 	void waitUntilDone();
 	
-	void emigrate(Set<T> immigrants);
+	/**
+	 * Send migrants to the master in the background, so the search does not
+	 * wait for them to be delivered
+	 */
+	void emigrate(MigrantBatch emigrants);
+
+	/**
+	 * @return the migrants received since the last call, possibly none
+	 */
+	List<MigrantBatch> pollImmigrants();
 	
 	void sendBestSolution(Set<T> solutions);
 
@@ -54,7 +54,11 @@ public interface ClientNodeRemote<T extends Chromosome<T>> extends Remote {
 
 	void printClassStatistics() throws RemoteException;
 	
-	void immigrate(Set<T> migrants) throws RemoteException;
+	/**
+	 * Queue migrants from another client, to be taken by the search at its
+	 * next generation
+	 */
+	void immigrate(MigrantBatch migrants) throws RemoteException;
 
     void collectBestSolutions(Set<T> solutions) throws RemoteException;
 }
@@ -63,6 +63,11 @@ public class DummyClientNodeImpl<T extends Chromosome<T>> extends ClientNodeImpl
 		
 	}
 
+	@Override
+	public void updateTimelineStatistics(T individual) {
+		
+	}
+
 	@Override
 	public void trackOutputVariable(RuntimeVariable name, Object value) {
 		// TODO Auto-generated method stub
@@ -100,6 +105,11 @@ public class DummyClientNodeImpl<T extends Chromosome<T>> extends ClientNodeImpl
 		
 	}
 
+	@Override
+	public void emigrate(MigrantBatch emigrants) {
+		
+	}
+
 	@Override
 	public String getClientRmiIdentifier() {
 		return "dummy";
@@ -51,13 +51,28 @@ public interface MasterNodeRemote extends Remote {
 
 	void evosuite_collectStatistics(String clientRmiIdentifier, RuntimeVariable variable, Object value) throws RemoteException;
 
+	/**
+	 * Records that were accepted by the statistics stream, but could not be sent
+	 * through it, in its frame format (see {@link org.evosuite.statistics.StatisticsStreamWriter})
+	 */
+	void evosuite_collectStatistics(String clientRmiIdentifier, byte[] frame) throws RemoteException;
+
+	/**
+	 * @return the local port to which to open the binary statistics stream, or -1 if there is none
+	 */
+	int evosuite_getStatisticsStreamPort() throws RemoteException;
+
 	void evosuite_collectTestGenerationResult(String clientRmiIdentifier, List<TestGenerationResult> results) throws RemoteException;
 
 	void evosuite_flushStatisticsForClassChange(String clientRmiIdentifier) throws RemoteException;
 
 	void evosuite_updateProperty(String clientRmiIdentifier, String propertyName, Object value) throws RemoteException, IllegalArgumentException, IllegalAccessException, NoSuchParameterException;
 	
-	void evosuite_migrate(String clientRmiIdentifier, Set<? extends Chromosome> migrants) throws RemoteException;
+	/**
+	 * Forward migrants to the clients given by the migration topology. Returns
+	 * without waiting for them to be delivered.
+	 */
+	void evosuite_migrate(String clientRmiIdentifier, MigrantBatch migrants) throws RemoteException;
 
     void evosuite_collectBestSolutions(String clientRmiIdentifier, Set<? extends Chromosome> solutions) throws RemoteException;
 }
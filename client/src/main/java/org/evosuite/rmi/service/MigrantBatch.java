@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.rmi.service;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.evosuite.ga.Chromosome;
+import org.evosuite.ga.ChromosomeFactory;
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testsuite.TestSuiteChromosome;
+
+/**
+ * Individuals sent from one client to another in a parallel search.
+ * 
+ * <p>
+ * Only the test cases of each individual are sent. Fitness values, execution
+ * results and the goals they refer to are left out, as they are large and the
+ * receiving client evaluates the individuals against its own goals anyway.
+ * The test cases are cloned when the batch is created, so the batch can be
+ * serialized on another thread while the search goes on.
+ */
+public class MigrantBatch implements Serializable {
+
+	private static final long serialVersionUID = -2640913744916316829L;
+
+	private final String sender;
+
+	/** the test cases of each migrant: one for a test, all of them for a suite */
+	private final List<List<TestCase>> migrants;
+
+	private MigrantBatch(String sender, List<List<TestCase>> migrants) {
+		this.sender = sender;
+		this.migrants = migrants;
+	}
+
+	/**
+	 * Encodes test or test suite chromosomes. Other chromosomes are skipped.
+	 * 
+	 * @param sender
+	 *            the RMI identifier of the sending client
+	 * @param chromosomes
+	 * @return a batch that does not share any state with the chromosomes
+	 */
+	public static MigrantBatch of(String sender, Collection<? extends Chromosome<?>> chromosomes) {
+		List<List<TestCase>> migrants = new ArrayList<>(chromosomes.size());
+		for (Chromosome<?> chromosome : chromosomes) {
+			if (chromosome instanceof TestChromosome) {
+				migrants.add(Collections.singletonList(((TestChromosome) chromosome).getTestCase().clone()));
+			} else if (chromosome instanceof TestSuiteChromosome) {
+				List<TestCase> tests = new ArrayList<>();
+				for (TestChromosome test : ((TestSuiteChromosome) chromosome).getTestChromosomes())
+					tests.add(test.getTestCase().clone());
+				migrants.add(tests);
+			}
+		}
+		return new MigrantBatch(sender, migrants);
+	}
+
+	public String getSender() {
+		return sender;
+	}
+
+	public int size() {
+		return migrants.size();
+	}
+
+	public boolean isEmpty() {
+		return migrants.isEmpty();
+	}
+
+	/**
+	 * @return one new, not yet evaluated chromosome per test case of the
+	 *         batch
+	 */
+	public List<TestChromosome> toTestChromosomes() {
+		List<TestChromosome> chromosomes = new ArrayList<>();
+		for (List<TestCase> tests : migrants) {
+			for (TestCase test : tests)
+				chromosomes.add(toTestChromosome(test));
+		}
+		return chromosomes;
+	}
+
+	/**
+	 * The factory is not part of the batch, so the suites get the one of the
+	 * receiving search: suite mutation uses it to insert new tests.
+	 * 
+	 * @param testChromosomeFactory
+	 *            the factory of the suites of the receiving search
+	 * @return one new, not yet evaluated suite per migrant of the batch
+	 */
+	public List<TestSuiteChromosome> toTestSuiteChromosomes(ChromosomeFactory<TestChromosome> testChromosomeFactory) {
+		List<TestSuiteChromosome> suites = new ArrayList<>(migrants.size());
+		for (List<TestCase> tests : migrants) {
+			TestSuiteChromosome suite = new TestSuiteChromosome(testChromosomeFactory);
+			for (TestCase test : tests)
+				suite.addTest(test.clone());
+			suites.add(suite);
+		}
+		return suites;
+	}
+
+	private static TestChromosome toTestChromosome(TestCase test) {
+		TestChromosome chromosome = new TestChromosome();
+		chromosome.setTestCase(test.clone());
+		return chromosome;
+	}
+}
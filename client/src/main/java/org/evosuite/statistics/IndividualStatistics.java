@@ -0,0 +1,213 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.statistics;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.evosuite.ga.FitnessFunction;
+import org.evosuite.testsuite.TestSuiteChromosome;
+
+/**
+ * The values of a test suite that the output variable factories on the master
+ * need, ie fitness, coverage, size and length, in total and for each fitness
+ * function.
+ * 
+ * <p>
+ * This is what is sent to the master for timeline values, instead of the whole
+ * serialized test suite (see {@link StatisticsStreamWriter})
+ */
+public class IndividualStatistics {
+
+	private static class FitnessEntry {
+		/**
+		 * Name of the class of the fitness function, and of all its superclasses
+		 */
+		private final String[] types;
+		private final double fitness;
+		private final double coverage;
+
+		private FitnessEntry(String[] types, double fitness, double coverage) {
+			this.types = types;
+			this.fitness = fitness;
+			this.coverage = coverage;
+		}
+
+		private boolean isInstanceOf(Class<?> clazz) {
+			for (String type : types) {
+				if (type.equals(clazz.getName())) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * When the values were taken, in milliseconds
+	 */
+	private final long timeStamp;
+
+	private final double fitness;
+
+	private final double coverage;
+
+	private final int size;
+
+	private final int length;
+
+	private final int numOfNotCoveredGoals;
+
+	private final List<FitnessEntry> entries;
+
+	private IndividualStatistics(long timeStamp, double fitness, double coverage, int size, int length,
+			int numOfNotCoveredGoals, List<FitnessEntry> entries) {
+		this.timeStamp = timeStamp;
+		this.fitness = fitness;
+		this.coverage = coverage;
+		this.size = size;
+		this.length = length;
+		this.numOfNotCoveredGoals = numOfNotCoveredGoals;
+		this.entries = entries;
+	}
+
+	/**
+	 * Extract the statistics of the given test suite at the current time
+	 * 
+	 * @param individual
+	 * @return
+	 */
+	public static IndividualStatistics of(TestSuiteChromosome individual) {
+		Set<FitnessFunction<TestSuiteChromosome>> functions = new LinkedHashSet<>(
+				individual.getFitnessValues().keySet());
+		functions.addAll(individual.getCoverageValues().keySet());
+
+		List<FitnessEntry> entries = new ArrayList<>(functions.size());
+		for (FitnessFunction<TestSuiteChromosome> ff : functions) {
+			List<String> types = new ArrayList<>();
+			for (Class<?> c = ff.getClass(); c != null && c != Object.class; c = c.getSuperclass()) {
+				types.add(c.getName());
+			}
+			Double ffFitness = individual.getFitnessValues().get(ff);
+			Double ffCoverage = individual.getCoverageValues().get(ff);
+			entries.add(new FitnessEntry(types.toArray(new String[0]),
+					ffFitness == null ? Double.NaN : ffFitness,
+					ffCoverage == null ? Double.NaN : ffCoverage));
+		}
+
+		return new IndividualStatistics(System.currentTimeMillis(), individual.getFitness(),
+				individual.getCoverage(), individual.size(), individual.totalLengthOfTestCases(),
+				individual.getNumOfNotCoveredGoals(), entries);
+	}
+
+	public long getTimeStamp() {
+		return timeStamp;
+	}
+
+	public double getFitness() {
+		return fitness;
+	}
+
+	public double getCoverage() {
+		return coverage;
+	}
+
+	/**
+	 * @return the number of tests in the test suite
+	 */
+	public int size() {
+		return size;
+	}
+
+	public int totalLengthOfTestCases() {
+		return length;
+	}
+
+	public int getNumOfNotCoveredGoals() {
+		return numOfNotCoveredGoals;
+	}
+
+	/**
+	 * Same as {@link TestSuiteChromosome#getFitnessInstanceOf(Class)}
+	 */
+	public double getFitnessInstanceOf(Class<?> clazz) {
+		for (FitnessEntry entry : entries) {
+			if (!Double.isNaN(entry.fitness) && entry.isInstanceOf(clazz)) {
+				return entry.fitness;
+			}
+		}
+		return 0.0;
+	}
+
+	/**
+	 * Same as {@link TestSuiteChromosome#getCoverageInstanceOf(Class)}
+	 */
+	public double getCoverageInstanceOf(Class<?> clazz) {
+		for (FitnessEntry entry : entries) {
+			if (!Double.isNaN(entry.coverage) && entry.isInstanceOf(clazz)) {
+				return entry.coverage;
+			}
+		}
+		return 0.0;
+	}
+
+	public void write(DataOutput out) throws IOException {
+		out.writeLong(timeStamp);
+		out.writeDouble(fitness);
+		out.writeDouble(coverage);
+		out.writeInt(size);
+		out.writeInt(length);
+		out.writeInt(numOfNotCoveredGoals);
+		out.writeInt(entries.size());
+		for (FitnessEntry entry : entries) {
+			out.writeInt(entry.types.length);
+			for (String type : entry.types) {
+				out.writeUTF(type);
+			}
+			out.writeDouble(entry.fitness);
+			out.writeDouble(entry.coverage);
+		}
+	}
+
+	public static IndividualStatistics read(DataInput in) throws IOException {
+		long timeStamp = in.readLong();
+		double fitness = in.readDouble();
+		double coverage = in.readDouble();
+		int size = in.readInt();
+		int length = in.readInt();
+		int numOfNotCoveredGoals = in.readInt();
+		int n = in.readInt();
+		List<FitnessEntry> entries = new ArrayList<>(n);
+		for (int i = 0; i < n; i++) {
+			String[] types = new String[in.readInt()];
+			for (int j = 0; j < types.length; j++) {
+				types[j] = in.readUTF();
+			}
+			entries.add(new FitnessEntry(types, in.readDouble(), in.readDouble()));
+		}
+		return new IndividualStatistics(timeStamp, fitness, coverage, size, length, numOfNotCoveredGoals,
+				entries);
+	}
+}
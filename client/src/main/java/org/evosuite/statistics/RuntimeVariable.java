@@ -381,8 +381,32 @@ public enum RuntimeVariable {
 	/* -------------------------------------------------------------------- */
 	/** Search budget needed to reach the maximum coverage */ 
 	/** Used in the comparison between LISP and MOSA */
-	Time2MaxCoverage
-	
+	Time2MaxCoverage,
+
+	/* -------------------------------------------------------------------- */
+	/** Total time in ms spent executing tests, as measured with the profiling property */
+	Profiled_Test_Execution_Time,
+	/**
+	 * Total time in ms spent computing fitness values. This includes the archive
+	 * updates, and the test executions and class resets done to compute them, so
+	 * it overlaps with the other Profiled_* times, which must not be summed
+	 */
+	Profiled_Fitness_Time,
+	/** Total time in ms spent ranking the population into non-dominated fronts */
+	Profiled_Ranking_Time,
+	/** Total time in ms spent computing crowding distances */
+	Profiled_Crowding_Distance_Time,
+	/** Total time in ms spent mutating test cases */
+	Profiled_Mutation_Time,
+	/** Total time in ms spent in crossover */
+	Profiled_Crossover_Time,
+	/** Total time in ms spent updating the archive */
+	Profiled_Archive_Update_Time,
+	/** Total time in ms spent resetting static state after test execution */
+	Profiled_Class_Reset_Time,
+	/** Total time in ms spent by the sandbox checking permissions */
+	Profiled_Sandbox_Check_Time
+
 	;
 	/* -------------------------------------------------- */
 
@@ -21,7 +21,6 @@ package org.evosuite.statistics;
 
 import org.evosuite.Properties;
 import org.evosuite.TimeController;
-import org.evosuite.testsuite.TestSuiteChromosome;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -51,10 +50,13 @@ public abstract class SequenceOutputVariableFactory<T extends Number> {
 		this.startTime = time;
 	}
 	
-	protected abstract T getValue(TestSuiteChromosome individual);
+	protected abstract T getValue(IndividualStatistics individual);
 	
-	public void update(TestSuiteChromosome individual) {
-		timeStamps.add(System.currentTimeMillis() - startTime);
+	/**
+	 * Add the value of the given individual, at the time its statistics were taken
+	 */
+	public void update(IndividualStatistics individual) {
+		timeStamps.add(individual.getTimeStamp() - startTime);
 		values.add(getValue(individual));
 	}
 	
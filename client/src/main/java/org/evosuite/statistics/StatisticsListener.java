@@ -54,6 +54,12 @@ public class StatisticsListener<T extends Chromosome<T>> implements SearchListen
 	private int numFitnessEvaluations;
 	
 	private volatile Thread notifier;
+
+	/**
+	 * Best individual at the end of the search, which is sent as a whole, unlike
+	 * the ones sent for the timelines
+	 */
+	private volatile T finalIndividual;
 	
 	/**
 	 * When did we send an individual due to a new generation iteration?
@@ -74,7 +80,11 @@ public class StatisticsListener<T extends Chromosome<T>> implements SearchListen
 				T individual;
 				try {
 					individual = individuals.take();
-					StatisticsSender.sendIndividualToMaster(individual);
+					if(individual == finalIndividual) {
+						StatisticsSender.sendIndividualToMaster(individual);
+					} else {
+						StatisticsSender.sendTimelineIndividualToMaster(individual);
+					}
 				} catch (InterruptedException e) {
 					done = true;
 				}
@@ -91,6 +101,7 @@ public class StatisticsListener<T extends Chromosome<T>> implements SearchListen
 		this.minimizing = that.minimizing;
 		this.numFitnessEvaluations = that.numFitnessEvaluations;
 		this.timeFromLastGenerationUpdate = that.timeFromLastGenerationUpdate;
+		this.finalIndividual = that.finalIndividual;
 
 		this.notifier = new Thread(that.notifier);
 		Sandbox.addPrivilegedThread(this.notifier);
@@ -121,7 +132,8 @@ public class StatisticsListener<T extends Chromosome<T>> implements SearchListen
 		
 		// If the search is finished, we may want to clear the queue and just send the final element?
 		//individuals.clear(); // TODO: Maybe have a check on size
-		individuals.offer(algorithm.getBestIndividual());
+		finalIndividual = algorithm.getBestIndividual();
+		individuals.offer(finalIndividual);
 		ClientServices.getInstance().getClientNode().trackOutputVariable(RuntimeVariable.Statements_Executed, MaxStatementsStoppingCondition.getNumExecutedStatements());
 		ClientServices.getInstance().getClientNode().trackOutputVariable(RuntimeVariable.Tests_Executed, MaxTestsStoppingCondition.getNumExecutedTests());
 		ClientServices.getInstance().getClientNode().trackOutputVariable(RuntimeVariable.Generations, algorithm.getAge());
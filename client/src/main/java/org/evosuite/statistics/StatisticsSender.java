@@ -68,6 +68,23 @@ public class StatisticsSender {
 		ClientServices.<T>getInstance().getClientNode().updateStatistics(individual);
 	}
 
+	/**
+	 * Send the given individual to the Master only for the timeline values,
+	 * eg when sent periodically during the search. Only the statistics derived
+	 * from it might be sent.
+	 * 
+	 * @param individual
+	 */
+	public static <T extends Chromosome<T>> void sendTimelineIndividualToMaster(T individual) throws IllegalArgumentException{
+		if(individual == null){
+			throw new IllegalArgumentException("No defined individual to send");
+		}
+		if(!Properties.NEW_STATISTICS)
+			return;
+
+		ClientServices.<T>getInstance().getClientNode().updateTimelineStatistics(individual);
+	}
+
 
 	/**
 	 * First execute (if needed) the test cases to be sure to have latest correct data,
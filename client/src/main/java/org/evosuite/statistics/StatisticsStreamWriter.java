@@ -0,0 +1,323 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.statistics;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.evosuite.runtime.sandbox.Sandbox;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Client side of the binary statistics channel to the master process, used
+ * instead of one RMI call per output variable / timeline individual when
+ * {@link org.evosuite.Properties#STATISTICS_STREAM} is on.
+ * 
+ * <p>
+ * Records are buffered in a bounded queue, and a privileged thread sends all
+ * the ones available as a single length-prefixed frame. When the buffer is
+ * full, the caller waits for the master to catch up.
+ * 
+ * <p>
+ * The stream starts with the RMI identifier of the client. Then each frame is
+ * its length in bytes, the number of records, and the records. A record is
+ * its type followed by its content. Closing the stream sends an {@link #END}
+ * record and waits for the master to acknowledge it, so that all statistics
+ * have been processed by the time the client reports it is finished.
+ *
+ * <p>
+ * If the stream fails, the records that were accepted but not sent are given,
+ * as a frame without its length, to the fallback provided when connecting
+ * (eg, to be sent with RMI instead).
+ */
+public class StatisticsStreamWriter {
+
+	private static final Logger logger = LoggerFactory.getLogger(StatisticsStreamWriter.class);
+
+	public static final byte INDIVIDUAL = 'I';
+
+	public static final byte OUTPUT_VARIABLE = 'V';
+
+	public static final byte END = 'E';
+
+	public static final int ACK = 1;
+
+	public static final int MAX_RECORDS_PER_FRAME = 256;
+
+	public static final int MAX_FRAME_LENGTH = 16 * 1024 * 1024;
+
+	private static final long CLOSE_TIMEOUT_MS = 3000;
+
+	private final Socket socket;
+
+	private final BlockingQueue<byte[]> records;
+
+	private final Thread sender;
+
+	private final Consumer<byte[]> fallback;
+
+	private volatile boolean failed = false;
+
+	private StatisticsStreamWriter(Socket socket, int capacity, Consumer<byte[]> fallback) {
+		this.socket = socket;
+		this.records = new ArrayBlockingQueue<>(capacity);
+		this.fallback = fallback;
+		this.sender = new Thread(this::sendFrames);
+		this.sender.setName("Statistics stream sender in client process");
+		this.sender.setDaemon(true);
+	}
+
+	/**
+	 * Open the stream to the master
+	 * 
+	 * @param port port of the master on the loopback address
+	 * @param clientRmiIdentifier
+	 * @param capacity maximum number of buffered records
+	 * @param fallback receives the frame of the records that could not be sent, if the stream fails
+	 * @return
+	 * @throws IOException
+	 */
+	public static StatisticsStreamWriter connect(int port, String clientRmiIdentifier, int capacity,
+			Consumer<byte[]> fallback) throws IOException {
+		Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+		socket.setTcpNoDelay(true);
+		DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+		out.writeUTF(clientRmiIdentifier);
+		out.flush();
+
+		StatisticsStreamWriter writer = new StatisticsStreamWriter(socket, capacity, fallback);
+		Sandbox.addPrivilegedThread(writer.sender);
+		writer.sender.start();
+		return writer;
+	}
+
+	/**
+	 * @return <code>false</code> if the stream is no longer usable, and so the
+	 *         statistics have to be sent in some other way
+	 * @throws InterruptedException if interrupted while waiting for space in the buffer
+	 */
+	public boolean sendIndividual(IndividualStatistics statistics) throws InterruptedException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		try {
+			out.writeByte(INDIVIDUAL);
+			statistics.write(out);
+		} catch (IOException e) {
+			// cannot happen on a byte array
+			throw new RuntimeException(e);
+		}
+		return enqueue(bytes.toByteArray());
+	}
+
+	/**
+	 * @return <code>false</code> if the type of <code>value</code> is not
+	 *         supported, or if the stream is no longer usable
+	 * @throws InterruptedException if interrupted while waiting for space in the buffer
+	 */
+	public boolean sendOutputVariable(RuntimeVariable variable, Object value) throws InterruptedException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		try {
+			out.writeByte(OUTPUT_VARIABLE);
+			out.writeUTF(variable.name());
+			if (!writeValue(out, value)) {
+				return false;
+			}
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		return enqueue(bytes.toByteArray());
+	}
+
+	public boolean isFailed() {
+		return failed;
+	}
+
+	/**
+	 * Send all buffered records, and wait until the master has processed them,
+	 * or until the records left have been given to the fallback
+	 */
+	public void close() {
+		try {
+			if (!failed && enqueue(new byte[] { END })) {
+				sender.join(CLOSE_TIMEOUT_MS);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			sender.interrupt();
+			try {
+				socket.close();
+			} catch (IOException e) {
+				logger.debug("Failed to close statistics stream: " + e.getMessage());
+			}
+		}
+		try {
+			sender.join(CLOSE_TIMEOUT_MS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private boolean enqueue(byte[] record) throws InterruptedException {
+		while (!failed) {
+			if (!records.offer(record, 100, TimeUnit.MILLISECONDS)) {
+				continue;
+			}
+			/*
+			 * if the sender failed in the meantime, either it already took the record
+			 * to hand it over to the fallback, or the caller has to deal with it
+			 */
+			return !(failed && records.remove(record));
+		}
+		return false;
+	}
+
+	private void sendFrames() {
+		List<byte[]> batch = new ArrayList<>(MAX_RECORDS_PER_FRAME);
+		boolean sent = true;
+		try {
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+			while (true) {
+				batch.clear();
+				batch.add(records.take());
+				records.drainTo(batch, MAX_RECORDS_PER_FRAME - 1);
+				sent = false;
+
+				int length = 4;
+				boolean end = false;
+				for (byte[] record : batch) {
+					length += record.length;
+					end = end || (record.length == 1 && record[0] == END);
+				}
+				out.writeInt(length);
+				out.writeInt(batch.size());
+				for (byte[] record : batch) {
+					out.write(record);
+				}
+				out.flush();
+				sent = true;
+
+				if (end) {
+					socket.setSoTimeout((int) CLOSE_TIMEOUT_MS);
+					if (new DataInputStream(socket.getInputStream()).read() != ACK) {
+						logger.warn("Master did not acknowledge the end of the statistics stream");
+					}
+					return;
+				}
+			}
+		} catch (InterruptedException e) {
+			// stream closed
+		} catch (IOException e) {
+			logger.error("Error when sending statistics to master: " + e.getMessage(), e);
+		} finally {
+			failed = true;
+			List<byte[]> undelivered = new ArrayList<>();
+			if (!sent) {
+				undelivered.addAll(batch);
+			}
+			records.drainTo(undelivered);
+			handOver(undelivered);
+		}
+	}
+
+	private void handOver(List<byte[]> undelivered) {
+		undelivered.removeIf(record -> record.length == 1 && record[0] == END);
+		if (undelivered.isEmpty()) {
+			return;
+		}
+		logger.warn("Sending " + undelivered.size() + " statistics records to master in some other way");
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		try {
+			out.writeInt(undelivered.size());
+			for (byte[] record : undelivered) {
+				out.write(record);
+			}
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		fallback.accept(bytes.toByteArray());
+	}
+
+	/**
+	 * @return <code>false</code> if the type of <code>value</code> is not supported
+	 */
+	public static boolean writeValue(DataOutput out, Object value) throws IOException {
+		if (value instanceof Integer) {
+			out.writeByte('i');
+			out.writeInt((Integer) value);
+		} else if (value instanceof Long) {
+			out.writeByte('l');
+			out.writeLong((Long) value);
+		} else if (value instanceof Double) {
+			out.writeByte('d');
+			out.writeDouble((Double) value);
+		} else if (value instanceof Float) {
+			out.writeByte('f');
+			out.writeFloat((Float) value);
+		} else if (value instanceof Boolean) {
+			out.writeByte('b');
+			out.writeBoolean((Boolean) value);
+		} else if (value instanceof String && ((String) value).length() < 16 * 1024) {
+			// writeUTF is limited to 64K bytes
+			out.writeByte('s');
+			out.writeUTF((String) value);
+		} else {
+			return false;
+		}
+		return true;
+	}
+
+	public static Object readValue(DataInput in) throws IOException {
+		byte type = in.readByte();
+		switch (type) {
+		case 'i':
+			return in.readInt();
+		case 'l':
+			return in.readLong();
+		case 'd':
+			return in.readDouble();
+		case 'f':
+			return in.readFloat();
+		case 'b':
+			return in.readBoolean();
+		case 's':
+			return in.readUTF();
+		default:
+			throw new IOException("Unknown type of statistics value: " + type);
+		}
+	}
+}
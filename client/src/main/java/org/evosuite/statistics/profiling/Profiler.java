@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.statistics.profiling;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.evosuite.Properties;
+import org.evosuite.ga.FitnessFunction;
+import org.evosuite.statistics.RuntimeVariable;
+
+/**
+ * Records where a client spends its time, as one {@link TimeHistogram} per
+ * {@link Section} and one per fitness function class.
+ * 
+ * <p>
+ * A measured region is enclosed by {@link #start()} and
+ * {@link #stop(Section, long)}. When {@link Properties#PROFILING} is off,
+ * {@link #start()} returns {@link #DISABLED} without reading the clock and
+ * {@link #stop(Section, long)} does nothing, so the property can be switched
+ * while the search runs. Stop calls are in finally blocks, so that regions
+ * left by an exception are still recorded.
+ *
+ * <p>
+ * Sections may be nested: {@link Section#FITNESS} includes the
+ * {@link Section#TEST_EXECUTION}, {@link Section#CLASS_RESET} and
+ * {@link Section#ARCHIVE_UPDATE} time of the fitness computations, and the
+ * sandbox checks ({@link RuntimeVariable#Profiled_Sandbox_Check_Time}) happen
+ * during test executions and class resets. The times of the sections
+ * therefore overlap, and summing the Profiled_* variables counts some time
+ * twice.
+ */
+public final class Profiler {
+
+	public enum Section {
+		TEST_EXECUTION(RuntimeVariable.Profiled_Test_Execution_Time),
+		FITNESS(RuntimeVariable.Profiled_Fitness_Time),
+		RANKING(RuntimeVariable.Profiled_Ranking_Time),
+		CROWDING_DISTANCE(RuntimeVariable.Profiled_Crowding_Distance_Time),
+		MUTATION(RuntimeVariable.Profiled_Mutation_Time),
+		CROSSOVER(RuntimeVariable.Profiled_Crossover_Time),
+		ARCHIVE_UPDATE(RuntimeVariable.Profiled_Archive_Update_Time),
+		CLASS_RESET(RuntimeVariable.Profiled_Class_Reset_Time);
+
+		private final RuntimeVariable variable;
+
+		Section(RuntimeVariable variable) {
+			this.variable = variable;
+		}
+
+		/**
+		 * The output variable that reports the total time of this section, in
+		 * milliseconds
+		 */
+		public RuntimeVariable getVariable() {
+			return variable;
+		}
+	}
+
+	public static final long DISABLED = Long.MIN_VALUE;
+
+	private static final TimeHistogram[] sections = new TimeHistogram[Section.values().length];
+
+	private static final ConcurrentMap<String, TimeHistogram> fitnessFunctions = new ConcurrentHashMap<>();
+
+	static {
+		for (int i = 0; i < sections.length; i++)
+			sections[i] = new TimeHistogram();
+	}
+
+	private Profiler() {
+	}
+
+	public static boolean isEnabled() {
+		return Properties.PROFILING;
+	}
+
+	/**
+	 * Starts measuring a region
+	 * 
+	 * @return the value to pass to the matching stop call
+	 */
+	public static long start() {
+		return Properties.PROFILING ? System.nanoTime() : DISABLED;
+	}
+
+	public static void stop(Section section, long start) {
+		if (start != DISABLED)
+			sections[section.ordinal()].record(System.nanoTime() - start);
+	}
+
+	/**
+	 * Stops measuring one fitness computation, which is accounted both to
+	 * {@link Section#FITNESS} and to the class of the fitness function
+	 * 
+	 * @param fitnessFunction
+	 * @param start
+	 */
+	public static void stopFitness(FitnessFunction<?> fitnessFunction, long start) {
+		if (start == DISABLED)
+			return;
+		long nanos = System.nanoTime() - start;
+		sections[Section.FITNESS.ordinal()].record(nanos);
+		String name = fitnessFunction.getClass().getSimpleName();
+		TimeHistogram histogram = fitnessFunctions.get(name);
+		if (histogram == null)
+			histogram = fitnessFunctions.computeIfAbsent(name, k -> new TimeHistogram());
+		histogram.record(nanos);
+	}
+
+	public static TimeHistogram getHistogram(Section section) {
+		return sections[section.ordinal()];
+	}
+
+	/**
+	 * @return the fitness histograms by simple name of the fitness function
+	 *         class
+	 */
+	public static Map<String, TimeHistogram> getFitnessHistograms() {
+		return Collections.unmodifiableMap(new TreeMap<>(fitnessFunctions));
+	}
+
+	public static void reset() {
+		for (TimeHistogram histogram : sections)
+			histogram.reset();
+		fitnessFunctions.clear();
+	}
+
+	/**
+	 * @return one line per section and per fitness function that was measured
+	 */
+	public static String getReport() {
+		StringBuilder report = new StringBuilder();
+		for (Section section : Section.values()) {
+			TimeHistogram histogram = getHistogram(section);
+			if (histogram.getCount() > 0)
+				report.append(String.format("%-22s %s%n", section.name().toLowerCase(), histogram));
+		}
+		for (Map.Entry<String, TimeHistogram> entry : getFitnessHistograms().entrySet())
+			report.append(String.format("  %-20s %s%n", entry.getKey(), entry.getValue()));
+		return report.toString();
+	}
+}
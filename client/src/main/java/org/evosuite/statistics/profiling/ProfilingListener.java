@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.statistics.profiling;
+
+import org.evosuite.Properties;
+import org.evosuite.ga.Chromosome;
+import org.evosuite.ga.metaheuristics.GeneticAlgorithm;
+import org.evosuite.ga.metaheuristics.SearchListener;
+import org.evosuite.rmi.ClientServices;
+import org.evosuite.runtime.sandbox.PermissionStatistics;
+import org.evosuite.statistics.RuntimeVariable;
+import org.evosuite.utils.LoggingUtils;
+
+/**
+ * Resets the {@link Profiler} when the search starts and reports it when the
+ * search ends: the total time of each section as an output variable, and the
+ * histograms in the log. It also passes the profiling property on to the
+ * sandbox once per generation, so that permission checks are only timed while
+ * profiling is on.
+ */
+public class ProfilingListener<T extends Chromosome<T>> implements SearchListener<T> {
+
+	private static final long serialVersionUID = -5318406452247716542L;
+
+	@Override
+	public void searchStarted(GeneticAlgorithm<T> algorithm) {
+		Profiler.reset();
+		PermissionStatistics.getInstance().resetCheckTime();
+		PermissionStatistics.getInstance().setProfiling(Properties.PROFILING);
+	}
+
+	@Override
+	public void iteration(GeneticAlgorithm<T> algorithm) {
+		PermissionStatistics statistics = PermissionStatistics.getInstance();
+		if (statistics.isProfiling() != Properties.PROFILING)
+			statistics.setProfiling(Properties.PROFILING);
+	}
+
+	@Override
+	public void searchFinished(GeneticAlgorithm<T> algorithm) {
+		PermissionStatistics statistics = PermissionStatistics.getInstance();
+		statistics.setProfiling(false);
+		if (!Properties.PROFILING)
+			return;
+
+		for (Profiler.Section section : Profiler.Section.values()) {
+			ClientServices.track(section.getVariable(),
+					Profiler.getHistogram(section).getTotalNanos() / 1_000_000);
+		}
+		ClientServices.track(RuntimeVariable.Profiled_Sandbox_Check_Time,
+				statistics.getCheckTimeNanos() / 1_000_000);
+
+		StringBuilder report = new StringBuilder(Profiler.getReport());
+		if (statistics.getNumChecks() > 0) {
+			report.append(String.format("%-22s count=%d total=%dms%n", "sandbox_check", statistics.getNumChecks(),
+					statistics.getCheckTimeNanos() / 1_000_000));
+		}
+		LoggingUtils.getEvoLogger().info("* Profile of the search:\n" + report);
+	}
+
+	@Override
+	public void fitnessEvaluation(T individual) {
+		// do nothing
+	}
+
+	@Override
+	public void modification(T individual) {
+		// do nothing
+	}
+}
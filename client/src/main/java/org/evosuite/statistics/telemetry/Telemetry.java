@@ -0,0 +1,81 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.statistics.telemetry;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide counters that are sampled by {@link TelemetryListener}.
+ * Updating a counter is a single uncontended add, so it is safe to do on
+ * hot paths such as the test executor regardless of whether telemetry is
+ * enabled.
+ */
+public final class Telemetry {
+
+	/**
+	 * Phases of the search whose accumulated wall-clock time is recorded
+	 */
+	public enum Phase {
+		KEX_EXECUTION, KEX_GENERATION, DSE_CONCOLIC_EXECUTION, DSE_SOLVING
+	}
+
+	private static final LongAdder executorTimeouts = new LongAdder();
+
+	private static final LongAdder[] phaseTimes = new LongAdder[Phase.values().length];
+
+	static {
+		for (int i = 0; i < phaseTimes.length; i++)
+			phaseTimes[i] = new LongAdder();
+	}
+
+	private Telemetry() {
+	}
+
+	/**
+	 * Counts a test execution that was stopped because it exceeded its timeout
+	 */
+	public static void countExecutorTimeout() {
+		executorTimeouts.increment();
+	}
+
+	public static long getExecutorTimeouts() {
+		return executorTimeouts.sum();
+	}
+
+	/**
+	 * Adds the duration of one run of the given phase
+	 * 
+	 * @param phase
+	 * @param millis
+	 */
+	public static void addPhaseTime(Phase phase, long millis) {
+		phaseTimes[phase.ordinal()].add(millis);
+	}
+
+	public static long getPhaseTime(Phase phase) {
+		return phaseTimes[phase.ordinal()].sum();
+	}
+
+	public static void reset() {
+		executorTimeouts.reset();
+		for (LongAdder time : phaseTimes)
+			time.reset();
+	}
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.statistics.telemetry;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.evosuite.ClientProcess;
+import org.evosuite.Properties;
+import org.evosuite.ga.Chromosome;
+import org.evosuite.ga.archive.Archive;
+import org.evosuite.ga.metaheuristics.GeneticAlgorithm;
+import org.evosuite.ga.metaheuristics.SearchListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Records the progress of the search into a {@link TelemetryWriter} file.
+ * 
+ * <p>
+ * A row of kind {@link #GENERATION_ROW} is written after every generation,
+ * and a row of kind {@link #SAMPLE_ROW} at the first generation or fitness
+ * evaluation after each {@link Properties#TELEMETRY_INTERVAL}. All rows are
+ * written by the search thread, so no sampling thread is needed and only
+ * counters that are already maintained are read. Counters are cumulative;
+ * time is in milliseconds since the search started.
+ */
+public class TelemetryListener<T extends Chromosome<T>> implements SearchListener<T> {
+
+	private static final long serialVersionUID = 3617422283517283474L;
+
+	private static final Logger logger = LoggerFactory.getLogger(TelemetryListener.class);
+
+	public static final long GENERATION_ROW = 0;
+
+	public static final long SAMPLE_ROW = 1;
+
+	private static final String[] COLUMNS;
+
+	static {
+		List<String> columns = new ArrayList<>();
+		columns.add("kind");
+		columns.add("time");
+		columns.add("generation");
+		columns.add("fitness_evaluations");
+		columns.add("evaluations_per_second");
+		columns.add("archive_size");
+		columns.add("goals_covered");
+		columns.add("executor_timeouts");
+		columns.add("gc_time");
+		for (Telemetry.Phase phase : Telemetry.Phase.values())
+			columns.add(phase.name().toLowerCase(Locale.ROOT) + "_time");
+		COLUMNS = columns.toArray(new String[0]);
+	}
+
+	private transient TelemetryWriter writer;
+
+	private transient List<GarbageCollectorMXBean> collectors;
+
+	private final long[] row = new long[COLUMNS.length];
+
+	private long startTime;
+
+	private long nextSample;
+
+	private long generation;
+
+	private long evaluations;
+
+	private final long[] lastTime = new long[2];
+
+	private final long[] lastEvaluations = new long[2];
+
+	public static String[] getColumns() {
+		return COLUMNS.clone();
+	}
+
+	/**
+	 * The telemetry file of this client. Parallel clients each get their own
+	 * file, suffixed with the client identifier.
+	 */
+	public static File getTelemetryFile() {
+		String name = Properties.TELEMETRY_FILE;
+		if (Properties.NUM_PARALLEL_CLIENTS > 1 && ClientProcess.getIdentifier() != null)
+			name += "." + ClientProcess.getIdentifier();
+		return new File(name);
+	}
+
+	@Override
+	public synchronized void searchStarted(GeneticAlgorithm<T> algorithm) {
+		if (writer == null) {
+			File file = getTelemetryFile();
+			try {
+				writer = new TelemetryWriter(file, COLUMNS);
+			} catch (IOException e) {
+				logger.warn("Cannot write telemetry to " + file + ": " + e.getMessage());
+				return;
+			}
+			collectors = ManagementFactory.getGarbageCollectorMXBeans();
+		}
+		// counters are cumulative since this search started, not since the client started
+		Telemetry.reset();
+		startTime = System.currentTimeMillis();
+		nextSample = startTime + Properties.TELEMETRY_INTERVAL;
+		generation = 0;
+		evaluations = 0;
+		lastTime[0] = lastTime[1] = startTime;
+		lastEvaluations[0] = lastEvaluations[1] = 0;
+	}
+
+	@Override
+	public synchronized void iteration(GeneticAlgorithm<T> algorithm) {
+		if (writer == null)
+			return;
+		generation++;
+		long now = System.currentTimeMillis();
+		addRow(GENERATION_ROW, now);
+		if (now >= nextSample)
+			sample(now);
+	}
+
+	@Override
+	public synchronized void fitnessEvaluation(T individual) {
+		if (writer == null)
+			return;
+		evaluations++;
+		long now = System.currentTimeMillis();
+		if (now >= nextSample)
+			sample(now);
+	}
+
+	@Override
+	public synchronized void searchFinished(GeneticAlgorithm<T> algorithm) {
+		if (writer == null)
+			return;
+		sample(System.currentTimeMillis());
+		try {
+			writer.close();
+		} catch (IOException e) {
+			logger.warn("Cannot write telemetry: " + e.getMessage());
+		}
+		writer = null;
+	}
+
+	@Override
+	public void modification(T individual) {
+		// do nothing
+	}
+
+	private void sample(long now) {
+		addRow(SAMPLE_ROW, now);
+		nextSample = now + Properties.TELEMETRY_INTERVAL;
+	}
+
+	private void addRow(long kind, long now) {
+		int k = (int) kind;
+		long elapsed = now - lastTime[k];
+		long rate = elapsed > 0 ? (evaluations - lastEvaluations[k]) * 1000 / elapsed : 0;
+		lastTime[k] = now;
+		lastEvaluations[k] = evaluations;
+
+		int i = 0;
+		row[i++] = kind;
+		row[i++] = now - startTime;
+		row[i++] = generation;
+		row[i++] = evaluations;
+		row[i++] = rate;
+		if (Properties.TEST_ARCHIVE) {
+			Archive archive = Archive.getArchiveInstance();
+			row[i++] = archive.getNumberOfSolutions();
+			row[i++] = archive.getNumberOfCoveredTargets();
+		} else {
+			row[i++] = -1;
+			row[i++] = -1;
+		}
+		row[i++] = Telemetry.getExecutorTimeouts();
+		row[i++] = getGarbageCollectionTime();
+		for (Telemetry.Phase phase : Telemetry.Phase.values())
+			row[i++] = Telemetry.getPhaseTime(phase);
+
+		try {
+			writer.addRow(row);
+		} catch (IOException e) {
+			logger.warn("Cannot write telemetry, disabling it: " + e.getMessage());
+			try {
+				writer.close();
+			} catch (IOException ignored) {
+			}
+			writer = null;
+		}
+	}
+
+	private long getGarbageCollectionTime() {
+		long time = 0;
+		for (GarbageCollectorMXBean collector : collectors) {
+			long t = collector.getCollectionTime();
+			if (t > 0)
+				time += t;
+		}
+		return time;
+	}
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.statistics.telemetry;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reads a file written by {@link TelemetryWriter} back into one array per
+ * column
+ */
+public class TelemetryReader {
+
+	private TelemetryReader() {
+	}
+
+	/**
+	 * Reads all complete blocks of the given file
+	 * 
+	 * @param file
+	 * @return the values of each column, by column name, in file order
+	 * @throws IOException
+	 *             if the file is not a telemetry file
+	 */
+	public static Map<String, long[]> read(File file) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != TelemetryWriter.MAGIC)
+				throw new IOException("Not a telemetry file: " + file);
+			int version = in.readInt();
+			if (version != TelemetryWriter.VERSION)
+				throw new IOException("Unsupported telemetry file version " + version + ": " + file);
+			String[] columns = new String[in.readInt()];
+			for (int i = 0; i < columns.length; i++)
+				columns[i] = in.readUTF();
+
+			long[][] values = new long[columns.length][16];
+			int total = 0;
+			while (true) {
+				int rows;
+				byte[] bytes;
+				try {
+					rows = in.readInt();
+					bytes = new byte[in.readInt()];
+					in.readFully(bytes);
+				} catch (EOFException e) {
+					// end of file, or a block that was not completely written
+					break;
+				}
+				if (total + rows > values[0].length) {
+					int capacity = Math.max(values[0].length * 2, total + rows);
+					for (int i = 0; i < columns.length; i++)
+						values[i] = Arrays.copyOf(values[i], capacity);
+				}
+				int[] position = { 0 };
+				for (long[] column : values) {
+					long previous = 0;
+					for (int row = 0; row < rows; row++) {
+						previous += readVarLong(bytes, position);
+						column[total + row] = previous;
+					}
+				}
+				total += rows;
+			}
+
+			Map<String, long[]> result = new LinkedHashMap<>();
+			for (int i = 0; i < columns.length; i++)
+				result.put(columns[i], Arrays.copyOf(values[i], total));
+			return result;
+		}
+	}
+
+	private static long readVarLong(byte[] bytes, int[] position) throws IOException {
+		long v = 0;
+		int shift = 0;
+		while (true) {
+			if (position[0] >= bytes.length)
+				throw new IOException("Corrupted telemetry block");
+			int b = bytes[position[0]++];
+			v |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0)
+				break;
+			shift += 7;
+		}
+		return (v >>> 1) ^ -(v & 1);
+	}
+}
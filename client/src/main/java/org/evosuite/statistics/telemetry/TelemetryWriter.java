@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.statistics.telemetry;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * Append-only writer of a columnar telemetry file.
+ * 
+ * <p>
+ * The file starts with a header holding {@link #MAGIC}, {@link #VERSION} and
+ * the column names. It is followed by blocks of up to {@link #BLOCK_ROWS}
+ * rows. A block is its row count and byte length, followed by each column in
+ * turn: the first value and then the differences between consecutive values,
+ * all as zig-zag variable-length longs. Most columns are counters or
+ * timestamps, so the differences are small and a row usually takes a few bytes.
+ * 
+ * <p>
+ * Rows are kept in memory until a block is full, so adding a row does not
+ * touch the file system. A block that was cut short by a crash is ignored by
+ * {@link TelemetryReader}.
+ */
+public class TelemetryWriter implements Closeable {
+
+	static final int MAGIC = 0x45544C4D;
+
+	static final int VERSION = 1;
+
+	static final int BLOCK_ROWS = 256;
+
+	private final String[] columns;
+
+	private final long[][] block;
+
+	private int rows;
+
+	private final FileOutputStream out;
+
+	private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+	public TelemetryWriter(File file, String... columns) throws IOException {
+		if (columns.length == 0)
+			throw new IllegalArgumentException("No columns given");
+		this.columns = columns.clone();
+		this.block = new long[columns.length][BLOCK_ROWS];
+		File parent = file.getAbsoluteFile().getParentFile();
+		if (parent != null && !parent.exists())
+			parent.mkdirs();
+		this.out = new FileOutputStream(file);
+
+		DataOutputStream header = new DataOutputStream(buffer);
+		header.writeInt(MAGIC);
+		header.writeInt(VERSION);
+		header.writeInt(columns.length);
+		for (String column : columns)
+			header.writeUTF(column);
+		header.flush();
+		buffer.writeTo(out);
+		buffer.reset();
+	}
+
+	public String[] getColumns() {
+		return columns.clone();
+	}
+
+	/**
+	 * Adds a row with one value per column
+	 * 
+	 * @param values
+	 * @throws IOException
+	 *             if a full block could not be written
+	 */
+	public void addRow(long... values) throws IOException {
+		if (values.length != columns.length)
+			throw new IllegalArgumentException("Expected " + columns.length + " values, got " + values.length);
+		for (int i = 0; i < values.length; i++)
+			block[i][rows] = values[i];
+		rows++;
+		if (rows == BLOCK_ROWS)
+			flush();
+	}
+
+	/**
+	 * Writes the buffered rows as a block
+	 * 
+	 * @throws IOException
+	 */
+	public void flush() throws IOException {
+		if (rows == 0)
+			return;
+		for (long[] column : block) {
+			long previous = 0;
+			for (int row = 0; row < rows; row++) {
+				writeVarLong(column[row] - previous);
+				previous = column[row];
+			}
+		}
+		DataOutputStream blockHeader = new DataOutputStream(out);
+		blockHeader.writeInt(rows);
+		blockHeader.writeInt(buffer.size());
+		buffer.writeTo(out);
+		out.flush();
+		buffer.reset();
+		rows = 0;
+	}
+
+	private void writeVarLong(long value) {
+		long v = (value << 1) ^ (value >> 63);
+		while ((v & ~0x7FL) != 0) {
+			buffer.write((int) ((v & 0x7F) | 0x80));
+			v >>>= 7;
+		}
+		buffer.write((int) v);
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			flush();
+		} finally {
+			out.close();
+		}
+	}
+}
@@ -15,6 +15,8 @@ import org.evosuite.ga.stoppingconditions.SocketStoppingCondition;
 import org.evosuite.ga.stoppingconditions.StoppingCondition;
 import org.evosuite.ga.stoppingconditions.ZeroFitnessStoppingCondition;
 import org.evosuite.statistics.StatisticsListener;
+import org.evosuite.statistics.profiling.ProfilingListener;
+import org.evosuite.statistics.telemetry.TelemetryListener;
 import org.evosuite.testcase.TestChromosome;
 import org.evosuite.testcase.factories.AllMethodsTestChromosomeFactory;
 import org.evosuite.testcase.factories.JUnitTestCarvedChromosomeFactory;
@@ -60,6 +62,11 @@ public class PropertiesMapElitesSearchFactory
     if (Properties.NEW_STATISTICS)
       ga.addListener(new StatisticsListener<>());
 
+    if (Properties.TELEMETRY_FILE != null)
+      ga.addListener(new TelemetryListener<>());
+
+    ga.addListener(new ProfilingListener<>());
+
     // When to stop the search
     StoppingCondition<TestChromosome> stopping_condition = getStoppingCondition();
     ga.setStoppingCondition(stopping_condition);
@@ -25,6 +25,8 @@ import org.evosuite.ga.stoppingconditions.SocketStoppingCondition;
 import org.evosuite.ga.stoppingconditions.StoppingCondition;
 import org.evosuite.ga.stoppingconditions.ZeroFitnessStoppingCondition;
 import org.evosuite.statistics.StatisticsListener;
+import org.evosuite.statistics.profiling.ProfilingListener;
+import org.evosuite.statistics.telemetry.TelemetryListener;
 import org.evosuite.testcase.TestChromosome;
 import org.evosuite.testcase.factories.AllMethodsTestChromosomeFactory;
 import org.evosuite.testcase.factories.JUnitTestCarvedChromosomeFactory;
@@ -116,6 +118,11 @@ public class PropertiesNoveltySearchFactory extends PropertiesSearchAlgorithmFac
         if (Properties.NEW_STATISTICS)
             ga.addListener(new StatisticsListener<>());
 
+        if (Properties.TELEMETRY_FILE != null)
+            ga.addListener(new TelemetryListener<>());
+
+        ga.addListener(new ProfilingListener<>());
+
         // How to select candidates for reproduction
         SelectionFunction<TestChromosome> selectionFunction = getSelectionFunction();
         selectionFunction.setMaximize(false);
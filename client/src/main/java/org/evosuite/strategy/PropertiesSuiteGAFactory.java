@@ -46,6 +46,8 @@ import org.evosuite.ga.operators.selection.*;
 import org.evosuite.ga.populationlimit.PopulationLimit;
 import org.evosuite.ga.stoppingconditions.*;
 import org.evosuite.statistics.StatisticsListener;
+import org.evosuite.statistics.profiling.ProfilingListener;
+import org.evosuite.statistics.telemetry.TelemetryListener;
 import org.evosuite.testcase.factories.AllMethodsTestChromosomeFactory;
 import org.evosuite.testcase.factories.JUnitTestCarvedChromosomeFactory;
 import org.evosuite.testcase.factories.RandomLengthTestFactory;
@@ -292,6 +294,11 @@ public class PropertiesSuiteGAFactory
 		if (Properties.NEW_STATISTICS)
 			ga.addListener(new StatisticsListener<>());
 
+		if (Properties.TELEMETRY_FILE != null)
+			ga.addListener(new TelemetryListener<>());
+
+		ga.addListener(new ProfilingListener<>());
+
 		// How to select candidates for reproduction
 		SelectionFunction<TestSuiteChromosome> selectionFunction = getSelectionFunction();
 		selectionFunction.setMaximize(false);
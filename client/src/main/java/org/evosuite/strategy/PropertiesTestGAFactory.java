@@ -53,6 +53,8 @@ import org.evosuite.ga.stoppingconditions.MaxTimeStoppingCondition;
 import org.evosuite.ga.stoppingconditions.StoppingCondition;
 import org.evosuite.ga.stoppingconditions.ZeroFitnessStoppingCondition;
 import org.evosuite.seeding.TestCaseRecycler;
+import org.evosuite.statistics.profiling.ProfilingListener;
+import org.evosuite.statistics.telemetry.TelemetryListener;
 import org.evosuite.testcase.RelativeTestLengthBloatControl;
 import org.evosuite.testcase.TestCaseReplacementFunction;
 import org.evosuite.testcase.TestChromosome;
@@ -224,6 +226,11 @@ public class PropertiesTestGAFactory
 		if (Properties.NEW_STATISTICS)
 			ga.addListener(new org.evosuite.statistics.StatisticsListener<>());
 
+		if (Properties.TELEMETRY_FILE != null)
+			ga.addListener(new TelemetryListener<>());
+
+		ga.addListener(new ProfilingListener<>());
+
 		// How to select candidates for reproduction
 		SelectionFunction<TestChromosome> selection_function = getSelectionFunction();
 		selection_function.setMaximize(false);
@@ -27,6 +27,7 @@ import java.util.List;
 import org.evosuite.Properties;
 import org.evosuite.rmi.ClientServices;
 import org.evosuite.statistics.RuntimeVariable;
+import org.evosuite.statistics.telemetry.Telemetry;
 import org.evosuite.symbolic.expr.Constraint;
 import org.evosuite.symbolic.expr.IntegerConstraint;
 import org.evosuite.symbolic.expr.RealConstraint;
@@ -415,6 +416,7 @@ public class DSEStats {
 	 */
 	public void reportNewSolvingTime(long solvingTimeMillis) {
 		totalSolvingTimeMillis += solvingTimeMillis;
+		Telemetry.addPhaseTime(Telemetry.Phase.DSE_SOLVING, solvingTimeMillis);
 	}
 
 	/**
@@ -425,6 +427,7 @@ public class DSEStats {
 	 */
 	public void reportNewConcolicExecutionTime(long concolicExecutionTimeMillis) {
 		totalConcolicExecutionTimeMillis += concolicExecutionTimeMillis;
+		Telemetry.addPhaseTime(Telemetry.Phase.DSE_CONCOLIC_EXECUTION, concolicExecutionTimeMillis);
 	}
 
 	public void reportConstraintTooLong(int size) {
@@ -28,6 +28,7 @@ import org.evosuite.ga.localsearch.LocalSearchObjective;
 import org.evosuite.ga.operators.mutation.MutationHistory;
 import org.evosuite.runtime.util.AtMostOnceLogger;
 import org.evosuite.setup.TestCluster;
+import org.evosuite.statistics.profiling.Profiler;
 import org.evosuite.symbolic.BranchCondition;
 import org.evosuite.symbolic.ConcolicExecution;
 import org.evosuite.symbolic.ConcolicMutation;
@@ -164,21 +165,26 @@ public final class TestChromosome extends AbstractTestChromosome<TestChromosome>
 	public void crossOver(TestChromosome other, int position1, int position2)
 	        throws ConstructionFailedException {
 		logger.debug("Crossover starting");
-		TestChromosome offspring = new TestChromosome();
-		TestFactory testFactory = TestFactory.getInstance();
+		long start = Profiler.start();
+		try {
+			TestChromosome offspring = new TestChromosome();
+			TestFactory testFactory = TestFactory.getInstance();
 
-		for (int i = 0; i < position1; i++) {
-			offspring.test.addStatement(test.getStatement(i).clone(offspring.test));
-		}
+			for (int i = 0; i < position1; i++) {
+				offspring.test.addStatement(test.getStatement(i).clone(offspring.test));
+			}
 
-		for (int i = position2; i < other.size(); i++) {
-			testFactory.appendStatement(offspring.test,
-					other.test.getStatement(i));
-		}
-		if (!Properties.CHECK_MAX_LENGTH
-				|| offspring.test.size() <= Properties.CHROMOSOME_LENGTH) {
-			test = offspring.test;
-			setChanged(true);
+			for (int i = position2; i < other.size(); i++) {
+				testFactory.appendStatement(offspring.test,
+						other.test.getStatement(i));
+			}
+			if (!Properties.CHECK_MAX_LENGTH
+					|| offspring.test.size() <= Properties.CHROMOSOME_LENGTH) {
+				test = offspring.test;
+				setChanged(true);
+			}
+		} finally {
+			Profiler.stop(Profiler.Section.CROSSOVER, start);
 		}
 	}
 
@@ -284,46 +290,51 @@ public final class TestChromosome extends AbstractTestChromosome<TestChromosome>
 	 */
 	@Override
 	public void mutate() {
-		boolean changed = false;
-		mutationHistory.clear();
+		long start = Profiler.start();
+		try {
+			boolean changed = false;
+			mutationHistory.clear();
 
-		if(mockChange()){
-			changed = true;
-		}
+			if(mockChange()){
+				changed = true;
+			}
 
-		if(Properties.CHOP_MAX_LENGTH && size() >= Properties.CHROMOSOME_LENGTH) {
-			int lastPosition = getLastMutatableStatement();
-			test.chop(lastPosition + 1);
-		}
+			if(Properties.CHOP_MAX_LENGTH && size() >= Properties.CHROMOSOME_LENGTH) {
+				int lastPosition = getLastMutatableStatement();
+				test.chop(lastPosition + 1);
+			}
 
-		// Delete
-		if (Randomness.nextDouble() <= Properties.P_TEST_DELETE) {
-			logger.debug("Mutation: delete");
-			if(mutationDelete())
-				changed = true;
-		}
+			// Delete
+			if (Randomness.nextDouble() <= Properties.P_TEST_DELETE) {
+				logger.debug("Mutation: delete");
+				if(mutationDelete())
+					changed = true;
+			}
 
-		// Change
-		if (Randomness.nextDouble() <= Properties.P_TEST_CHANGE) {
-			logger.debug("Mutation: change");
-			if (mutationChange())
-				changed = true;
-		}
+			// Change
+			if (Randomness.nextDouble() <= Properties.P_TEST_CHANGE) {
+				logger.debug("Mutation: change");
+				if (mutationChange())
+					changed = true;
+			}
 
-		// Insert
-		if (Randomness.nextDouble() <= Properties.P_TEST_INSERT) {
-			logger.debug("Mutation: insert");
-			if (mutationInsert())
-				changed = true;
-		}
+			// Insert
+			if (Randomness.nextDouble() <= Properties.P_TEST_INSERT) {
+				logger.debug("Mutation: insert");
+				if (mutationInsert())
+					changed = true;
+			}
 
-		if (changed) {
-			this.increaseNumberOfMutations();
-			setChanged(true);
-			test.clearCoveredGoals();
-		}
+			if (changed) {
+				this.increaseNumberOfMutations();
+				setChanged(true);
+				test.clearCoveredGoals();
+			}
 
-		test.forEach(Statement::isValid);
+			test.forEach(Statement::isValid);
+		} finally {
+			Profiler.stop(Profiler.Section.MUTATION, start);
+		}
 	}
 
 
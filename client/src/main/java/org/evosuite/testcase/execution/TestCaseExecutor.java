@@ -41,6 +41,8 @@ import org.evosuite.runtime.sandbox.Sandbox;
 import org.evosuite.runtime.util.JOptionPaneInputs;
 import org.evosuite.runtime.util.SystemInUtil;
 import org.evosuite.setup.TestCluster;
+import org.evosuite.statistics.profiling.Profiler;
+import org.evosuite.statistics.telemetry.Telemetry;
 import org.evosuite.testcase.TestCase;
 import org.evosuite.testcase.execution.reset.ClassReInitializer;
 import org.slf4j.Logger;
@@ -272,11 +274,22 @@ public class TestCaseExecutor implements ThreadFactory {
 	 */
 	public ExecutionResult execute(TestCase tc, int timeout) {
 		Scope scope = new Scope();
-		ExecutionResult result = execute(tc, scope, timeout);
+		ExecutionResult result;
+		long start = Profiler.start();
+		try {
+			result = execute(tc, scope, timeout);
+		} finally {
+			Profiler.stop(Profiler.Section.TEST_EXECUTION, start);
+		}
 
 		if (Properties.RESET_STATIC_FIELDS) {
 			logger.debug("Resetting classes after execution");
-			ClassReInitializer.getInstance().reInitializeClassesAfterTestExecution(tc, result);
+			start = Profiler.start();
+			try {
+				ClassReInitializer.getInstance().reInitializeClassesAfterTestExecution(tc, result);
+			} finally {
+				Profiler.stop(Profiler.Section.CLASS_RESET, start);
+			}
 		}
 		return result;
 	}
@@ -392,6 +405,7 @@ public class TestCaseExecutor implements ThreadFactory {
 		} catch (TimeoutException e1) {
 			// System.setOut(systemOut);
 			// System.setErr(systemErr);
+			Telemetry.countExecutorTimeout();
 
 			if (Properties.LOG_TIMEOUT) {
 				logger.warn("Timeout occurred for " + Properties.TARGET_CLASS);
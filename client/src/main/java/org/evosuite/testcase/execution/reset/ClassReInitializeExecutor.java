@@ -19,7 +19,7 @@
  */
 package org.evosuite.testcase.execution.reset;
 
-import java.lang.reflect.Method;
+import java.lang.invoke.MethodHandle;
 import java.util.List;
 
 import org.evosuite.Properties;
@@ -95,6 +95,10 @@ class ClassReInitializeExecutor {
 		// className.__STATIC_RESET() exists
 		logger.debug("Resetting class " + className);
 
+		if (ClassResetter.getInstance().restoreSnapshot(className)) {
+			return;
+		}
+
 		int mutationActive = MutationObserver.activeMutation;
 		MutationObserver.deactivateMutation();
 
@@ -107,15 +111,16 @@ class ClassReInitializeExecutor {
 		boolean wasLoopCheckOn = LoopCounter.getInstance().isActivated();
 
 		try {
-			Method resetMethod = ClassResetter.getInstance().getResetMethod(className);
+			MethodHandle resetMethod = ClassResetter.getInstance().getResetMethod(className);
 			if (resetMethod != null) {
 				LoopCounter.getInstance().setActive(false);
-				resetMethod.invoke(null, (Object[]) null);
+				resetMethod.invokeExact();
+				ClassResetter.getInstance().takeSnapshot(className);
 			}
 		} catch (Throwable e) {
 			ClassResetter.getInstance().logWarn(className,
 					e.getClass() + " thrown during execution of method  __STATIC_RESET() for class " + className + ", "
-							+ e.getCause());
+							+ e);
 		} finally {
 			Sandbox.doneWithExecutingSUTCode();
 			TestGenerationContext.getInstance().doneWithExecutingSUTCode();
@@ -19,10 +19,12 @@
  */
 package org.evosuite.testcase.execution.reset;
 
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 
 import org.evosuite.Properties;
 import org.evosuite.assertion.CheapPurityAnalyzer;
@@ -153,19 +155,19 @@ public class ClassReInitializer {
 
 			// second, re-initialize classes
 			if (reset_all_observed_classes) {
+				DirtyClassTracker.clear();
 				ClassReInitializeExecutor.getInstance().resetClasses(initializedClasses);
 			} else {
-				// reset only classes that were "observed" to have some
-				// GETSTATIC/PUTSTATIC updating their state during test
-				// execution
-                List<String> classesToReset = new LinkedList<>(trace.getClassesWithStaticWrites());
+				// reset only classes that were marked as dirty by a PUTSTATIC
+				// or a change of a static container during test execution.
+				// The tree set keeps them sorted and resets each only once
+				Set<String> dirtyClasses = new TreeSet<>(DirtyClassTracker.getAndClearDirtyClasses());
 				if (Properties.RESET_STATIC_FIELD_GETS) {
-					classesToReset.addAll(trace.getClassesWithStaticReads());
+					dirtyClasses.addAll(trace.getClassesWithStaticReads());
 				}
 				HashSet<String> moreClassesForReset = getMoreClassesToReset(executedTestCase, testCaseResult);
-				classesToReset.addAll(moreClassesForReset);
-				// sort classes to reset
-				Collections.sort(classesToReset);
+				dirtyClasses.addAll(moreClassesForReset);
+				List<String> classesToReset = new ArrayList<>(dirtyClasses);
 
 				ClassLoader loader = null;
 				if (executedTestCase instanceof DefaultTestCase) {
@@ -180,6 +182,8 @@ public class ClassReInitializer {
 				} else {
 					ClassReInitializeExecutor.getInstance().resetClasses(classesToReset, loader);
 				}
+				// writes done by the class initializers themselves do not count
+				DirtyClassTracker.clear();
 			}
 		}
 	}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution.reset;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Dirty bit for each instrumented class that owns static fields. The bit is
+ * set by the instrumented code (see
+ * {@link org.evosuite.instrumentation.StaticAccessMethodAdapter}) when a static
+ * field of the class is written, or when a static field holding an array or a
+ * collection is read, as its content may then be changed in place.
+ *
+ * <p>
+ * Each class gets a numeric id when it is instrumented, so that marking a
+ * class as dirty is just an array store. Flags are stored in fixed size pages
+ * that are never moved, so a store is never lost when more pages are added.
+ */
+public class DirtyClassTracker {
+
+	private static final int PAGE_BITS = 10;
+
+	private static final int PAGE_SIZE = 1 << PAGE_BITS;
+
+	private static final Map<String, Integer> ids = new HashMap<>();
+
+	private static final List<String> classNames = new ArrayList<>();
+
+	private static volatile boolean[][] pages = new boolean[16][];
+
+	private DirtyClassTracker() {
+	}
+
+	/**
+	 * Id used by the instrumentation to mark the given class as dirty
+	 *
+	 * @param classNameWithDots
+	 * @return a int.
+	 */
+	public static synchronized int getId(String classNameWithDots) {
+		Integer id = ids.get(classNameWithDots);
+		if (id != null) {
+			return id;
+		}
+
+		id = classNames.size();
+		int page = id >>> PAGE_BITS;
+		boolean[][] current = pages;
+		if (page >= current.length) {
+			current = Arrays.copyOf(current, current.length * 2);
+		}
+		if (current[page] == null) {
+			current[page] = new boolean[PAGE_SIZE];
+		}
+		pages = current;
+
+		ids.put(classNameWithDots, id);
+		classNames.add(classNameWithDots);
+		return id;
+	}
+
+	/**
+	 * This method is added in the transformed bytecode
+	 *
+	 * @param id
+	 *            as returned by {@link #getId(String)}
+	 */
+	public static void markDirty(int id) {
+		pages[id >>> PAGE_BITS][id & (PAGE_SIZE - 1)] = true;
+	}
+
+	public static synchronized boolean isDirty(String classNameWithDots) {
+		Integer id = ids.get(classNameWithDots);
+		return id != null && pages[id >>> PAGE_BITS][id & (PAGE_SIZE - 1)];
+	}
+
+	/**
+	 * Collect the classes marked as dirty since the last call, and clear
+	 * their dirty bit
+	 *
+	 * @return the names of the dirty classes, sorted
+	 */
+	public static synchronized Set<String> getAndClearDirtyClasses() {
+		Set<String> result = new TreeSet<>();
+		boolean[][] current = pages;
+		for (int id = 0; id < classNames.size(); id++) {
+			boolean[] page = current[id >>> PAGE_BITS];
+			if (page[id & (PAGE_SIZE - 1)]) {
+				page[id & (PAGE_SIZE - 1)] = false;
+				result.add(classNames.get(id));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Clear the dirty bit of all classes
+	 */
+	public static synchronized void clear() {
+		for (boolean[] page : pages) {
+			if (page != null) {
+				Arrays.fill(page, false);
+			}
+		}
+	}
+}
@@ -24,6 +24,7 @@ import org.evosuite.ga.Chromosome;
 import org.evosuite.ga.ChromosomeFactory;
 import org.evosuite.ga.ConstructionFailedException;
 import org.evosuite.ga.operators.mutation.MutationDistribution;
+import org.evosuite.statistics.profiling.Profiler;
 import org.evosuite.testcase.ExecutableChromosome;
 import org.evosuite.testcase.TestCase;
 import org.evosuite.testcase.TestChromosome;
@@ -172,18 +173,22 @@ public abstract class AbstractTestSuiteChromosome<T extends AbstractTestSuiteChr
 	@Override
 	public void crossOver(T other, int position1, int position2)
 	        throws ConstructionFailedException {
+		long start = Profiler.start();
+		try {
+			while (tests.size() > position1) {
+				tests.remove(position1);
+			}
 
-		while (tests.size() > position1) {
-			tests.remove(position1);
-		}
+			for (int num = position2; num < other.size(); num++) {
+				E otherTest =  other.self().tests.get(num);
+				E clonedTest = otherTest.clone().self();
+				tests.add(clonedTest);
+			}
 
-		for (int num = position2; num < other.size(); num++) {
-			E otherTest =  other.self().tests.get(num);
-			E clonedTest = otherTest.clone().self();
-			tests.add(clonedTest);
+			this.setChanged(true);
+		} finally {
+			Profiler.stop(Profiler.Section.CROSSOVER, start);
 		}
-
-		this.setChanged(true);
 	}
 
 	/** {@inheritDoc} */
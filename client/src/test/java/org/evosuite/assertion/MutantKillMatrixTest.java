@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.assertion;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.evosuite.coverage.mutation.Mutation;
+import org.junit.Test;
+
+public class MutantKillMatrixTest {
+
+	private static Mutation mutant(int id) {
+		Mutation m = mock(Mutation.class);
+		when(m.getId()).thenReturn(id);
+		return m;
+	}
+
+	@Test
+	public void testKillRelation() {
+		Mutation m0 = mutant(0);
+		Mutation m1 = mutant(1);
+		Mutation m2 = mutant(2);
+		Assertion a0 = mock(Assertion.class);
+		Assertion a1 = mock(Assertion.class);
+
+		OutputTrace<?> t0 = mock(OutputTrace.class);
+		when(t0.isDetectedBy(a0)).thenReturn(true);
+		OutputTrace<?> t1 = mock(OutputTrace.class);
+		when(t1.isDetectedBy(a0)).thenReturn(true);
+		when(t1.isDetectedBy(a1)).thenReturn(true);
+
+		Map<Mutation, List<OutputTrace<?>>> traces = new HashMap<>();
+		traces.put(m0, Collections.singletonList(t0));
+		traces.put(m1, Collections.singletonList(t1));
+		// m2 has no traces, e.g. because it timed out
+
+		MutantKillMatrix matrix = new MutantKillMatrix(Arrays.asList(a0, a1), Arrays.asList(m0, m1, m2), traces);
+
+		assertEquals(2, matrix.getNumAssertions());
+		assertEquals(Arrays.asList(m0, m1), matrix.getKilledMutants(0));
+		assertEquals(Collections.singletonList(m1), matrix.getKilledMutants(1));
+		assertEquals(2, matrix.getNumKillableMutants());
+		assertEquals(1, matrix.getNumKilledMutants(Collections.singletonList(a1)));
+	}
+
+	@Test
+	public void testTracesAreCheckedOnce() {
+		Mutation m0 = mutant(0);
+		Assertion a0 = mock(Assertion.class);
+		OutputTrace<?> t0 = mock(OutputTrace.class);
+		when(t0.isDetectedBy(a0)).thenReturn(true);
+
+		Map<Mutation, List<OutputTrace<?>>> traces = new HashMap<>();
+		traces.put(m0, Collections.singletonList(t0));
+
+		MutantKillMatrix matrix = new MutantKillMatrix(Collections.singletonList(a0), Collections.singletonList(m0), traces);
+		matrix.minimize();
+		matrix.getNumKillableMutants();
+		matrix.getKilledMutantIds(0);
+
+		verify(t0, times(1)).isDetectedBy(a0);
+	}
+
+	@Test
+	public void testMinimizeCoversAllKillableMutants() {
+		Mutation m0 = mutant(0);
+		Mutation m1 = mutant(1);
+		Mutation m2 = mutant(2);
+		Assertion a0 = mock(Assertion.class);
+		Assertion a1 = mock(Assertion.class);
+		Assertion a2 = mock(Assertion.class);
+
+		OutputTrace<?> t0 = mock(OutputTrace.class);
+		when(t0.isDetectedBy(a0)).thenReturn(true);
+		when(t0.isDetectedBy(a1)).thenReturn(true);
+		OutputTrace<?> t1 = mock(OutputTrace.class);
+		when(t1.isDetectedBy(a1)).thenReturn(true);
+		OutputTrace<?> t2 = mock(OutputTrace.class);
+		when(t2.isDetectedBy(a2)).thenReturn(true);
+
+		Map<Mutation, List<OutputTrace<?>>> traces = new HashMap<>();
+		traces.put(m0, Collections.singletonList(t0));
+		traces.put(m1, Collections.singletonList(t1));
+		traces.put(m2, Collections.singletonList(t2));
+
+		MutantKillMatrix matrix = new MutantKillMatrix(Arrays.asList(a0, a1, a2), Arrays.asList(m0, m1, m2), traces);
+		Set<Assertion> minimized = matrix.minimize();
+
+		assertEquals(2, minimized.size());
+		assertTrue(minimized.contains(a1));
+		assertTrue(minimized.contains(a2));
+		assertEquals(matrix.getNumKillableMutants(), matrix.getNumKilledMutants(minimized));
+	}
+
+	@Test
+	public void testMinimizePrefersPrimitiveAssertionsOnTies() {
+		Mutation m0 = mutant(0);
+		Assertion a0 = mock(Assertion.class);
+		Assertion a1 = mock(PrimitiveAssertion.class);
+		Assertion a2 = mock(Assertion.class);
+
+		OutputTrace<?> t0 = mock(OutputTrace.class);
+		when(t0.isDetectedBy(a0)).thenReturn(true);
+		when(t0.isDetectedBy(a1)).thenReturn(true);
+		when(t0.isDetectedBy(a2)).thenReturn(true);
+
+		Map<Mutation, List<OutputTrace<?>>> traces = new HashMap<>();
+		traces.put(m0, Collections.singletonList(t0));
+
+		MutantKillMatrix matrix = new MutantKillMatrix(Arrays.asList(a0, a1, a2), Collections.singletonList(m0), traces);
+		Set<Assertion> minimized = matrix.minimize();
+
+		assertEquals(Collections.singleton(a1), minimized);
+	}
+}
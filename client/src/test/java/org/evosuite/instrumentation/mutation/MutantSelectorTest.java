@@ -0,0 +1,259 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.instrumentation.mutation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.evosuite.Properties;
+import org.evosuite.TestGenerationContext;
+import org.evosuite.coverage.mutation.Mutation;
+import org.evosuite.coverage.mutation.MutationPool;
+import org.evosuite.graphs.cfg.BytecodeInstruction;
+import org.evosuite.utils.Randomness;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.InsnList;
+import org.objectweb.asm.tree.InsnNode;
+import org.objectweb.asm.tree.InvokeDynamicInsnNode;
+import org.objectweb.asm.tree.JumpInsnNode;
+import org.objectweb.asm.tree.LabelNode;
+import org.objectweb.asm.tree.LdcInsnNode;
+import org.objectweb.asm.tree.LineNumberNode;
+import org.objectweb.asm.tree.VarInsnNode;
+
+public class MutantSelectorTest {
+
+	private static final int DEFAULT_MAX_MUTANTS_PER_OPERATOR = Properties.MAX_MUTANTS_PER_OPERATOR;
+
+	private static final boolean DEFAULT_REMOVE_EQUIVALENT_MUTANTS = Properties.REMOVE_EQUIVALENT_MUTANTS;
+
+	private MutationPool pool;
+
+	@Before
+	public void setUp() {
+		pool = MutationPool.getInstance(TestGenerationContext.getInstance().getClassLoaderForSUT());
+		pool.clear();
+	}
+
+	@After
+	public void tearDown() {
+		pool.clear();
+		Properties.MAX_MUTANTS_PER_OPERATOR = DEFAULT_MAX_MUTANTS_PER_OPERATOR;
+		Properties.REMOVE_EQUIVALENT_MUTANTS = DEFAULT_REMOVE_EQUIVALENT_MUTANTS;
+	}
+
+	private static BytecodeInstruction instruction(AbstractInsnNode node, int depth) {
+		BytecodeInstruction instruction = mock(BytecodeInstruction.class);
+		when(instruction.getASMNode()).thenReturn(node);
+		when(instruction.getCDGDepth()).thenReturn(depth);
+		when(instruction.getLineNumber()).thenReturn(42);
+		return instruction;
+	}
+
+	private Mutation mutant(MutantSelector selector, MutationOperator operator,
+	        BytecodeInstruction instruction, String name, AbstractInsnNode mutation) {
+		InsnList list = new InsnList();
+		list.add(mutation);
+		Mutation mutant = pool.addMutation("Foo", "bar()V", name, instruction, list, new InsnList());
+		selector.addMutants(instruction, operator, Collections.singletonList(mutant));
+		return mutant;
+	}
+
+	private static List<Mutation> flatten(Map<AbstractInsnNode, List<Mutation>> selected) {
+		List<Mutation> result = new ArrayList<>();
+		for (List<Mutation> mutants : selected.values()) {
+			result.addAll(mutants);
+		}
+		return result;
+	}
+
+	@Test
+	public void testOperatorBudgetKeepsEasiestMutants() {
+		Properties.MAX_MUTANTS_PER_OPERATOR = 2;
+		Properties.REMOVE_EQUIVALENT_MUTANTS = false;
+
+		MutantSelector selector = new MutantSelector();
+		MutationOperator delete = new DeleteStatement();
+		MutationOperator unary = new InsertUnaryOperator();
+		Mutation deep = mutant(selector, delete, instruction(new InsnNode(Opcodes.IADD), 3), "deep",
+		        new InsnNode(Opcodes.NOP));
+		Mutation shallow = mutant(selector, delete, instruction(new InsnNode(Opcodes.ISUB), 1), "shallow",
+		        new InsnNode(Opcodes.NOP));
+		Mutation middle = mutant(selector, delete, instruction(new InsnNode(Opcodes.IMUL), 2), "middle",
+		        new InsnNode(Opcodes.NOP));
+		// the budget is per operator
+		Mutation other = mutant(selector, unary, instruction(new VarInsnNode(Opcodes.ILOAD, 1), 9), "other",
+		        new InsnNode(Opcodes.INEG));
+
+		List<Mutation> selected = flatten(selector.select());
+
+		// in the order the mutants were added
+		assertEquals(Arrays.asList(shallow, middle, other), selected);
+		assertNull(pool.getMutant(deep.getId()));
+		assertEquals(3, pool.getMutantCounter());
+		assertFalse(pool.retrieveMutationsInMethod("Foo", "bar()V").contains(deep));
+	}
+
+	private List<Integer> selectWithTies() {
+		pool.clear();
+		MutantSelector selector = new MutantSelector();
+		MutationOperator delete = new DeleteStatement();
+		for (int i = 0; i < 5; i++) {
+			mutant(selector, delete, instruction(new VarInsnNode(Opcodes.ILOAD, i), 1), "m" + i,
+			        new InsnNode(Opcodes.NOP));
+		}
+		List<Integer> ids = new ArrayList<>();
+		for (Mutation mutant : flatten(selector.select())) {
+			ids.add(mutant.getId());
+		}
+		return ids;
+	}
+
+	@Test
+	public void testSelectIsDeterministic() {
+		Properties.MAX_MUTANTS_PER_OPERATOR = 3;
+		Properties.REMOVE_EQUIVALENT_MUTANTS = true;
+
+		Randomness.setSeed(42);
+		List<Integer> first = selectWithTies();
+		Randomness.setSeed(42);
+		List<Integer> second = selectWithTies();
+
+		assertEquals(first, second);
+		// among mutants equally easy to reach, the first ones are kept
+		assertEquals(Arrays.asList(0, 1, 2), first);
+	}
+
+	@Test
+	public void testIdsAfterRemoval() {
+		Properties.MAX_MUTANTS_PER_OPERATOR = 0;
+		Properties.REMOVE_EQUIVALENT_MUTANTS = true;
+
+		MutantSelector selector = new MutantSelector();
+		MutationOperator unary = new InsertUnaryOperator();
+		BytecodeInstruction load = instruction(new VarInsnNode(Opcodes.ILOAD, 1), 1);
+		Mutation negation = mutant(selector, unary, load, "negation", new InsnNode(Opcodes.INEG));
+		Mutation identical = mutant(selector, unary, load, "identical", new VarInsnNode(Opcodes.ILOAD, 1));
+		Mutation duplicate = mutant(selector, unary, load, "duplicate", new InsnNode(Opcodes.INEG));
+		Mutation constant = mutant(selector, unary, load, "constant", new InsnNode(Opcodes.ICONST_0));
+
+		assertEquals(Arrays.asList(negation, constant), flatten(selector.select()));
+
+		// ids of the remaining mutants are not changed, nor reused
+		assertNull(pool.getMutant(identical.getId()));
+		assertNull(pool.getMutant(duplicate.getId()));
+		assertSame(negation, pool.getMutant(0));
+		assertSame(constant, pool.getMutant(3));
+		assertEquals(2, pool.getMutantCounter());
+		assertTrue(pool.getMutants().containsAll(Arrays.asList(negation, constant)));
+
+		Mutation added = pool.addMutation("Foo", "bar()V", "added", load, new InsnList(), new InsnList());
+		assertEquals(4, added.getId());
+	}
+
+	@Test
+	public void testSameBytecodeHasSameSignature() {
+		Map<LabelNode, Integer> labels = new IdentityHashMap<>();
+		InsnList first = new InsnList();
+		first.add(new VarInsnNode(Opcodes.ILOAD, 1));
+		first.add(new InsnNode(Opcodes.INEG));
+		InsnList second = new InsnList();
+		second.add(new VarInsnNode(Opcodes.ILOAD, 1));
+		second.add(new InsnNode(Opcodes.INEG));
+
+		assertEquals(MutantSelector.getSignature(first, labels),
+		             MutantSelector.getSignature(second, labels));
+	}
+
+	@Test
+	public void testOperandsAreDistinguished() {
+		Map<LabelNode, Integer> labels = new IdentityHashMap<>();
+		InsnList intConstant = new InsnList();
+		intConstant.add(new LdcInsnNode(1));
+		InsnList longConstant = new InsnList();
+		longConstant.add(new LdcInsnNode(1L));
+
+		assertNotEquals(MutantSelector.getSignature(intConstant, labels),
+		                MutantSelector.getSignature(longConstant, labels));
+	}
+
+	@Test
+	public void testLineNumbersAreIgnored() {
+		Map<LabelNode, Integer> labels = new IdentityHashMap<>();
+		LabelNode target = new LabelNode();
+		InsnList first = new InsnList();
+		first.add(new JumpInsnNode(Opcodes.IFEQ, target));
+		InsnList second = new InsnList();
+		second.add(new LineNumberNode(42, new LabelNode()));
+		second.add(new JumpInsnNode(Opcodes.IFEQ, target));
+
+		assertEquals(MutantSelector.getSignature(first, labels),
+		             MutantSelector.getSignature(second, labels));
+	}
+
+	@Test
+	public void testDifferentJumpTargets() {
+		Map<LabelNode, Integer> labels = new IdentityHashMap<>();
+		InsnList first = new InsnList();
+		first.add(new JumpInsnNode(Opcodes.IFEQ, new LabelNode()));
+		InsnList second = new InsnList();
+		second.add(new JumpInsnNode(Opcodes.IFEQ, new LabelNode()));
+
+		assertNotEquals(MutantSelector.getSignature(first, labels),
+		                MutantSelector.getSignature(second, labels));
+	}
+
+	@Test
+	public void testSingleInstructionMatchesList() {
+		Map<LabelNode, Integer> labels = new IdentityHashMap<>();
+		VarInsnNode original = new VarInsnNode(Opcodes.ILOAD, 2);
+		InsnList mutant = new InsnList();
+		mutant.add(new VarInsnNode(Opcodes.ILOAD, 2));
+
+		assertEquals(MutantSelector.getSignature(original, labels),
+		             MutantSelector.getSignature(mutant, labels));
+	}
+
+	@Test
+	public void testUnknownInstructionsAreNotCompared() {
+		Map<LabelNode, Integer> labels = new IdentityHashMap<>();
+		InsnList list = new InsnList();
+		list.add(new InvokeDynamicInsnNode("run", "()Ljava/lang/Runnable;", null));
+
+		assertNull(MutantSelector.getSignature(list, labels));
+	}
+}
@@ -19,9 +19,15 @@
  */
 package org.evosuite.junit;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.io.File;
+
+import org.evosuite.Properties;
+import org.evosuite.Properties.Criterion;
 import org.evosuite.junit.examples.AbstractJUnit3Test;
 import org.evosuite.junit.examples.JUnit3Suite;
 import org.evosuite.junit.examples.JUnit3Test;
@@ -49,4 +55,17 @@ public class CoverageAnalysisTest {
 		assertFalse(CoverageAnalysis.isTest(JUnit4Categories.class));
 		assertTrue(CoverageAnalysis.isTest(JUnit4ParameterizedTest.class));
 	}
+
+	@Test
+	public void killMatrixPerCriterion() {
+		String matrix = Properties.MUTATION_KILL_MATRIX;
+		try {
+			Properties.MUTATION_KILL_MATRIX = "kills.csv";
+			assertEquals(new File("kills.csv.MUTATION"), CoverageAnalysis.getKillMatrixFile(Criterion.MUTATION));
+			assertNotEquals(CoverageAnalysis.getKillMatrixFile(Criterion.MUTATION),
+					CoverageAnalysis.getKillMatrixFile(Criterion.STRONGMUTATION));
+		} finally {
+			Properties.MUTATION_KILL_MATRIX = matrix;
+		}
+	}
 }
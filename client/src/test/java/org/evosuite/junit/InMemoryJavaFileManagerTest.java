@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.junit;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.ToolProvider;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+public class InMemoryJavaFileManagerTest {
+
+	@Test
+	public void testCompileInMemory() throws Exception {
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		Assume.assumeNotNull(compiler);
+
+		JavaFileObject foo = InMemoryJavaFileManager.createSource("some.pkg.Foo",
+				"package some.pkg; public class Foo { Runnable r = new Runnable(){ public void run(){} }; }");
+		JavaFileObject bar = InMemoryJavaFileManager.createSource("some.pkg.Bar",
+				"package some.pkg; public class Bar extends Foo { }");
+
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		InMemoryJavaFileManager fileManager = new InMemoryJavaFileManager(
+				compiler.getStandardFileManager(diagnostics, null, null));
+
+		boolean compiled = compiler.getTask(null, fileManager, diagnostics, null, null, Arrays.asList(foo, bar)).call();
+		fileManager.close();
+		Assert.assertTrue(compiled);
+
+		Map<String, byte[]> all = fileManager.getCompiledClasses();
+		Assert.assertEquals(3, all.size());
+		Assert.assertTrue(all.containsKey("some.pkg.Foo"));
+		Assert.assertTrue(all.containsKey("some.pkg.Foo$1"));
+		Assert.assertTrue(all.containsKey("some.pkg.Bar"));
+		Assert.assertTrue(all.get("some.pkg.Bar").length > 0);
+
+		Map<String, byte[]> fromFoo = fileManager.getCompiledClasses(Collections.singletonList(foo));
+		Assert.assertEquals(2, fromFoo.size());
+		Assert.assertFalse(fromFoo.containsKey("some.pkg.Bar"));
+	}
+
+	@Test
+	public void testCompilationErrorIsAttributedToSource() throws Exception {
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		Assume.assumeNotNull(compiler);
+
+		JavaFileObject ok = InMemoryJavaFileManager.createSource("Ok", "public class Ok { }");
+		JavaFileObject broken = InMemoryJavaFileManager.createSource("Broken", "public class Broken { int x = \"\"; }");
+
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		InMemoryJavaFileManager fileManager = new InMemoryJavaFileManager(
+				compiler.getStandardFileManager(diagnostics, null, null));
+
+		boolean compiled = compiler.getTask(null, fileManager, diagnostics, null, null, Arrays.asList(ok, broken)).call();
+		fileManager.close();
+		Assert.assertFalse(compiled);
+
+		Assert.assertFalse(diagnostics.getDiagnostics().isEmpty());
+		Assert.assertSame(broken, diagnostics.getDiagnostics().get(0).getSource());
+	}
+}
@@ -25,7 +25,6 @@ import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.List;
 
-import org.apache.commons.io.FileUtils;
 import org.evosuite.Properties;
 import org.evosuite.classpath.ClassPathHandler;
 import org.evosuite.runtime.sandbox.Sandbox;
@@ -139,6 +138,12 @@ public class JUnitAnalyzerTest {
 		Assert.assertEquals(1, list.size());
 		Assert.assertFalse(file.exists()); 		
 
+		System.out.println("\n PER-TEST STABILITY CHECK \n");
+		//each test on its own, as done in EvoSuite before checking the whole suite
+		JUnitAnalyzer.handleEachTestThatIsUnstable(list);
+		Assert.assertEquals(1, list.size());
+		Assert.assertFalse(file.exists());
+
 		System.out.println("\n SECOND STABILITY CHECK \n");
 		//try again
 		JUnitAnalyzer.handleTestsThatAreUnstable(list);
@@ -151,16 +156,5 @@ public class JUnitAnalyzerTest {
 		Assert.assertFalse(file.exists()); 			
 	}
 	
-	@Test
-	public void testCreationOfTmpDir() throws IOException{
-		
-		File dir = JUnitAnalyzer.createNewTmpDir();
-		Assert.assertNotNull(dir);
-		Assert.assertTrue(dir.exists());
-		
-		FileUtils.deleteDirectory(dir);
-		Assert.assertFalse(dir.exists());
-	}
-	
 	
 }
@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.junit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+import org.evosuite.coverage.mutation.Mutation;
+import org.evosuite.graphs.cfg.BytecodeInstruction;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.objectweb.asm.tree.InsnList;
+
+public class MutationKillLogTest {
+
+	private File file;
+
+	@Before
+	public void createFile() throws IOException {
+		file = File.createTempFile("kills", ".csv");
+		assertTrue(file.delete());
+	}
+
+	@After
+	public void deleteFile() throws IOException {
+		Files.deleteIfExists(file.toPath());
+	}
+
+	@Test
+	public void testResume() throws IOException {
+		try (MutationKillLog log = MutationKillLog.open(file, "a")) {
+			log.recordKill("Foo#test0", 3);
+			log.recordKill("Foo#test0", 7);
+			log.recordCompleted("Foo#test0");
+			assertEquals(2, log.getNumKilledMutants());
+		}
+
+		try (MutationKillLog log = MutationKillLog.open(file, "a")) {
+			assertTrue(log.isKilled(3));
+			assertTrue(log.isKilled(7));
+			assertFalse(log.isKilled(4));
+			assertTrue(log.isCompleted("Foo#test0"));
+			assertFalse(log.isCompleted("Foo#test1"));
+
+			log.recordKill("Foo#test1", 4);
+		}
+
+		try (MutationKillLog log = MutationKillLog.open(file, "a")) {
+			assertEquals(3, log.getNumKilledMutants());
+		}
+	}
+
+	@Test
+	public void testDifferentMutantsStartOver() throws IOException {
+		try (MutationKillLog log = MutationKillLog.open(file, "a")) {
+			log.recordKill("Foo#test0", 3);
+			log.recordCompleted("Foo#test0");
+		}
+
+		try (MutationKillLog log = MutationKillLog.open(file, "b")) {
+			assertEquals(0, log.getNumKilledMutants());
+			assertFalse(log.isCompleted("Foo#test0"));
+		}
+	}
+
+	@Test
+	public void testTruncatedRecordIsIgnored() throws IOException {
+		try (MutationKillLog log = MutationKillLog.open(file, "a")) {
+			log.recordKill("Foo#test0", 3);
+		}
+		Files.write(file.toPath(), "K,Foo#test1,4".getBytes(), StandardOpenOption.APPEND);
+
+		// the id may have been cut short, so the record must not be trusted
+		try (MutationKillLog log = MutationKillLog.open(file, "a")) {
+			assertEquals(1, log.getNumKilledMutants());
+			assertFalse(log.isKilled(4));
+			log.recordKill("Foo#test2", 5);
+		}
+
+		try (MutationKillLog log = MutationKillLog.open(file, "a")) {
+			assertEquals(2, log.getNumKilledMutants());
+			assertTrue(log.isKilled(5));
+		}
+	}
+
+	private static Mutation mutant(int id, String name) {
+		BytecodeInstruction instruction = mock(BytecodeInstruction.class);
+		when(instruction.getLineNumber()).thenReturn(42);
+		return new Mutation("Foo", "bar()V", name, id, instruction, new InsnList(), new InsnList());
+	}
+
+	@Test
+	public void testFingerprint() {
+		List<Mutation> mutants = Arrays.asList(mutant(0, "DeleteStatement"), mutant(1, "InsertUnaryOp Negation"));
+		String fingerprint = MutationKillLog.fingerprint("Foo", "MUTATION", mutants);
+
+		assertEquals(fingerprint, MutationKillLog.fingerprint("Foo", "MUTATION",
+		        Arrays.asList(mutant(0, "DeleteStatement"), mutant(1, "InsertUnaryOp Negation"))));
+		// same number of mutants, but not the same ones
+		assertNotEquals(fingerprint, MutationKillLog.fingerprint("Foo", "MUTATION",
+		        Arrays.asList(mutant(0, "DeleteStatement"), mutant(1, "InsertUnaryOp IINC 1"))));
+		assertNotEquals(fingerprint, MutationKillLog.fingerprint("Foo", "MUTATION",
+		        Arrays.asList(mutant(0, "InsertUnaryOp Negation"), mutant(1, "DeleteStatement"))));
+		assertNotEquals(fingerprint, MutationKillLog.fingerprint("Foo2", "MUTATION", mutants));
+		// strong mutation kills different mutants with the same tests
+		assertNotEquals(fingerprint, MutationKillLog.fingerprint("Foo", "STRONGMUTATION", mutants));
+	}
+}
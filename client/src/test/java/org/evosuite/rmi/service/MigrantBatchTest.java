@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.rmi.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.evosuite.Properties;
+import org.evosuite.ga.ChromosomeFactory;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.statements.PrimitiveStatement;
+import org.evosuite.testsuite.TestSuiteChromosome;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MigrantBatchTest {
+
+	@After
+	public void tearDown() {
+		Properties.getInstance().resetToDefaults();
+	}
+
+	private static TestChromosome createTest() {
+		TestCase test = new DefaultTestCase();
+		test.addStatement(PrimitiveStatement.getPrimitiveStatement(test, int.class));
+		TestChromosome chromosome = new TestChromosome();
+		chromosome.setTestCase(test);
+		return chromosome;
+	}
+
+	private static MigrantBatch roundTrip(MigrantBatch batch) throws IOException, ClassNotFoundException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(batch);
+		}
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			return (MigrantBatch) in.readObject();
+		}
+	}
+
+	@Test
+	public void testSuitesRoundTrip() throws IOException, ClassNotFoundException {
+		TestSuiteChromosome suite = new TestSuiteChromosome();
+		suite.addTest(createTest());
+		suite.addTest(createTest());
+
+		MigrantBatch batch = roundTrip(MigrantBatch.of("ClientNode1", Collections.singletonList(suite)));
+		Assert.assertEquals("ClientNode1", batch.getSender());
+		Assert.assertEquals(1, batch.size());
+
+		ChromosomeFactory<TestChromosome> factory = MigrantBatchTest::createTest;
+		List<TestSuiteChromosome> suites = batch.toTestSuiteChromosomes(factory);
+		Assert.assertEquals(1, suites.size());
+		Assert.assertSame(factory, suites.get(0).getTestChromosomeFactory());
+		Assert.assertEquals(2, suites.get(0).size());
+		Assert.assertEquals(suite.getTestChromosome(0).getTestCase().toCode(),
+				suites.get(0).getTestChromosome(0).getTestCase().toCode());
+
+		List<TestChromosome> tests = batch.toTestChromosomes();
+		Assert.assertEquals(2, tests.size());
+	}
+
+	@Test
+	public void testDecodedSuiteCanBeMutated() throws IOException, ClassNotFoundException {
+		Properties.P_TEST_INSERTION = 1.0;
+		Properties.MAX_SIZE = 3;
+
+		MigrantBatch batch = roundTrip(MigrantBatch.of("ClientNode1",
+				Arrays.asList(new TestSuiteChromosome(), new TestSuiteChromosome())));
+
+		AtomicInteger created = new AtomicInteger();
+		ChromosomeFactory<TestChromosome> factory = () -> {
+			created.incrementAndGet();
+			return createTest();
+		};
+		TestSuiteChromosome suite = batch.toTestSuiteChromosomes(factory).get(0);
+		suite.mutate();
+
+		Assert.assertEquals(3, created.get());
+		Assert.assertEquals(3, suite.size());
+	}
+}
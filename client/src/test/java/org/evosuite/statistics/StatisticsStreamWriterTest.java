@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.statistics;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class StatisticsStreamWriterTest {
+
+	/**
+	 * Read the stream as the master would
+	 * 
+	 * @return the client identifier, followed by name and value of each output variable
+	 */
+	private static List<Object> readStream(ServerSocket server) throws IOException {
+		List<Object> received = new ArrayList<>();
+		try (Socket socket = server.accept()) {
+			DataInputStream in = new DataInputStream(socket.getInputStream());
+			received.add(in.readUTF());
+			while (true) {
+				byte[] frame = new byte[in.readInt()];
+				in.readFully(frame);
+				DataInputStream records = new DataInputStream(new ByteArrayInputStream(frame));
+				int n = records.readInt();
+				for (int i = 0; i < n; i++) {
+					byte type = records.readByte();
+					if (type == StatisticsStreamWriter.END) {
+						socket.getOutputStream().write(StatisticsStreamWriter.ACK);
+						socket.getOutputStream().flush();
+						return received;
+					}
+					Assert.assertEquals(StatisticsStreamWriter.OUTPUT_VARIABLE, type);
+					received.add(records.readUTF());
+					received.add(StatisticsStreamWriter.readValue(records));
+				}
+			}
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void testSendAndClose() throws Exception {
+		try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+			CompletableFuture<List<Object>> master = CompletableFuture.supplyAsync(() -> {
+				try {
+					return readStream(server);
+				} catch (IOException e) {
+					throw new RuntimeException(e);
+				}
+			});
+
+			// small buffer, so the writer has to wait for the master
+			StatisticsStreamWriter writer = StatisticsStreamWriter.connect(server.getLocalPort(), "client0", 2,
+					frame -> Assert.fail("Nothing should be left to send"));
+			for (int i = 0; i < 10; i++) {
+				Assert.assertTrue(writer.sendOutputVariable(RuntimeVariable.Covered_Goals, i));
+			}
+			Assert.assertTrue(writer.sendOutputVariable(RuntimeVariable.Coverage, 0.5));
+			// not supported, has to go through RMI
+			Assert.assertFalse(writer.sendOutputVariable(RuntimeVariable.Coverage, new Object()));
+			writer.close();
+
+			List<Object> received = master.get();
+			Assert.assertEquals("client0", received.get(0));
+			Assert.assertEquals(1 + 2 * 11, received.size());
+			Assert.assertEquals(RuntimeVariable.Covered_Goals.name(), received.get(1));
+			Assert.assertEquals(9, received.get(2 * 10));
+			Assert.assertEquals(RuntimeVariable.Coverage.name(), received.get(2 * 11 - 1));
+			Assert.assertEquals(0.5, received.get(2 * 11));
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void testMasterGone() throws Exception {
+		List<byte[]> handedOver = new ArrayList<>();
+		StatisticsStreamWriter writer;
+		try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+			writer = StatisticsStreamWriter.connect(server.getLocalPort(), "client0", 2, handedOver::add);
+			server.accept().close();
+		}
+		// eventually the writer notices the connection is closed, and stops accepting records
+		while (writer.sendOutputVariable(RuntimeVariable.Covered_Goals, 1)) {
+			Thread.sleep(10);
+		}
+		Assert.assertTrue(writer.isFailed());
+		writer.close();
+
+		// at least the records of the frame that could not be written are not lost
+		Assert.assertEquals(1, handedOver.size());
+		DataInputStream records = new DataInputStream(new ByteArrayInputStream(handedOver.get(0)));
+		int n = records.readInt();
+		Assert.assertTrue(n > 0);
+		for (int i = 0; i < n; i++) {
+			Assert.assertEquals(StatisticsStreamWriter.OUTPUT_VARIABLE, records.readByte());
+			Assert.assertEquals(RuntimeVariable.Covered_Goals.name(), records.readUTF());
+			Assert.assertEquals(1, StatisticsStreamWriter.readValue(records));
+		}
+		Assert.assertEquals(-1, records.read());
+	}
+}
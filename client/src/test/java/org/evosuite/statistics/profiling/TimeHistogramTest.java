@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.statistics.profiling;
+
+import org.evosuite.Properties;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TimeHistogramTest {
+
+	@After
+	public void tearDown() {
+		Properties.PROFILING = false;
+		Profiler.reset();
+	}
+
+	@Test
+	public void testStatistics() {
+		TimeHistogram histogram = new TimeHistogram();
+		for (int i = 1; i <= 100; i++)
+			histogram.record(i * 1000L);
+
+		Assert.assertEquals(100, histogram.getCount());
+		Assert.assertEquals(5_050_000L, histogram.getTotalNanos());
+		Assert.assertEquals(50_500L, histogram.getMeanNanos());
+		Assert.assertEquals(100_000L, histogram.getMaxNanos());
+
+		// percentiles are upper bounds within a factor of two
+		long p50 = histogram.getPercentileNanos(50);
+		Assert.assertTrue(p50 >= 50_000L && p50 < 100_000L);
+		Assert.assertEquals(100_000L, histogram.getPercentileNanos(100));
+
+		histogram.reset();
+		Assert.assertEquals(0, histogram.getCount());
+		Assert.assertEquals(0, histogram.getPercentileNanos(50));
+	}
+
+	@Test
+	public void testProfilerIsOffByDefault() {
+		long start = Profiler.start();
+		Assert.assertEquals(Profiler.DISABLED, start);
+		Profiler.stop(Profiler.Section.MUTATION, start);
+		Assert.assertEquals(0, Profiler.getHistogram(Profiler.Section.MUTATION).getCount());
+	}
+
+	@Test
+	public void testProfilerCanBeSwitchedOn() {
+		Properties.PROFILING = true;
+		Profiler.stop(Profiler.Section.RANKING, Profiler.start());
+		Profiler.stop(Profiler.Section.RANKING, Profiler.start());
+		Properties.PROFILING = false;
+		Profiler.stop(Profiler.Section.RANKING, Profiler.start());
+
+		Assert.assertEquals(2, Profiler.getHistogram(Profiler.Section.RANKING).getCount());
+		Assert.assertTrue(Profiler.getReport().startsWith("ranking"));
+	}
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.statistics.telemetry;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TelemetryWriterTest {
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		File file = File.createTempFile("telemetry", ".bin");
+		file.deleteOnExit();
+
+		int n = TelemetryWriter.BLOCK_ROWS * 2 + 17;
+		try (TelemetryWriter writer = new TelemetryWriter(file, "time", "evaluations", "delta")) {
+			for (int i = 0; i < n; i++)
+				writer.addRow(1000L * i, (long) i * i, i % 2 == 0 ? Long.MIN_VALUE : Long.MAX_VALUE);
+		}
+
+		Map<String, long[]> columns = TelemetryReader.read(file);
+		Assert.assertArrayEquals(new String[] { "time", "evaluations", "delta" },
+				columns.keySet().toArray(new String[0]));
+		for (long[] values : columns.values())
+			Assert.assertEquals(n, values.length);
+		for (int i = 0; i < n; i++) {
+			Assert.assertEquals(1000L * i, columns.get("time")[i]);
+			Assert.assertEquals((long) i * i, columns.get("evaluations")[i]);
+			Assert.assertEquals(i % 2 == 0 ? Long.MIN_VALUE : Long.MAX_VALUE, columns.get("delta")[i]);
+		}
+	}
+
+	@Test
+	public void testTruncatedBlockIsIgnored() throws IOException {
+		File file = File.createTempFile("telemetry", ".bin");
+		file.deleteOnExit();
+
+		try (TelemetryWriter writer = new TelemetryWriter(file, "value")) {
+			for (int i = 0; i < TelemetryWriter.BLOCK_ROWS + 10; i++)
+				writer.addRow(i);
+		}
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.setLength(raf.length() - 3);
+		}
+
+		long[] values = TelemetryReader.read(file).get("value");
+		Assert.assertEquals(TelemetryWriter.BLOCK_ROWS, values.length);
+		Assert.assertEquals(TelemetryWriter.BLOCK_ROWS - 1, values[values.length - 1]);
+	}
+}
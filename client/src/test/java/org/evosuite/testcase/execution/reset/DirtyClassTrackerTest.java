@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution.reset;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class DirtyClassTrackerTest {
+
+	@Before
+	public void setUp() {
+		DirtyClassTracker.clear();
+	}
+
+	@Test
+	public void testSameIdForSameClass() {
+		int id = DirtyClassTracker.getId("org.foo.DirtyA");
+		assertEquals(id, DirtyClassTracker.getId("org.foo.DirtyA"));
+		assertTrue(id != DirtyClassTracker.getId("org.foo.DirtyB"));
+	}
+
+	@Test
+	public void testGetAndClear() {
+		int a = DirtyClassTracker.getId("org.foo.DirtyA");
+		int b = DirtyClassTracker.getId("org.foo.DirtyB");
+		DirtyClassTracker.getId("org.foo.DirtyC");
+
+		DirtyClassTracker.markDirty(b);
+		DirtyClassTracker.markDirty(a);
+		DirtyClassTracker.markDirty(a);
+		assertTrue(DirtyClassTracker.isDirty("org.foo.DirtyA"));
+		assertFalse(DirtyClassTracker.isDirty("org.foo.DirtyC"));
+
+		assertEquals(Arrays.asList("org.foo.DirtyA", "org.foo.DirtyB"),
+				Arrays.asList(DirtyClassTracker.getAndClearDirtyClasses().toArray()));
+		assertEquals(Collections.emptySet(), DirtyClassTracker.getAndClearDirtyClasses());
+	}
+
+	@Test
+	public void testManyClasses() {
+		int first = DirtyClassTracker.getId("org.foo.Many0");
+		// enough ids for several pages
+		Set<String> expected = new HashSet<>();
+		for (int i = 1; i < 5000; i++) {
+			int id = DirtyClassTracker.getId("org.foo.Many" + i);
+			if (i % 1000 == 0) {
+				DirtyClassTracker.markDirty(id);
+				expected.add("org.foo.Many" + i);
+			}
+		}
+		DirtyClassTracker.markDirty(first);
+		expected.add("org.foo.Many0");
+
+		assertEquals(expected, DirtyClassTracker.getAndClearDirtyClasses());
+	}
+}
@@ -23,9 +23,11 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.rmi.RemoteException;
 import java.util.List;
 
 import org.evosuite.Properties;
+import org.evosuite.continuous.farm.FarmCoordinator;
 import org.evosuite.continuous.job.JobDefinition;
 import org.evosuite.continuous.job.JobExecutor;
 import org.evosuite.continuous.job.JobScheduler;
@@ -33,6 +35,7 @@ import org.evosuite.continuous.persistency.StorageManager;
 import org.evosuite.continuous.project.ProjectAnalyzer;
 import org.evosuite.continuous.project.ProjectStaticData;
 import org.evosuite.utils.FileIOUtils;
+import org.evosuite.utils.LoggingUtils;
 import org.evosuite.xsd.Project;
 import org.evosuite.xsd.ProjectUtil;
 
@@ -162,22 +165,45 @@ public class ContinuousTestGeneration {
 					"Prefix: '" + prefix + "'\n";
 		}
 
-		if(Properties.CTG_DEBUG_PORT != null && data.getTotalNumberOfTestableCUTs() != 1){
+		if(Properties.CTG_DEBUG_PORT != null && data.getTotalNumberOfCUTsToTest() != 1){
 			throw new IllegalStateException("Cannot debug CTG when more than one CUT is selected");
 		}
 
-		if (Properties.CTG_TIME_PER_CLASS != null) {
-			configuration = configuration.getWithChangedTime(Properties.CTG_TIME_PER_CLASS, data.getTotalNumberOfTestableCUTs());
-		}
+		if (data.getTotalNumberOfCUTsToTest() == 0) {
+			/*
+			 * can only happen with incremental CTG: all classes are up to date.
+			 * still need to commit, so that this run is recorded in the database
+			 */
+			LoggingUtils.getEvoLogger().info("* No class has changed since the last run, no test to generate");
+		} else {
+			if (Properties.CTG_TIME_PER_CLASS != null) {
+				configuration = configuration.getWithChangedTime(Properties.CTG_TIME_PER_CLASS, data.getTotalNumberOfCUTsToTest());
+			}
 
-		JobScheduler scheduler = new JobScheduler(data, configuration);
-		JobExecutor executor = new JobExecutor(storage, projectClassPath, configuration);
+			FarmCoordinator farm = null;
+			if (Properties.CTG_FARM_PORT != null) {
+				try {
+					farm = FarmCoordinator.start(Properties.CTG_FARM_PORT);
+				} catch (RemoteException | IllegalArgumentException e) {
+					return "Failed to start the CTG farm on port " + Properties.CTG_FARM_PORT + ": " + e.getMessage();
+				}
+			}
 
-		//loop: define (partial) schedule
-		while (scheduler.canExecuteMore()) {
-			List<JobDefinition> jobs = scheduler.createNewSchedule();
-			executor.executeJobs(jobs, configuration.getNumberOfUsableCores());
-			executor.waitForJobs();
+			try {
+				JobScheduler scheduler = new JobScheduler(data, configuration);
+				JobExecutor executor = new JobExecutor(storage, projectClassPath, configuration, farm);
+
+				//loop: define (partial) schedule
+				while (scheduler.canExecuteMore()) {
+					List<JobDefinition> jobs = scheduler.createNewSchedule();
+					executor.executeJobs(jobs, configuration.getNumberOfUsableCores());
+					executor.waitForJobs();
+				}
+			} finally {
+				if (farm != null) {
+					farm.stop();
+				}
+			}
 		}
 
 		String description = storage.mergeAndCommitChanges(data, cuts);
@@ -0,0 +1,318 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.continuous.farm;
+
+import java.nio.charset.StandardCharsets;
+import java.rmi.NoSuchObjectException;
+import java.rmi.RemoteException;
+import java.rmi.registry.LocateRegistry;
+import java.rmi.registry.Registry;
+import java.rmi.server.UnicastRemoteObject;
+import java.security.MessageDigest;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.evosuite.Properties;
+import org.evosuite.utils.LoggingUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Master side of a farm of CTG workers.
+ *
+ * <p>
+ * Jobs are put in a queue, from which the workers pull them. Workers send heartbeats:
+ * if one is not heard of for too long, it is considered dead, and the jobs it was
+ * running are put back at the head of the queue, to be taken by another worker.
+ * A job that was lost too many times is considered failed.
+ *
+ * <p>
+ * A job can hence end up being run twice, eg if a worker was just slow to answer.
+ * Only the first result is kept.
+ *
+ * <p>
+ * Trust model: whoever knows the shared token of the farm can take jobs (and so read the
+ * files they ship) and write results back into the CTG folder. Besides the token, the
+ * registry is only reachable on the configured interface, and the traffic is not
+ * encrypted, so the farm is meant for a trusted network.
+ */
+public class FarmCoordinator implements FarmCoordinatorRemote {
+
+	private static final Logger logger = LoggerFactory.getLogger(FarmCoordinator.class);
+
+	private static class WorkerState {
+		final String id;
+		final int slots;
+		volatile long lastHeartbeat;
+		final Map<Long, FarmJob> running = new ConcurrentHashMap<>();
+
+		WorkerState(String id, int slots, long now) {
+			this.id = id;
+			this.slots = slots;
+			this.lastHeartbeat = now;
+		}
+	}
+
+	private final byte[] token;
+
+	private final long heartbeatTimeoutInMs;
+
+	private final int maxAttempts;
+
+	private final BlockingDeque<FarmJob> pending = new LinkedBlockingDeque<>();
+
+	private final Map<String, WorkerState> workers = new ConcurrentHashMap<>();
+
+	private final Map<Long, CompletableFuture<FarmResult>> results = new ConcurrentHashMap<>();
+
+	/**
+	 * How many times each job has been given to a worker
+	 */
+	private final Map<Long, Integer> attempts = new ConcurrentHashMap<>();
+
+	private Registry registry;
+
+	private ScheduledExecutorService monitor;
+
+	public FarmCoordinator(String token, long heartbeatTimeoutInMs, int maxAttempts) {
+		if (token == null || token.isEmpty()) {
+			throw new IllegalArgumentException("The CTG farm needs a non-empty token");
+		}
+		this.token = token.getBytes(StandardCharsets.UTF_8);
+		this.heartbeatTimeoutInMs = heartbeatTimeoutInMs;
+		this.maxAttempts = maxAttempts;
+	}
+
+	/**
+	 * Start a coordinator, with its own RMI registry on the given port, to which the workers connect.
+	 * Contrary to the registry of the master, this one is not bound to the loopback address, but to
+	 * the "ctg_farm_host" interface. The coordinator itself is exported on the same port.
+	 *
+	 * @param port
+	 * @return
+	 * @throws RemoteException if the registry cannot be started
+	 * @throws IllegalArgumentException if "ctg_farm_token" is not set
+	 */
+	public static FarmCoordinator start(int port) throws RemoteException, IllegalArgumentException {
+		FarmCoordinator coordinator = new FarmCoordinator(Properties.CTG_FARM_TOKEN,
+				Properties.CTG_FARM_HEARTBEAT_TIMEOUT * 1000L, Properties.CTG_FARM_MAX_ATTEMPTS);
+
+		FarmSocketFactory sockets = new FarmSocketFactory(Properties.CTG_FARM_HOST);
+		coordinator.registry = LocateRegistry.createRegistry(port, sockets, sockets);
+		FarmCoordinatorRemote stub = (FarmCoordinatorRemote) UnicastRemoteObject.exportObject(coordinator, port,
+				sockets, sockets);
+		coordinator.registry.rebind(RMI_SERVICE_NAME, stub);
+
+		coordinator.monitor = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "CTG farm monitor");
+			thread.setDaemon(true);
+			return thread;
+		});
+		long period = Math.max(1, coordinator.heartbeatTimeoutInMs / 2);
+		coordinator.monitor.scheduleAtFixedRate(() -> coordinator.checkWorkers(System.currentTimeMillis()),
+				period, period, TimeUnit.MILLISECONDS);
+
+		LoggingUtils.getEvoLogger().info("* Waiting for CTG farm workers on " + Properties.CTG_FARM_HOST + ":" + port);
+		return coordinator;
+	}
+
+	public void stop() {
+		if (monitor != null) {
+			monitor.shutdownNow();
+			monitor = null;
+		}
+		try {
+			UnicastRemoteObject.unexportObject(this, true);
+		} catch (NoSuchObjectException e) {
+			//not exported, eg in tests
+		}
+		if (registry != null) {
+			try {
+				UnicastRemoteObject.unexportObject(registry, true);
+			} catch (NoSuchObjectException e) {
+				logger.warn("Failed to stop the RMI registry of the farm", e);
+			}
+			registry = null;
+		}
+		for (CompletableFuture<FarmResult> future : results.values()) {
+			future.cancel(true);
+		}
+	}
+
+	/**
+	 * Queue a job for the workers
+	 *
+	 * @param job
+	 * @return the result of the job, once a worker has run it
+	 */
+	public Future<FarmResult> submit(FarmJob job) {
+		CompletableFuture<FarmResult> future = new CompletableFuture<>();
+		results.put(job.id, future);
+		pending.addLast(job);
+		return future;
+	}
+
+	public int getNumberOfWorkers() {
+		return workers.size();
+	}
+
+	public int getNumberOfSlots() {
+		return workers.values().stream().mapToInt(w -> w.slots).sum();
+	}
+
+	private void checkToken(String token) throws SecurityException {
+		byte[] bytes = token == null ? new byte[0] : token.getBytes(StandardCharsets.UTF_8);
+		//constant time comparison
+		if (!MessageDigest.isEqual(this.token, bytes)) {
+			logger.warn("Rejected CTG farm call with an invalid token");
+			throw new SecurityException("Invalid CTG farm token");
+		}
+	}
+
+	@Override
+	public long registerWorker(String token, String workerId, int slots) {
+		checkToken(token);
+		WorkerState previous = workers.put(workerId, new WorkerState(workerId, slots, System.currentTimeMillis()));
+		if (previous != null) {
+			requeue(previous);
+		}
+		LoggingUtils.getEvoLogger().info("* Worker " + workerId + " joined the CTG farm with " + slots + " slots");
+		return Math.max(1, heartbeatTimeoutInMs / 3);
+	}
+
+	@Override
+	public boolean heartbeat(String token, String workerId) {
+		checkToken(token);
+		WorkerState worker = workers.get(workerId);
+		if (worker == null) {
+			return false;
+		}
+		worker.lastHeartbeat = System.currentTimeMillis();
+		return true;
+	}
+
+	@Override
+	public FarmJob takeJob(String token, String workerId, long waitInMs) {
+		checkToken(token);
+		long end = System.currentTimeMillis() + waitInMs;
+
+		while (true) {
+			WorkerState worker = workers.get(workerId);
+			if (worker == null) {
+				return null;
+			}
+			worker.lastHeartbeat = System.currentTimeMillis();
+
+			FarmJob job;
+			try {
+				job = pending.pollFirst(Math.max(0, end - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return null;
+			}
+			if (job == null) {
+				return null;
+			}
+
+			CompletableFuture<FarmResult> future = results.get(job.id);
+			if (future == null || future.isDone()) {
+				//already run by another worker, or not needed any more
+				results.remove(job.id);
+				attempts.remove(job.id);
+				continue;
+			}
+
+			if (workers.get(workerId) != worker) {
+				//the worker was considered dead while waiting
+				pending.addFirst(job);
+				return null;
+			}
+
+			attempts.merge(job.id, 1, Integer::sum);
+			worker.running.put(job.id, job);
+			logger.debug("Giving " + job + " to worker " + workerId);
+			return job;
+		}
+	}
+
+	@Override
+	public void jobFinished(String token, String workerId, FarmResult result) {
+		checkToken(token);
+		WorkerState worker = workers.get(workerId);
+		if (worker != null) {
+			worker.lastHeartbeat = System.currentTimeMillis();
+			worker.running.remove(result.jobId);
+		}
+
+		CompletableFuture<FarmResult> future = results.remove(result.jobId);
+		attempts.remove(result.jobId);
+		if (future == null) {
+			logger.debug("Ignoring duplicated result of job " + result.jobId + " from worker " + workerId);
+			return;
+		}
+		future.complete(result);
+	}
+
+	/**
+	 * Remove the workers that did not send a heartbeat in time, and put
+	 * their running jobs back in the queue
+	 *
+	 * @param now current time in milliseconds
+	 */
+	void checkWorkers(long now) {
+		Iterator<WorkerState> iterator = workers.values().iterator();
+		while (iterator.hasNext()) {
+			WorkerState worker = iterator.next();
+			if (now - worker.lastHeartbeat <= heartbeatTimeoutInMs) {
+				continue;
+			}
+			iterator.remove();
+			LoggingUtils.getEvoLogger().warn("* Lost CTG farm worker " + worker.id + ", re-queueing its "
+					+ worker.running.size() + " jobs");
+			requeue(worker);
+		}
+	}
+
+	private void requeue(WorkerState worker) {
+		for (FarmJob job : worker.running.values()) {
+			CompletableFuture<FarmResult> future = results.get(job.id);
+			if (future == null || future.isDone()) {
+				continue;
+			}
+			if (attempts.getOrDefault(job.id, 0) >= maxAttempts) {
+				logger.warn("Giving up on " + job + " after " + maxAttempts + " attempts");
+				results.remove(job.id);
+				attempts.remove(job.id);
+				future.complete(FarmResult.failed(job, worker.id, "Job lost " + maxAttempts + " times"));
+			} else {
+				pending.addFirst(job);
+			}
+		}
+		worker.running.clear();
+	}
+}
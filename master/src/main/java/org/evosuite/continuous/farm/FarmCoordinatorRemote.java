@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.continuous.farm;
+
+import java.rmi.Remote;
+import java.rmi.RemoteException;
+
+/**
+ * Farm coordinator view in the worker daemons.
+ * Workers pull their jobs, so the master never needs to open
+ * a connection toward them.
+ *
+ * <p>
+ * Every call carries the shared secret of the farm (see "ctg_farm_token"), and is
+ * rejected with a {@link SecurityException} if it does not match.
+ */
+public interface FarmCoordinatorRemote extends Remote {
+
+	String RMI_SERVICE_NAME = "CtgFarm";
+
+	/**
+	 * Join the farm, or join it again after having been considered dead
+	 *
+	 * @param token shared secret of the farm
+	 * @param workerId unique id of the worker
+	 * @param slots how many jobs the worker can run in parallel
+	 * @return how often, in milliseconds, the worker should send a heartbeat
+	 */
+	long registerWorker(String token, String workerId, int slots) throws RemoteException;
+
+	/**
+	 * @return {@code false} if the worker is not known (anymore), and so it should register again
+	 */
+	boolean heartbeat(String token, String workerId) throws RemoteException;
+
+	/**
+	 * Wait for a job to run
+	 *
+	 * @return {@code null} if there was no job to run in the given time
+	 */
+	FarmJob takeJob(String token, String workerId, long waitInMs) throws RemoteException;
+
+	void jobFinished(String token, String workerId, FarmResult result) throws RemoteException;
+}
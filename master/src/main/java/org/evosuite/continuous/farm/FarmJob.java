@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.continuous.farm;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A CTG job to run on a farm worker.
+ *
+ * <p>
+ * The command is the same one used to run the job as a local process. All the paths
+ * in it under the CTG folder of the master (eg, where tests, reports and pools are
+ * written) are remapped by the worker to a local scratch folder, and the files read
+ * from there (eg, the pools of the dependencies and the seeds) are shipped together
+ * with the job. Anything else, like the EvoSuite jar and the classpath of the project,
+ * must be at the same location on the workers, eg a shared checkout.
+ */
+public class FarmJob implements Serializable {
+
+	private static final long serialVersionUID = -2418007455016364651L;
+
+	private static final AtomicLong counter = new AtomicLong(0);
+
+	public final long id;
+
+	/**
+	 * The class under test
+	 */
+	public final String cut;
+
+	/**
+	 * Time budget of the job
+	 */
+	public final int seconds;
+
+	/**
+	 * Absolute path of the CTG folder on the master
+	 */
+	public final String root;
+
+	private final List<String> commands;
+
+	/**
+	 * Content of the input files, indexed by their path relative to {@link #root}
+	 */
+	private final Map<String, byte[]> inputs;
+
+	public FarmJob(long id, String cut, int seconds, String root, List<String> commands, Map<String, byte[]> inputs) {
+		this.id = id;
+		this.cut = cut;
+		this.seconds = seconds;
+		this.root = root;
+		this.commands = Collections.unmodifiableList(new ArrayList<>(commands));
+		this.inputs = Collections.unmodifiableMap(new LinkedHashMap<>(inputs));
+	}
+
+	/**
+	 * Create a job, reading the files under {@code root} that are referenced
+	 * by the "-D" options of the command
+	 *
+	 * @param cut
+	 * @param seconds
+	 * @param commands the command to start EvoSuite on the master
+	 * @param root the CTG folder on the master
+	 * @return
+	 * @throws IOException if any of the input files cannot be read
+	 */
+	public static FarmJob create(String cut, int seconds, List<String> commands, File root) throws IOException {
+		String rootPath = root.getAbsolutePath();
+		Map<String, byte[]> inputs = new LinkedHashMap<>();
+
+		for (String command : commands) {
+			if (!command.startsWith("-D") || !command.contains("=")) {
+				continue;
+			}
+			String value = command.substring(command.indexOf('=') + 1);
+			for (String path : value.split(File.pathSeparator)) {
+				if (!path.startsWith(rootPath + File.separator)) {
+					continue;
+				}
+				File file = new File(path);
+				if (file.isFile()) {
+					inputs.put(relativize(rootPath, path), Files.readAllBytes(file.toPath()));
+				}
+			}
+		}
+
+		return new FarmJob(counter.incrementAndGet(), cut, seconds, rootPath, commands, inputs);
+	}
+
+	/**
+	 * @param localRoot where the worker maps the CTG folder of the master
+	 * @param javaExecutable the java executable on the worker
+	 * @return the command to run on the worker
+	 */
+	public List<String> getCommandsFor(File localRoot, String javaExecutable) {
+		/*
+		 * only replace the root when it is a whole path, or the prefix of one, so that
+		 * eg "/ctg-old" is left alone when the root is "/ctg"
+		 */
+		String separators = Pattern.quote(File.separator) + "|" + Pattern.quote(File.pathSeparator);
+		Pattern pattern = Pattern.compile("(^|=|" + Pattern.quote(File.pathSeparator) + ")"
+				+ Pattern.quote(root) + "(?=$|" + separators + ")");
+		String replacement = "$1" + Matcher.quoteReplacement(localRoot.getAbsolutePath());
+
+		List<String> local = new ArrayList<>(commands.size());
+		for (String command : commands) {
+			local.add(pattern.matcher(command).replaceAll(replacement));
+		}
+		if (!local.isEmpty()) {
+			local.set(0, javaExecutable);
+		}
+		return local;
+	}
+
+	public Map<String, byte[]> getInputs() {
+		return inputs;
+	}
+
+	/**
+	 * @return the path of the file relative to the root, using '/' as separator
+	 */
+	static String relativize(String root, String path) {
+		return path.substring(root.length() + 1).replace(File.separatorChar, '/');
+	}
+
+	@Override
+	public String toString() {
+		return "job " + id + " for " + cut;
+	}
+}
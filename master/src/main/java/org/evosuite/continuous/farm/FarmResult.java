@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.continuous.farm;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * What a farm worker sends back once a job is over: the files the
+ * job wrote under the CTG folder, and its console output if it failed
+ */
+public class FarmResult implements Serializable {
+
+	private static final long serialVersionUID = 5212468301938046337L;
+
+	private static final Logger logger = LoggerFactory.getLogger(FarmResult.class);
+
+	public final long jobId;
+
+	public final String workerId;
+
+	public final int exitCode;
+
+	/**
+	 * Console output of the process, only kept when it failed
+	 */
+	public final String output;
+
+	/**
+	 * Content of the output files, indexed by their path relative to the CTG folder
+	 */
+	private final Map<String, byte[]> files;
+
+	public FarmResult(long jobId, String workerId, int exitCode, String output, Map<String, byte[]> files) {
+		this.jobId = jobId;
+		this.workerId = workerId;
+		this.exitCode = exitCode;
+		this.output = output;
+		this.files = Collections.unmodifiableMap(new LinkedHashMap<>(files));
+	}
+
+	/**
+	 * Result for a job that could not be run at all
+	 */
+	public static FarmResult failed(FarmJob job, String workerId, String reason) {
+		return new FarmResult(job.id, workerId, -1, reason, Collections.emptyMap());
+	}
+
+	public Map<String, byte[]> getFiles() {
+		return files;
+	}
+
+	/**
+	 * Write the output files of the job under the CTG folder of the master.
+	 * Files whose path would end up outside of it are skipped.
+	 *
+	 * @param root the CTG folder
+	 * @return how many files were written
+	 * @throws IOException
+	 */
+	public int writeTo(File root) throws IOException {
+		String rootPath = root.getCanonicalPath() + File.separator;
+		int written = 0;
+
+		for (Map.Entry<String, byte[]> entry : files.entrySet()) {
+			File target = new File(root, entry.getKey().replace('/', File.separatorChar));
+			if (!target.getCanonicalPath().startsWith(rootPath)) {
+				logger.warn("Skipping file outside of the CTG folder sent by worker " + workerId + ": " + entry.getKey());
+				continue;
+			}
+			File parent = target.getParentFile();
+			if (!parent.exists() && !parent.mkdirs()) {
+				throw new IOException("Failed to create folder " + parent.getAbsolutePath());
+			}
+			Files.write(target.toPath(), entry.getValue());
+			written++;
+		}
+
+		return written;
+	}
+}
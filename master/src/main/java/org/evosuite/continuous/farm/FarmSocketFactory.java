@@ -0,0 +1,76 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.continuous.farm;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.rmi.server.RMIClientSocketFactory;
+import java.rmi.server.RMIServerSocketFactory;
+import java.util.Objects;
+
+/**
+ * Sockets of the farm coordinator: the server side only listens on the
+ * configured interface, and the client side (serialized in the stub sent
+ * to the workers) connects to that same address.
+ *
+ * <p>
+ * The latter is needed as the master forces "java.rmi.server.hostname" to the
+ * loopback address (see {@link org.evosuite.rmi.UtilsRMI#ensureRegistryOnLoopbackAddress()}),
+ * which is what a default stub would tell remote workers to connect to.
+ */
+public class FarmSocketFactory implements RMIServerSocketFactory, RMIClientSocketFactory, Serializable {
+
+	private static final long serialVersionUID = 6290360867322519493L;
+
+	private final String host;
+
+	public FarmSocketFactory(String host) {
+		this.host = Objects.requireNonNull(host);
+	}
+
+	@Override
+	public ServerSocket createServerSocket(int port) throws IOException {
+		return new ServerSocket(port, 0, InetAddress.getByName(host));
+	}
+
+	@Override
+	public Socket createSocket(String ignored, int port) throws IOException {
+		return new Socket(host, port);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o == null || getClass() != o.getClass()) {
+			return false;
+		}
+		return host.equals(((FarmSocketFactory) o).host);
+	}
+
+	@Override
+	public int hashCode() {
+		return host.hashCode();
+	}
+}
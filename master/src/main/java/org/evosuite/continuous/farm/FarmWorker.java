@@ -0,0 +1,328 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.continuous.farm;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.rmi.RemoteException;
+import java.rmi.registry.LocateRegistry;
+import java.rmi.registry.Registry;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.commons.io.FileUtils;
+import org.evosuite.runtime.util.JavaExecCmdUtil;
+import org.evosuite.utils.LoggingUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Daemon running CTG jobs for a remote master, started with
+ * <pre>
+ * java -cp evosuite.jar org.evosuite.continuous.farm.FarmWorker &lt;master host&gt; &lt;ctg_farm_port&gt; [slots] [work folder]
+ * </pre>
+ * from a folder with the same layout as the one of the master (eg, a checkout of the same project).
+ * The "ctg_farm_token" of the master must be given in the {@value #TOKEN_VARIABLE} environment
+ * variable, so that it does not show up in the list of processes.
+ *
+ * <p>
+ * Each job is run as a separated process, like {@link org.evosuite.continuous.job.JobHandler} does
+ * on the master, but inside a scratch folder that is deleted once the files written by the job
+ * have been sent back.
+ */
+public class FarmWorker {
+
+	private static final Logger logger = LoggerFactory.getLogger(FarmWorker.class);
+
+	public static final String TOKEN_VARIABLE = "EVOSUITE_CTG_FARM_TOKEN";
+
+	/**
+	 * How long to wait for a job in each call to the coordinator
+	 */
+	private static final long POLL_IN_MS = 5000;
+
+	/**
+	 * How many times to try to send a result before giving up on it
+	 */
+	private static final int SEND_TRIES = 5;
+
+	/**
+	 * Only the end of the console output of a failed job is sent back
+	 */
+	private static final int MAX_OUTPUT_BYTES = 64 * 1024;
+
+	private final FarmCoordinatorRemote coordinator;
+
+	private final String token;
+
+	private final String workerId;
+
+	private final int slots;
+
+	private final File workDir;
+
+	private final Set<Process> processes = ConcurrentHashMap.newKeySet();
+
+	private volatile boolean running;
+
+	private ScheduledExecutorService heartbeats;
+
+	private ExecutorService runners;
+
+	public FarmWorker(FarmCoordinatorRemote coordinator, String token, String workerId, int slots, File workDir) {
+		this.coordinator = coordinator;
+		this.token = token;
+		this.workerId = workerId;
+		this.slots = slots;
+		this.workDir = workDir;
+	}
+
+	public static void main(String[] args) throws Exception {
+		if (args.length < 2) {
+			System.err.println("Usage: FarmWorker <master host> <port> [slots] [work folder]");
+			System.exit(1);
+		}
+		String token = System.getenv(TOKEN_VARIABLE);
+		if (token == null || token.isEmpty()) {
+			System.err.println("The token of the farm must be given in the environment variable " + TOKEN_VARIABLE);
+			System.exit(1);
+		}
+
+		String host = args[0];
+		int port = Integer.parseInt(args[1]);
+		int slots = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+		File workDir = args.length > 3 ? new File(args[3])
+				: new File(System.getProperty("java.io.tmpdir"), "evosuite-farm");
+
+		Registry registry = LocateRegistry.getRegistry(host, port);
+		FarmCoordinatorRemote coordinator = (FarmCoordinatorRemote) registry.lookup(FarmCoordinatorRemote.RMI_SERVICE_NAME);
+
+		//"pid@host" is unique among the workers
+		String workerId = ManagementFactory.getRuntimeMXBean().getName();
+
+		FarmWorker worker = new FarmWorker(coordinator, token, workerId, slots, workDir);
+		Runtime.getRuntime().addShutdownHook(new Thread(worker::stop));
+		worker.start();
+	}
+
+	public void start() throws RemoteException {
+		running = true;
+		long period = coordinator.registerWorker(token, workerId, slots);
+		LoggingUtils.getEvoLogger().info("* Worker " + workerId + " joined the CTG farm with " + slots + " slots");
+
+		heartbeats = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "CTG farm heartbeat");
+			thread.setDaemon(true);
+			return thread;
+		});
+		heartbeats.scheduleAtFixedRate(this::sendHeartbeat, period, period, TimeUnit.MILLISECONDS);
+
+		runners = Executors.newFixedThreadPool(slots);
+		for (int i = 0; i < slots; i++) {
+			runners.execute(this::runJobs);
+		}
+	}
+
+	public void stop() {
+		running = false;
+		if (heartbeats != null) {
+			heartbeats.shutdownNow();
+		}
+		if (runners != null) {
+			runners.shutdownNow();
+		}
+		for (Process process : processes) {
+			process.destroy();
+		}
+	}
+
+	private void sendHeartbeat() {
+		try {
+			if (!coordinator.heartbeat(token, workerId)) {
+				/*
+				 * the master considered us dead, and so re-queued our jobs.
+				 * we still complete them, as the master keeps the first result it gets
+				 */
+				logger.warn("Master does not know this worker any more, registering again");
+				coordinator.registerWorker(token, workerId, slots);
+			}
+		} catch (RemoteException e) {
+			logger.warn("Failed to send heartbeat to the master: " + e.getMessage());
+		}
+	}
+
+	private void runJobs() {
+		while (running && !Thread.currentThread().isInterrupted()) {
+			FarmJob job;
+			try {
+				job = coordinator.takeJob(token, workerId, POLL_IN_MS);
+			} catch (RemoteException e) {
+				logger.warn("Failed to get a job from the master: " + e.getMessage());
+				if (!sleep(POLL_IN_MS)) {
+					return;
+				}
+				continue;
+			}
+			if (job == null) {
+				continue;
+			}
+
+			LoggingUtils.getEvoLogger().info("* Running " + job + ", expected to end in " + job.seconds + " seconds");
+			FarmResult result = execute(job);
+			sendResult(result);
+		}
+	}
+
+	private void sendResult(FarmResult result) {
+		for (int i = 0; i < SEND_TRIES && running; i++) {
+			try {
+				coordinator.jobFinished(token, workerId, result);
+				return;
+			} catch (RemoteException e) {
+				logger.warn("Failed to send result of job " + result.jobId + " to the master: " + e.getMessage());
+				if (!sleep(1000)) {
+					return;
+				}
+			}
+		}
+		//the master will re-queue the job once it considers this worker dead
+	}
+
+	private boolean sleep(long ms) {
+		try {
+			Thread.sleep(ms);
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	/**
+	 * Run the job in a new scratch folder
+	 *
+	 * @param job
+	 * @return the result to send back to the master
+	 */
+	FarmResult execute(FarmJob job) {
+		File scratch = new File(workDir, "job_" + job.id + "_" + System.nanoTime());
+		File root = new File(scratch, "ctg");
+		File console = new File(scratch, "console.log");
+		Process process = null;
+
+		try {
+			for (Map.Entry<String, byte[]> input : job.getInputs().entrySet()) {
+				File file = new File(root, input.getKey().replace('/', File.separatorChar));
+				FileUtils.writeByteArrayToFile(file, input.getValue());
+			}
+			if (!root.exists() && !root.mkdirs()) {
+				throw new IOException("Failed to create " + root.getAbsolutePath());
+			}
+
+			List<String> commands = job.getCommandsFor(root, JavaExecCmdUtil.getJavaBinExecutablePath());
+			ProcessBuilder builder = new ProcessBuilder(commands);
+			builder.directory(new File(System.getProperty("user.dir")));
+			builder.redirectErrorStream(true);
+			builder.redirectOutput(console);
+
+			process = builder.start();
+			processes.add(process);
+
+			//same slack the executor of the master gives to its jobs
+			long timeoutInMs = job.seconds * 2000L + 60000L;
+			int exitCode;
+			if (process.waitFor(timeoutInMs, TimeUnit.MILLISECONDS)) {
+				exitCode = process.exitValue();
+			} else {
+				logger.warn("Killing " + job + " as it did not end in time");
+				process.destroyForcibly();
+				exitCode = -1;
+			}
+
+			String output = exitCode == 0 ? null : readTail(console);
+			return new FarmResult(job.id, workerId, exitCode, output, collectOutputs(root, job.getInputs()));
+
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return FarmResult.failed(job, workerId, "Worker was stopped");
+		} catch (IOException e) {
+			logger.error("Failed to run " + job + ": " + e.getMessage(), e);
+			return FarmResult.failed(job, workerId, e.toString());
+		} finally {
+			if (process != null) {
+				process.destroy();
+				processes.remove(process);
+			}
+			FileUtils.deleteQuietly(scratch);
+		}
+	}
+
+	/**
+	 * @return all the files under the root, but the inputs that were not modified
+	 */
+	static Map<String, byte[]> collectOutputs(File root, Map<String, byte[]> inputs) throws IOException {
+		String rootPath = root.getAbsolutePath();
+		Map<String, byte[]> outputs = new LinkedHashMap<>();
+
+		List<Path> files;
+		try (Stream<Path> stream = Files.walk(root.toPath())) {
+			files = stream.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+		}
+
+		for (Path file : files) {
+			String relative = FarmJob.relativize(rootPath, file.toFile().getAbsolutePath());
+			byte[] content = Files.readAllBytes(file);
+			byte[] input = inputs.get(relative);
+			if (input == null || !Arrays.equals(input, content)) {
+				outputs.put(relative, content);
+			}
+		}
+		return outputs;
+	}
+
+	private static String readTail(File file) throws IOException {
+		if (!file.exists()) {
+			return "";
+		}
+		try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+			long length = in.length();
+			int size = (int) Math.min(length, MAX_OUTPUT_BYTES);
+			byte[] bytes = new byte[size];
+			in.seek(length - size);
+			in.readFully(bytes);
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+	}
+}
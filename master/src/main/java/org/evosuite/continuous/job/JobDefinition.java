@@ -230,6 +230,26 @@ public class JobDefinition {
 		if(dependentOnClasses == null){
 			return true; // no dependencies to satisfy
 		}
+
+		Set<String> scheduled = new HashSet<>();
+		for(JobDefinition job : schedule){
+			scheduled.add(job.cut);
+		}
+		return areDependenciesSatisfied(scheduled, done);
+	}
+
+	/**
+	 * Check if all jobs this one depends on are finished 
+	 * 
+	 * @param scheduled the CUTs of all the jobs in the schedule
+	 * @param done the CUTs of the jobs that are finished
+	 * @return
+	 */
+	public boolean areDependenciesSatisfied(Set<String> scheduled, Set<String> done){
+
+		if(dependentOnClasses == null){
+			return true; // no dependencies to satisfy
+		}
 		
 		for(String name : dependentOnClasses){
 			/*
@@ -238,7 +258,7 @@ public class JobDefinition {
 			 * If A depends on B, but we have no job for B, then no point in postponing
 			 * a job for A
 			 */
-			if(!inTheSchedule(schedule,name)){
+			if(!scheduled.contains(name)){
 				continue;
 			}
 			if(!done.contains(name)){
@@ -248,15 +268,6 @@ public class JobDefinition {
 		return true; 
 	}
 	
-	private boolean inTheSchedule(List<JobDefinition> jobs, String cut){
-		for(JobDefinition job : jobs){
-			if(job.cut.equals(cut)){
-				return true;
-			}
-		}
-		return false;
-	}
-	
 	
 	@Override
 	public int hashCode() {
@@ -21,19 +21,21 @@ package org.evosuite.continuous.job;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
-import java.util.Iterator;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 
 import org.evosuite.Properties;
 import org.evosuite.continuous.CtgConfiguration;
+import org.evosuite.continuous.farm.FarmCoordinator;
 import org.evosuite.continuous.persistency.StorageManager;
 import org.evosuite.utils.LoggingUtils;
 import org.slf4j.Logger;
@@ -49,8 +51,25 @@ import org.slf4j.LoggerFactory;
  * premature crashes, reboot of machine, etc.
  * This is particularly useful considering that CTG can be left running for hours, if not
  * even days. 
- * Downside is not a big deal, as the searches in a schedule are anyway run independently. 
- * 
+ * Downside is not a big deal, as the searches in a schedule are anyway run independently.
+ *
+ * <p>
+ * With an adaptive budget, this is still done through files: each job writes its search
+ * progress to disk (see {@link JobProgress}), so that a saturated search can be stopped
+ * early and its unused time given to the jobs that have not started yet.
+ *
+ * <p>
+ * Jobs are not pushed to the handlers, but taken by each handler as soon as it is idle.
+ * The choice of the job is hence done as late as possible: the first one, in the order
+ * of the schedule, whose dependencies are finished and whose memory fits in what is left
+ * by the running jobs. What is done in CTG once a job is over (eg, parsing its statistics)
+ * is left to a separated thread, so that the handler can start the next job straight away.
+ *
+ * <p>
+ * With a farm, the processes are not started on this machine, but by remote workers.
+ * Still, the files they write are copied back here once each job is over, so that
+ * nothing changes for the rest of CTG.
+ *
  * 
  * <p>
  * Note: under no case ever two different jobs should access the same files at the same time, even
@@ -74,10 +93,30 @@ public class JobExecutor {
 	private volatile CountDownLatch latch;
 
 	/**
-	 * Several threads read from this queue to execute jobs
-	 * on separated process
+	 * Jobs not taken by any handler yet, in the order of the schedule.
+	 * Access is synchronized on this executor
+	 */
+	private LinkedList<JobDefinition> toExecute;
+
+	/**
+	 * The CUTs of all the jobs in the current schedule
 	 */
-	private BlockingQueue<JobDefinition> jobQueue;
+	private Set<String> scheduled;
+
+	/**
+	 * Memory not reserved by the running jobs
+	 */
+	private int freeMemoryInMB;
+
+	/**
+	 * How many jobs are currently running
+	 */
+	private int runningJobs;
+
+	/**
+	 * Thread used to process the results of a job once it is over
+	 */
+	private ExecutorService postProcessor;
 
 	/**
 	 * keep track of all the jobs that have been executed so far.
@@ -87,11 +126,28 @@ public class JobExecutor {
 	 */
 	private Map<String,JobDefinition> finishedJobs; 
 
+	/**
+	 * Seconds of core-time left by jobs that ended before their budget
+	 * was over, and not given to any other job yet.
+	 * Only used with an adaptive budget
+	 */
+	private int unusedBudgetInSeconds;
+
+	/**
+	 * Longest job after reassigning unused budget
+	 */
+	private volatile long longestAssignedJobInMs;
+
 	protected final CtgConfiguration configuration;
 	
 	private String projectClassPath;
 	
 	private StorageManager storage;
+
+	/**
+	 * Where jobs are dispatched to, if they are not run locally
+	 */
+	private final FarmCoordinator farm;
 	
 	/**
 	 * Main constructor
@@ -99,6 +155,11 @@ public class JobExecutor {
 	 */
 	public JobExecutor(StorageManager storage, 
 			String projectClassPath, CtgConfiguration conf) throws IllegalArgumentException{
+		this(storage, projectClassPath, conf, null);
+	}
+
+	public JobExecutor(StorageManager storage,
+			String projectClassPath, CtgConfiguration conf, FarmCoordinator farm) throws IllegalArgumentException{
 
 		this.storage = storage;
 		if (!storage.isStorageOk()) {
@@ -107,6 +168,7 @@ public class JobExecutor {
 		
 		this.configuration = conf;
 		this.projectClassPath = projectClassPath;
+		this.farm = farm;
 	}
 
 	protected long getRemainingTimeInMs(){
@@ -142,8 +204,6 @@ public class JobExecutor {
 					handler.start();
 				}
 
-				long longestJob = -1L;
-				
 				try{
 					LoggingUtils.getEvoLogger().info("Going to execute "+jobs.size()+" jobs");
 
@@ -151,17 +211,19 @@ public class JobExecutor {
 					LocalDateTime endBy = LocalDateTime.now().plus(minutes, ChronoUnit.MINUTES);
 					LoggingUtils.getEvoLogger().info("Estimated completion time: "+minutes+" minutes, by "+endBy);
 
-					longestJob = execute(jobs);
+					waitForAllJobsToStart();
+				} catch(InterruptedException e){
+					this.interrupt(); //important for check later
 				} catch(Exception e){
 					logger.error("Error while trying to execute the "+jobs.size()+" jobs: "+e.getMessage(),e);
 				}
 				finally {
 					/*
-					 * When we arrive here, in the worst case each handler is still executing a job,
-					 * plus one in the queue.
+					 * When we arrive here, in the worst case each handler is still executing a job.
 					 * Note: this check is not precise
 					 */
-					if(!this.isInterrupted() && longestJob > 0){				
+					long longestJob = longestAssignedJobInMs;
+					if(!this.isInterrupted() && longestJob > 0){
 						try {
 							latch.await((longestJob*2) + (60000),TimeUnit.MILLISECONDS);
 						} catch (InterruptedException e) {
@@ -178,6 +240,7 @@ public class JobExecutor {
 					for(JobHandler handler : handlers){
 						handler.stopExecution();
 					}
+					postProcessor.shutdown();
 					
 					executing = false;
 				}
@@ -190,116 +253,176 @@ public class JobExecutor {
 		executing = true;
 		startTimeInMs = System.currentTimeMillis(); 		
 		latch = new CountDownLatch(jobs.size());
-		
-		/*
-		 * there is a good reason to have a blocking queue of size 1.
-		 * we want to put jobs on the queue only when we know there is going
-		 * to be a handler that can pull it.
-		 * this helps the scheduler, as we can wait longer before making the decision
-		 * of what job to schedule next
-		 */
-		jobQueue = new ArrayBlockingQueue<>(1);
+
+		synchronized (this) {
+			toExecute = new LinkedList<>(jobs);
+			scheduled = new HashSet<>();
+			for (JobDefinition job : jobs) {
+				scheduled.add(job.cut);
+			}
+			freeMemoryInMB = configuration.totalMemoryInMB;
+			runningJobs = 0;
+		}
 		finishedJobs = new ConcurrentHashMap<>();
+		unusedBudgetInSeconds = 0;
+		longestAssignedJobInMs = -1L;
+
+		postProcessor = Executors.newSingleThreadExecutor(r -> {
+			Thread thread = new Thread(r, "CTG job post-processing");
+			thread.setDaemon(true);
+			return thread;
+		});
 	}
 
-	protected long execute(List<JobDefinition> jobs){
-		
-		long longestJob = -1L;
-		
-		//TODO handle memory
-		Queue<JobDefinition> toExecute = new LinkedList<>(jobs);
-		
-		List<JobDefinition> postponed = new LinkedList<>();
-		
-		mainLoop: while(!toExecute.isEmpty() || !postponed.isEmpty()){
-
-			long remaining = getRemainingTimeInMs();
-			if(remaining <= 0){
-				//time is over. do not submit any more job
-				break mainLoop;
-			} 
-			
-			JobDefinition chosenJob = null;
-
-			//postponed jobs have the priority
-			if(!postponed.isEmpty()){
-				Iterator<JobDefinition> iterator = postponed.iterator();
-				postponedLoop : while(iterator.hasNext()){
-					JobDefinition job = iterator.next();
-					if(job.areDependenciesSatisfied(jobs,finishedJobs.keySet())){
-						chosenJob = job;							
-						iterator.remove();
-						break postponedLoop;
-					}
+	/**
+	 * Wait till all the jobs have been taken by a handler, or the time is over
+	 * 
+	 * @throws InterruptedException
+	 */
+	protected synchronized void waitForAllJobsToStart() throws InterruptedException {
+		long remaining;
+		while (!toExecute.isEmpty() && (remaining = getRemainingTimeInMs()) > 0) {
+			wait(remaining);
+		}
+	}
+
+	/**
+	 * Wait for a job to run. This is called by a handler once it is idle.
+	 * 
+	 * @return {@code null} if there are no more jobs to run, or the time is over
+	 * @throws InterruptedException
+	 */
+	public JobDefinition pollJob() throws InterruptedException{
+		JobDefinition job;
+		synchronized (this) {
+			while (true) {
+				long remaining = getRemainingTimeInMs();
+				if (toExecute.isEmpty() || remaining <= 0) {
+					//wake up whoever waits for all jobs to be started
+					notifyAll();
+					return null;
 				}
+				job = selectJob();
+				if (job != null) {
+					break;
+				}
+				//not enough memory for any of the jobs, wait for a running one to end
+				wait(remaining);
 			}
-
-			if(chosenJob == null && toExecute.isEmpty()){
-				assert !postponed.isEmpty();
-				/*
-				 * tricky case: the are no more jobs in the queue, and there are
-				 * jobs that have been postponed. But, at the moment, we shouldn't 
-				 * execute them due to missing dependencies.
-				 * 
-				 * As the dependencies are just "optimizations" (eg, seeding), it is not
-				 * wrong to execute any of those postponed jobs.
-				 * There might be useful heuristics to pick up one in a smart way but,
-				 * for now, we just choose the first (and so oldest)
-				 */
-				chosenJob = postponed.remove(0); //it is important to get the oldest jobs
+			if (toExecute.isEmpty()) {
+				notifyAll();
 			}
+		}
+		return assignUnusedBudget(job);
+	}
 
-			if(chosenJob == null){
-				assert !toExecute.isEmpty();
-
-				toExecuteLoop : while(!toExecute.isEmpty()){
-					JobDefinition job = toExecute.poll();
-					if(job.areDependenciesSatisfied(jobs,finishedJobs.keySet())){
-						chosenJob = job;
-						break toExecuteLoop;
-					}  else {
-						postponed.add(job);
-					}
-				}
+	/**
+	 * Choose the next job to run, and reserve its memory.
+	 * 
+	 * <p>
+	 * Jobs whose dependencies are finished have the priority. But, as the dependencies
+	 * are just "optimizations" (eg, seeding), it is not wrong to run a job before them:
+	 * an idle handler is better used on the oldest job that fits in memory than left waiting.
+	 * 
+	 * @return {@code null} if no job fits in the memory left by the running jobs
+	 */
+	protected synchronized JobDefinition selectJob() {
+		JobDefinition chosen = null;
+		JobDefinition oldestFitting = null;
 
-				if(chosenJob == null){
-					/*
-					 * yet another tricky situation: we started with a list of jobs to execute,
-					 * and none in the postponed list; but we cannot execute any of those
-					 * jobs (this could happen if they all depend on jobs that are currently running).
-					 * We should hence just choose one of them. Easiest thing, and most clean,
-					 * to do is just to go back to beginning of the loop
-					 */
-					assert !postponed.isEmpty() && toExecute.isEmpty();
-					continue mainLoop;
-				}
+		for (JobDefinition job : toExecute) {
+			if (!fitsInMemory(job)) {
+				continue;
+			}
+			if (oldestFitting == null) {
+				oldestFitting = job;
 			}
+			if (job.areDependenciesSatisfied(scheduled, finishedJobs.keySet())) {
+				chosen = job;
+				break;
+			}
+		}
 
-			assert chosenJob != null;
-			longestJob = Math.max(longestJob, chosenJob.seconds * 1000);
-			
-			try {
-				jobQueue.offer(chosenJob, remaining, TimeUnit.MILLISECONDS); 
-			} catch (InterruptedException e) {
-				Thread.currentThread().interrupt(); //important for check later
-				break mainLoop;
-			} 
+		if (chosen == null) {
+			chosen = oldestFitting;
 		}
-		
-		return longestJob;
+		if (chosen == null && runningJobs == 0 && !toExecute.isEmpty()) {
+			//it will never fit, so better to run it with less memory than not at all
+			chosen = toExecute.getFirst();
+			logger.warn("Job for " + chosen.cut + " needs " + chosen.memoryInMB
+					+ "MB, but only " + freeMemoryInMB + "MB are available");
+		}
+		if (chosen == null) {
+			return null;
+		}
+
+		toExecute.remove(chosen);
+		runningJobs++;
+		freeMemoryInMB -= chosen.memoryInMB;
+		return chosen;
 	}
-	
 
-	
+	private boolean fitsInMemory(JobDefinition job) {
+		//on a farm, memory is handled by each worker
+		return farm != null || job.memoryInMB <= freeMemoryInMB;
+	}
 
-	public JobDefinition pollJob() throws InterruptedException{
-		return jobQueue.take();
+	/**
+	 * Give to the job its share of the budget left unused by
+	 * the jobs that have already ended.
+	 * The unused budget is split evenly among the jobs that have
+	 * not started yet, as at this point it is not possible to know
+	 * which of them will saturate earlier.
+	 * 
+	 * @param job a job that is going to be started
+	 * @return the job, with possibly an increased budget
+	 */
+	protected synchronized JobDefinition assignUnusedBudget(JobDefinition job){
+		int jobsToStart = toExecute.size();
+
+		if(unusedBudgetInSeconds > 0){
+			int share = unusedBudgetInSeconds / (jobsToStart + 1);
+			int remaining = (int) (getRemainingTimeInMs() / 1000);
+			int extra = Math.min(share, remaining - job.seconds);
+			if(extra > 0){
+				unusedBudgetInSeconds -= extra;
+				logger.info("Giving "+extra+" unused seconds to job for "+job.cut);
+				job = job.getByAddingBudget(extra);
+			}
+		}
+
+		longestAssignedJobInMs = Math.max(longestAssignedJobInMs, job.seconds * 1000L);
+		return job;
+	}
+
+	/**
+	 * A job ended before its budget was over, so the time it did not use
+	 * can be given to the jobs still to start
+	 * 
+	 * @param seconds
+	 */
+	public synchronized void addUnusedBudget(int seconds){
+		if(seconds > 0){
+			unusedBudgetInSeconds += seconds;
+		}
 	}
 	
 	public void doneWithJob(JobDefinition job){
-		finishedJobs.put(job.cut, job);
+		synchronized (this) {
+			runningJobs--;
+			freeMemoryInMB += job.memoryInMB;
+			finishedJobs.put(job.cut, job);
+			//a job waiting for memory or dependencies might be able to start now
+			notifyAll();
+		}
 		latch.countDown();
 		LoggingUtils.getEvoLogger().info("Completed job. Left: "+latch.getCount());
+
+		try {
+			postProcessor.execute(() -> storage.loadReports(job.cut));
+		} catch (RejectedExecutionException e) {
+			//job ended after the execution was over, its reports will be parsed when merging
+		}
 	}
 	
 	public void waitForJobs() {
@@ -332,4 +455,11 @@ public class JobExecutor {
 	public StorageManager getStorage() {
 		return storage;
 	}
+
+	/**
+	 * @return {@code null} if jobs are run as local processes
+	 */
+	public FarmCoordinator getFarm() {
+		return farm;
+	}
 }
@@ -25,10 +25,18 @@ import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
 
 import org.evosuite.Properties;
 import org.evosuite.Properties.StoppingCondition;
 import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.continuous.farm.FarmCoordinator;
+import org.evosuite.continuous.farm.FarmJob;
+import org.evosuite.continuous.farm.FarmResult;
 import org.evosuite.continuous.persistency.StorageManager;
 import org.evosuite.coverage.CoverageCriteriaAnalyzer;
 import org.evosuite.runtime.util.JarPathing;
@@ -48,6 +56,12 @@ public class JobHandler extends Thread {
 
 	private static final Logger logger = LoggerFactory.getLogger(JobHandler.class);
 
+	/**
+	 * How often the progress of a running job is checked, when
+	 * using an adaptive budget
+	 */
+	private static final long PROGRESS_POLL_IN_MS = 1000;
+
 	private final JobExecutor executor;
 
 	private Process latestProcess;
@@ -104,6 +118,23 @@ public class JobHandler extends Thread {
 			} catch (InterruptedException e) {
 				break;
 			}
+			if (job == null) {
+				//no more jobs, or no more time
+				break;
+			}
+
+			if (executor.getFarm() != null) {
+				try {
+					runOnFarm(job);
+				} catch (InterruptedException e) {
+					this.interrupt();
+				} catch (Exception e) {
+					logger.error("Failed to run job on the farm: " + e.getMessage(), e);
+				} finally {
+					executor.doneWithJob(job);
+				}
+				continue;
+			}
 
 			Process process = null;
 
@@ -137,7 +168,7 @@ public class JobHandler extends Thread {
 				process = builder.start();
 				latestProcess = process;
 				
-				int exitCode = process.waitFor(); //no need to have timeout here, as it is handled by the scheduler/executor				
+				int exitCode = waitForJob(job, process); //no need to have timeout here, as it is handled by the scheduler/executor
 
 				if (exitCode != 0) {
 					handleProcessError(job, process);
@@ -168,6 +199,94 @@ public class JobHandler extends Thread {
 		}
 	}
 
+	/**
+	 * Dispatch the job to a farm worker, and wait for it to be over.
+	 * The files written by the job are copied in the CTG folder, as if it was run locally.
+	 * 
+	 * <p>
+	 * Note: the budget of the job is not adapted, as its progress is only known once it is over
+	 * 
+	 * @param job
+	 * @throws InterruptedException
+	 * @throws ExecutionException
+	 * @throws IOException
+	 */
+	private void runOnFarm(JobDefinition job) throws InterruptedException, ExecutionException, IOException {
+		FarmCoordinator farm = executor.getFarm();
+		File root = new File(Properties.CTG_DIR).getAbsoluteFile();
+		FarmJob farmJob = FarmJob.create(job.cut, job.seconds, getCommandString(job), root);
+
+		LocalDateTime endBy = LocalDateTime.now().plus(job.seconds , ChronoUnit.SECONDS);
+		LoggingUtils.getEvoLogger().info("Going to dispatch job for: " + job.cut +
+				" to the farm. Expected to end in "+job.seconds +" seconds, by "+endBy.toString());
+
+		Future<FarmResult> future = farm.submit(farmJob);
+		FarmResult result;
+		try {
+			result = future.get();
+		} catch (InterruptedException e) {
+			future.cancel(true);
+			throw e;
+		}
+
+		int files = result.writeTo(root);
+		logger.debug("Job for " + job.cut + " run by worker " + result.workerId + " wrote " + files + " files");
+
+		if (result.exitCode != 0) {
+			logger.warn("Job ended with erroneous exit code: " + job.cut + " on worker " + result.workerId
+					+ "\nProcess console output:\n" + result.output);
+		}
+	}
+
+	/**
+	 * Wait for the process of the job to end.
+	 * 
+	 * <p>
+	 * With an adaptive budget, the search progress written by the job is
+	 * polled meanwhile: once coverage saturates, the job is asked to stop its
+	 * search (it will still minimize and write its tests), and the seconds
+	 * it did not use are given back to the executor for the jobs not started yet.
+	 * 
+	 * @param job
+	 * @param process
+	 * @return the exit code of the process
+	 * @throws InterruptedException
+	 */
+	private int waitForJob(JobDefinition job, Process process) throws InterruptedException {
+		if (!Properties.CTG_ADAPTIVE_BUDGET) {
+			return process.waitFor();
+		}
+
+		long start = System.currentTimeMillis();
+		long windowInMs = (long) (Properties.CTG_SATURATION_WINDOW * job.seconds * 1000);
+		File progressFile = getProgressFile(job);
+		boolean stopRequested = false;
+
+		while (!process.waitFor(PROGRESS_POLL_IN_MS, TimeUnit.MILLISECONDS)) {
+			if (stopRequested) {
+				continue;
+			}
+			JobProgress progress = JobProgress.read(progressFile);
+			if (progress != null && progress.isSaturated(System.currentTimeMillis(), windowInMs)) {
+				LoggingUtils.getEvoLogger().info("Coverage of " + job.cut + " saturated at "
+						+ progress.coverage + "%, stopping its search");
+				stopRequested = JobProgress.requestStop(progressFile);
+			}
+		}
+
+		int usedSeconds = (int) ((System.currentTimeMillis() - start) / 1000);
+		if (usedSeconds < job.seconds) {
+			executor.addUnusedBudget(job.seconds - usedSeconds);
+		}
+
+		return process.exitValue();
+	}
+
+	private File getProgressFile(JobDefinition job) {
+		File logs = executor.getStorage().getTmpLogs();
+		return new File(logs.getAbsolutePath() + File.separator + job.cut, JobProgress.FILE_NAME);
+	}
+
 	/**
 	 * Print process console output if it died, as its logs on disks might not
 	 * have been generated yet
@@ -276,7 +395,13 @@ public class JobHandler extends Thread {
 		//commands.add("-projectCP");
 		//commands.add(executor.getProjectClassPath()); might be too long and fail on Windows
 
-		String classpath = ClassPathHandler.writeClasspathToFile(executor.getProjectClassPath());
+		String classpath;
+		if (executor.getFarm() == null) {
+			classpath = ClassPathHandler.writeClasspathToFile(executor.getProjectClassPath());
+		} else {
+			//has to be under the CTG folder, to be shipped to the workers
+			classpath = writeClasspathToLogs(job);
+		}
 		commands.add("-DCP_file_path="+classpath);
 
 		//needs to be called twice, after the Java command
@@ -318,6 +443,10 @@ public class JobHandler extends Thread {
 		File seedIn = storage.getSeedInFolder();
 
 		commands.add("-Dreport_dir=" + reports.getAbsolutePath() + File.separator + job.cut);
+
+		if (Properties.CTG_ADAPTIVE_BUDGET) {
+			commands.add("-Dctg_progress_file=" + getProgressFile(job).getAbsolutePath());
+		}
 		commands.add("-Dtest_dir=" + tests.getAbsolutePath());
 
 		if (Properties.CTG_SCHEDULE == Properties.AvailableSchedule.SEEDING
@@ -387,6 +516,17 @@ public class JobHandler extends Thread {
 		return commands;
 	}
 
+	private String writeClasspathToLogs(JobDefinition job) {
+		File file = new File(executor.getStorage().getTmpLogs().getAbsolutePath() + File.separator + job.cut,
+				"classpath.txt");
+		try {
+			FileUtils.writeStringToFile(file, executor.getProjectClassPath() + System.lineSeparator());
+		} catch (IOException e) {
+			throw new IllegalStateException("Failed to create file for classpath specification: " + e.getMessage());
+		}
+		return file.getAbsolutePath();
+	}
+
 	private List<String> getPoolInfo(JobDefinition job) {
 
 		List<String> commands = new ArrayList<>();
@@ -0,0 +1,205 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.continuous.job;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Snapshot of the search progress of a job, as seen by the EvoSuite process
+ * that runs it.
+ *
+ * <p>
+ * The job process writes it to a small file (see
+ * {@link org.evosuite.Properties#CTG_PROGRESS_FILE}) each time the coverage
+ * improves, and the {@link JobHandler} in the CTG process polls that file to
+ * decide whether the search has saturated. To stop the search, the handler
+ * creates a second file next to it (see {@link #requestStop(File)}), which is
+ * checked by the job process. This keeps the "only files on disk" contract
+ * between CTG and its jobs.
+ *
+ * <p>
+ * The file has a single line:
+ * <code>coverage,searchStart,lastImprovement,lastUpdate,stopped</code>, with
+ * coverage in 0-100 and times in milliseconds since the epoch.
+ *
+ * <p>
+ * Note: this class is immutable
+ */
+public class JobProgress {
+
+	private static final Logger logger = LoggerFactory.getLogger(JobProgress.class);
+
+	/**
+	 * Name of the progress file inside the log folder of a job
+	 */
+	public static final String FILE_NAME = "search_progress.txt";
+
+	private static final String STOP_SUFFIX = ".stop";
+
+	/**
+	 * coverage 0-100, as reported by the clients
+	 */
+	public final int coverage;
+
+	/**
+	 * when the first search event was received
+	 */
+	public final long searchStartInMs;
+
+	/**
+	 * when the coverage increased the last time, or the search start
+	 */
+	public final long lastImprovementInMs;
+
+	/**
+	 * when this snapshot was taken
+	 */
+	public final long lastUpdateInMs;
+
+	/**
+	 * whether the search was stopped on request of CTG
+	 */
+	public final boolean stopped;
+
+	public JobProgress(int coverage, long searchStartInMs, long lastImprovementInMs,
+			long lastUpdateInMs, boolean stopped) {
+		this.coverage = coverage;
+		this.searchStartInMs = searchStartInMs;
+		this.lastImprovementInMs = lastImprovementInMs;
+		this.lastUpdateInMs = lastUpdateInMs;
+		this.stopped = stopped;
+	}
+
+	/**
+	 * Is there no point in continuing the search?
+	 * 
+	 * @param now current time in milliseconds
+	 * @param windowInMs how long the coverage can stay still before the search
+	 *            is considered saturated
+	 * @return <code>true</code> if the coverage is full, or it has not improved
+	 *         in the last <code>windowInMs</code> milliseconds
+	 */
+	public boolean isSaturated(long now, long windowInMs) {
+		if (coverage >= 100) {
+			return true;
+		}
+		return windowInMs > 0 && now - lastImprovementInMs >= windowInMs;
+	}
+
+	/**
+	 * @return how many seconds the search took to reach its last coverage
+	 *         improvement
+	 */
+	public int getSecondsToConverge() {
+		return (int) Math.max(0, (lastImprovementInMs - searchStartInMs) / 1000);
+	}
+
+	/**
+	 * @return how many seconds the search has been running for, up to this
+	 *         snapshot
+	 */
+	public int getSearchTimeInSeconds() {
+		return (int) Math.max(0, (lastUpdateInMs - searchStartInMs) / 1000);
+	}
+
+	/**
+	 * Write this snapshot to the given file. The file is replaced atomically,
+	 * so that a reader never sees a partially written line.
+	 * 
+	 * @param file
+	 * @throws IOException
+	 */
+	public void write(File file) throws IOException {
+		String line = coverage + "," + searchStartInMs + "," + lastImprovementInMs + ","
+				+ lastUpdateInMs + "," + stopped;
+		File tmp = new File(file.getAbsolutePath() + ".tmp");
+		Files.write(tmp.toPath(), line.getBytes(StandardCharsets.UTF_8));
+		Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+				StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Read the snapshot in the given file
+	 * 
+	 * @param file
+	 * @return <code>null</code> if the file does not exist (eg, the search has
+	 *         not started yet) or cannot be read
+	 */
+	public static JobProgress read(File file) {
+		if (file == null || !file.exists()) {
+			return null;
+		}
+		try {
+			String line = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8).trim();
+			String[] tokens = line.split(",");
+			if (tokens.length != 5) {
+				logger.warn("Malformed progress file " + file + ": " + line);
+				return null;
+			}
+			return new JobProgress(Integer.parseInt(tokens[0]), Long.parseLong(tokens[1]),
+					Long.parseLong(tokens[2]), Long.parseLong(tokens[3]),
+					Boolean.parseBoolean(tokens[4]));
+		} catch (IOException | NumberFormatException e) {
+			logger.warn("Failed to read progress file " + file + ": " + e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Ask the job writing to the given progress file to stop its search
+	 * 
+	 * @param file the progress file of the job
+	 * @return <code>false</code> if the request could not be written
+	 */
+	public static boolean requestStop(File file) {
+		File stop = getStopFile(file);
+		try {
+			return stop.createNewFile() || stop.exists();
+		} catch (IOException e) {
+			logger.error("Failed to request stop of " + file + ": " + e.getMessage());
+			return false;
+		}
+	}
+
+	public static boolean isStopRequested(File file) {
+		return getStopFile(file).exists();
+	}
+
+	/**
+	 * Delete the progress file and any pending stop request
+	 * 
+	 * @param file the progress file of the job
+	 */
+	public static void delete(File file) {
+		file.delete();
+		getStopFile(file).delete();
+	}
+
+	private static File getStopFile(File file) {
+		return new File(file.getAbsolutePath() + STOP_SUFFIX);
+	}
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.continuous.job;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.evosuite.rmi.MasterServices;
+import org.evosuite.rmi.service.ClientState;
+import org.evosuite.rmi.service.ClientStateInformation;
+import org.evosuite.utils.Listener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Listener used in a process started by CTG to publish the progress of the
+ * search in a {@link JobProgress} file, and to stop the search once CTG asks
+ * for it.
+ */
+public class JobProgressReporter implements Listener<ClientStateInformation> {
+
+	private static final long serialVersionUID = -2408393658934102175L;
+
+	private static final Logger logger = LoggerFactory.getLogger(JobProgressReporter.class);
+
+	/**
+	 * Do not touch the disk more often than this, unless coverage changed
+	 */
+	private static final long MIN_DELAY_IN_MS = 1000;
+
+	private final File file;
+
+	private int coverage = -1;
+	private long searchStartInMs = -1;
+	private long lastImprovementInMs = -1;
+	private long lastCheckInMs = -1;
+	private boolean stopped = false;
+
+	public JobProgressReporter(File file) {
+		this.file = file;
+	}
+
+	/**
+	 * Register a new reporter on the master node
+	 * 
+	 * @param file where to write the progress
+	 */
+	public static void startReporting(File file) {
+		file.getParentFile().mkdirs();
+		JobProgress.delete(file);
+		MasterServices.getInstance().getMasterNode().addListener(new JobProgressReporter(file));
+	}
+
+	@Override
+	public synchronized void receiveEvent(ClientStateInformation event) {
+		if (event.getState() != ClientState.SEARCH) {
+			return;
+		}
+
+		long now = System.currentTimeMillis();
+		if (searchStartInMs < 0) {
+			searchStartInMs = now;
+			lastImprovementInMs = now;
+		}
+
+		boolean improved = event.getCoverage() > coverage;
+		if (improved) {
+			coverage = event.getCoverage();
+			lastImprovementInMs = now;
+		}
+
+		if (!improved && now - lastCheckInMs < MIN_DELAY_IN_MS) {
+			return;
+		}
+		lastCheckInMs = now;
+
+		if (!stopped && JobProgress.isStopRequested(file)) {
+			logger.info("Stopping the search on request of CTG, coverage is " + coverage + "%");
+			stopped = true;
+			MasterServices.getInstance().getMasterNode().cancelAllClients();
+		}
+
+		try {
+			new JobProgress(coverage, searchStartInMs, lastImprovementInMs, now, stopped).write(file);
+		} catch (IOException e) {
+			logger.warn("Failed to write search progress to " + file + ": " + e.getMessage());
+		}
+	}
+}
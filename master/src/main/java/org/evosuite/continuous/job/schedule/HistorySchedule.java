@@ -19,6 +19,7 @@
  */
 package org.evosuite.continuous.job.schedule;
 
+import org.evosuite.Properties;
 import org.evosuite.continuous.job.JobDefinition;
 import org.evosuite.continuous.job.JobScheduler;
 import org.evosuite.continuous.project.ProjectStaticData;
@@ -61,16 +62,28 @@ public class HistorySchedule extends OneTimeSchedule {
     int totalBudget =
         maximumBudgetPerCore * this.scheduler.getConfiguration().getNumberOfUsableCores();
 
+    int number_of_cuts = data.getTotalNumberOfTestableCUTs();
+    int number_of_branches = data.getTotalNumberOfBranches();
+    if (Properties.CTG_INCREMENTAL) {
+      // only the retargeted classes can get a job, so share the budget among them only
+      number_of_cuts = 0;
+      number_of_branches = 0;
+      for (ClassInfo c_info : data.getClassInfos()) {
+        if (c_info.isTestable() && (c_info.hasChanged() || c_info.isToTest())) {
+          number_of_cuts++;
+          number_of_branches += c_info.numberOfBranches;
+        }
+      }
+    }
+
     // a part of the budget is fixed, as each CUT needs a minimum of it
-    int minTime = 60 * this.scheduler.getConfiguration().minMinutesPerJob
-        * data.getTotalNumberOfTestableCUTs();
+    int minTime = 60 * this.scheduler.getConfiguration().minMinutesPerJob * number_of_cuts;
 
     // this is what left from the minimum allocation, and that now we can
     // choose how best to allocate
     int extraTime = totalBudget - minTime;
 
     // check how much time we can give extra for each branch in a CUT
-    int number_of_branches = data.getTotalNumberOfBranches();
     double timePerBranch =
         number_of_branches == 0.0 ? 0.0 : (double) extraTime / (double) number_of_branches;
 
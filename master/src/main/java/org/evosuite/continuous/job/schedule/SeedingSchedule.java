@@ -114,10 +114,10 @@ public class SeedingSchedule extends OneTimeSchedule{
 
 		List<JobDefinition> out = new ArrayList<>(jobs.size());
 		Set<String> assigned = new HashSet<>();
-
-		/*
-		 * Note: the code here is similar to what done in JobExecutor
-		 */
+		Set<String> scheduled = new HashSet<>();
+		for(JobDefinition job : jobs){
+			scheduled.add(job.cut);
+		}
 		
 		mainLoop: while(!toAssign.isEmpty() || !postponed.isEmpty()){
 
@@ -128,7 +128,7 @@ public class SeedingSchedule extends OneTimeSchedule{
 				Iterator<JobDefinition> iterator = postponed.iterator();
 				postponedLoop : while(iterator.hasNext()){
 					JobDefinition job = iterator.next();
-					if(job.areDependenciesSatisfied(jobs,assigned)){
+					if(job.areDependenciesSatisfied(scheduled,assigned)){
 						chosenJob = job;							
 						iterator.remove();
 						break postponedLoop;
@@ -150,7 +150,7 @@ public class SeedingSchedule extends OneTimeSchedule{
 
 				toExecuteLoop : while(!toAssign.isEmpty()){
 					JobDefinition job = toAssign.poll();
-					if(job.areDependenciesSatisfied(jobs,assigned)){
+					if(job.areDependenciesSatisfied(scheduled,assigned)){
 						chosenJob = job;
 						break toExecuteLoop;
 					}  else {
@@ -45,12 +45,15 @@ public class SimpleSchedule extends OneTimeSchedule{
 
 		//simple case, distribute budget equally
 		int cores = scheduler.getConfiguration().getNumberOfUsableCores();
-		int cuts = data.getTotalNumberOfTestableCUTs();		
+		int cuts = data.getTotalNumberOfCUTsToTest();
+		if(cuts == 0){
+			return jobs;
+		}
 		int slots = (int)Math.round(cores * Math.ceil((double) cuts / (double) cores));
 		int budgetInSecondsPerCUT = totalBudgetInSeconds / slots; 
 
 		for(ClassInfo info : data.getClassInfos()){
-			if(!info.isTestable()){
+			if(!info.isTestable() || !info.isToTest()){
 				continue;
 			}
 			JobDefinition job = new JobDefinition(
@@ -0,0 +1,688 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.continuous.persistency;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.evosuite.xsd.CUT;
+import org.evosuite.xsd.Convergence;
+import org.evosuite.xsd.Coverage;
+import org.evosuite.xsd.Failure;
+import org.evosuite.xsd.FailureSeverity;
+import org.evosuite.xsd.Generation;
+import org.evosuite.xsd.Project;
+import org.evosuite.xsd.TestSuite;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * CTG database indexed by class under test.
+ * 
+ * <p>
+ * On disk, the database is an append-only journal of records, each one being
+ * either a new generation for a CUT, the removal of a CUT, or the total number
+ * of testable classes. When the journal is opened only the record headers are
+ * scanned, to build an index from class name to the position of its
+ * generations, and the generations of a CUT are decoded the first time that
+ * CUT is looked up. A commit only appends the records of the changes done
+ * since the previous commit, instead of rewriting the whole project.
+ * 
+ * <p>
+ * A record only partially written (eg, CTG was killed during a commit) is
+ * discarded when the journal is opened. When most of the journal is made of
+ * records that are no longer relevant, it is compacted.
+ * 
+ * <p>
+ * A database can also live only in memory (see {@link #inMemory(Project)}),
+ * which is what is used when the project info is stored as XML.
+ * {@link #toProject()} and {@link #importProject(Project, File)} are the
+ * bridge between the two formats.
+ * 
+ * <p>
+ * Note: the {@link CUT} and {@link Generation} objects returned by this class
+ * are the ones of the database, and so should not be modified once committed
+ */
+public class ProjectDatabase {
+
+	private static final Logger logger = LoggerFactory.getLogger(ProjectDatabase.class);
+
+	private static final int MAGIC = 0x45435447; // "ECTG"
+
+	private static final int VERSION = 1;
+
+	private static final int HEADER_LENGTH = 8;
+
+	private static final byte GENERATION = 'G';
+
+	private static final byte REMOVE = 'R';
+
+	private static final byte TOTAL = 'T';
+
+	/**
+	 * Do not bother compacting small journals
+	 */
+	private static final int MIN_OBSOLETE_RECORDS_TO_COMPACT = 100;
+
+	private static class Entry {
+		/**
+		 * Position in the journal of the generation records of the CUT
+		 */
+		private final List<Long> offsets = new ArrayList<>();
+
+		/**
+		 * <code>null</code> until the CUT is looked up
+		 */
+		private CUT cut;
+	}
+
+	private static class PendingGeneration {
+		private final String className;
+		private final String testSuiteName;
+		private final Generation generation;
+
+		private PendingGeneration(String className, String testSuiteName, Generation generation) {
+			this.className = className;
+			this.testSuiteName = testSuiteName;
+			this.generation = generation;
+		}
+	}
+
+	/**
+	 * <code>null</code> if this database only lives in memory
+	 */
+	private final File journal;
+
+	/**
+	 * Key -> name of CUT, in the order they were first added
+	 */
+	private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+	/**
+	 * Changes not committed yet
+	 */
+	private final List<PendingGeneration> pendingGenerations = new ArrayList<>();
+	private final List<String> pendingRemovals = new ArrayList<>();
+	private boolean pendingTotal = false;
+
+	private int totalNumberOfTestableClasses = 0;
+
+	/**
+	 * Records in the journal that are still needed, and the ones that are not
+	 * (eg generations of removed CUTs)
+	 */
+	private int liveRecords = 0;
+	private int obsoleteRecords = 0;
+
+	private ProjectDatabase(File journal) {
+		this.journal = journal;
+	}
+
+	/**
+	 * Open the database stored in the given journal, creating an empty one if
+	 * the file does not exist
+	 * 
+	 * @param journal
+	 * @return
+	 * @throws IOException if the file exists but is not a valid journal
+	 */
+	public static ProjectDatabase open(File journal) throws IOException {
+		ProjectDatabase db = new ProjectDatabase(journal);
+		if (!journal.exists() || journal.length() == 0) {
+			db.rewrite();
+		} else {
+			db.scan();
+		}
+		return db;
+	}
+
+	/**
+	 * Create a database that is never written to disk, containing the CUTs of
+	 * the given project
+	 * 
+	 * @param project
+	 * @return
+	 */
+	public static ProjectDatabase inMemory(Project project) {
+		ProjectDatabase db = new ProjectDatabase(null);
+		db.load(project);
+		return db;
+	}
+
+	/**
+	 * Create a new journal, replacing any existing one, with all the CUTs of the
+	 * given project
+	 * 
+	 * @param project
+	 * @param journal
+	 * @return
+	 * @throws IOException
+	 */
+	public static ProjectDatabase importProject(Project project, File journal) throws IOException {
+		ProjectDatabase db = new ProjectDatabase(journal);
+		db.load(project);
+		db.rewrite();
+		return db;
+	}
+
+	/**
+	 * Export the whole database, eg to be written as XML
+	 * 
+	 * @return
+	 */
+	public Project toProject() {
+		Project project = new Project();
+		project.setTotalNumberOfTestableClasses(BigInteger.valueOf(this.totalNumberOfTestableClasses));
+		for (String className : this.entries.keySet()) {
+			project.getCut().add(getCUT(className));
+		}
+		return project;
+	}
+
+	/**
+	 * @return an unmodifiable view of the names of all the CUTs in the database
+	 */
+	public Collection<String> getClassNames() {
+		return Collections.unmodifiableCollection(this.entries.keySet());
+	}
+
+	public boolean containsCUT(String className) {
+		return this.entries.containsKey(className);
+	}
+
+	/**
+	 * @param className
+	 * @return <code>null</code> if there is no data for the given class
+	 */
+	public CUT getCUT(String className) {
+		Entry entry = this.entries.get(className);
+		if (entry == null) {
+			return null;
+		}
+		if (entry.cut == null) {
+			try {
+				entry.cut = readCUT(className, entry.offsets);
+			} catch (IOException e) {
+				String msg = "Error in reading " + this.journal.getAbsolutePath() + " , " + e;
+				logger.error(msg, e);
+				throw new RuntimeException(msg);
+			}
+		}
+		return entry.cut;
+	}
+
+	public int getTotalNumberOfTestableClasses() {
+		return this.totalNumberOfTestableClasses;
+	}
+
+	public void setTotalNumberOfTestableClasses(int total) {
+		if (total != this.totalNumberOfTestableClasses) {
+			this.totalNumberOfTestableClasses = total;
+			this.pendingTotal = true;
+		}
+	}
+
+	/**
+	 * Add a new generation to the given class, creating its CUT if this is the
+	 * first one. The generation is only written at the next {@link #commit()},
+	 * so it can still be modified until then.
+	 * 
+	 * @param className
+	 * @param testSuiteName
+	 * @param generation
+	 */
+	public void addGeneration(String className, String testSuiteName, Generation generation) {
+		CUT cut = getCUT(className);
+		if (cut == null) {
+			cut = new CUT();
+			cut.setFullNameOfTargetClass(className);
+			Entry entry = new Entry();
+			entry.cut = cut;
+			this.entries.put(className, entry);
+		}
+		cut.setFullNameOfTestSuite(testSuiteName);
+		cut.getGeneration().add(generation);
+		this.pendingGenerations.add(new PendingGeneration(className, testSuiteName, generation));
+	}
+
+	/**
+	 * Remove all the data of the given class
+	 * 
+	 * @param className
+	 * @return the removed CUT, or <code>null</code> if there was none
+	 */
+	public CUT removeCUT(String className) {
+		CUT cut = getCUT(className);
+		Entry entry = this.entries.remove(className);
+		if (entry == null) {
+			return null;
+		}
+		this.pendingGenerations.removeIf(p -> p.className.equals(className));
+		if (!entry.offsets.isEmpty()) {
+			this.pendingRemovals.add(className);
+			this.liveRecords -= entry.offsets.size();
+			this.obsoleteRecords += entry.offsets.size();
+		}
+		return cut;
+	}
+
+	/**
+	 * Append to the journal all the changes done since the last commit.
+	 * Nothing is done for a database living only in memory.
+	 * 
+	 * @throws IOException
+	 */
+	public void commit() throws IOException {
+		if (this.journal == null) {
+			return;
+		}
+		if (this.pendingGenerations.isEmpty() && this.pendingRemovals.isEmpty() && !this.pendingTotal) {
+			return;
+		}
+
+		long position = this.journal.length();
+		try (FileOutputStream fos = new FileOutputStream(this.journal, true)) {
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos));
+
+			for (String className : this.pendingRemovals) {
+				writeRecord(out, REMOVE, className, new byte[0]);
+				this.obsoleteRecords++;
+			}
+			if (this.pendingTotal) {
+				writeRecord(out, TOTAL, "", encodeTotal(this.totalNumberOfTestableClasses));
+				// only the last one is relevant
+				this.obsoleteRecords++;
+			}
+			for (PendingGeneration pending : this.pendingGenerations) {
+				long offset = position + out.size();
+				writeRecord(out, GENERATION, pending.className,
+						encodeGeneration(pending.testSuiteName, pending.generation));
+				this.entries.get(pending.className).offsets.add(offset);
+				this.liveRecords++;
+			}
+
+			out.flush();
+			fos.getFD().sync();
+		}
+
+		this.pendingGenerations.clear();
+		this.pendingRemovals.clear();
+		this.pendingTotal = false;
+
+		if (this.obsoleteRecords >= MIN_OBSOLETE_RECORDS_TO_COMPACT && this.obsoleteRecords > this.liveRecords) {
+			logger.debug("Compacting " + this.journal.getAbsolutePath());
+			compact();
+		}
+	}
+
+	/**
+	 * Rewrite the journal with only the records that are still needed
+	 * 
+	 * @throws IOException
+	 */
+	public void compact() throws IOException {
+		if (this.journal == null) {
+			return;
+		}
+		// all CUTs need to be decoded before the file is replaced
+		for (String className : this.entries.keySet()) {
+			getCUT(className);
+		}
+		rewrite();
+	}
+
+	private void load(Project project) {
+		this.totalNumberOfTestableClasses = project.getTotalNumberOfTestableClasses() == null ? 0
+				: project.getTotalNumberOfTestableClasses().intValue();
+		for (CUT cut : project.getCut()) {
+			Entry entry = new Entry();
+			entry.cut = cut;
+			this.entries.put(cut.getFullNameOfTargetClass(), entry);
+		}
+	}
+
+	/**
+	 * Write all the (already decoded) CUTs to a new journal, and then replace
+	 * the current one with it
+	 */
+	private void rewrite() throws IOException {
+		File parent = this.journal.getAbsoluteFile().getParentFile();
+		if (parent != null && !parent.exists()) {
+			parent.mkdirs();
+		}
+		File tmp = new File(this.journal.getAbsolutePath() + ".tmp");
+
+		Map<String, List<Long>> offsets = new LinkedHashMap<>();
+		int records = 0;
+		try (FileOutputStream fos = new FileOutputStream(tmp)) {
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos));
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			writeRecord(out, TOTAL, "", encodeTotal(this.totalNumberOfTestableClasses));
+
+			for (Map.Entry<String, Entry> e : this.entries.entrySet()) {
+				CUT cut = e.getValue().cut;
+				List<Long> cutOffsets = new ArrayList<>();
+				for (Generation generation : cut.getGeneration()) {
+					cutOffsets.add((long) out.size());
+					writeRecord(out, GENERATION, e.getKey(),
+							encodeGeneration(cut.getFullNameOfTestSuite(), generation));
+					records++;
+				}
+				offsets.put(e.getKey(), cutOffsets);
+			}
+
+			out.flush();
+			fos.getFD().sync();
+		}
+		Files.move(tmp.toPath(), this.journal.toPath(), StandardCopyOption.REPLACE_EXISTING,
+				StandardCopyOption.ATOMIC_MOVE);
+
+		for (Map.Entry<String, Entry> e : this.entries.entrySet()) {
+			e.getValue().offsets.clear();
+			e.getValue().offsets.addAll(offsets.get(e.getKey()));
+		}
+		this.pendingGenerations.clear();
+		this.pendingRemovals.clear();
+		this.pendingTotal = false;
+		this.liveRecords = records;
+		this.obsoleteRecords = 0;
+	}
+
+	/**
+	 * Build the index by only reading the record headers
+	 */
+	private void scan() throws IOException {
+		long position;
+		long fileLength = this.journal.length();
+		boolean readTotal = false;
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(this.journal)))) {
+			if (in.readInt() != MAGIC) {
+				throw new IOException(this.journal.getAbsolutePath() + " is not a CTG database");
+			}
+			int version = in.readInt();
+			if (version != VERSION) {
+				throw new IOException("Unsupported version " + version + " of CTG database "
+						+ this.journal.getAbsolutePath());
+			}
+			position = HEADER_LENGTH;
+
+			while (true) {
+				byte type;
+				String className;
+				byte[] payload = null;
+				int length;
+				try {
+					type = in.readByte();
+					className = readString(in);
+					length = in.readInt();
+					/*
+					 * skipBytes on a file stream happily seeks past the end of
+					 * the file, so a record cut inside its payload has to be
+					 * detected from the file length
+					 */
+					if (length < 0 || position + recordLength(className, length) > fileLength) {
+						throw new EOFException();
+					}
+					if (type == TOTAL) {
+						payload = new byte[length];
+						in.readFully(payload);
+					} else if (in.skipBytes(length) != length) {
+						throw new EOFException();
+					}
+				} catch (EOFException e) {
+					break; // end of journal, or last record was not fully written
+				}
+
+				if (type == GENERATION) {
+					this.entries.computeIfAbsent(className, k -> new Entry()).offsets.add(position);
+					this.liveRecords++;
+				} else if (type == REMOVE) {
+					Entry removed = this.entries.remove(className);
+					if (removed != null) {
+						this.liveRecords -= removed.offsets.size();
+						this.obsoleteRecords += removed.offsets.size();
+					}
+					this.obsoleteRecords++;
+				} else if (type == TOTAL) {
+					this.totalNumberOfTestableClasses = new DataInputStream(new ByteArrayInputStream(payload)).readInt();
+					if (readTotal) {
+						// only the last one is relevant
+						this.obsoleteRecords++;
+					}
+					readTotal = true;
+				} else {
+					logger.warn("Unknown record type " + type + " in " + this.journal.getAbsolutePath());
+					break;
+				}
+				position += recordLength(className, length);
+			}
+		}
+
+		if (position < fileLength) {
+			logger.warn("Discarding " + (fileLength - position) + " bytes of incomplete data at the end of "
+					+ this.journal.getAbsolutePath());
+			try (RandomAccessFile raf = new RandomAccessFile(this.journal, "rw")) {
+				raf.setLength(position);
+			}
+		}
+	}
+
+	private CUT readCUT(String className, List<Long> offsets) throws IOException {
+		CUT cut = new CUT();
+		cut.setFullNameOfTargetClass(className);
+
+		try (RandomAccessFile raf = new RandomAccessFile(this.journal, "r")) {
+			for (long offset : offsets) {
+				raf.seek(offset);
+				raf.readByte();
+				byte[] name = new byte[raf.readInt()];
+				raf.readFully(name);
+				byte[] payload = new byte[raf.readInt()];
+				raf.readFully(payload);
+
+				DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+				cut.setFullNameOfTestSuite(readString(in));
+				cut.getGeneration().add(readGeneration(in));
+			}
+		}
+		return cut;
+	}
+
+	private static long recordLength(String className, int payloadLength) {
+		return 1 + 4 + className.getBytes(StandardCharsets.UTF_8).length + 4 + payloadLength;
+	}
+
+	private static void writeRecord(DataOutputStream out, byte type, String className, byte[] payload)
+			throws IOException {
+		out.writeByte(type);
+		writeString(out, className);
+		out.writeInt(payload.length);
+		out.write(payload);
+	}
+
+	private static byte[] encodeTotal(int total) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(4);
+		new DataOutputStream(bytes).writeInt(total);
+		return bytes.toByteArray();
+	}
+
+	private static byte[] encodeGeneration(String testSuiteName, Generation generation) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+
+		writeString(out, testSuiteName);
+		writeBigInteger(out, generation.getId());
+		out.writeBoolean(generation.isFailed());
+		out.writeBoolean(generation.isModified());
+		writeBigInteger(out, generation.getTimeBudgetInSeconds());
+		writeBigInteger(out, generation.getMemoryInMB());
+		writeString(out, generation.getBytecodeHash());
+		writeString(out, generation.getStdErrCLIENT());
+		writeString(out, generation.getStdOutCLIENT());
+		writeString(out, generation.getStdErrMASTER());
+		writeString(out, generation.getStdOutMASTER());
+
+		Convergence convergence = generation.getConvergence();
+		out.writeBoolean(convergence != null);
+		if (convergence != null) {
+			out.writeDouble(convergence.getCoverageValue());
+			writeBigInteger(out, convergence.getSecondsToConverge());
+			writeBigInteger(out, convergence.getSearchTimeInSeconds());
+			out.writeBoolean(convergence.isStoppedEarly());
+		}
+
+		out.writeInt(generation.getFailure().size());
+		for (Failure failure : generation.getFailure()) {
+			writeBigInteger(out, failure.getLineInTest());
+			writeString(out, failure.getThrownExceptionClassName());
+			writeString(out, failure.getFailureSeverity() == null ? null : failure.getFailureSeverity().name());
+		}
+
+		TestSuite suite = generation.getSuite();
+		out.writeBoolean(suite != null);
+		if (suite != null) {
+			writeString(out, suite.getFullPathOfTestSuite());
+			writeBigInteger(out, suite.getNumberOfTests());
+			writeBigInteger(out, suite.getTotalNumberOfStatements());
+			writeBigInteger(out, suite.getTotalEffortInSeconds());
+			out.writeInt(suite.getCoverage().size());
+			for (Coverage coverage : suite.getCoverage()) {
+				writeString(out, coverage.getCriterion());
+				out.writeDouble(coverage.getCoverageValue());
+				writeString(out, coverage.getCoverageBitString());
+			}
+		}
+
+		// appended last, so that generations written before it existed can still be read
+		writeString(out, generation.getDependenciesHash());
+
+		out.flush();
+		return bytes.toByteArray();
+	}
+
+	private static Generation readGeneration(DataInputStream in) throws IOException {
+		Generation generation = new Generation();
+		generation.setId(readBigInteger(in));
+		generation.setFailed(in.readBoolean());
+		generation.setModified(in.readBoolean());
+		generation.setTimeBudgetInSeconds(readBigInteger(in));
+		generation.setMemoryInMB(readBigInteger(in));
+		generation.setBytecodeHash(readString(in));
+		generation.setStdErrCLIENT(readString(in));
+		generation.setStdOutCLIENT(readString(in));
+		generation.setStdErrMASTER(readString(in));
+		generation.setStdOutMASTER(readString(in));
+
+		if (in.readBoolean()) {
+			Convergence convergence = new Convergence();
+			convergence.setCoverageValue(in.readDouble());
+			convergence.setSecondsToConverge(readBigInteger(in));
+			convergence.setSearchTimeInSeconds(readBigInteger(in));
+			convergence.setStoppedEarly(in.readBoolean());
+			generation.setConvergence(convergence);
+		}
+
+		int failures = in.readInt();
+		for (int i = 0; i < failures; i++) {
+			Failure failure = new Failure();
+			failure.setLineInTest(readBigInteger(in));
+			failure.setThrownExceptionClassName(readString(in));
+			String severity = readString(in);
+			failure.setFailureSeverity(severity == null ? null : FailureSeverity.valueOf(severity));
+			generation.getFailure().add(failure);
+		}
+
+		if (in.readBoolean()) {
+			TestSuite suite = new TestSuite();
+			suite.setFullPathOfTestSuite(readString(in));
+			suite.setNumberOfTests(readBigInteger(in));
+			suite.setTotalNumberOfStatements(readBigInteger(in));
+			suite.setTotalEffortInSeconds(readBigInteger(in));
+			int coverages = in.readInt();
+			for (int i = 0; i < coverages; i++) {
+				Coverage coverage = new Coverage();
+				coverage.setCriterion(readString(in));
+				coverage.setCoverageValue(in.readDouble());
+				coverage.setCoverageBitString(readString(in));
+				suite.getCoverage().add(coverage);
+			}
+			generation.setSuite(suite);
+		}
+
+		if (in.available() > 0) {
+			generation.setDependenciesHash(readString(in));
+		}
+
+		return generation;
+	}
+
+	/**
+	 * Not using writeUTF, as coverage bit strings can be longer than 64K
+	 */
+	private static void writeString(DataOutputStream out, String s) throws IOException {
+		if (s == null) {
+			out.writeInt(-1);
+			return;
+		}
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		int length = in.readInt();
+		if (length < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static void writeBigInteger(DataOutputStream out, BigInteger value) throws IOException {
+		out.writeLong(value == null ? -1L : value.longValue());
+	}
+
+	private static BigInteger readBigInteger(DataInputStream in) throws IOException {
+		long value = in.readLong();
+		return value < 0 ? null : BigInteger.valueOf(value);
+	}
+}
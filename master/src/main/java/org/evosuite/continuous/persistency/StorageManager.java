@@ -30,6 +30,7 @@ import java.math.BigInteger;
 import java.text.DecimalFormat;
 import java.text.NumberFormat;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.xml.XMLConstants;
 import javax.xml.bind.JAXBContext;
@@ -43,17 +44,18 @@ import com.opencsv.exceptions.CsvException;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.time.DateFormatUtils;
 import org.evosuite.Properties;
+import org.evosuite.continuous.job.JobProgress;
 import org.evosuite.continuous.project.ProjectStaticData;
 import org.evosuite.utils.ArrayUtil;
 import org.evosuite.utils.FileIOUtils;
 import org.evosuite.utils.LoggingUtils;
 import org.evosuite.xsd.CUT;
 import org.evosuite.xsd.CUTUtil;
+import org.evosuite.xsd.Convergence;
 import org.evosuite.xsd.Coverage;
 import org.evosuite.xsd.Generation;
 import org.evosuite.xsd.GenerationUtil;
 import org.evosuite.xsd.Project;
-import org.evosuite.xsd.ProjectUtil;
 import org.evosuite.xsd.TestSuite;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -78,6 +80,13 @@ public class StorageManager {
 	private File tmpPools = null;
 	private File tmpSeeds = null;
 
+	/**
+	 * Statistics of the jobs already parsed while other jobs were still running.
+	 * The key is made of path, size and modification time of their CSV file,
+	 * so that an overwritten file is parsed again
+	 */
+	private final Map<String, CsvJUnitData> reportCache = new ConcurrentHashMap<>();
+
 	private boolean isStorageOk = false;
 
 	private DecimalFormat df = null;
@@ -279,7 +288,7 @@ public class StorageManager {
 			throw new NullPointerException("ProjectStaticData 'current' cannot be null");
 		}
 		
-		Project db = StorageManager.getDatabaseProject();
+		ProjectDatabase db = StorageManager.getDatabase();
 		String info = "\n\n=== CTG run results ===\n";
 
 		info += removeNoMoreExistentData(db, current);
@@ -287,10 +296,15 @@ public class StorageManager {
 		List<TestsOnDisk> suites = gatherGeneratedTestsOnDisk();
 		info += "\nNew test suites: " + suites.size();
 
+		Map<String, TestsOnDisk> suitesByCUT = new LinkedHashMap<>();
+		for (TestsOnDisk suite : suites) {
+			suitesByCUT.putIfAbsent(suite.cut, suite);
+		}
+
 		// identify for which CUTs we failed to generate tests
 		Set<String> missingCUTs = new LinkedHashSet<>();
 
-		db.setTotalNumberOfTestableClasses(BigInteger.valueOf(current.getTotalNumberOfTestableCUTs()));
+		db.setTotalNumberOfTestableClasses(current.getTotalNumberOfTestableCUTs());
 		for (String cut : current.getClassNames()) {
 		    if (!current.getClassInfo(cut).isTestable()) {
 		        // if a class is not testable, we don't need to update any database
@@ -298,7 +312,7 @@ public class StorageManager {
 		        continue ;
 		    }
 
-		    TestsOnDisk suite = suites.parallelStream().filter(s -> s.cut.equals(cut)).findFirst().orElse(null);
+		    TestsOnDisk suite = suitesByCUT.get(cut);
 		    if (suite == null && current.getClassInfo(cut).isToTest()) {
                 missingCUTs.add(cut);
             }
@@ -329,6 +343,31 @@ public class StorageManager {
 		return info;
 	}
 
+	/**
+	 * Parse the statistics written by the job of the given CUT, so that this
+	 * does not need to be done once all jobs are over.
+	 * This is meant to be called while other jobs are running.
+	 * 
+	 * @param cut
+	 */
+	public void loadReports(String cut){
+		File folder = new File(tmpReports, cut);
+		if(!folder.isDirectory()){
+			//eg, the job crashed
+			return;
+		}
+		for(File file : FileIOUtils.getRecursivelyAllFilesInAllSubfolders(folder, ".csv")){
+			CsvJUnitData data = CsvJUnitData.openFile(file);
+			if(data != null){
+				reportCache.put(getReportKey(file), data);
+			}
+		}
+	}
+
+	private static String getReportKey(File file){
+		return file.getAbsolutePath() + File.pathSeparator + file.length() + File.pathSeparator + file.lastModified();
+	}
+
 	/**
 	 * Not only we need the generated JUnit files, but also the statistics
 	 * on their execution.
@@ -353,7 +392,10 @@ public class StorageManager {
 		 */
 		Map<String,CsvJUnitData> reports = new LinkedHashMap<>();
 		for(File file : generatedReports){
-			CsvJUnitData data = CsvJUnitData.openFile(file);
+			CsvJUnitData data = reportCache.remove(getReportKey(file));
+			if(data == null){
+				data = CsvJUnitData.openFile(file);
+			}
 			if(data==null){
 				logger.warn("Cannot process "+file.getAbsolutePath());
 			} else {
@@ -382,18 +424,23 @@ public class StorageManager {
 			
 			String testName = extractClassName(tmpTests,test);
 			
+			/*
+			 * This is tricky. We cannot be 100% what is going to be appended to the
+			 * class name to form the test name, although the class name should still
+			 * be a prefix. We need to check for the longest prefix as to avoid cases like
+			 * 
+			 * org.Foo
+			 * org.Foo2
+			 * 
+			 * Prefixes are looked up in the map from the longest one, instead of going
+			 * through all the reports for each test
+			 */
 			String cut = "";
-			for(String className : reports.keySet()){
-				/*
-				 * This is tricky. We cannot be 100% what is going to be appended to the
-				 * class name to form the test name, although the class name should still
-				 * be a prefix. We need to check for the longest prefix as to avoid cases like
-				 * 
-				 * org.Foo
-				 * org.Foo2
-				 */
-				if(testName.startsWith(className) && className.length() > cut.length()){
-					cut = className;
+			for(int i = testName.length(); i > 0; i--){
+				String prefix = testName.substring(0, i);
+				if(reports.containsKey(prefix)){
+					cut = prefix;
+					break;
 				}
 			}
 			//String cut = testName.substring(0, testName.indexOf(junitSuffix)); //This does not work, eg cases like _N_suffix
@@ -448,7 +495,28 @@ public class StorageManager {
 	}
 	
 	
-	private void commitDatabase(Project db) {
+	private void commitDatabase(ProjectDatabase db) {
+
+		if (Properties.CTG_INDEXED_DATABASE) {
+			try {
+				db.commit();
+			} catch (IOException e) {
+				logger.error("Failed to write to database: "+e.getMessage(),e);
+			}
+			if (Properties.CTG_EXPORT_PROJECT_INFO) {
+				exportDatabase(db);
+			}
+		} else {
+			exportDatabase(db);
+		}
+	}
+
+	/**
+	 * Write the whole content of the database to the XML project info file
+	 * 
+	 * @param db
+	 */
+	private void exportDatabase(ProjectDatabase db) {
 
 		StringWriter writer = null;
 		try{
@@ -456,7 +524,7 @@ public class StorageManager {
 			JAXBContext context = JAXBContext.newInstance(Project.class);            
 			Marshaller m = context.createMarshaller();
 			m.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true); // TODO remove me!
-			m.marshal(db, writer);
+			m.marshal(db.toProject(), writer);
 		} catch(Exception e){
 			logger.error("Failed to create XML representation: "+e.getMessage(),e);
 		}
@@ -478,6 +546,10 @@ public class StorageManager {
 		return new File(Properties.CTG_DIR + File.separator + Properties.CTG_PROJECT_INFO);
 	}
 
+	private static File getProjectDatabaseFile(){
+		return new File(Properties.CTG_DIR + File.separator + Properties.CTG_PROJECT_DATABASE);
+	}
+
 	/**
 	 * Not only modify the state of <code>db</code>, but
 	 * also copy/replace new test cases on file disk
@@ -485,37 +557,31 @@ public class StorageManager {
 	 * @param ondisk
 	 * @param db
 	 */
-	private void updateDatabase(String targetClass, TestsOnDisk ondisk, Project db, ProjectStaticData current) {
+	private void updateDatabase(String targetClass, TestsOnDisk ondisk, ProjectDatabase db, ProjectStaticData current) {
 
   	    String testName = targetClass + Properties.JUNIT_SUFFIX; //extractClassName(tmpTests, ondisk.testSuite);
 
 		// CUT data
 
-		CUT cut = ProjectUtil.getCUT(db, targetClass);
-		if (cut == null) {
-		    // first generation
-			cut = new CUT();
-			cut.setFullNameOfTargetClass(targetClass);
-			cut.setFullNameOfTestSuite(testName);
-
-			db.getCut().add(cut);
-		}
+		CUT cut = db.getCUT(targetClass);
 
 		// Generation data
 
 		Generation generation = new Generation();
-		generation.setId(BigInteger.valueOf(cut.getGeneration().size()));
+		generation.setId(BigInteger.valueOf(cut == null ? 0 : cut.getGeneration().size()));
 		generation.setFailed(false); // by default
 		generation.setModified(current.getClassInfo(targetClass).hasChanged());
 		generation.setTimeBudgetInSeconds(BigInteger.valueOf(current.getClassInfo(targetClass).getTimeBudgetInSeconds()));
 		generation.setMemoryInMB(BigInteger.valueOf(current.getClassInfo(targetClass).getMemoryInMB()));
+		generation.setBytecodeHash(current.getClassInfo(targetClass).getBytecodeHash());
+		generation.setDependenciesHash(current.getClassInfo(targetClass).getDependenciesHash());
 
 		if (!current.getClassInfo(targetClass).isToTest()) {
             // if a class was not considered for testing purpose,
             // we still want to keep some information about it.
             // that information will be crucial to, for example,
             // determine how much time EvoSuite spent over all classes
-		    cut.getGeneration().add(generation);
+		    db.addGeneration(targetClass, testName, generation);
 		    return ; // we do not have more information, so return
         }
 
@@ -536,7 +602,20 @@ public class StorageManager {
 		generation.setStdErrMASTER(std_err_MASTER.getAbsolutePath());
 		generation.setStdOutMASTER(std_out_MASTER.getAbsolutePath());
 
-		cut.getGeneration().add(generation);
+		JobProgress progress = JobProgress.read(new File(this.tmpLogs + File.separator + targetClass
+            + File.separator + JobProgress.FILE_NAME));
+		if (progress != null) {
+		    Convergence convergence = new Convergence();
+		    convergence.setCoverageValue(progress.coverage / 100.0);
+		    convergence.setSecondsToConverge(BigInteger.valueOf(progress.getSecondsToConverge()));
+		    convergence.setSearchTimeInSeconds(BigInteger.valueOf(progress.getSearchTimeInSeconds()));
+		    convergence.setStoppedEarly(progress.stopped);
+		    generation.setConvergence(convergence);
+		}
+
+		// the generation is only written when the database is committed,
+		// so it can still be completed below
+		db.addGeneration(targetClass, testName, generation);
 
 		if (ondisk == null) {
 		    // EvoSuite failed to generate any test case for 'targetClass'.
@@ -671,7 +750,7 @@ public class StorageManager {
 	 * @return true is the generated test suite is better (in terms of
 	 * coverage) than any existing test suite, false otherwise
 	 */
-	private boolean isBetterThanAnyExistingTestSuite(Project db, ProjectStaticData current, TestsOnDisk suite) {
+	private boolean isBetterThanAnyExistingTestSuite(ProjectDatabase db, ProjectStaticData current, TestsOnDisk suite) {
 
 		if (suite.csvData == null) {
 			// no data available
@@ -793,7 +872,7 @@ public class StorageManager {
 	 * @return true if the generated test suite is better (in terms of
 	 * coverage) than a previous generated test suite, false otherwise
 	 */
-	private boolean isBetterThanPreviousGeneration(Project db, ProjectStaticData current, TestsOnDisk suite) {
+	private boolean isBetterThanPreviousGeneration(ProjectDatabase db, ProjectStaticData current, TestsOnDisk suite) {
 
   	    if (suite.csvData == null) {
           // no data available
@@ -809,7 +888,7 @@ public class StorageManager {
             return true;
         }
 
-        CUT cut = ProjectUtil.getCUT(db, suite.cut);
+        CUT cut = db.getCUT(suite.cut);
         Generation latestSuccessfulGeneration = CUTUtil.getLatestSuccessfulGeneration(cut);
         if (latestSuccessfulGeneration == null) {
             return true;
@@ -891,20 +970,16 @@ public class StorageManager {
 	 * 
 	 * @param
 	 */
-	private String removeNoMoreExistentData(Project db,
+	private String removeNoMoreExistentData(ProjectDatabase db,
 			ProjectStaticData current) {
 
 		int removed = 0;
-		Iterator<CUT> iter = db.getCut().iterator();
-		while(iter.hasNext()){
-			CUT cut = iter.next();
-			String cutName = cut.getFullNameOfTargetClass();
+		for(String cutName : new ArrayList<>(db.getClassNames())){
 			if(! current.containsClass(cutName)){
-				iter.remove();
+				CUT cut = db.removeCUT(cutName);
 				removeBestTestSuite(cut.getFullNameOfTestSuite());		
 				removed++;
 			}
-			
 		}
 		
 		return "Removed test suites: "+removed; 
@@ -942,6 +1017,44 @@ public class StorageManager {
 	 */
 	public static Project getDatabaseProject() {
 
+		if (Properties.CTG_INDEXED_DATABASE) {
+			return getDatabase().toProject();
+		}
+		return readProjectInfo();
+	}
+
+	/**
+	 * Get the database of the test cases, indexed by CUT.
+	 * 
+	 * <p>
+	 * If {@link Properties#CTG_INDEXED_DATABASE} is off, this is an in-memory
+	 * database of the XML project info. Otherwise, the indexed database is
+	 * opened, importing the XML project info if the database does not exist yet
+	 * 
+	 * @return
+	 */
+	public static ProjectDatabase getDatabase() {
+
+		if (!Properties.CTG_INDEXED_DATABASE) {
+			return ProjectDatabase.inMemory(readProjectInfo());
+		}
+
+		File file = getProjectDatabaseFile();
+		try {
+			if (!file.exists() && getProjectInfoFile().exists()) {
+				LoggingUtils.getEvoLogger().info("* Importing " + getProjectInfoFile().getAbsolutePath());
+				return ProjectDatabase.importProject(readProjectInfo(), file);
+			}
+			return ProjectDatabase.open(file);
+		} catch (IOException e) {
+			String msg = "Error in reading "+file.getAbsolutePath()+" , "+e;
+			logger.error(msg,e);
+			throw new RuntimeException(msg);
+		}
+	}
+
+	private static Project readProjectInfo() {
+
 		File current = getProjectInfoFile();
 		InputStream stream = null;
 		if(!current.exists()){
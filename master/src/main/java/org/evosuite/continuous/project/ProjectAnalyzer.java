@@ -20,8 +20,15 @@
 package org.evosuite.continuous.project;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -33,11 +40,16 @@ import org.evosuite.Properties.AvailableSchedule;
 import org.evosuite.classpath.ClassPathHandler;
 import org.evosuite.classpath.ResourceList;
 import org.evosuite.continuous.job.schedule.HistorySchedule;
+import org.evosuite.continuous.persistency.ProjectDatabase;
+import org.evosuite.continuous.persistency.StorageManager;
 import org.evosuite.continuous.project.ProjectStaticData.ClassInfo;
 import org.evosuite.coverage.branch.BranchPool;
 import org.evosuite.instrumentation.InstrumentingClassLoader;
 import org.evosuite.junit.CoverageAnalysis;
 import org.evosuite.runtime.sandbox.Sandbox;
+import org.evosuite.utils.LoggingUtils;
+import org.evosuite.xsd.CUT;
+import org.evosuite.xsd.CUTUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -241,6 +253,10 @@ public class ProjectAnalyzer {
 			}
 
 			ClassInfo ci = new ClassInfo(theClass, numberOfBranches, hasCode);
+			if (Properties.CTG_INCREMENTAL) {
+				// only needed to detect changes, so no need to read the bytecode again otherwise
+				ci.setBytecodeHash(getBytecodeHash(className));
+			}
 			data.addNewClass(ci);
 
 			if (Properties.CTG_SCHEDULE == AvailableSchedule.HISTORY) {
@@ -249,7 +265,147 @@ public class ProjectAnalyzer {
 			}
 		}
 
+		if (Properties.CTG_INCREMENTAL) {
+			retargetChangedClasses(data);
+		}
+
 		return data;
 	}
+
+	/**
+	 * Only keep as "to test" the classes whose bytecode changed since they were last
+	 * tested, and the classes depending on them. All other classes keep their current
+	 * best test suites.
+	 * 
+	 * <p>
+	 * This is combined with the decisions already taken by the HISTORY schedule:
+	 * classes that are not affected are neither changed nor to test, affected ones
+	 * keep their "to test" flag, and the ones whose own bytecode changed are marked
+	 * as changed as well (and so HISTORY will test them).
+	 * 
+	 * <p>
+	 * Changes in classes that are not CUTs (eg interfaces without code) are detected
+	 * through the hash of the dependencies stored with each generation: a CUT whose
+	 * dependencies hash differs from the one of its last generation is affected as well
+	 * 
+	 * @param data
+	 */
+	private void retargetChangedClasses(ProjectStaticData data) {
+
+		ProjectDatabase db = StorageManager.getDatabase();
+		ProjectGraph graph = data.getProjectGraph();
+
+		Set<String> changed = new LinkedHashSet<>();
+		Set<String> stale = new LinkedHashSet<>();
+		for (ClassInfo info : data.getClassInfos()) {
+			if (!info.isTestable()) {
+				continue;
+			}
+			info.setDependenciesHash(getDependenciesHash(data, graph.getDependenciesOf(info.getClassName())));
+
+			CUT cut = db.getCUT(info.getClassName());
+			if (cut == null || !CUTUtil.isUpToDate(cut, info.getBytecodeHash())) {
+				changed.add(info.getClassName());
+			} else if (!CUTUtil.isUpToDate(cut, info.getBytecodeHash(), info.getDependenciesHash())) {
+				stale.add(info.getClassName());
+			}
+		}
+
+		Set<String> affected = graph.getCUTsAffectedBy(changed);
+		int dependents = affected.size() - changed.size();
+		stale.removeAll(affected);
+		affected.addAll(stale);
+		retarget(data.getClassInfos(), changed, affected);
+
+		LoggingUtils.getEvoLogger().info("* Incremental CTG: " + changed.size() + " new/modified classes, "
+				+ dependents + " classes depending on them, "
+				+ stale.size() + " classes with modified dependencies, "
+				+ (data.getTotalNumberOfTestableCUTs() - affected.size()) + " classes up to date");
+	}
+
+	/**
+	 * Combine the bytecode hashes of the given classes. Classes that are not part of
+	 * the project (eg from libraries) are ignored
+	 * 
+	 * @param data
+	 * @param dependencies
+	 * @return <code>null</code> if the bytecode of any of the project classes could not be read
+	 */
+	protected static String getDependenciesHash(ProjectStaticData data, Set<String> dependencies) {
+		List<String> entries = new ArrayList<>();
+		for (String name : dependencies) {
+			ClassInfo info = data.getClassInfo(name);
+			if (info == null) {
+				continue;
+			}
+			if (info.getBytecodeHash() == null) {
+				return null;
+			}
+			entries.add(name + "=" + info.getBytecodeHash());
+		}
+		Collections.sort(entries);
+
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			for (String entry : entries) {
+				digest.update(entry.getBytes(StandardCharsets.UTF_8));
+				digest.update((byte) '\n');
+			}
+			return toHex(digest.digest());
+		} catch (NoSuchAlgorithmException e) {
+			logger.warn("Cannot hash dependencies: " + e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * @param infos
+	 * @param changed classes whose own bytecode changed
+	 * @param affected changed classes, and the ones depending on them
+	 */
+	static void retarget(Collection<ClassInfo> infos, Set<String> changed, Set<String> affected) {
+		for (ClassInfo info : infos) {
+			String name = info.getClassName();
+			boolean isAffected = affected.contains(name);
+			info.setChanged(isAffected && (info.hasChanged() || changed.contains(name)));
+			info.isToTest(isAffected && info.isToTest());
+		}
+	}
+
+	/**
+	 * Compute a hash of the bytecode of the given class, as found on the SUT classpath
+	 * 
+	 * @param className
+	 * @return <code>null</code> if the bytecode could not be read
+	 */
+	protected static String getBytecodeHash(String className) {
+		InputStream in = ResourceList.getInstance(TestGenerationContext.getInstance().getClassLoaderForSUT())
+				.getClassAsStream(className);
+		if (in == null) {
+			return null;
+		}
+
+		try (InputStream stream = in) {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			byte[] buffer = new byte[8192];
+			int n;
+			while ((n = stream.read(buffer)) != -1) {
+				digest.update(buffer, 0, n);
+			}
+
+			return toHex(digest.digest());
+		} catch (IOException | NoSuchAlgorithmException e) {
+			logger.warn("Cannot read bytecode of " + className + ": " + e.getMessage());
+			return null;
+		}
+	}
+
+	private static String toHex(byte[] bytes) {
+		StringBuilder hex = new StringBuilder();
+		for (byte b : bytes) {
+			hex.append(String.format("%02x", b));
+		}
+		return hex.toString();
+	}
 }
 
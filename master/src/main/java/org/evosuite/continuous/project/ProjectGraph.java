@@ -19,6 +19,9 @@
  */
 package org.evosuite.continuous.project;
 
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -71,6 +74,20 @@ public class ProjectGraph {
 
 	private final ProjectStaticData data;
 
+	/**
+	 * Map from a class in the SUT (key) to the CUTs that directly use it
+	 * as input or extend it (value). Built lazily, as it requires to
+	 * analyze all CUTs
+	 */
+	private Map<String, Set<String>> directDependents;
+
+	/**
+	 * The inverse of {@link #directDependents}: map from a CUT (key) to the
+	 * classes it directly uses as input or extends (value). Built together
+	 * with it
+	 */
+	private Map<String, Set<String>> directDependencies;
+
 
 	/**
 	 * Main constructor
@@ -199,6 +216,116 @@ public class ProjectGraph {
 		return classNames;
 	}
 
+	/**
+	 * <p>
+	 * Return all the CUTs whose tests could be affected by a change in the
+	 * given classes: the CUTs among those classes, plus all the CUTs that
+	 * (transitively) use any of them as input or extend/implement any of them.
+	 * </p>
+	 * 
+	 * <p>
+	 * Contrary to {@link #getCUTsThatUseThisCUTasInput(String, boolean)}, the
+	 * given classes do not need to be CUTs, and all CUTs are analyzed only once
+	 * regardless of the number of given classes.
+	 * </p>
+	 * 
+	 * @param classes
+	 *            full qualifying names of classes in the SUT
+	 * @return a set of full qualifying names of CUTs
+	 */
+	public Set<String> getCUTsAffectedBy(Collection<String> classes) {
+
+		Map<String, Set<String>> dependents = getDirectDependents();
+
+		Set<String> affected = new LinkedHashSet<>();
+		Set<String> visited = new HashSet<>();
+		Deque<String> toVisit = new ArrayDeque<>(classes);
+
+		while (!toVisit.isEmpty()) {
+			String name = toVisit.poll();
+			if (!visited.add(name)) {
+				continue;
+			}
+
+			ClassInfo info = data.getClassInfo(name);
+			if (info != null && info.isTestable()) {
+				affected.add(name);
+			}
+
+			Set<String> users = dependents.get(name);
+			if (users != null) {
+				toVisit.addAll(users);
+			}
+		}
+
+		return affected;
+	}
+
+	/**
+	 * <p>
+	 * Return all the classes whose change could affect the tests of the given
+	 * CUT, ie the inverse of {@link #getCUTsAffectedBy(Collection)}: the
+	 * classes that the CUT (transitively) uses as input or extends/implements.
+	 * The CUT itself is not included.
+	 * </p>
+	 * 
+	 * @param cut
+	 *            full qualifying name of a CUT
+	 * @return a set of full qualifying names of classes, not necessarily CUTs
+	 */
+	public Set<String> getDependenciesOf(String cut) {
+
+		getDirectDependents();
+
+		Set<String> dependencies = new LinkedHashSet<>();
+		Deque<String> toVisit = new ArrayDeque<>();
+		toVisit.add(cut);
+
+		while (!toVisit.isEmpty()) {
+			Set<String> used = directDependencies.get(toVisit.poll());
+			if (used == null) {
+				continue;
+			}
+			for (String name : used) {
+				if (!name.equals(cut) && dependencies.add(name)) {
+					toVisit.add(name);
+				}
+			}
+		}
+
+		return dependencies;
+	}
+
+	private Map<String, Set<String>> getDirectDependents() {
+		if (directDependents != null) {
+			return directDependents;
+		}
+
+		directDependents = new HashMap<>();
+		directDependencies = new HashMap<>();
+		for (ClassInfo info : data.getClassInfos()) {
+			if (!info.isTestable()) {
+				continue;
+			}
+			String cut = info.getClassName();
+			Set<String> used = new LinkedHashSet<>(recursionToSearchDirectInputs(cut, false));
+
+			try { //FIXME, see getAllCUTsParents
+				used.addAll(inheritanceTree.getSuperclasses(cut));
+			} catch (Exception e) {
+				logger.error("Bug in inheritanceTree: " + e);
+			}
+			used.remove(cut);
+
+			for (String name : used) {
+				directDependents.computeIfAbsent(name, k -> new LinkedHashSet<>()).add(cut);
+			}
+			directDependencies.put(cut, used);
+		}
+
+		return directDependents;
+	}
+
 	/**
 	 * Is the given class name representing an interface in the SUT?
 	 * @param className
@@ -34,6 +34,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import org.evosuite.Properties;
+import org.evosuite.continuous.persistency.ProjectDatabase;
 import org.evosuite.continuous.persistency.StorageManager;
 import org.evosuite.xsd.CUT;
 import org.evosuite.xsd.Generation;
@@ -79,7 +80,7 @@ public class ProjectStaticData {
     private final Set<String> modifiedFiles;
 
     
-    private Project project = null;
+    private ProjectDatabase database = null;
 
     
 	private ProjectGraph graph = null;
@@ -134,7 +135,7 @@ public class ProjectStaticData {
             }
         }
 
-        this.project = StorageManager.getDatabaseProject();
+        this.database = StorageManager.getDatabase();
 	}
 
 	/**
@@ -174,6 +175,17 @@ public class ProjectStaticData {
          */
         private int memoryInMB = 0;
 
+        /**
+         * hash of the bytecode of the class, or null if it could not be read
+         */
+        private String bytecodeHash = null;
+
+        /**
+         * hash of the bytecode of the classes the class depends on, or null if
+         * it could not be computed
+         */
+        private String dependenciesHash = null;
+
 		public ClassInfo(Class<?> theClass, int numberOfBranches, boolean hasCode) {
 			super();
 			this.theClass = theClass;
@@ -216,6 +228,20 @@ public class ProjectStaticData {
         public int getMemoryInMB() {
             return memoryInMB;
         }
+
+        public void setBytecodeHash(String bytecodeHash) {
+            this.bytecodeHash = bytecodeHash;
+        }
+        public String getBytecodeHash() {
+            return bytecodeHash;
+        }
+
+        public void setDependenciesHash(String dependenciesHash) {
+            this.dependenciesHash = dependenciesHash;
+        }
+        public String getDependenciesHash() {
+            return dependenciesHash;
+        }
 	}
 
 	/**
@@ -277,6 +303,37 @@ public class ProjectStaticData {
 
 	}
 
+	/**
+	 * Return the number of CUTs that still need to be tested in this run.
+	 * Unless CTG is incremental, this is the same as {@link #getTotalNumberOfTestableCUTs()}
+	 * 
+	 * @return
+	 */
+	public int getTotalNumberOfCUTsToTest() {
+		int total = 0;
+		for (ClassInfo info : classes.values()) {
+			if (info.isTestable() && info.isToTest()) {
+				total++;
+			}
+		}
+		return total;
+	}
+
+	/**
+	 * Return the number of branches in the CUTs that still need to be tested in this run
+	 * 
+	 * @return
+	 */
+	public int getTotalNumberOfBranchesToTest() {
+		int total = 0;
+		for (ClassInfo info : classes.values()) {
+			if (info.isToTest()) {
+				total += info.numberOfBranches;
+			}
+		}
+		return total;
+	}
+
 	/**
 	 * Return an unmodifiable copy of the current data info of the classes in the SUT 
 	 * 
@@ -303,7 +360,7 @@ public class ProjectStaticData {
     }
 
     protected void setProject(Project project) {
-        this.project = project;
+        this.database = ProjectDatabase.inMemory(project);
     }
 
     /**
@@ -318,13 +375,11 @@ public class ProjectStaticData {
      */
     public boolean isToTest(String className, int n) {
 
-        if (this.project == null) {
+        if (this.database == null) {
             return true; // we don't have any previous data at all
         }
 
-        CUT cut = this.project.getCut().parallelStream()
-          .filter(p -> p.getFullNameOfTargetClass().equals(className))
-          .findFirst().orElse(null);
+        CUT cut = this.database.getCUT(className);
 
     	if (cut == null) {
     		return true; // we don't have any coverage yet
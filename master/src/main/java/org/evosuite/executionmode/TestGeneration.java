@@ -29,6 +29,7 @@ import org.evosuite.Properties.Strategy;
 import org.evosuite.classpath.ClassPathHacker;
 import org.evosuite.classpath.ClassPathHandler;
 import org.evosuite.classpath.ResourceList;
+import org.evosuite.continuous.job.JobProgressReporter;
 import org.evosuite.instrumentation.BytecodeInstrumentation;
 import org.evosuite.kex.KexInitMode;
 import org.evosuite.kex.KexService;
@@ -506,6 +507,10 @@ public class TestGeneration {
 				 * The clients have started, and connected back to Master.
 				 * So now we just need to tell them to start a search
 				 */
+				if (Properties.CTG_PROGRESS_FILE != null) {
+					JobProgressReporter.startReporting(new File(Properties.CTG_PROGRESS_FILE));
+				}
+
 				for (ClientNodeRemote client : clients) {
 					try {
 						client.startNewSearch();
@@ -19,15 +19,18 @@
  */
 package org.evosuite.rmi;
 
+import java.io.IOException;
 import java.rmi.NoSuchObjectException;
 import java.rmi.RemoteException;
 import java.rmi.registry.LocateRegistry;
 import java.rmi.registry.Registry;
 import java.rmi.server.UnicastRemoteObject;
 
+import org.evosuite.Properties;
 import org.evosuite.rmi.service.MasterNodeLocal;
 import org.evosuite.rmi.service.MasterNodeRemote;
 import org.evosuite.rmi.service.MasterNodeImpl;
+import org.evosuite.statistics.StatisticsStreamServer;
 import org.evosuite.utils.Randomness;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -54,6 +57,8 @@ public class MasterServices {
 	private Registry registry;
 
 	private MasterNodeImpl masterNode; 
+
+	private StatisticsStreamServer statisticsStreamServer;
 	
 	
 	protected MasterServices(){		
@@ -110,6 +115,22 @@ public class MasterServices {
 		masterNode = new MasterNodeImpl(registry);
 		MasterNodeRemote stub = (MasterNodeRemote) UtilsRMI.exportObject(masterNode);
 		registry.rebind(MasterNodeRemote.RMI_SERVICE_NAME, stub);
+
+		if(Properties.STATISTICS_STREAM){
+			try {
+				statisticsStreamServer = StatisticsStreamServer.start();
+			} catch (IOException e) {
+				logger.warn("Failed to start statistics stream server, clients will use RMI: "+e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * @return the port of the statistics stream, or -1 if there is none
+	 */
+	public int getStatisticsStreamPort(){
+		StatisticsStreamServer server = statisticsStreamServer;
+		return server == null ? -1 : server.getPort();
 	}
 	
 
@@ -119,6 +140,11 @@ public class MasterServices {
 	}
 	
 	public void stopServices(){
+		if(statisticsStreamServer != null){
+			statisticsStreamServer.stop();
+			statisticsStreamServer = null;
+		}
+
 		if(masterNode != null){
 			try {
 				UnicastRemoteObject.unexportObject(masterNode,true);
@@ -19,6 +19,7 @@
  */
 package org.evosuite.rmi.service;
 
+import java.io.IOException;
 import java.rmi.RemoteException;
 import java.rmi.registry.Registry;
 import java.util.ArrayList;
@@ -28,16 +29,23 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntPredicate;
 
 import org.evosuite.ClientProcess;
 import org.evosuite.Properties;
+import org.evosuite.Properties.MigrationTopology;
 import org.evosuite.Properties.NoSuchParameterException;
 import org.evosuite.ga.Chromosome;
 import org.evosuite.result.TestGenerationResult;
+import org.evosuite.rmi.MasterServices;
 import org.evosuite.statistics.SearchStatistics;
 import org.evosuite.statistics.RuntimeVariable;
+import org.evosuite.statistics.StatisticsStreamServer;
 import org.evosuite.utils.Listener;
 import org.evosuite.utils.LoggingUtils;
+import org.evosuite.utils.Randomness;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -62,6 +70,16 @@ public class MasterNodeImpl implements MasterNodeRemote, MasterNodeLocal {
 
 	private final Map<String, ClientStateInformation> clientStateInformation;
 
+	/**
+	 * Delivers migrants to their target clients, so that neither the sending
+	 * client nor the RMI thread serving it waits for the receiving clients
+	 */
+	private final ExecutorService migrationExecutor = Executors.newSingleThreadExecutor(r -> {
+		Thread thread = new Thread(r, "Migrant forwarder in master process");
+		thread.setDaemon(true);
+		return thread;
+	});
+
 	public MasterNodeImpl(Registry registry) {
 		clients = new ConcurrentHashMap<>();
 		clientStates = new ConcurrentHashMap<>();
@@ -174,6 +192,20 @@ public class MasterNodeImpl implements MasterNodeRemote, MasterNodeLocal {
 		SearchStatistics.getInstance(clientRmiIdentifier).setOutputVariable(variable, value);
 	}
 
+	@Override
+	public void evosuite_collectStatistics(String clientRmiIdentifier, byte[] frame) throws RemoteException {
+		try {
+			StatisticsStreamServer.readFrame(SearchStatistics.getInstance(clientRmiIdentifier), frame);
+		} catch (IOException e) {
+			logger.error("Invalid statistics records from " + clientRmiIdentifier + ": " + e.getMessage(), e);
+		}
+	}
+
+	@Override
+	public int evosuite_getStatisticsStreamPort() throws RemoteException {
+		return MasterServices.getInstance().getStatisticsStreamPort();
+	}
+
 	@Override
 	public void evosuite_collectTestGenerationResult(
 			String clientRmiIdentifier, List<TestGenerationResult> results)
@@ -194,20 +226,70 @@ public class MasterNodeImpl implements MasterNodeRemote, MasterNodeLocal {
 	}
 
     @Override
-    public void evosuite_migrate(String clientRmiIdentifier, Set<? extends Chromosome> migrants)
+    public void evosuite_migrate(String clientRmiIdentifier, MigrantBatch migrants)
             throws RemoteException {
-        //implements ring topology
         int idSender = Integer.parseInt(clientRmiIdentifier.replaceAll("[^0-9]", ""));
-        int idNeighbour = (idSender + 1) % Properties.NUM_PARALLEL_CLIENTS;
-
-        while (!ClientState.SEARCH.equals(clientStates.get("ClientNode" + idNeighbour)) && idNeighbour != idSender) {
-            idNeighbour = (idNeighbour + 1) % Properties.NUM_PARALLEL_CLIENTS;
+        List<Integer> targets = getMigrationTargets(idSender, Properties.NUM_PARALLEL_CLIENTS,
+                Properties.MIGRATION_TOPOLOGY,
+                id -> ClientState.SEARCH.equals(clientStates.get(ClientProcess.CLIENT_PREFIX + id)));
+
+        for (int target : targets) {
+            ClientNodeRemote node = clients.get(ClientProcess.CLIENT_PREFIX + target);
+            if (node == null)
+                continue;
+            migrationExecutor.submit(() -> {
+                try {
+                    node.immigrate(migrants);
+                } catch (RemoteException e) {
+                    logger.warn("Cannot send migrants of " + clientRmiIdentifier + " to client " + target, e);
+                }
+            });
         }
+    }
 
-        if (idNeighbour != idSender) {
-            ClientNodeRemote node = clients.get("ClientNode" + idNeighbour);
-            node.immigrate(migrants);
+    /**
+     * Determines which clients receive the migrants of a client
+     *
+     * @param sender the index of the sending client
+     * @param numClients the number of parallel clients
+     * @param topology
+     * @param searching whether the client with a given index is still searching
+     * @return the indices of the receiving clients, possibly none
+     */
+    static List<Integer> getMigrationTargets(int sender, int numClients, MigrationTopology topology,
+            IntPredicate searching) {
+        List<Integer> targets = new ArrayList<>();
+        switch (topology) {
+            case STAR:
+                if (sender == 0) {
+                    for (int id = 1; id < numClients; id++) {
+                        if (searching.test(id))
+                            targets.add(id);
+                    }
+                } else if (searching.test(0)) {
+                    targets.add(0);
+                }
+                break;
+            case RANDOM:
+                List<Integer> candidates = new ArrayList<>();
+                for (int id = 0; id < numClients; id++) {
+                    if (id != sender && searching.test(id))
+                        candidates.add(id);
+                }
+                if (!candidates.isEmpty())
+                    targets.add(Randomness.choice(candidates));
+                break;
+            default:
+                // the next client that is still searching
+                for (int i = 1; i < numClients; i++) {
+                    int id = (sender + i) % numClients;
+                    if (searching.test(id)) {
+                        targets.add(id);
+                        break;
+                    }
+                }
         }
+        return targets;
     }
 
     @Override
@@ -70,6 +70,12 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
 	/** Map of client id to best individual received from that client so far */
 	private TestSuiteChromosome bestIndividual = null;
 
+	/**
+	 * Statistics of the latest individual received, either as a whole or only
+	 * its statistics (see {@link StatisticsStreamServer})
+	 */
+	private IndividualStatistics latestStatistics = null;
+
 	/** Backend used to output the data */
 	private StatisticsBackend backend = null;
 
@@ -107,6 +113,9 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
 		case DEBUG:
 			backend = new DebugStatisticsBackend();
 			break;
+		case COLUMNAR:
+			backend = new ColumnarStatisticsBackend();
+			break;
 		case NONE:
 		default:
 			// If no backend is specified, there is no output
@@ -163,7 +172,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
 		return getInstance(ClientProcess.DEFAULT_CLIENT_NAME);
 	}
 
-	public static SearchStatistics getInstance(String rmiClientIdentifier) {
+	public static synchronized SearchStatistics getInstance(String rmiClientIdentifier) {
 		SearchStatistics instance = instances.get(rmiClientIdentifier);
 		if (instance == null) {
 			instance = new SearchStatistics();
@@ -176,7 +185,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
 		clearInstance(ClientProcess.DEFAULT_CLIENT_NAME);
 	}
 
-	public static void clearInstance(String rmiClientIdentifier) {
+	public static synchronized void clearInstance(String rmiClientIdentifier) {
 		instances.remove(rmiClientIdentifier);
 	}
 
@@ -197,11 +206,27 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
 
 		logger.debug("Received individual");
 		bestIndividual = (TestSuiteChromosome) individual;
+		currentIndividual(IndividualStatistics.of(bestIndividual));
+	}
+
+	/**
+	 * This method is called when only the statistics of the best individual of
+	 * the current generation are sent from a client.
+	 * 
+	 * Can be called both by RMI threads and by the statistics stream.
+	 * 
+	 * @param statistics statistics of the best individual of current generation
+	 */
+	public synchronized void currentIndividual(IndividualStatistics statistics) {
+		if(backend == null)
+			return;
+
+		latestStatistics = statistics;
         for(ChromosomeOutputVariableFactory<?> v : variableFactories.values()) {
-            setOutputVariable(v.getVariable((TestSuiteChromosome) individual));
+            setOutputVariable(v.getVariable(statistics));
         }
 		for(SequenceOutputVariableFactory<?> v : sequenceOutputVariableFactories.values()) {
-			v.update((TestSuiteChromosome) individual);
+			v.update(statistics);
 		}
 	}
 
@@ -215,7 +240,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
 		setOutputVariable(new OutputVariable<>(variable.toString(), value));
 	}
 
-	public void setOutputVariable(OutputVariable<?> variable) {
+	public synchronized void setOutputVariable(OutputVariable<?> variable) {
         /**
          * if the output variable is contained in sequenceOutputVariableFactories,
          * then it must be a DirectSequenceOutputVariableFactory, hence we set its
@@ -286,7 +311,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
 	/**
 	 * Shorthand for getOutputVariables(individual, false)
 	 */
-	private Map<String, OutputVariable<?>> getOutputVariables(TestSuiteChromosome individual) {
+	private Map<String, OutputVariable<?>> getOutputVariables(IndividualStatistics individual) {
 		return getOutputVariables(individual, false);
 	}
 
@@ -298,7 +323,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
 	 * @param skip_missing whether or not to skip missing output variables
 	 * @return <code>null</code> if some data is missing
 	 */
-	private Map<String, OutputVariable<?>> getOutputVariables(TestSuiteChromosome individual, boolean skip_missing) {
+	private Map<String, OutputVariable<?>> getOutputVariables(IndividualStatistics individual, boolean skip_missing) {
 		Map<String, OutputVariable<?>> variables = new LinkedHashMap<>();
 		
 		for(String variableName : getOutputVariableNames()) {
@@ -343,14 +368,20 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
 
 		outputVariables.put(RuntimeVariable.Total_Time.name(), new OutputVariable<Object>(RuntimeVariable.Total_Time.name(), System.currentTimeMillis() - startTime));
 
-		if(bestIndividual == null) {
+		if(bestIndividual == null && latestStatistics == null) {
 			logger.error("No statistics has been saved because EvoSuite failed to generate any test case");
 			return false;
 		}	
 
-		TestSuiteChromosome individual = bestIndividual;
+		/*
+		 * if only the statistics of the individuals were received (eg, the client
+		 * was killed before sending its final test suite), the backend does not
+		 * get the test suite itself
+		 */
+		TestSuiteChromosome individual = bestIndividual != null ? bestIndividual : new TestSuiteChromosome();
+		IndividualStatistics statistics = bestIndividual != null ? IndividualStatistics.of(bestIndividual) : latestStatistics;
 
-		Map<String,OutputVariable<?>> map = getOutputVariables(individual);
+		Map<String,OutputVariable<?>> map = getOutputVariables(statistics);
 		if(map==null){
 
 			try {
@@ -374,13 +405,13 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
 					}
 
 					//retry
-					map = getOutputVariables(individual);
+					map = getOutputVariables(statistics);
 					counter++;
 				}
 			}
 			
 			if(map == null && Properties.IGNORE_MISSING_STATISTICS){
-				map = getOutputVariables(individual, true);
+				map = getOutputVariables(statistics, true);
 			}
 
 			if(map == null) {
@@ -414,7 +445,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
 		outputVariables.put(RuntimeVariable.Total_Time.name(), new OutputVariable<Object>(RuntimeVariable.Total_Time.name(), System.currentTimeMillis() - startTime));
 
 		TestSuiteChromosome individual = new TestSuiteChromosome();
-		Map<String,OutputVariable<?>> map = getOutputVariables(individual);
+		Map<String,OutputVariable<?>> map = getOutputVariables(IndividualStatistics.of(individual));
 		if(map==null){
 			logger.error("Not going to write down statistics data, as some are missing");
 			return false;
@@ -470,7 +501,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
 		}
 
 		@Override
-		protected Integer getData(TestSuiteChromosome individual) {
+		protected Integer getData(IndividualStatistics individual) {
 			return individual.totalLengthOfTestCases();
 		}
 	}
@@ -484,7 +515,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
 		}
 
 		@Override
-		protected Integer getData(TestSuiteChromosome individual) {
+		protected Integer getData(IndividualStatistics individual) {
 			return individual.size();
 		}
 	}
@@ -498,7 +529,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
 		}
 
 		@Override
-		protected Double getData(TestSuiteChromosome individual) {
+		protected Double getData(IndividualStatistics individual) {
 			return individual.getFitness();
 		}
 	}
@@ -512,7 +543,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
 		}
 
 		@Override
-		protected Double getData(TestSuiteChromosome individual) {
+		protected Double getData(IndividualStatistics individual) {
 			return individual.getCoverage();
 		}
 	}
@@ -527,7 +558,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
 		}
 
 		@Override
-		protected Double getValue(TestSuiteChromosome individual) {
+		protected Double getValue(IndividualStatistics individual) {
 			return individual.getFitness();
 		}
 	}
@@ -542,7 +573,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
 		}
 
 		@Override
-		public Double getValue(TestSuiteChromosome individual) {
+		public Double getValue(IndividualStatistics individual) {
 			return individual.getCoverage();
 		}
 	}
@@ -557,7 +588,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
 		}
 
 		@Override
-		public Integer getValue(TestSuiteChromosome individual) {
+		public Integer getValue(IndividualStatistics individual) {
 			return individual.size();
 		}
 	}
@@ -572,7 +603,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
 		}
 
 		@Override
-		public Integer getValue(TestSuiteChromosome individual) {
+		public Integer getValue(IndividualStatistics individual) {
 			return individual.totalLengthOfTestCases();
 		}
 	}
@@ -587,7 +618,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
         }
 
         @Override
-        public Integer getValue(TestSuiteChromosome individual) {
+        public Integer getValue(IndividualStatistics individual) {
             return individual.getNumOfNotCoveredGoals();
         }
     }
@@ -599,7 +630,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualStatistics individual) {
             return individual.getCoverageInstanceOf(BranchCoverageSuiteFitness.class);
         }
     }
@@ -611,7 +642,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualStatistics individual) {
             return individual.getFitnessInstanceOf(OnlyBranchCoverageSuiteFitness.class);
         }
     }
@@ -623,7 +654,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualStatistics individual) {
             return individual.getCoverageInstanceOf(OnlyBranchCoverageSuiteFitness.class);
         }
     }
@@ -635,7 +666,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualStatistics individual) {
             return individual.getFitnessInstanceOf(CBranchSuiteFitness.class);
         }
     }
@@ -647,7 +678,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualStatistics individual) {
             return individual.getCoverageInstanceOf(CBranchSuiteFitness.class);
         }
     }
@@ -659,7 +690,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualStatistics individual) {
             return individual.getFitnessInstanceOf(MethodTraceCoverageSuiteFitness.class);
         }
     }
@@ -671,7 +702,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualStatistics individual) {
             return individual.getCoverageInstanceOf(MethodTraceCoverageSuiteFitness.class);
         }
     }
@@ -683,7 +714,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualStatistics individual) {
             return individual.getFitnessInstanceOf(MethodCoverageSuiteFitness.class);
         }
     }
@@ -695,7 +726,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualStatistics individual) {
             return individual.getCoverageInstanceOf(MethodCoverageSuiteFitness.class);
         }
     }
@@ -707,7 +738,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualStatistics individual) {
             return individual.getFitnessInstanceOf(MethodNoExceptionCoverageSuiteFitness.class);
         }
     }
@@ -719,7 +750,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualStatistics individual) {
             return individual.getCoverageInstanceOf(MethodNoExceptionCoverageSuiteFitness.class);
         }
     }
@@ -731,7 +762,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualStatistics individual) {
             Double d = individual.getFitnessInstanceOf(RhoCoverageSuiteFitness.class);
             return d > 1.0 ? 0.0 : d;
         }
@@ -744,7 +775,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualStatistics individual) {
             return individual.getFitnessInstanceOf(AmbiguityCoverageSuiteFitness.class);
         }
     }
@@ -756,7 +787,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualStatistics individual) {
             return individual.getFitnessInstanceOf(LineCoverageSuiteFitness.class);
         }
     }
@@ -768,7 +799,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualStatistics individual) {
             return individual.getCoverageInstanceOf(LineCoverageSuiteFitness.class);
         }
     }
@@ -780,7 +811,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualStatistics individual) {
             return individual.getFitnessInstanceOf(OutputCoverageSuiteFitness.class);
         }
     }
@@ -792,7 +823,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualStatistics individual) {
             return individual.getCoverageInstanceOf(OutputCoverageSuiteFitness.class);
         }
     }
@@ -804,7 +835,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualStatistics individual) {
             return individual.getFitnessInstanceOf(InputCoverageSuiteFitness.class);
         }
     }
@@ -816,7 +847,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualStatistics individual) {
             return individual.getCoverageInstanceOf(InputCoverageSuiteFitness.class);
         }
     }
@@ -828,7 +859,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualStatistics individual) {
             return individual.getFitnessInstanceOf(ExceptionCoverageSuiteFitness.class);
         }
     }
@@ -840,7 +871,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualStatistics individual) {
             return individual.getCoverageInstanceOf(ExceptionCoverageSuiteFitness.class);
         }
     }
@@ -852,7 +883,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualStatistics individual) {
             return individual.getCoverageInstanceOf(WeakMutationSuiteFitness.class);
         }
     }
@@ -864,7 +895,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualStatistics individual) {
             return individual.getFitnessInstanceOf(OnlyMutationSuiteFitness.class);
         }
     }
@@ -876,7 +907,7 @@ public class SearchStatistics implements Listener<ClientStateInformation>{
         }
 
         @Override
-        public Double getValue(TestSuiteChromosome individual) {
+        public Double getValue(IndividualStatistics individual) {
             return individual.getCoverageInstanceOf(OnlyMutationSuiteFitness.class);
         }
     }
@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.statistics;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Master side of the binary statistics channel, see
+ * {@link StatisticsStreamWriter} for the format.
+ * 
+ * <p>
+ * Each client has its own connection, read by its own thread, and the records
+ * are given to the {@link SearchStatistics} of that client in the order they
+ * were sent
+ */
+public class StatisticsStreamServer {
+
+	private static final Logger logger = LoggerFactory.getLogger(StatisticsStreamServer.class);
+
+	private final ServerSocket serverSocket;
+
+	private final Thread acceptor;
+
+	private volatile boolean stopped = false;
+
+	private StatisticsStreamServer(ServerSocket serverSocket) {
+		this.serverSocket = serverSocket;
+		this.acceptor = new Thread(this::acceptConnections);
+		this.acceptor.setName("Statistics stream acceptor in master process");
+		this.acceptor.setDaemon(true);
+	}
+
+	/**
+	 * Start listening on a free port of the loopback address
+	 * 
+	 * @return
+	 * @throws IOException
+	 */
+	public static StatisticsStreamServer start() throws IOException {
+		ServerSocket serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+		StatisticsStreamServer server = new StatisticsStreamServer(serverSocket);
+		server.acceptor.start();
+		return server;
+	}
+
+	public int getPort() {
+		return serverSocket.getLocalPort();
+	}
+
+	/**
+	 * Stop accepting new clients. Clients already connected are read until they
+	 * close their stream.
+	 */
+	public void stop() {
+		stopped = true;
+		try {
+			serverSocket.close();
+		} catch (IOException e) {
+			logger.warn("Failed to close statistics stream server: " + e.getMessage());
+		}
+	}
+
+	private void acceptConnections() {
+		while (!stopped) {
+			try {
+				Socket socket = serverSocket.accept();
+				Thread reader = new Thread(() -> read(socket));
+				reader.setName("Statistics stream reader in master process");
+				reader.setDaemon(true);
+				reader.start();
+			} catch (SocketException e) {
+				if (!stopped) {
+					logger.error("Statistics stream server failed: " + e.getMessage(), e);
+				}
+				return;
+			} catch (IOException e) {
+				logger.error("Failed to accept statistics stream: " + e.getMessage(), e);
+			}
+		}
+	}
+
+	private void read(Socket socket) {
+		String clientRmiIdentifier = null;
+		try (Socket s = socket) {
+			DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+			clientRmiIdentifier = in.readUTF();
+			SearchStatistics statistics = SearchStatistics.getInstance(clientRmiIdentifier);
+
+			while (true) {
+				int length = in.readInt();
+				if (length < 4 || length > StatisticsStreamWriter.MAX_FRAME_LENGTH) {
+					throw new IOException("Invalid frame length " + length);
+				}
+				byte[] frame = new byte[length];
+				in.readFully(frame);
+
+				if (!readFrame(statistics, frame)) {
+					OutputStream out = s.getOutputStream();
+					out.write(StatisticsStreamWriter.ACK);
+					out.flush();
+					return;
+				}
+			}
+		} catch (EOFException e) {
+			logger.debug("Statistics stream of " + clientRmiIdentifier + " closed without end record");
+		} catch (IOException e) {
+			logger.error("Error when reading statistics of " + clientRmiIdentifier + ": " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Process all the records of a frame. Also used for the records that a
+	 * client sends through RMI when its stream fails.
+	 *
+	 * @return <code>false</code> if the frame contains the end of the stream
+	 */
+	public static boolean readFrame(SearchStatistics statistics, byte[] frame) throws IOException {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(frame));
+		int records = in.readInt();
+		for (int i = 0; i < records; i++) {
+			byte type = in.readByte();
+			switch (type) {
+			case StatisticsStreamWriter.INDIVIDUAL:
+				statistics.currentIndividual(IndividualStatistics.read(in));
+				break;
+			case StatisticsStreamWriter.OUTPUT_VARIABLE:
+				RuntimeVariable variable = RuntimeVariable.valueOf(in.readUTF());
+				statistics.setOutputVariable(variable, StatisticsStreamWriter.readValue(in));
+				break;
+			case StatisticsStreamWriter.END:
+				return false;
+			default:
+				throw new IOException("Unknown statistics record type " + type);
+			}
+		}
+		return true;
+	}
+}
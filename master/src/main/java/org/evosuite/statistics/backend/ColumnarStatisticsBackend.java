@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.statistics.backend;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.evosuite.ga.Chromosome;
+import org.evosuite.statistics.OutputVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This statistics backend appends all (selected) output variables to a compressed
+ * columnar file (see {@link ColumnarStatisticsFile}), which is faster than a CSV file
+ * to read back when there are many runs, and can be written by several processes at
+ * the same time. A CSV view of it is given by <code>ColumnarStatisticsFile csv</code>.
+ */
+public class ColumnarStatisticsBackend implements StatisticsBackend {
+
+	private static final Logger logger = LoggerFactory.getLogger(ColumnarStatisticsBackend.class);
+
+	public static final String FILE_NAME = "statistics.evsc";
+
+	@Override
+	public void writeData(Chromosome<?> result, Map<String, OutputVariable<?>> data) {
+		// Write to evosuite-report/statistics.evsc
+		try {
+			File outputDir = CSVStatisticsBackend.getReportDir();
+			File f = new File(outputDir.getAbsolutePath() + File.separator + FILE_NAME);
+
+			Map<String, Object> row = new LinkedHashMap<>();
+			for (Entry<String, OutputVariable<?>> e : data.entrySet()) {
+				row.put(e.getKey(), e.getValue().getValue());
+			}
+			ColumnarStatisticsFile table = new ColumnarStatisticsFile();
+			table.addRow(row);
+			ColumnarStatisticsFile.append(f, table);
+
+		} catch (IOException e) {
+			logger.warn("Error while writing statistics: " + e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,550 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.statistics.backend;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Table of statistics, and its columnar file format.
+ *
+ * <p>
+ * The file is a sequence of self-contained blocks, each with its own schema, so that
+ * appending never needs to read or rewrite what is already in the file, and runs with
+ * different output variables can share the same file. A block is {@link #MAGIC}, the
+ * length and CRC32 of its content, and the content compressed with deflate: the column
+ * names and types, the number of rows, and then each column in turn. Integral columns
+ * are stored as zig-zag variable-length differences between consecutive rows, floating
+ * point ones as raw doubles, and anything else as a dictionary of strings followed by
+ * the index of each value. A column with missing values starts with a bitmap of the
+ * rows that have one.
+ *
+ * <p>
+ * Writers, even from different processes, are serialized through a lock on a file
+ * next to the data one. A block cut short by a crash is skipped when reading.
+ * As each run appends a block with a single row, {@link #compact(File)} rewrites the
+ * file as few large blocks, which is what makes reading the results of a large
+ * experiment fast.
+ */
+public class ColumnarStatisticsFile {
+
+	private static final Logger logger = LoggerFactory.getLogger(ColumnarStatisticsFile.class);
+
+	static final int MAGIC = 0x45565343;
+
+	static final int MAX_ROWS_PER_BLOCK = 65536;
+
+	private static final byte LONG = 0;
+	private static final byte DOUBLE = 1;
+	private static final byte STRING = 2;
+
+	/**
+	 * Flag added to the type of a column with missing values
+	 */
+	private static final byte NULLABLE = 0x10;
+
+	private static final int BLOCK_HEADER_BYTES = 12;
+
+	/**
+	 * FileChannel locks are held by the whole JVM, so threads need to be serialized as well
+	 */
+	private static final Object jvmLock = new Object();
+
+	private final List<String> columns = new ArrayList<>();
+
+	private final Map<String, List<Object>> values = new HashMap<>();
+
+	private int rows;
+
+	public List<String> getColumns() {
+		return Collections.unmodifiableList(columns);
+	}
+
+	public int getNumberOfRows() {
+		return rows;
+	}
+
+	/**
+	 * @param name
+	 * @return the values of the column, as {@link Long}, {@link Double}, {@link String}
+	 *         or {@code null} if missing. {@code null} if there is no such column
+	 */
+	public List<Object> getColumn(String name) {
+		List<Object> column = values.get(name);
+		return column == null ? null : Collections.unmodifiableList(column);
+	}
+
+	/**
+	 * Add a row. Integral numbers are kept as {@link Long}, doubles as {@link Double},
+	 * and anything else as its string representation, ie, as it would be written in a CSV file.
+	 *
+	 * @param row values indexed by column name
+	 */
+	public void addRow(Map<String, ?> row) {
+		for (Map.Entry<String, ?> entry : row.entrySet()) {
+			getOrCreateColumn(entry.getKey()).add(normalize(entry.getValue()));
+		}
+		rows++;
+		padColumns();
+	}
+
+	private static Object normalize(Object value) {
+		if (value == null) {
+			return null;
+		}
+		if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+			return ((Number) value).longValue();
+		}
+		if (value instanceof Double) {
+			return value;
+		}
+		return String.valueOf(value);
+	}
+
+	private List<Object> getOrCreateColumn(String name) {
+		List<Object> column = values.get(name);
+		if (column == null) {
+			column = new ArrayList<>(Collections.nCopies(rows, null));
+			values.put(name, column);
+			columns.add(name);
+		}
+		return column;
+	}
+
+	/**
+	 * Add missing values to the columns that are shorter than the table
+	 */
+	private void padColumns() {
+		for (List<Object> column : values.values()) {
+			while (column.size() < rows) {
+				column.add(null);
+			}
+		}
+	}
+
+	/**
+	 * Append the rows of the given table to the file, as a new block
+	 *
+	 * @param file
+	 * @param table
+	 * @throws IOException
+	 */
+	public static void append(File file, ColumnarStatisticsFile table) throws IOException {
+		if (table.rows == 0) {
+			return;
+		}
+		synchronized (jvmLock) {
+			try (FileChannel channel = openLockFile(file);
+				 FileLock lock = channel.lock();
+				 OutputStream out = new FileOutputStream(file, true)) {
+				table.writeBlocks(out);
+			}
+		}
+	}
+
+	/**
+	 * Read all the blocks in the file
+	 *
+	 * @param file
+	 * @return an empty table if the file does not exist
+	 * @throws IOException
+	 */
+	public static ColumnarStatisticsFile read(File file) throws IOException {
+		ColumnarStatisticsFile table = new ColumnarStatisticsFile();
+		if (!file.exists()) {
+			return table;
+		}
+		ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+
+		while (data.remaining() >= BLOCK_HEADER_BYTES) {
+			int start = data.position();
+			int magic = data.getInt();
+			int length = data.getInt();
+			long crc = data.getInt() & 0xFFFFFFFFL;
+
+			if (magic != MAGIC || length < 0 || length > data.remaining()) {
+				//cut short or corrupted: look for the next block
+				logger.warn("Skipping invalid block at byte " + start + " of " + file);
+				if (!skipToNextBlock(data, start + 1)) {
+					break;
+				}
+				continue;
+			}
+
+			byte[] compressed = new byte[length];
+			data.get(compressed);
+			CRC32 check = new CRC32();
+			check.update(compressed);
+			if (check.getValue() != crc) {
+				logger.warn("Skipping corrupted block at byte " + start + " of " + file);
+				if (!skipToNextBlock(data, start + 1)) {
+					break;
+				}
+				continue;
+			}
+
+			table.readBlock(inflate(compressed));
+		}
+		return table;
+	}
+
+	/**
+	 * Rewrite the file with as few blocks as possible
+	 *
+	 * @param file
+	 * @throws IOException
+	 */
+	public static void compact(File file) throws IOException {
+		synchronized (jvmLock) {
+			try (FileChannel channel = openLockFile(file);
+				 FileLock lock = channel.lock()) {
+				ColumnarStatisticsFile table = read(file);
+				File tmp = new File(file.getAbsolutePath() + ".tmp");
+				try (OutputStream out = new FileOutputStream(tmp)) {
+					table.writeBlocks(out);
+				}
+				Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+						StandardCopyOption.ATOMIC_MOVE);
+			}
+		}
+	}
+
+	/**
+	 * Write the table in the same format used by {@link CSVStatisticsBackend}, with
+	 * missing values left empty
+	 *
+	 * @param out
+	 * @throws IOException
+	 */
+	public void writeCsv(Writer out) throws IOException {
+		out.write(String.join(",", columns));
+		out.write("\n");
+		StringBuilder line = new StringBuilder();
+		for (int row = 0; row < rows; row++) {
+			line.setLength(0);
+			for (int i = 0; i < columns.size(); i++) {
+				if (i > 0) {
+					line.append(',');
+				}
+				Object value = values.get(columns.get(i)).get(row);
+				if (value != null) {
+					line.append(value);
+				}
+			}
+			line.append('\n');
+			out.write(line.toString());
+		}
+		out.flush();
+	}
+
+	/**
+	 * Command line access to the files:
+	 * <pre>
+	 * ColumnarStatisticsFile csv &lt;file&gt;      print the CSV view of the file
+	 * ColumnarStatisticsFile compact &lt;file&gt;  rewrite the file with as few blocks as possible
+	 * </pre>
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2 || !(args[0].equals("csv") || args[0].equals("compact"))) {
+			System.err.println("Usage: ColumnarStatisticsFile csv|compact <file>");
+			System.exit(1);
+		}
+		File file = new File(args[1]);
+		if (args[0].equals("csv")) {
+			read(file).writeCsv(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+		} else {
+			compact(file);
+		}
+	}
+
+	/**
+	 * Open the file used to lock the given one. Its content is never used
+	 */
+	private static FileChannel openLockFile(File file) throws IOException {
+		File parent = file.getAbsoluteFile().getParentFile();
+		if (parent != null && !parent.exists()) {
+			parent.mkdirs();
+		}
+		return FileChannel.open(new File(file.getAbsolutePath() + ".lock").toPath(),
+				StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+	}
+
+	private static boolean skipToNextBlock(ByteBuffer data, int from) {
+		for (int i = from; i + BLOCK_HEADER_BYTES <= data.limit(); i++) {
+			if (data.getInt(i) == MAGIC) {
+				data.position(i);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void writeBlocks(OutputStream out) throws IOException {
+		DataOutputStream data = new DataOutputStream(out);
+		for (int from = 0; from < rows; from += MAX_ROWS_PER_BLOCK) {
+			byte[] compressed = deflate(encode(from, Math.min(rows, from + MAX_ROWS_PER_BLOCK)));
+			CRC32 crc = new CRC32();
+			crc.update(compressed);
+			data.writeInt(MAGIC);
+			data.writeInt(compressed.length);
+			data.writeInt((int) crc.getValue());
+			data.write(compressed);
+		}
+		data.flush();
+	}
+
+	private byte[] encode(int from, int to) throws IOException {
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(buffer);
+		int n = to - from;
+
+		writeVarLong(out, columns.size());
+		writeVarLong(out, n);
+		for (String name : columns) {
+			List<Object> column = values.get(name).subList(from, to);
+			byte type = getType(column);
+			boolean nullable = column.contains(null);
+			writeString(out, name);
+			out.writeByte(nullable ? type | NULLABLE : type);
+
+			if (nullable) {
+				byte[] present = new byte[(n + 7) / 8];
+				for (int row = 0; row < n; row++) {
+					if (column.get(row) != null) {
+						present[row / 8] |= 1 << (row % 8);
+					}
+				}
+				out.write(present);
+			}
+
+			switch (type) {
+			case LONG:
+				long previous = 0;
+				for (Object value : column) {
+					if (value != null) {
+						long v = (Long) value;
+						writeVarLong(out, v - previous);
+						previous = v;
+					}
+				}
+				break;
+			case DOUBLE:
+				for (Object value : column) {
+					if (value != null) {
+						out.writeDouble((Double) value);
+					}
+				}
+				break;
+			default:
+				Map<String, Integer> dictionary = new LinkedHashMap<>();
+				for (Object value : column) {
+					if (value != null) {
+						dictionary.putIfAbsent(value.toString(), dictionary.size());
+					}
+				}
+				writeVarLong(out, dictionary.size());
+				for (String entry : dictionary.keySet()) {
+					writeString(out, entry);
+				}
+				for (Object value : column) {
+					if (value != null) {
+						writeVarLong(out, dictionary.get(value.toString()));
+					}
+				}
+			}
+		}
+		out.flush();
+		return buffer.toByteArray();
+	}
+
+	private static byte getType(List<Object> column) {
+		boolean allLong = true;
+		boolean allDouble = true;
+		for (Object value : column) {
+			if (value == null) {
+				continue;
+			}
+			allLong &= value instanceof Long;
+			allDouble &= value instanceof Double;
+		}
+		if (allLong) {
+			return LONG;
+		}
+		return allDouble ? DOUBLE : STRING;
+	}
+
+	private void readBlock(byte[] block) throws IOException {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(block));
+		int numberOfColumns = (int) readVarLong(in);
+		int n = (int) readVarLong(in);
+
+		for (int c = 0; c < numberOfColumns; c++) {
+			String name = readString(in);
+			byte type = in.readByte();
+			boolean nullable = (type & NULLABLE) != 0;
+			type &= ~NULLABLE;
+
+			boolean[] present = new boolean[n];
+			if (nullable) {
+				byte[] bitmap = new byte[(n + 7) / 8];
+				in.readFully(bitmap);
+				for (int row = 0; row < n; row++) {
+					present[row] = (bitmap[row / 8] & (1 << (row % 8))) != 0;
+				}
+			} else {
+				Arrays.fill(present, true);
+			}
+
+			List<Object> column = getOrCreateColumn(name);
+			switch (type) {
+			case LONG:
+				long previous = 0;
+				for (int row = 0; row < n; row++) {
+					if (present[row]) {
+						previous += readVarLong(in);
+						column.add(previous);
+					} else {
+						column.add(null);
+					}
+				}
+				break;
+			case DOUBLE:
+				for (int row = 0; row < n; row++) {
+					column.add(present[row] ? in.readDouble() : null);
+				}
+				break;
+			case STRING:
+				String[] dictionary = new String[(int) readVarLong(in)];
+				for (int i = 0; i < dictionary.length; i++) {
+					dictionary[i] = readString(in);
+				}
+				for (int row = 0; row < n; row++) {
+					column.add(present[row] ? dictionary[(int) readVarLong(in)] : null);
+				}
+				break;
+			default:
+				throw new IOException("Unknown column type " + type);
+			}
+		}
+
+		rows += n;
+		padColumns();
+	}
+
+	private static byte[] deflate(byte[] data) throws IOException {
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+		try (DeflaterOutputStream out = new DeflaterOutputStream(buffer, deflater)) {
+			out.write(data);
+		} finally {
+			deflater.end();
+		}
+		return buffer.toByteArray();
+	}
+
+	private static byte[] inflate(byte[] data) throws IOException {
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(data);
+			ByteArrayOutputStream buffer = new ByteArrayOutputStream(data.length * 4);
+			byte[] chunk = new byte[8192];
+			while (!inflater.finished()) {
+				int read = inflater.inflate(chunk);
+				if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+					throw new EOFException("Truncated block");
+				}
+				buffer.write(chunk, 0, read);
+			}
+			return buffer.toByteArray();
+		} catch (DataFormatException e) {
+			throw new IOException("Corrupted block: " + e.getMessage());
+		} finally {
+			inflater.end();
+		}
+	}
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		writeVarLong(out, bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		byte[] bytes = new byte[(int) readVarLong(in)];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+		long v = (value << 1) ^ (value >> 63);
+		while ((v & ~0x7FL) != 0) {
+			out.writeByte((int) ((v & 0x7F) | 0x80));
+			v >>>= 7;
+		}
+		out.writeByte((int) v);
+	}
+
+	private static long readVarLong(InputStream in) throws IOException {
+		long v = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			int b = in.read();
+			if (b < 0) {
+				throw new EOFException();
+			}
+			v |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return (v >>> 1) ^ -(v & 1);
+			}
+		}
+		throw new IOException("Malformed variable-length number");
+	}
+}
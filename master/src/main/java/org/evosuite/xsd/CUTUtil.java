@@ -186,6 +186,55 @@ public abstract class CUTUtil {
     return cut.getGeneration().get(cut.getGeneration().size() - 1);
   }
 
+  /**
+   * Checks whether test generation was already run on the current version of the class, i.e., if
+   * since the last change of its bytecode there has been at least one generation with some time
+   * budget that did not fail
+   * 
+   * @param cut
+   * @param bytecodeHash hash of the current bytecode of the class
+   * @return true if there is no need to generate tests for {@code CUT} again
+   */
+  public static boolean isUpToDate(CUT cut, String bytecodeHash) {
+    return isUpToDate(cut, bytecodeHash, null, false);
+  }
+
+  /**
+   * Checks whether test generation was already run on the current version of the class and of the
+   * classes it depends on, i.e., as {@link #isUpToDate(CUT, String)} but a change in any of these
+   * classes counts as well
+   * 
+   * @param cut
+   * @param bytecodeHash hash of the current bytecode of the class
+   * @param dependenciesHash hash of the current bytecode of the classes it depends on
+   * @return true if there is no need to generate tests for {@code CUT} again
+   */
+  public static boolean isUpToDate(CUT cut, String bytecodeHash, String dependenciesHash) {
+    return isUpToDate(cut, bytecodeHash, dependenciesHash, true);
+  }
+
+  private static boolean isUpToDate(CUT cut, String bytecodeHash, String dependenciesHash,
+      boolean checkDependencies) {
+    if (bytecodeHash == null || (checkDependencies && dependenciesHash == null)) {
+      return false;
+    }
+
+    for (int i = cut.getGeneration().size() - 1; i >= 0; i--) {
+      Generation g = cut.getGeneration().get(i);
+
+      if (!bytecodeHash.equals(g.getBytecodeHash())
+          || (checkDependencies && !dependenciesHash.equals(g.getDependenciesHash()))) {
+        // either the classes were different, or we do not know
+        return false;
+      }
+      if (!g.isFailed() && g.getTimeBudgetInSeconds().intValue() > 0) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
   /**
    * Returns the latest successful test generation
    * 
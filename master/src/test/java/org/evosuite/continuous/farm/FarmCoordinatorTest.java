@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.continuous.farm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+public class FarmCoordinatorTest {
+
+	private static final long TIMEOUT = 1000;
+
+	private static final String TOKEN = "secret";
+
+	private static FarmJob job(long id) {
+		return new FarmJob(id, "foo.Bar" + id, 60, new File(".").getAbsolutePath(),
+				Collections.singletonList("java"), Collections.emptyMap());
+	}
+
+	private static FarmResult result(long id, String worker) {
+		return new FarmResult(id, worker, 0, null, Collections.emptyMap());
+	}
+
+	@Test
+	public void testJobOfDeadWorkerIsRequeued() throws Exception {
+		FarmCoordinator farm = new FarmCoordinator(TOKEN, TIMEOUT, 3);
+		Future<FarmResult> future = farm.submit(job(1));
+
+		farm.registerWorker(TOKEN, "a", 1);
+		assertEquals(1, farm.takeJob(TOKEN, "a", 0).id);
+
+		farm.checkWorkers(System.currentTimeMillis() + 2 * TIMEOUT);
+		assertEquals(0, farm.getNumberOfWorkers());
+		assertFalse(farm.heartbeat(TOKEN, "a"));
+		assertFalse(future.isDone());
+
+		farm.registerWorker(TOKEN, "b", 2);
+		assertEquals(1, farm.takeJob(TOKEN, "b", 0).id);
+		farm.jobFinished(TOKEN, "b", result(1, "b"));
+
+		assertTrue(future.isDone());
+		assertEquals("b", future.get().workerId);
+	}
+
+	@Test
+	public void testOnlyFirstResultIsKept() throws Exception {
+		FarmCoordinator farm = new FarmCoordinator(TOKEN, TIMEOUT, 3);
+		Future<FarmResult> future = farm.submit(job(1));
+
+		farm.registerWorker(TOKEN, "a", 1);
+		farm.takeJob(TOKEN, "a", 0);
+		farm.checkWorkers(System.currentTimeMillis() + 2 * TIMEOUT);
+
+		//the worker was just slow, and ends the job before anyone else takes it again
+		farm.jobFinished(TOKEN, "a", result(1, "a"));
+		assertEquals("a", future.get().workerId);
+
+		farm.registerWorker(TOKEN, "b", 1);
+		assertNull(farm.takeJob(TOKEN, "b", 0));
+		farm.jobFinished(TOKEN, "b", result(1, "b"));
+		assertEquals("a", future.get().workerId);
+	}
+
+	@Test
+	public void testJobFailsAfterMaxAttempts() throws Exception {
+		FarmCoordinator farm = new FarmCoordinator(TOKEN, TIMEOUT, 2);
+		Future<FarmResult> future = farm.submit(job(1));
+
+		for (String worker : new String[]{"a", "b"}) {
+			farm.registerWorker(TOKEN, worker, 1);
+			assertEquals(1, farm.takeJob(TOKEN, worker, 0).id);
+			farm.checkWorkers(System.currentTimeMillis() + 2 * TIMEOUT);
+		}
+
+		assertTrue(future.isDone());
+		assertEquals(-1, future.get().exitCode);
+	}
+
+	@Test
+	public void testAliveWorkersAreKept() throws Exception {
+		FarmCoordinator farm = new FarmCoordinator(TOKEN, TIMEOUT, 3);
+		farm.submit(job(1));
+		farm.submit(job(2));
+
+		farm.registerWorker(TOKEN, "a", 1);
+		farm.registerWorker(TOKEN, "b", 3);
+		assertEquals(4, farm.getNumberOfSlots());
+		assertEquals(1, farm.takeJob(TOKEN, "a", 0).id);
+		assertEquals(2, farm.takeJob(TOKEN, "b", 0).id);
+
+		farm.checkWorkers(System.currentTimeMillis());
+		assertEquals(2, farm.getNumberOfWorkers());
+		assertNull(farm.takeJob(TOKEN, "a", 0));
+	}
+
+	@Test
+	public void testWrongTokenIsRejected() throws Exception {
+		FarmCoordinator farm = new FarmCoordinator(TOKEN, TIMEOUT, 3);
+		Future<FarmResult> future = farm.submit(job(1));
+		farm.registerWorker(TOKEN, "a", 1);
+
+		for (String token : new String[]{null, "", "secrets", "Secret"}) {
+			try {
+				farm.registerWorker(token, "b", 1);
+				fail();
+			} catch (SecurityException e) {
+				//expected
+			}
+			try {
+				farm.takeJob(token, "a", 0);
+				fail();
+			} catch (SecurityException e) {
+				//expected
+			}
+			try {
+				farm.jobFinished(token, "a", result(1, "a"));
+				fail();
+			} catch (SecurityException e) {
+				//expected
+			}
+		}
+		assertEquals(1, farm.getNumberOfWorkers());
+		assertFalse(future.isDone());
+	}
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.continuous.farm;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FarmJobTest {
+
+	private File folder;
+
+	@Before
+	public void createFolder() throws Exception {
+		folder = Files.createTempDirectory("ctg_farm").toFile();
+	}
+
+	@After
+	public void deleteFolder() throws Exception {
+		FileUtils.deleteDirectory(folder);
+	}
+
+	private File newFolder(String name) {
+		File dir = new File(folder, name);
+		dir.mkdirs();
+		return dir;
+	}
+
+	@Test
+	public void testFilesRoundTrip() throws Exception {
+		File master = newFolder("master");
+		File pool = new File(master, "tmp" + File.separator + "pools" + File.separator + "foo.Dep.pool");
+		pool.getParentFile().mkdirs();
+		Files.write(pool.toPath(), "pool".getBytes(StandardCharsets.UTF_8));
+		File tests = new File(master, "tmp" + File.separator + "tests");
+
+		List<String> commands = Arrays.asList("/usr/bin/java", "-Dobject_pools=" + pool.getAbsolutePath(),
+				"-Dtest_dir=" + tests.getAbsolutePath(), "-class", "foo.Bar");
+		FarmJob job = FarmJob.create("foo.Bar", 60, commands, master);
+		assertEquals(Collections.singleton("tmp/pools/foo.Dep.pool"), job.getInputs().keySet());
+
+		//on the worker
+		File local = newFolder("worker");
+		List<String> remapped = job.getCommandsFor(local, "java");
+		assertEquals("java", remapped.get(0));
+		assertEquals("-Dtest_dir=" + local.getAbsolutePath() + File.separator + "tmp" + File.separator + "tests",
+				remapped.get(2));
+		assertEquals("foo.Bar", remapped.get(4));
+
+		for (Map.Entry<String, byte[]> input : job.getInputs().entrySet()) {
+			File file = new File(local, input.getKey());
+			file.getParentFile().mkdirs();
+			Files.write(file.toPath(), input.getValue());
+		}
+		File written = new File(local, "tmp" + File.separator + "tests" + File.separator + "BarTest.java");
+		written.getParentFile().mkdirs();
+		Files.write(written.toPath(), "test".getBytes(StandardCharsets.UTF_8));
+
+		Map<String, byte[]> outputs = FarmWorker.collectOutputs(local, job.getInputs());
+		assertEquals(Collections.singleton("tmp/tests/BarTest.java"), outputs.keySet());
+
+		//back on the master
+		FarmResult result = new FarmResult(job.id, "w", 0, null, outputs);
+		assertEquals(1, result.writeTo(master));
+		File copied = new File(tests, "BarTest.java");
+		assertTrue(copied.exists());
+		assertArrayEquals("test".getBytes(StandardCharsets.UTF_8), Files.readAllBytes(copied.toPath()));
+	}
+
+	@Test
+	public void testOnlyPathsUnderRootAreRemapped() throws Exception {
+		File master = newFolder("ctg");
+		String root = master.getAbsolutePath();
+		String sibling = root + "-old" + File.separator + "tests";
+		List<String> commands = Arrays.asList("java", "-Dtest_dir=" + sibling,
+				"-Dseeds=" + root + File.pathSeparator + sibling + File.pathSeparator + root + File.separator + "a",
+				root, "-cp", "x" + root);
+		FarmJob job = FarmJob.create("foo.Bar", 60, commands, master);
+
+		File local = newFolder("worker");
+		String remote = local.getAbsolutePath();
+		List<String> remapped = job.getCommandsFor(local, "java");
+		assertEquals("-Dtest_dir=" + sibling, remapped.get(1));
+		assertEquals("-Dseeds=" + remote + File.pathSeparator + sibling + File.pathSeparator + remote
+				+ File.separator + "a", remapped.get(2));
+		assertEquals(remote, remapped.get(3));
+		assertEquals("x" + root, remapped.get(5));
+	}
+
+	@Test
+	public void testFilesOutsideRootAreSkipped() throws Exception {
+		File master = newFolder("master");
+		FarmResult result = new FarmResult(1, "w", 0, null,
+				Collections.singletonMap("../evil.txt", new byte[]{1}));
+
+		assertEquals(0, result.writeTo(master));
+		assertFalse(new File(master.getParentFile(), "evil.txt").exists());
+	}
+}
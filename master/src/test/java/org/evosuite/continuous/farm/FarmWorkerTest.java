@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.continuous.farm;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FarmWorkerTest {
+
+	private static final String TOKEN = "secret";
+
+	/**
+	 * Trivial job: copy the "input" file into the "output" one, in upper case
+	 */
+	public static class UpperCase {
+		public static void main(String[] args) throws Exception {
+			byte[] input = Files.readAllBytes(new File(System.getProperty("input")).toPath());
+			File output = new File(System.getProperty("output"));
+			output.getParentFile().mkdirs();
+			Files.write(output.toPath(), new String(input, StandardCharsets.UTF_8).toUpperCase()
+					.getBytes(StandardCharsets.UTF_8));
+		}
+	}
+
+	private File folder;
+
+	@Before
+	public void createFolder() throws Exception {
+		folder = Files.createTempDirectory("ctg_farm").toFile();
+	}
+
+	@After
+	public void deleteFolder() throws Exception {
+		FileUtils.deleteDirectory(folder);
+	}
+
+	private FarmJob createJob(File master) throws Exception {
+		File input = new File(master, "tmp" + File.separator + "input.txt");
+		input.getParentFile().mkdirs();
+		Files.write(input.toPath(), "hello".getBytes(StandardCharsets.UTF_8));
+		File output = new File(master, "tmp" + File.separator + "tests" + File.separator + "output.txt");
+
+		List<String> commands = Arrays.asList("java", "-Dinput=" + input.getAbsolutePath(),
+				"-Doutput=" + output.getAbsolutePath(), "-cp", System.getProperty("java.class.path"),
+				UpperCase.class.getName());
+		return FarmJob.create("foo.Bar", 10, commands, master);
+	}
+
+	@Test(timeout = 60000)
+	public void testJobIsRunAndWrittenBack() throws Exception {
+		File master = new File(folder, "master");
+		File work = new File(folder, "worker");
+		FarmJob job = createJob(master);
+
+		FarmCoordinator coordinator = new FarmCoordinator(TOKEN, 10000, 3);
+		Future<FarmResult> future = coordinator.submit(job);
+
+		FarmWorker worker = new FarmWorker(coordinator, TOKEN, "w", 1, work);
+		FarmResult result;
+		try {
+			worker.start();
+			result = future.get(50, TimeUnit.SECONDS);
+		} finally {
+			worker.stop();
+		}
+
+		assertEquals(result.output, 0, result.exitCode);
+		assertEquals("w", result.workerId);
+		//the unmodified input is not sent back
+		assertEquals(1, result.writeTo(master));
+		File output = new File(master, "tmp" + File.separator + "tests" + File.separator + "output.txt");
+		assertArrayEquals("HELLO".getBytes(StandardCharsets.UTF_8), Files.readAllBytes(output.toPath()));
+
+		//the scratch folder is deleted
+		String[] left = work.list();
+		assertTrue(left == null || left.length == 0);
+	}
+
+	@Test(timeout = 60000)
+	public void testFailedJobSendsItsOutput() throws Exception {
+		FarmJob job = new FarmJob(1, "foo.Bar", 10, new File(folder, "master").getAbsolutePath(),
+				Arrays.asList("java", "-cp", System.getProperty("java.class.path"), "not.a.Class"),
+				Collections.emptyMap());
+
+		FarmWorker worker = new FarmWorker(new FarmCoordinator(TOKEN, 10000, 3), TOKEN, "w", 1,
+				new File(folder, "worker"));
+		FarmResult result = worker.execute(job);
+
+		assertTrue(result.exitCode != 0);
+		assertTrue(result.output, result.output.contains("not.a.Class"));
+		assertTrue(result.getFiles().isEmpty());
+	}
+
+	@Test
+	public void testWorkerWithWrongTokenCannotJoin() throws Exception {
+		FarmCoordinator coordinator = new FarmCoordinator(TOKEN, 10000, 3);
+		FarmWorker worker = new FarmWorker(coordinator, "guess", "w", 1, new File(folder, "worker"));
+		try {
+			worker.start();
+			fail();
+		} catch (SecurityException e) {
+			//expected
+		} finally {
+			worker.stop();
+		}
+		assertEquals(0, coordinator.getNumberOfWorkers());
+	}
+}
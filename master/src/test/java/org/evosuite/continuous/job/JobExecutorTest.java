@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.continuous.job;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.apache.commons.io.FileUtils;
+import org.evosuite.Properties;
+import org.evosuite.Properties.AvailableSchedule;
+import org.evosuite.continuous.CtgConfiguration;
+import org.evosuite.continuous.persistency.StorageManager;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JobExecutorTest {
+
+	private File folder;
+
+	private String ctgDir;
+
+	@Before
+	public void createFolder() throws Exception {
+		folder = Files.createTempDirectory("job_executor").toFile();
+		ctgDir = Properties.CTG_DIR;
+		Properties.CTG_DIR = folder.getAbsolutePath();
+	}
+
+	@After
+	public void deleteFolder() throws Exception {
+		Properties.CTG_DIR = ctgDir;
+		FileUtils.deleteDirectory(folder);
+	}
+
+	private JobExecutor createExecutor(int memoryInMB, int cores) {
+		StorageManager storage = new StorageManager();
+		Assert.assertTrue(storage.createNewTmpFolders());
+		CtgConfiguration conf = new CtgConfiguration(memoryInMB, cores, 10, 1, false, AvailableSchedule.SIMPLE);
+		return new JobExecutor(storage, "", conf);
+	}
+
+	private static JobDefinition job(String cut, int memoryInMB, String... dependencies) {
+		return new JobDefinition(60, memoryInMB, cut, 0,
+				dependencies.length == 0 ? null : Collections.unmodifiableSet(new HashSet<>(Arrays.asList(dependencies))), null);
+	}
+
+	@Test
+	public void testJobsArePackedByMemory() {
+		JobExecutor executor = createExecutor(2000, 4);
+		JobDefinition a = job("a", 1200);
+		JobDefinition b = job("b", 1200);
+		JobDefinition c = job("c", 800);
+		executor.initExecution(Arrays.asList(a, b, c));
+
+		Assert.assertEquals("a", executor.selectJob().cut);
+		//"b" does not fit in what is left
+		Assert.assertEquals("c", executor.selectJob().cut);
+		Assert.assertNull(executor.selectJob());
+
+		executor.doneWithJob(a);
+		Assert.assertEquals("b", executor.selectJob().cut);
+	}
+
+	@Test
+	public void testFinishedDependenciesHavePriority() {
+		JobExecutor executor = createExecutor(3000, 3);
+		JobDefinition x = job("x", 500, "y");
+		JobDefinition y = job("y", 500);
+		JobDefinition z = job("z", 500);
+		executor.initExecution(Arrays.asList(x, y, z));
+
+		Assert.assertEquals("y", executor.selectJob().cut);
+		Assert.assertEquals("z", executor.selectJob().cut);
+		//dependencies are just an optimization, no point in leaving a handler idle
+		Assert.assertEquals("x", executor.selectJob().cut);
+	}
+
+	@Test
+	public void testTooLargeJobRunsAlone() {
+		JobExecutor executor = createExecutor(1000, 1);
+		JobDefinition big = job("big", 3000);
+		JobDefinition other = job("other", 3000);
+		executor.initExecution(Arrays.asList(big, other));
+
+		Assert.assertEquals("big", executor.selectJob().cut);
+		Assert.assertNull(executor.selectJob());
+
+		executor.doneWithJob(big);
+		Assert.assertEquals("other", executor.selectJob().cut);
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.continuous.job;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JobProgressTest {
+
+	private File folder;
+
+	@Before
+	public void createFolder() throws Exception {
+		folder = Files.createTempDirectory("job_progress").toFile();
+	}
+
+	@After
+	public void deleteFolder() throws Exception {
+		FileUtils.deleteDirectory(folder);
+	}
+
+	@Test
+	public void testWriteAndRead() throws Exception {
+		File file = new File(folder, JobProgress.FILE_NAME);
+		Assert.assertNull(JobProgress.read(file));
+
+		new JobProgress(42, 1000, 6000, 9000, true).write(file);
+
+		JobProgress progress = JobProgress.read(file);
+		Assert.assertNotNull(progress);
+		Assert.assertEquals(42, progress.coverage);
+		Assert.assertEquals(1000, progress.searchStartInMs);
+		Assert.assertEquals(6000, progress.lastImprovementInMs);
+		Assert.assertEquals(9000, progress.lastUpdateInMs);
+		Assert.assertTrue(progress.stopped);
+		Assert.assertEquals(5, progress.getSecondsToConverge());
+		Assert.assertEquals(8, progress.getSearchTimeInSeconds());
+	}
+
+	@Test
+	public void testMalformedFile() throws Exception {
+		File file = new File(folder, JobProgress.FILE_NAME);
+		FileUtils.writeStringToFile(file, "foo,bar", "UTF-8");
+		Assert.assertNull(JobProgress.read(file));
+	}
+
+	@Test
+	public void testSaturation() {
+		JobProgress full = new JobProgress(100, 0, 0, 0, false);
+		Assert.assertTrue(full.isSaturated(0, 10_000));
+
+		JobProgress climbing = new JobProgress(60, 0, 5_000, 8_000, false);
+		Assert.assertFalse(climbing.isSaturated(8_000, 10_000));
+		Assert.assertFalse(climbing.isSaturated(14_999, 10_000));
+		Assert.assertTrue(climbing.isSaturated(15_000, 10_000));
+
+		//no window, only full coverage counts
+		Assert.assertFalse(climbing.isSaturated(Long.MAX_VALUE, 0));
+	}
+
+	@Test
+	public void testStopRequest() {
+		File file = new File(folder, JobProgress.FILE_NAME);
+		Assert.assertFalse(JobProgress.isStopRequested(file));
+
+		Assert.assertTrue(JobProgress.requestStop(file));
+		Assert.assertTrue(JobProgress.isStopRequested(file));
+		//asking twice is fine
+		Assert.assertTrue(JobProgress.requestStop(file));
+
+		JobProgress.delete(file);
+		Assert.assertFalse(JobProgress.isStopRequested(file));
+	}
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.continuous.persistency;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigInteger;
+import java.nio.file.Files;
+
+import org.evosuite.xsd.CUT;
+import org.evosuite.xsd.Coverage;
+import org.evosuite.xsd.Generation;
+import org.evosuite.xsd.Project;
+import org.evosuite.xsd.TestSuite;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ProjectDatabaseTest {
+
+	private File folder;
+	private File journal;
+
+	@Before
+	public void init() throws IOException {
+		folder = Files.createTempDirectory("ctg_db").toFile();
+		journal = new File(folder, "project_info.db");
+	}
+
+	@After
+	public void tearDown() {
+		for (File file : folder.listFiles()) {
+			file.delete();
+		}
+		folder.delete();
+	}
+
+	private static Generation createGeneration(int id, double coverage) {
+		Generation generation = new Generation();
+		generation.setId(BigInteger.valueOf(id));
+		generation.setFailed(false);
+		generation.setModified(true);
+		generation.setTimeBudgetInSeconds(BigInteger.valueOf(60));
+		generation.setMemoryInMB(BigInteger.valueOf(512));
+		generation.setBytecodeHash("abc" + id);
+		generation.setDependenciesHash("def" + id);
+
+		TestSuite suite = new TestSuite();
+		suite.setFullPathOfTestSuite("/tmp/Foo_ESTest.java");
+		suite.setNumberOfTests(BigInteger.valueOf(3));
+		suite.setTotalNumberOfStatements(BigInteger.valueOf(10));
+		suite.setTotalEffortInSeconds(BigInteger.valueOf(60));
+		Coverage c = new Coverage();
+		c.setCriterion("BranchCoverage");
+		c.setCoverageValue(coverage);
+		c.setCoverageBitString("1101");
+		suite.getCoverage().add(c);
+		generation.setSuite(suite);
+		return generation;
+	}
+
+	@Test
+	public void testCommitAndReopen() throws IOException {
+		ProjectDatabase db = ProjectDatabase.open(journal);
+		Assert.assertTrue(db.getClassNames().isEmpty());
+
+		db.setTotalNumberOfTestableClasses(2);
+		db.addGeneration("org.Foo", "org.Foo_ESTest", createGeneration(0, 0.5));
+		db.addGeneration("org.Bar", "org.Bar_ESTest", createGeneration(0, 0.25));
+		db.commit();
+
+		db = ProjectDatabase.open(journal);
+		db.addGeneration("org.Foo", "org.Foo_ESTest", createGeneration(1, 0.75));
+		db.commit();
+
+		db = ProjectDatabase.open(journal);
+		Assert.assertEquals(2, db.getTotalNumberOfTestableClasses());
+		Assert.assertEquals(2, db.getClassNames().size());
+
+		CUT foo = db.getCUT("org.Foo");
+		Assert.assertEquals("org.Foo_ESTest", foo.getFullNameOfTestSuite());
+		Assert.assertEquals(2, foo.getGeneration().size());
+		Generation latest = foo.getGeneration().get(1);
+		Assert.assertEquals(1, latest.getId().intValue());
+		Assert.assertEquals("abc1", latest.getBytecodeHash());
+		Assert.assertEquals("def1", latest.getDependenciesHash());
+		Assert.assertNull(latest.getConvergence());
+		Assert.assertEquals(0.75, latest.getSuite().getCoverage().get(0).getCoverageValue(), 0.0);
+		Assert.assertEquals("1101", latest.getSuite().getCoverage().get(0).getCoverageBitString());
+
+		Assert.assertEquals(1, db.getCUT("org.Bar").getGeneration().size());
+		Assert.assertNull(db.getCUT("org.Baz"));
+	}
+
+	@Test
+	public void testRemoveCUT() throws IOException {
+		ProjectDatabase db = ProjectDatabase.open(journal);
+		db.addGeneration("org.Foo", "org.Foo_ESTest", createGeneration(0, 0.5));
+		db.addGeneration("org.Bar", "org.Bar_ESTest", createGeneration(0, 0.5));
+		db.commit();
+
+		db = ProjectDatabase.open(journal);
+		Assert.assertNotNull(db.removeCUT("org.Foo"));
+		db.commit();
+
+		db = ProjectDatabase.open(journal);
+		Assert.assertFalse(db.containsCUT("org.Foo"));
+		Assert.assertTrue(db.containsCUT("org.Bar"));
+	}
+
+	@Test
+	public void testIncompleteRecordIsDiscarded() throws IOException {
+		ProjectDatabase db = ProjectDatabase.open(journal);
+		db.addGeneration("org.Foo", "org.Foo_ESTest", createGeneration(0, 0.5));
+		db.commit();
+		long length = journal.length();
+
+		// as if CTG was killed while committing
+		try (FileOutputStream out = new FileOutputStream(journal, true)) {
+			out.write(new byte[] { 'G', 0, 0, 0, 7, 'o', 'r' });
+		}
+
+		db = ProjectDatabase.open(journal);
+		Assert.assertEquals(length, journal.length());
+		db.addGeneration("org.Foo", "org.Foo_ESTest", createGeneration(1, 0.5));
+		db.commit();
+
+		db = ProjectDatabase.open(journal);
+		Assert.assertEquals(2, db.getCUT("org.Foo").getGeneration().size());
+	}
+
+	@Test
+	public void testRecordCutInsidePayloadIsDiscarded() throws IOException {
+		ProjectDatabase db = ProjectDatabase.open(journal);
+		db.addGeneration("org.Foo", "org.Foo_ESTest", createGeneration(0, 0.5));
+		db.commit();
+		long length = journal.length();
+		db.addGeneration("org.Foo", "org.Foo_ESTest", createGeneration(1, 0.5));
+		db.commit();
+
+		// as if CTG was killed while writing the payload of the second generation
+		try (RandomAccessFile raf = new RandomAccessFile(journal, "rw")) {
+			raf.setLength(journal.length() - 5);
+		}
+
+		db = ProjectDatabase.open(journal);
+		Assert.assertEquals(length, journal.length());
+		Assert.assertEquals(1, db.getCUT("org.Foo").getGeneration().size());
+		db.addGeneration("org.Foo", "org.Foo_ESTest", createGeneration(2, 0.5));
+		db.commit();
+
+		db = ProjectDatabase.open(journal);
+		CUT cut = db.getCUT("org.Foo");
+		Assert.assertEquals(2, cut.getGeneration().size());
+		Assert.assertEquals("abc0", cut.getGeneration().get(0).getBytecodeHash());
+		Assert.assertEquals("abc2", cut.getGeneration().get(1).getBytecodeHash());
+	}
+
+	@Test
+	public void testImportAndExport() throws IOException {
+		CUT cut = new CUT();
+		cut.setFullNameOfTargetClass("org.Foo");
+		cut.setFullNameOfTestSuite("org.Foo_ESTest");
+		cut.getGeneration().add(createGeneration(0, 0.5));
+		Project project = new Project();
+		project.setTotalNumberOfTestableClasses(BigInteger.valueOf(5));
+		project.getCut().add(cut);
+
+		ProjectDatabase.importProject(project, journal);
+
+		Project exported = ProjectDatabase.open(journal).toProject();
+		Assert.assertEquals(5, exported.getTotalNumberOfTestableClasses().intValue());
+		Assert.assertEquals(1, exported.getCut().size());
+		Assert.assertEquals("org.Foo", exported.getCut().get(0).getFullNameOfTargetClass());
+		Assert.assertEquals("abc0", exported.getCut().get(0).getGeneration().get(0).getBytecodeHash());
+	}
+
+	@Test
+	public void testCompact() throws IOException {
+		ProjectDatabase db = ProjectDatabase.open(journal);
+		for (int i = 0; i < 200; i++) {
+			db.addGeneration("org.Foo" + i, "org.Foo" + i + "_ESTest", createGeneration(0, 0.5));
+		}
+		db.commit();
+		long length = journal.length();
+
+		for (int i = 1; i < 200; i++) {
+			db.removeCUT("org.Foo" + i);
+		}
+		db.commit();
+
+		Assert.assertTrue(journal.length() < length / 10);
+		db = ProjectDatabase.open(journal);
+		Assert.assertEquals(1, db.getClassNames().size());
+		Assert.assertEquals(1, db.getCUT("org.Foo0").getGeneration().size());
+	}
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.continuous.project;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.evosuite.continuous.project.ProjectStaticData.ClassInfo;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ProjectAnalyzerTest {
+
+	private static ClassInfo info(Class<?> clazz, boolean changed, boolean toTest) {
+		ClassInfo info = new ClassInfo(clazz, 1, true);
+		info.setChanged(changed);
+		info.isToTest(toTest);
+		return info;
+	}
+
+	@Test
+	public void testRetargetKeepsHistoryDecisions() {
+		// as decided by the HISTORY schedule
+		ClassInfo modified = info(String.class, false, false);
+		ClassInfo dependent = info(Integer.class, false, false);
+		ClassInfo worth = info(Long.class, false, true);
+		ClassInfo sourceChanged = info(Double.class, true, false);
+		ClassInfo upToDate = info(Float.class, true, true);
+
+		Set<String> changed = Collections.singleton(String.class.getName());
+		Set<String> affected = new HashSet<>(Arrays.asList(String.class.getName(), Integer.class.getName(),
+				Long.class.getName(), Double.class.getName()));
+		ProjectAnalyzer.retarget(Arrays.asList(modified, dependent, worth, sourceChanged, upToDate), changed,
+				affected);
+
+		// bytecode changed, so it is tested even if HISTORY did not consider it worth
+		Assert.assertTrue(modified.hasChanged());
+		Assert.assertFalse(modified.isToTest());
+
+		// affected by a change, but HISTORY did not consider it worth testing
+		Assert.assertFalse(dependent.hasChanged());
+		Assert.assertFalse(dependent.isToTest());
+
+		Assert.assertFalse(worth.hasChanged());
+		Assert.assertTrue(worth.isToTest());
+
+		Assert.assertTrue(sourceChanged.hasChanged());
+		Assert.assertFalse(sourceChanged.isToTest());
+
+		// nothing changed since its last test suite
+		Assert.assertFalse(upToDate.hasChanged());
+		Assert.assertFalse(upToDate.isToTest());
+	}
+
+	@Test
+	public void testRetargetWithoutHistory() {
+		// default flags, eg with the SIMPLE schedule
+		ClassInfo modified = new ClassInfo(String.class, 1, true);
+		ClassInfo dependent = new ClassInfo(Integer.class, 1, true);
+		ClassInfo upToDate = new ClassInfo(Long.class, 1, true);
+
+		ProjectAnalyzer.retarget(Arrays.asList(modified, dependent, upToDate),
+				Collections.singleton(String.class.getName()),
+				new HashSet<>(Arrays.asList(String.class.getName(), Integer.class.getName())));
+
+		Assert.assertTrue(modified.isToTest());
+		Assert.assertTrue(dependent.isToTest());
+		Assert.assertFalse(upToDate.isToTest());
+	}
+
+	@Test
+	public void testDependenciesHash() {
+		ProjectStaticData data = new ProjectStaticData();
+		ClassInfo string = new ClassInfo(String.class, 1, true);
+		string.setBytecodeHash("abc");
+		ClassInfo integer = new ClassInfo(Integer.class, 1, true);
+		integer.setBytecodeHash("def");
+		data.addNewClass(string);
+		data.addNewClass(integer);
+
+		Set<String> dependencies = new HashSet<>(Arrays.asList(String.class.getName(),
+				Integer.class.getName(), "not.in.the.Project"));
+		String hash = ProjectAnalyzer.getDependenciesHash(data, dependencies);
+		Assert.assertNotNull(hash);
+		// classes outside of the project are ignored
+		Assert.assertEquals(hash, ProjectAnalyzer.getDependenciesHash(data,
+				new HashSet<>(Arrays.asList(Integer.class.getName(), String.class.getName()))));
+
+		integer.setBytecodeHash("ghi");
+		Assert.assertNotEquals(hash, ProjectAnalyzer.getDependenciesHash(data, dependencies));
+
+		integer.setBytecodeHash(null);
+		Assert.assertNull(ProjectAnalyzer.getDependenciesHash(data, dependencies));
+	}
+}
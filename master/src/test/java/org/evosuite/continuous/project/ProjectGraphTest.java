@@ -20,6 +20,8 @@
 package org.evosuite.continuous.project;
 
 import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Set;
 
 import org.evosuite.classpath.ClassPathHandler;
@@ -28,6 +30,13 @@ import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import com.examples.with.different.packagename.continuous.ExtendingNoBranches;
+import com.examples.with.different.packagename.continuous.MoreBranches;
+import com.examples.with.different.packagename.continuous.NoBranches;
+import com.examples.with.different.packagename.continuous.Simple;
+import com.examples.with.different.packagename.continuous.Trivial;
+import com.examples.with.different.packagename.continuous.UsingSimpleAndTrivial;
+
 public class ProjectGraphTest {
 
 	@BeforeClass
@@ -88,6 +97,59 @@ public class ProjectGraphTest {
 		Assert.assertTrue(graph.isAbstract(G.class.getName()));
 	}
 
+	@Test
+	public void testGetCUTsAffectedBy() {
+		ProjectStaticData data = new ProjectStaticData();
+		data.addNewClass(new ClassInfo(Simple.class, 2, true));
+		data.addNewClass(new ClassInfo(Trivial.class, 1, true));
+		data.addNewClass(new ClassInfo(UsingSimpleAndTrivial.class, 5, true));
+		data.addNewClass(new ClassInfo(NoBranches.class, 0, true));
+		data.addNewClass(new ClassInfo(ExtendingNoBranches.class, 0, true));
+		data.addNewClass(new ClassInfo(MoreBranches.class, 10, true));
+
+		ProjectGraph graph = data.getProjectGraph();
+
+		Set<String> forSimple = graph.getCUTsAffectedBy(Collections.singleton(Simple.class.getName()));
+		Assert.assertEquals(2, forSimple.size());
+		Assert.assertTrue(forSimple.contains(Simple.class.getName()));
+		Assert.assertTrue(forSimple.contains(UsingSimpleAndTrivial.class.getName()));
+
+		Set<String> forNoBranches = graph.getCUTsAffectedBy(Collections.singleton(NoBranches.class.getName()));
+		Assert.assertEquals(2, forNoBranches.size());
+		Assert.assertTrue(forNoBranches.contains(NoBranches.class.getName()));
+		Assert.assertTrue(forNoBranches.contains(ExtendingNoBranches.class.getName()));
+
+		Set<String> forBoth = graph.getCUTsAffectedBy(Arrays.asList(Trivial.class.getName(),
+				MoreBranches.class.getName()));
+		Assert.assertEquals(3, forBoth.size());
+		Assert.assertFalse(forBoth.contains(Simple.class.getName()));
+
+		Assert.assertTrue(graph.getCUTsAffectedBy(Collections.emptySet()).isEmpty());
+	}
+
+	@Test
+	public void testGetDependenciesOf() {
+		ProjectStaticData data = new ProjectStaticData();
+		data.addNewClass(new ClassInfo(Simple.class, 2, true));
+		data.addNewClass(new ClassInfo(Trivial.class, 1, true));
+		data.addNewClass(new ClassInfo(UsingSimpleAndTrivial.class, 5, true));
+		data.addNewClass(new ClassInfo(NoBranches.class, 0, true));
+		data.addNewClass(new ClassInfo(ExtendingNoBranches.class, 0, true));
+
+		ProjectGraph graph = data.getProjectGraph();
+
+		Set<String> forUsing = graph.getDependenciesOf(UsingSimpleAndTrivial.class.getName());
+		Assert.assertTrue(forUsing.contains(Simple.class.getName()));
+		Assert.assertTrue(forUsing.contains(Trivial.class.getName()));
+		Assert.assertFalse(forUsing.contains(UsingSimpleAndTrivial.class.getName()));
+
+		Set<String> forExtending = graph.getDependenciesOf(ExtendingNoBranches.class.getName());
+		Assert.assertTrue(forExtending.contains(NoBranches.class.getName()));
+
+		Assert.assertFalse(graph.getDependenciesOf(Simple.class.getName())
+				.contains(UsingSimpleAndTrivial.class.getName()));
+	}
+
 	class A {
 		void foo() {
 		}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.rmi.service;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.evosuite.Properties.MigrationTopology;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MasterNodeImplTest {
+
+	@Test
+	public void testRingSkipsClientsNotSearching() {
+		Assert.assertEquals(Collections.singletonList(2),
+				MasterNodeImpl.getMigrationTargets(1, 4, MigrationTopology.RING, id -> true));
+		Assert.assertEquals(Collections.singletonList(0),
+				MasterNodeImpl.getMigrationTargets(3, 4, MigrationTopology.RING, id -> true));
+		Assert.assertEquals(Collections.singletonList(3),
+				MasterNodeImpl.getMigrationTargets(1, 4, MigrationTopology.RING, id -> id != 2));
+		Assert.assertTrue(MasterNodeImpl.getMigrationTargets(1, 4, MigrationTopology.RING, id -> id == 1).isEmpty());
+	}
+
+	@Test
+	public void testStarGoesThroughClientZero() {
+		Assert.assertEquals(Collections.singletonList(0),
+				MasterNodeImpl.getMigrationTargets(2, 4, MigrationTopology.STAR, id -> true));
+		Assert.assertEquals(Arrays.asList(1, 3),
+				MasterNodeImpl.getMigrationTargets(0, 4, MigrationTopology.STAR, id -> id != 2));
+		Assert.assertTrue(MasterNodeImpl.getMigrationTargets(2, 4, MigrationTopology.STAR, id -> id != 0).isEmpty());
+	}
+
+	@Test
+	public void testRandomPicksAnotherSearchingClient() {
+		for (int i = 0; i < 20; i++) {
+			List<Integer> targets = MasterNodeImpl.getMigrationTargets(1, 5, MigrationTopology.RANDOM, id -> id != 3);
+			Assert.assertEquals(1, targets.size());
+			int target = targets.get(0);
+			Assert.assertTrue(target != 1 && target != 3 && target >= 0 && target < 5);
+		}
+	}
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.statistics.backend;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ColumnarStatisticsFileTest {
+
+	private File folder;
+
+	private File file;
+
+	@Before
+	public void createFolder() throws Exception {
+		folder = Files.createTempDirectory("columnar_statistics").toFile();
+		file = new File(folder, ColumnarStatisticsBackend.FILE_NAME);
+	}
+
+	@After
+	public void deleteFolder() throws Exception {
+		FileUtils.deleteDirectory(folder);
+	}
+
+	private static ColumnarStatisticsFile row(Object... keysAndValues) {
+		Map<String, Object> row = new LinkedHashMap<>();
+		for (int i = 0; i < keysAndValues.length; i += 2) {
+			row.put((String) keysAndValues[i], keysAndValues[i + 1]);
+		}
+		ColumnarStatisticsFile table = new ColumnarStatisticsFile();
+		table.addRow(row);
+		return table;
+	}
+
+	@Test
+	public void testAppendAndRead() throws Exception {
+		ColumnarStatisticsFile.append(file, row("TARGET_CLASS", "foo.Bar", "Size", 3, "Coverage", 0.5, "Passed", true));
+		ColumnarStatisticsFile.append(file, row("TARGET_CLASS", "foo.Baz", "Size", 42L, "Coverage", 1.0, "Passed", false));
+
+		ColumnarStatisticsFile table = ColumnarStatisticsFile.read(file);
+		Assert.assertEquals(2, table.getNumberOfRows());
+		Assert.assertEquals(Arrays.asList("TARGET_CLASS", "Size", "Coverage", "Passed"), table.getColumns());
+		Assert.assertEquals(Arrays.asList("foo.Bar", "foo.Baz"), table.getColumn("TARGET_CLASS"));
+		Assert.assertEquals(Arrays.asList(3L, 42L), table.getColumn("Size"));
+		Assert.assertEquals(Arrays.asList(0.5, 1.0), table.getColumn("Coverage"));
+		Assert.assertEquals(Arrays.asList("true", "false"), table.getColumn("Passed"));
+	}
+
+	@Test
+	public void testDifferentSchemasAndCsvView() throws Exception {
+		ColumnarStatisticsFile.append(file, row("TARGET_CLASS", "A", "Size", 1));
+		ColumnarStatisticsFile.append(file, row("TARGET_CLASS", "B", "Length", 7));
+
+		ColumnarStatisticsFile table = ColumnarStatisticsFile.read(file);
+		StringWriter csv = new StringWriter();
+		table.writeCsv(csv);
+		Assert.assertEquals("TARGET_CLASS,Size,Length\nA,1,\nB,,7\n", csv.toString());
+	}
+
+	@Test
+	public void testCompactKeepsData() throws Exception {
+		for (int i = 0; i < 100; i++) {
+			ColumnarStatisticsFile.append(file, row("TARGET_CLASS", "C" + (i % 10), "Size", i, "Coverage", i / 100.0));
+		}
+		long before = file.length();
+		StringWriter expected = new StringWriter();
+		ColumnarStatisticsFile.read(file).writeCsv(expected);
+
+		ColumnarStatisticsFile.compact(file);
+
+		Assert.assertTrue(file.length() < before);
+		StringWriter actual = new StringWriter();
+		ColumnarStatisticsFile.read(file).writeCsv(actual);
+		Assert.assertEquals(expected.toString(), actual.toString());
+	}
+
+	@Test
+	public void testTruncatedBlockIsSkipped() throws Exception {
+		ColumnarStatisticsFile.append(file, row("TARGET_CLASS", "A"));
+		long valid = file.length();
+		ColumnarStatisticsFile.append(file, row("TARGET_CLASS", "B"));
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.setLength(file.length() - 3);
+		}
+		Assert.assertEquals(1, ColumnarStatisticsFile.read(file).getNumberOfRows());
+
+		//blocks appended after a crash are still readable
+		ColumnarStatisticsFile.append(file, row("TARGET_CLASS", "C"));
+		Assert.assertTrue(file.length() > valid);
+		Assert.assertEquals(Arrays.asList("A", "C"), ColumnarStatisticsFile.read(file).getColumn("TARGET_CLASS"));
+	}
+
+	@Test
+	public void testConcurrentAppends() throws Exception {
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < 4; t++) {
+			final int id = t;
+			threads.add(new Thread(() -> {
+				for (int i = 0; i < 25; i++) {
+					try {
+						ColumnarStatisticsFile.append(file, row("Thread", id, "Run", i));
+					} catch (Exception e) {
+						throw new RuntimeException(e);
+					}
+				}
+			}));
+		}
+		for (Thread thread : threads) {
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		Assert.assertEquals(100, ColumnarStatisticsFile.read(file).getNumberOfRows());
+	}
+}
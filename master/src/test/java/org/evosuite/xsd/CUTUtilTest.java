@@ -154,4 +154,68 @@ public class CUTUtilTest {
     cut.getGeneration().add(generation);
     Assert.assertNotNull(CUTUtil.getLatestSuccessfulGeneration(cut));
   }
+
+  @Test
+  public void testIsUpToDate() {
+    CUT cut = new CUT();
+    Assert.assertFalse(CUTUtil.isUpToDate(cut, "abc"));
+
+    Generation tested = new Generation();
+    tested.setFailed(false);
+    tested.setTimeBudgetInSeconds(XSDUtils.convert(60));
+    tested.setBytecodeHash("abc");
+    cut.getGeneration().add(tested);
+
+    Generation skipped = new Generation();
+    skipped.setFailed(false);
+    skipped.setTimeBudgetInSeconds(XSDUtils.convert(0));
+    skipped.setBytecodeHash("abc");
+    cut.getGeneration().add(skipped);
+
+    Assert.assertTrue(CUTUtil.isUpToDate(cut, "abc"));
+    Assert.assertFalse(CUTUtil.isUpToDate(cut, "def"));
+    Assert.assertFalse(CUTUtil.isUpToDate(cut, null));
+
+    // tests were never generated for this version of the class
+    Generation modified = new Generation();
+    modified.setFailed(false);
+    modified.setTimeBudgetInSeconds(XSDUtils.convert(0));
+    modified.setBytecodeHash("def");
+    cut.getGeneration().add(modified);
+    Assert.assertFalse(CUTUtil.isUpToDate(cut, "def"));
+
+    Generation failed = new Generation();
+    failed.setFailed(true);
+    failed.setTimeBudgetInSeconds(XSDUtils.convert(60));
+    failed.setBytecodeHash("def");
+    cut.getGeneration().add(failed);
+    Assert.assertFalse(CUTUtil.isUpToDate(cut, "def"));
+  }
+
+  @Test
+  public void testIsUpToDateWithDependencies() {
+    CUT cut = new CUT();
+    Assert.assertFalse(CUTUtil.isUpToDate(cut, "abc", "xyz"));
+
+    Generation tested = new Generation();
+    tested.setFailed(false);
+    tested.setTimeBudgetInSeconds(XSDUtils.convert(60));
+    tested.setBytecodeHash("abc");
+    tested.setDependenciesHash("xyz");
+    cut.getGeneration().add(tested);
+
+    Assert.assertTrue(CUTUtil.isUpToDate(cut, "abc", "xyz"));
+    // a class the CUT depends on has changed
+    Assert.assertFalse(CUTUtil.isUpToDate(cut, "abc", "uvw"));
+    Assert.assertFalse(CUTUtil.isUpToDate(cut, "abc", null));
+    Assert.assertTrue(CUTUtil.isUpToDate(cut, "abc"));
+
+    // generations stored before dependencies were hashed
+    Generation old = new Generation();
+    old.setFailed(false);
+    old.setTimeBudgetInSeconds(XSDUtils.convert(60));
+    old.setBytecodeHash("abc");
+    cut.getGeneration().add(old);
+    Assert.assertFalse(CUTUtil.isUpToDate(cut, "abc", "xyz"));
+  }
 }
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.runtime;
+
+import org.evosuite.runtime.vfs.VirtualFileSystem;
+import org.evosuite.runtime.vnet.VirtualNetwork;
+
+/**
+ * The mocked environment seen by a test: clock, random numbers, identity hash
+ * codes, file system and network.
+ *
+ * <p>
+ * This only gathers the state of these mocks in one place, and there is a
+ * single context for the whole JVM: tests cannot run concurrently in the same
+ * JVM yet. Making the context per test would also require moving in the state
+ * that {@link Runtime#resetRuntime()} still resets globally, ie the loop
+ * counter, the thread mocks, system properties, the default locale and time
+ * zone, and the preferences.
+ */
+public final class ExecutionContext {
+
+	/** 2014-02-14, 20:21 */
+	static final long INITIAL_TIME = 1392409281320L;
+
+	private static final ExecutionContext instance = new ExecutionContext(
+			VirtualFileSystem.createInstance(), VirtualNetwork.createInstance());
+
+	// ------- state of org.evosuite.runtime.System --------
+
+	/** Current time returns numbers increased by 1 */
+	long currentTime;
+
+	boolean wasTimeAccessed;
+
+	final IdentityHashCodeRegistry hashKeys;
+
+	// ------- state of org.evosuite.runtime.Random --------
+
+	/**
+	 * We have a unique number that is increased every time a new random number
+	 * is accessed
+	 */
+	int randomNumber;
+
+	boolean wasRandomAccessed;
+
+	// ------- virtual environment --------
+
+	private final VirtualFileSystem fileSystem;
+
+	private final VirtualNetwork network;
+
+	private ExecutionContext(VirtualFileSystem fileSystem, VirtualNetwork network) {
+		this.fileSystem = fileSystem;
+		this.network = network;
+		this.hashKeys = new IdentityHashCodeRegistry();
+		resetSystem();
+		resetRandom();
+	}
+
+	/**
+	 * @return the context of the running tests
+	 */
+	public static ExecutionContext current() {
+		return instance;
+	}
+
+	public VirtualFileSystem getFileSystem() {
+		return fileSystem;
+	}
+
+	public VirtualNetwork getNetwork() {
+		return network;
+	}
+
+	void resetSystem() {
+		currentTime = INITIAL_TIME;
+		wasTimeAccessed = false;
+		hashKeys.clear();
+	}
+
+	void resetRandom() {
+		randomNumber = 0;
+		wasRandomAccessed = false;
+	}
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.runtime;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+
+/**
+ * Assigns deterministic identity hash codes: the n-th distinct object that is
+ * registered gets n, so the same test always produces the same hash codes.
+ *
+ * <p>
+ * Objects are held through weak references in an open addressing table with
+ * linear probing, so registering an object does not keep it alive. Entries of
+ * collected objects are reused by later insertions and dropped when the table
+ * is rehashed. {@link #clear()} resets everything at once between tests.
+ *
+ * <p>
+ * This class is thread-safe.
+ */
+final class IdentityHashCodeRegistry {
+
+	private static final int INITIAL_CAPACITY = 1024;
+
+	/**
+	 * Above this capacity, the table is given back to the GC on {@link #clear()}
+	 */
+	private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+	private static final class Entry extends WeakReference<Object> {
+
+		/** Identity hash code given by the JVM */
+		private final int hash;
+
+		/** Deterministic hash code */
+		private final int id;
+
+		private Entry(Object referent, int hash, int id) {
+			super(referent);
+			this.hash = hash;
+			this.id = id;
+		}
+	}
+
+	private Entry[] table;
+
+	/** Number of non-null slots, including those of collected objects */
+	private int used;
+
+	/** Last assigned id */
+	private int lastId;
+
+	IdentityHashCodeRegistry() {
+		table = new Entry[INITIAL_CAPACITY];
+		used = 0;
+		lastId = 0;
+	}
+
+	/**
+	 * @return the deterministic hash code of {@code o}, registering it if needed
+	 */
+	synchronized int getId(Object o) {
+		int hash = java.lang.System.identityHashCode(o);
+		int mask = table.length - 1;
+		int free = -1;
+		for (int i = index(hash, mask); ; i = (i + 1) & mask) {
+			Entry entry = table[i];
+			if (entry == null) {
+				break;
+			}
+			if (entry.hash == hash) {
+				Object referent = entry.get();
+				if (referent == o) {
+					return entry.id;
+				}
+			}
+			if (free < 0 && entry.get() == null) {
+				free = i;
+			}
+		}
+
+		int id = ++lastId;
+		if (free >= 0) {
+			table[free] = new Entry(o, hash, id);
+		} else {
+			insert(new Entry(o, hash, id));
+			used++;
+			if (used * 2 > table.length) {
+				rehash();
+			}
+		}
+		return id;
+	}
+
+	/**
+	 * Forget all objects, and start assigning ids from 1 again
+	 */
+	synchronized void clear() {
+		if (table.length > MAX_RETAINED_CAPACITY) {
+			table = new Entry[INITIAL_CAPACITY];
+		} else {
+			Arrays.fill(table, null);
+		}
+		used = 0;
+		lastId = 0;
+	}
+
+	/**
+	 * @return number of objects registered and not yet collected
+	 */
+	synchronized int size() {
+		int size = 0;
+		for (Entry entry : table) {
+			if (entry != null && entry.get() != null) {
+				size++;
+			}
+		}
+		return size;
+	}
+
+	private static int index(int hash, int mask) {
+		// identity hash codes can be clustered, spread them over the table
+		int h = hash * 0x9E3779B9;
+		return (h ^ (h >>> 16)) & mask;
+	}
+
+	private void insert(Entry entry) {
+		int mask = table.length - 1;
+		int i = index(entry.hash, mask);
+		while (table[i] != null) {
+			i = (i + 1) & mask;
+		}
+		table[i] = entry;
+	}
+
+	/**
+	 * Drop the entries of collected objects, and grow the table if it is
+	 * still more than a quarter full
+	 */
+	private void rehash() {
+		Entry[] old = table;
+		int live = 0;
+		for (Entry entry : old) {
+			if (entry != null && entry.get() != null) {
+				live++;
+			}
+		}
+		int capacity = old.length;
+		if (live * 4 > capacity) {
+			capacity *= 2;
+		}
+		table = new Entry[capacity];
+		used = 0;
+		for (Entry entry : old) {
+			if (entry != null && entry.get() != null) {
+				insert(entry);
+				used++;
+			}
+		}
+	}
+}
@@ -19,8 +19,7 @@
  */
 package org.evosuite.runtime;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 /**
  * In some cases, we can end up with infinite loops: eg due to a bug, a seeded mutation,
@@ -31,22 +30,38 @@ import java.util.List;
  * Therefore, for each loop in the instrumented CUTs, we can have a limit, and throw an exception
  * if too many iterations have occurred
  *
+ * <p>
+ * The instrumented code increments {@link #iterations} inline, and only calls
+ * {@link #loopLimitReached(int)} once a loop has reached
+ * {@link RuntimeSettings#maxNumberOfIterationsPerLoop}, which is never the case when the
+ * limit is negative (ie, the check is off). Iterations are counted also
+ * while the counter is not active, but a loop that reaches the limit when
+ * inactive, or inside a static initializer, just starts counting from zero again.
+ *
  * Created by Andrea Arcuri on 29/03/15.
  */
 public class LoopCounter {
 
     private static final LoopCounter singleton = new LoopCounter();
 
-    private boolean activated = true;
-    
+    private static final int INITIAL_CAPACITY = 1024;
+
     /**
-     * Number of iterations so far
+     * Number of iterations so far, indexed by loop. This is accessed directly by the
+     * instrumented code, and can be longer than the number of loops
      */
-    private List<Long> counters;
+    public static long[] iterations = new long[INITIAL_CAPACITY];
+
+    private volatile boolean activated = true;
+
+    /**
+     * Number of indices given to loops so far
+     */
+    private int numberOfLoops;
 
 
     private LoopCounter(){
-        counters = new ArrayList<>();
+        numberOfLoops = 0;
     }
 
     public static LoopCounter getInstance(){
@@ -54,7 +69,7 @@ public class LoopCounter {
     }
 
     public void reset(){
-        counters.clear();
+        Arrays.fill(iterations, 0L);
     }
     
     public void setActive(boolean active) {
@@ -71,15 +86,22 @@ public class LoopCounter {
      *
      * @return the next valid index for a new loop
      */
-    public int getNewIndex(){
-        int index = counters.size();
-        counters.add(0L);
+    public synchronized int getNewIndex(){
+        int index = numberOfLoops++;
+        ensureCapacity(index + 1);
         return index;
     }
 
+    private synchronized void ensureCapacity(int capacity){
+        if(capacity > iterations.length){
+            iterations = Arrays.copyOf(iterations, Math.max(capacity, iterations.length * 2));
+        }
+    }
+
 
     /**
-     * This is added directly in the instrumented CUT after each loop statement
+     * Count one iteration of the given loop. The instrumented CUTs do the same inline,
+     * without calling this method
      *
      * @param index
      * @throws TooManyResourcesException if this loop has executed too many iterations
@@ -89,38 +111,37 @@ public class LoopCounter {
         if(index < 0){
             throw new IllegalArgumentException("Loop index cannot be negative");
         }
-        
-        if(!activated)
-        	return;
 
-        if(RuntimeSettings.maxNumberOfIterationsPerLoop < 0){
-            return; //do nothing, no check
-        }
-        
-        //first check initialization
-        int size = counters.size();
-        if(index >= size){
-            for(int i=0; i < 1 + (index - size); i++){
-                counters.add(0L);
-            }
+        ensureCapacity(index + 1);
+
+        long value = ++iterations[index];
+        //unsigned, so a negative limit is never reached, as in the instrumented code
+        if(Long.compareUnsigned(value, RuntimeSettings.maxNumberOfIterationsPerLoop) >= 0){
+            loopLimitReached(index);
         }
-        assert index < counters.size();
-
-        //do increment
-        try {
-            long value = counters.get(index) + 1L;
-            counters.set(index, value);
-
-            if(value >= RuntimeSettings.maxNumberOfIterationsPerLoop && !isInStaticInit()) {
-                this.reset();
-                throw new TooManyResourcesException("Loop has been executed more times than the allowed " +
-                        RuntimeSettings.maxNumberOfIterationsPerLoop);
-            }
-        } catch(NullPointerException e) {
-            // Some weird Java internal NPE can happen:
-            // https://github.com/EvoSuite/evosuite/issues/143
-            // Seems safe to swallow this instead of crashing EvoSuite
+    }
+
+    /**
+     * This is added directly in the instrumented CUT, and called only when the counter
+     * of a loop has reached {@link RuntimeSettings#maxNumberOfIterationsPerLoop}
+     *
+     * @param index
+     * @throws TooManyResourcesException if the loop check is on
+     */
+    public static void loopLimitReached(int index) throws TooManyResourcesException {
+        singleton.handleLimitReached(index);
+    }
+
+    private void handleLimitReached(int index) throws TooManyResourcesException {
+        if(!activated || RuntimeSettings.maxNumberOfIterationsPerLoop < 0 || isInStaticInit()){
+            //start counting again, so the next iterations do not come here
+            iterations[index] = 0L;
+            return;
         }
+
+        this.reset();
+        throw new TooManyResourcesException("Loop has been executed more times than the allowed " +
+                RuntimeSettings.maxNumberOfIterationsPerLoop);
     }
 
 
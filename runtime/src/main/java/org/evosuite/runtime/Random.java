@@ -31,22 +31,15 @@ import java.util.UUID;
  */
 public class Random {
 
-	private static boolean wasAccessed = false;
-
-	/**
-	 * We have a unique number that is increased every time a new random number
-	 * is accessed
-	 */
-	private static int currentNumber = 0;
-
 	/**
 	 * Replacement function for nextInt
 	 * 
 	 * @return a int.
 	 */
 	public static int nextInt() {
-		wasAccessed = true;
-		return currentNumber++;
+		ExecutionContext context = ExecutionContext.current();
+		context.wasRandomAccessed = true;
+		return context.randomNumber++;
 	}
 
 	/**
@@ -57,8 +50,9 @@ public class Random {
 	 * @return a int.
 	 */
 	public static int nextInt(int max) {
-		wasAccessed = true;
-		return currentNumber % max;
+		ExecutionContext context = ExecutionContext.current();
+		context.wasRandomAccessed = true;
+		return context.randomNumber % max;
 	}
 
 	/**
@@ -67,8 +61,9 @@ public class Random {
 	 * @return a float.
 	 */
 	public static float nextFloat() {
-		wasAccessed = true;
-		return (currentNumber++ % 10F) / 10F;
+		ExecutionContext context = ExecutionContext.current();
+		context.wasRandomAccessed = true;
+		return (context.randomNumber++ % 10F) / 10F;
 	}
 	
 
@@ -77,7 +72,7 @@ public class Random {
 	 * @param bytes
 	 */
 	 public static void nextBytes(byte[] bytes) {
-			wasAccessed = true;
+			ExecutionContext.current().wasRandomAccessed = true;
 
 		   for (int i = 0; i < bytes.length; )
 		     for (int rnd = nextInt(), n = Math.min(bytes.length - i, 4);
@@ -92,8 +87,9 @@ public class Random {
 	 * @return a double.
 	 */
 	public static double nextDouble() {
-		wasAccessed = true;
-		return (currentNumber++ % 10.0) / 10.0;
+		ExecutionContext context = ExecutionContext.current();
+		context.wasRandomAccessed = true;
+		return (context.randomNumber++ % 10.0) / 10.0;
 	}
 
 	/**
@@ -102,7 +98,7 @@ public class Random {
 	 * @return a double.
 	 */
 	public static double nextGaussian() {
-		wasAccessed = true;
+		ExecutionContext.current().wasRandomAccessed = true;
 		return nextDouble();
 	}
 	
@@ -112,7 +108,7 @@ public class Random {
 	 * @return a boolean.
 	 */
 	public static boolean nextBoolean() {
-		wasAccessed = true;
+		ExecutionContext.current().wasRandomAccessed = true;
 		return nextInt(1)!=0;
 	}
 
@@ -123,8 +119,9 @@ public class Random {
 	 * @return a long.
 	 */
 	public static long nextLong() {
-		wasAccessed = true;
-		return currentNumber++;
+		ExecutionContext context = ExecutionContext.current();
+		context.wasRandomAccessed = true;
+		return context.randomNumber++;
 	}
 
 	/**
@@ -134,15 +131,14 @@ public class Random {
 	 *            a int.
 	 */
 	public static void setNextRandom(int number) {
-		currentNumber = Math.abs(number);
+		ExecutionContext.current().randomNumber = Math.abs(number);
 	}
 
 	/**
 	 * Reset runtime to initial state
 	 */
 	public static void reset() {
-		currentNumber = 0;
-		wasAccessed = false;
+		ExecutionContext.current().resetRandom();
 	}
 
 	/**
@@ -152,7 +148,7 @@ public class Random {
 	 * @return a boolean.
 	 */
 	public static boolean wasAccessed() {
-		return wasAccessed;
+		return ExecutionContext.current().wasRandomAccessed;
 	}
 
 	/**
@@ -160,7 +156,7 @@ public class Random {
 	 * @return
 	 */
     public static UUID randomUUID() {
-		wasAccessed = true;
+		ExecutionContext.current().wasRandomAccessed = true;
 
         byte[] randomBytes = new byte[16];
         nextBytes(randomBytes);
@@ -191,6 +187,6 @@ public class Random {
     }
 
     public static int getCurrentNumber() {
-    	return currentNumber;
+    	return ExecutionContext.current().randomNumber;
     }
 }
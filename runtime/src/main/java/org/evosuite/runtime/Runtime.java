@@ -59,7 +59,9 @@ public class Runtime {
 
 	/**
 	 * Resets all simulated classes to an initial default state (so that it
-	 * seems they have never been used by previous test case executions)
+	 * seems they have never been used by previous test case executions).
+	 * The clock, random numbers, file system and network are the ones
+	 * of the {@link ExecutionContext}.
 	 * 
 	 */
 	public void resetRuntime() {
@@ -75,6 +75,15 @@ public class RuntimeSettings {
      */
     public static boolean resetStaticState = false;
 
+    /**
+     * Should the static state be restored from a snapshot taken after the first
+     * reset of a class, rather than running its class initializer again?
+     * Only the static fields of the class are restored: other effects of the
+     * class initializer (eg on other classes, or depending on system properties
+     * or the VFS/VNET) are not redone, see {@code StaticStateSnapshot}
+     */
+    public static boolean restoreStaticStateFromSnapshot = false;
+
 
     /**
      * How is the sandbox configured?
@@ -119,6 +128,14 @@ public class RuntimeSettings {
         return mockJVMNonDeterminism || useVFS || useVNET || mockGUI;
     }
 
+    /**
+     * @return whether the sandbox checks are done by instrumenting the calls of
+     * the SUT rather than by a security manager
+     */
+    public static boolean isUsingCallSiteSandbox() {
+        return sandboxMode == Sandbox.SandboxMode.CALL_SITE;
+    }
+
     public static void deactivateAllMocking() {
         mockJVMNonDeterminism = false;
         mockGUI = false;
@@ -21,10 +21,8 @@
 package org.evosuite.runtime;
 
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
-import java.util.Map;
 import java.util.PropertyPermission;
 import java.util.Set;
 
@@ -44,7 +42,6 @@ public class System {
 
 	private static final Logger logger = LoggerFactory.getLogger(System.class);
 
-	private static boolean wasTimeAccessed = false;
 
 	/**
 	 * Default Java properties before we run the SUT
@@ -193,7 +190,7 @@ public class System {
 	 *            a int.
 	 */
 	public static void exit(int status) {
-		wasTimeAccessed = true;
+		ExecutionContext.current().wasTimeAccessed = true;
 
 		/*
 		 * TODO: Here we could handle the calls to the JVM shutdown hooks, if any is present
@@ -202,18 +199,15 @@ public class System {
 		throw new SystemExitException();
 	}
 
-	/** Current time returns numbers increased by 1 */
-	// Initialised to 2014-02-14, 20:21
-	private static long currentTime = 1392409281320L;
-
 	/**
 	 * Replacement function for System.currentTimeMillis
 	 * 
 	 * @return a long.
 	 */
 	public static long currentTimeMillis() {
-		wasTimeAccessed = true;
-		return currentTime; //++;
+		ExecutionContext context = ExecutionContext.current();
+		context.wasTimeAccessed = true;
+		return context.currentTime; //++;
 	}
 
 	/**
@@ -225,11 +219,9 @@ public class System {
 	 */
 	public static long getCurrentTimeMillisForVFS() {
 		//wasTimeAccessed = true;
-		return currentTime; //++;
+		return ExecutionContext.current().currentTime; //++;
 	}
 
-	private static final Map<Integer, Integer> hashKeys = new HashMap<>();
-
 	public static void registerObjectForIdentityHashCode(Object o) {
 		identityHashCode(o);
 	}
@@ -238,13 +230,7 @@ public class System {
 		if(o == null)
 			return 0;
 
-		synchronized (hashKeys) {
-			Integer realId = java.lang.System.identityHashCode(o);
-			if(!hashKeys.containsKey(realId))
-				hashKeys.put(realId, hashKeys.size() + 1);
-
-			return hashKeys.get(realId);
-		}
+		return ExecutionContext.current().hashKeys.getId(o);
 	}
 
 	public static String toString(Object o) {
@@ -260,8 +246,9 @@ public class System {
 	 * @return a long.
 	 */
 	public static long nanoTime() {
-		wasTimeAccessed = true;
-		return currentTime * 1000; //++;
+		ExecutionContext context = ExecutionContext.current();
+		context.wasTimeAccessed = true;
+		return context.currentTime * 1000; //++;
 	}
 
 	/**
@@ -304,7 +291,7 @@ public class System {
 	 *            a long.
 	 */
 	public static void setCurrentTimeMillis(long time) {
-		currentTime = time;
+		ExecutionContext.current().currentTime = time;
 	}
 
 	/**
@@ -320,9 +307,7 @@ public class System {
 	 * Reset runtime to initial state
 	 */
 	public static void resetRuntime() {
-		currentTime = 1392409281320L; // 2014-02-14, 20:21
-		wasTimeAccessed = false;
-		hashKeys.clear();
+		ExecutionContext.current().resetSystem();
 		restoreProperties(); 
 		needToRestoreProperties = false;
 		//readProperties.clear(); //we cannot reset read properties here		
@@ -352,6 +337,6 @@ public class System {
 	 * @return a boolean.
 	 */
 	public static boolean wasTimeAccessed() {
-		return wasTimeAccessed;
+		return ExecutionContext.current().wasTimeAccessed;
 	}
 }
@@ -21,7 +21,8 @@ package org.evosuite.runtime.classhandling;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Method;
 import java.util.HashMap;
 import java.util.Map;
@@ -36,6 +37,8 @@ import org.slf4j.LoggerFactory;
 /**
  * This class resets the static fields of a given class by invoking the <clinit> class initializer.
  * In order to re-invoke the <clinit> this is duplicated with the method name "__STATIC_RESET".
+ * If {@link RuntimeSettings#restoreStaticStateFromSnapshot} is on, the state after the first reset
+ * is recorded, and later resets just restore it when possible.
  * 
  * @author galeotti
  *
@@ -56,10 +59,22 @@ public class ClassResetter {
 
 	private ClassLoader loader;
 	
-	private final Map<ClassLoader, Map<String, Method>> resetMethodCache;
+	/**
+	 * For each class loader, the handles of the reset methods. A null value
+	 * means the class has no reset method, so we do not look it up again
+	 */
+	private final Map<ClassLoader, Map<String, MethodHandle>> resetMethodCache;
+
+	/**
+	 * For each class loader, the static state of the classes right after
+	 * their first reset. A null value means the state of the class cannot be
+	 * restored from a snapshot
+	 */
+	private final Map<ClassLoader, Map<String, StaticStateSnapshot>> snapshotCache;
 
 	private ClassResetter(){
 		resetMethodCache = new HashMap<>();
+		snapshotCache = new HashMap<>();
 	}
 
 	/**
@@ -93,7 +108,7 @@ public class ClassResetter {
             resetMethodCache.put(loader, new HashMap<>());
         }
 
-		Map<String, Method> methodMap = resetMethodCache.get(loader);
+		Map<String, MethodHandle> methodMap = resetMethodCache.get(loader);
         if (methodMap.containsKey(classNameWithDots)) {
 			return;
 		}
@@ -102,26 +117,92 @@ public class ClassResetter {
             Class<?> clazz = loader.loadClass(classNameWithDots);
 
 			if(clazz.isInterface() || clazz.isAnonymousClass()) {
+				methodMap.put(classNameWithDots, null);
 				return;
 			}
             
             Method m = clazz.getDeclaredMethod(STATIC_RESET, (Class<?>[]) null);
             m.setAccessible(true);
-            methodMap.put(classNameWithDots, m);
+            methodMap.put(classNameWithDots, MethodHandles.lookup().unreflect(m));
 
         } catch (NoSuchMethodException e) {
 			//this can happen if class was not instrumented with a static reset
 			logger.debug("__STATIC_RESET() method does not exists in class {}", classNameWithDots);
+			methodMap.put(classNameWithDots, null);
 		} catch (Exception | Error e) {
 			logWarn(classNameWithDots, e.getClass() + " thrown while loading method  __STATIC_RESET() for class " + classNameWithDots);
+			// do not look it up again at every reset
+			methodMap.put(classNameWithDots, null);
 		}
 	}
-	
-	public Method getResetMethod(String classNameWithDots) {
+
+	/**
+	 * The handle of the reset method of the given class in the current class
+	 * loader, looked up only once. Its type is <code>()V</code>, so it can be
+	 * called with <code>invokeExact()</code>.
+	 *
+	 * @param classNameWithDots
+	 * @return null if the class has no reset method
+	 */
+	public MethodHandle getResetMethod(String classNameWithDots) {
 		cacheResetMethod(classNameWithDots);
 		return resetMethodCache.get(loader).get(classNameWithDots);
 	}
 
+	/**
+	 * If {@link RuntimeSettings#restoreStaticStateFromSnapshot} is on, record
+	 * the static state of the class, which has to be freshly initialized.
+	 * Nothing is done if a snapshot of the class was already taken.
+	 *
+	 * @param classNameWithDots
+	 */
+	public synchronized void takeSnapshot(String classNameWithDots) {
+		if (!RuntimeSettings.restoreStaticStateFromSnapshot) {
+			return;
+		}
+		Map<String, StaticStateSnapshot> snapshots = snapshotCache.computeIfAbsent(loader, l -> new HashMap<>());
+		if (snapshots.containsKey(classNameWithDots)) {
+			return;
+		}
+		StaticStateSnapshot snapshot = null;
+		try {
+			snapshot = StaticStateSnapshot.capture(loader.loadClass(classNameWithDots));
+		} catch (ClassNotFoundException | LinkageError e) {
+			logger.debug("Cannot take snapshot of {}: {}", classNameWithDots, e.toString());
+		}
+		if (snapshot == null) {
+			logger.debug("Static state of {} will be reset by its class initializer", classNameWithDots);
+		}
+		snapshots.put(classNameWithDots, snapshot);
+	}
+
+	/**
+	 * If {@link RuntimeSettings#restoreStaticStateFromSnapshot} is on and a
+	 * snapshot of the class was taken, bring its static fields back to it.
+	 *
+	 * @param classNameWithDots
+	 * @return true if the class was reset, false if it still needs to be
+	 *         re-initialized
+	 */
+	public synchronized boolean restoreSnapshot(String classNameWithDots) {
+		if (!RuntimeSettings.restoreStaticStateFromSnapshot) {
+			return false;
+		}
+		Map<String, StaticStateSnapshot> snapshots = snapshotCache.get(loader);
+		StaticStateSnapshot snapshot = snapshots == null ? null : snapshots.get(classNameWithDots);
+		if (snapshot == null) {
+			return false;
+		}
+		try {
+			snapshot.restore();
+			return true;
+		} catch (IllegalAccessException | RuntimeException e) {
+			logWarn(classNameWithDots, "Cannot restore static state of " + classNameWithDots + ": " + e);
+			snapshots.put(classNameWithDots, null);
+			return false;
+		}
+	}
+
 	/**
 	 * Invoke the duplicated version of class initializar <clinit> 
 	 *  
@@ -136,7 +217,11 @@ public class ClassResetter {
 			throw new IllegalStateException("No specified loader");
 		}
 		
-		Method m = getResetMethod(classNameWithDots);
+		if(restoreSnapshot(classNameWithDots)) {
+			return;
+		}
+
+		MethodHandle m = getResetMethod(classNameWithDots);
 		if(m == null) {
             return;
         }
@@ -148,27 +233,25 @@ public class ClassResetter {
 		InstrumentingAgent.activate();
 		org.evosuite.runtime.Runtime.getInstance().resetRuntime();
 		boolean wasLoopCheckOn = LoopCounter.getInstance().isActivated();
+		boolean initialized = false;
 
 		try {
 			if(!safe){
 				Sandbox.goingToExecuteUnsafeCodeOnSameThread();
 			}
 			LoopCounter.getInstance().setActive(false);
-			m.invoke(null, (Object[]) null);
-		} catch (IllegalAccessException | IllegalArgumentException e) {
-            logger.error(""+e,e);
-        } catch (NoClassDefFoundError e){
+			m.invokeExact();
+			initialized = true;
+		} catch (NoClassDefFoundError e){
 			AtMostOnceLogger.error(logger,e.toString());
-        } catch(InvocationTargetException e){
-
-			Throwable cause = e.getCause();
-			if(cause instanceof TooManyResourcesException || cause instanceof NoClassDefFoundError){
-				logWarn(classNameWithDots, e.toString() + ", caused by: "+cause.toString());
+        } catch(Throwable cause){
+			// unlike Method.invoke, the handle does not wrap what the reset throws
+			if(cause instanceof TooManyResourcesException){
+				logWarn(classNameWithDots, cause.toString());
 			} else {
 				StringWriter errors = new StringWriter();
 				cause.printStackTrace(new PrintWriter(errors));
-				logWarn(classNameWithDots, e.toString() + ", caused by: "+cause.toString()+"\n"+errors.toString());
-				// we are only interested in the stack trace of the cause
+				logWarn(classNameWithDots, cause.toString()+"\n"+errors.toString());
 			}
         } finally {
 			if(!safe){
@@ -178,6 +261,10 @@ public class ClassResetter {
 		}
 
 		InstrumentingAgent.deactivate();
+
+		if(initialized) {
+			takeSnapshot(classNameWithDots);
+		}
 	}
 
 }
@@ -131,6 +131,12 @@ public class ClassStateSupport {
 	 *     This method will be usually called after a test is executed, ie in a @After
 	 * </p>
 	 *
+	 * <p>
+	 *     If {@link RuntimeSettings#restoreStaticStateFromSnapshot} is on, each class
+	 *     initializer is only run again the first time, and later resets restore
+	 *     the static fields to the state it produced, when possible
+	 * </p>
+	 *
 	 * @param classNames
 	 */
 	public static void resetClasses(String... classNames) {
@@ -0,0 +1,254 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.runtime.classhandling;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Values of the static fields of a class, taken right after the class was
+ * (re-)initialized, so that its static state can later be brought back without
+ * running the class initializer again.
+ *
+ * <p>
+ * A snapshot can only be taken if restoring it gives the static fields the
+ * same values as re-running the initializer, ie if every static field holds
+ * <ul>
+ * <li>a primitive, or a value that cannot be changed (eg strings, boxed
+ * primitives, enum constants, classes), or</li>
+ * <li>an array or a standard collection or map of such values. These are
+ * copied when the snapshot is taken, and copied again when restored, so the
+ * snapshot itself is never changed.</li>
+ * </ul>
+ * Final containers are restored in place. Classes holding any other object
+ * (whose state could be changed by a test) have no snapshot and always need
+ * to be re-initialized.
+ *
+ * <p>
+ * Only the static fields of the class itself are restored, so this is not
+ * equivalent to re-running the initializer if it has any other effect, eg if
+ * it
+ * <ul>
+ * <li>changes the static state of other classes,</li>
+ * <li>registers the class or its values in other objects (eg listeners or
+ * driver registries), or</li>
+ * <li>reads system properties, files of the virtual file system or the virtual
+ * network, which tests could have changed since the snapshot was taken.</li>
+ * </ul>
+ * Such effects are neither detected nor redone when the snapshot is restored.
+ */
+final class StaticStateSnapshot {
+
+	private static final List<Class<?>> IMMUTABLE_TYPES = Arrays.asList(String.class, Integer.class, Long.class,
+			Short.class, Byte.class, Character.class, Boolean.class, Float.class, Double.class, BigInteger.class,
+			BigDecimal.class, Class.class);
+
+	private static final List<Class<?>> COPYABLE_TYPES = Arrays.asList(ArrayList.class, LinkedList.class,
+			HashMap.class, LinkedHashMap.class, TreeMap.class, HashSet.class, LinkedHashSet.class, TreeSet.class,
+			ConcurrentHashMap.class);
+
+	private final List<Field> fields;
+
+	private final List<Object> values;
+
+	private StaticStateSnapshot(List<Field> fields, List<Object> values) {
+		this.fields = fields;
+		this.values = values;
+	}
+
+	/**
+	 * Take a snapshot of the current static state of the class
+	 *
+	 * @param clazz
+	 * @return null if the state of the class cannot be restored from a
+	 *         snapshot
+	 */
+	static StaticStateSnapshot capture(Class<?> clazz) {
+		List<Field> fields = new ArrayList<>();
+		List<Object> values = new ArrayList<>();
+
+		for (Field field : clazz.getDeclaredFields()) {
+			int modifiers = field.getModifiers();
+			if (!Modifier.isStatic(modifiers) || field.isSynthetic()) {
+				// eg $assertionsDisabled, or the probes of coverage tools
+				continue;
+			}
+			boolean isFinal = Modifier.isFinal(modifiers);
+			if (isFinal && (field.getType().isPrimitive() || field.getType().equals(String.class))) {
+				continue;
+			}
+
+			Object value;
+			try {
+				field.setAccessible(true);
+				value = field.get(null);
+			} catch (Exception | Error e) {
+				// eg inaccessible JDK internals
+				return null;
+			}
+
+			if (isImmutable(value)) {
+				if (!isFinal) {
+					fields.add(field);
+					values.add(value);
+				}
+			} else if (isCopyable(value)) {
+				fields.add(field);
+				values.add(copy(value));
+			} else {
+				return null;
+			}
+		}
+		return new StaticStateSnapshot(fields, values);
+	}
+
+	/**
+	 * Bring the static fields back to the values of the snapshot
+	 *
+	 * @throws IllegalAccessException
+	 *             should not happen, as the fields were made accessible
+	 */
+	void restore() throws IllegalAccessException {
+		for (int i = 0; i < fields.size(); i++) {
+			Field field = fields.get(i);
+			Object value = values.get(i);
+			if (!Modifier.isFinal(field.getModifiers())) {
+				field.set(null, isImmutable(value) ? value : copy(value));
+			} else {
+				restoreInPlace(field.get(null), value);
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static void restoreInPlace(Object current, Object value) {
+		if (current.getClass().isArray()) {
+			System.arraycopy(value, 0, current, 0, Array.getLength(value));
+		} else if (current instanceof Collection) {
+			Collection<Object> collection = (Collection<Object>) current;
+			collection.clear();
+			collection.addAll((Collection<Object>) value);
+		} else {
+			Map<Object, Object> map = (Map<Object, Object>) current;
+			map.clear();
+			map.putAll((Map<Object, Object>) value);
+		}
+	}
+
+	private static boolean isImmutable(Object value) {
+		if (value == null || value instanceof Enum) {
+			return true;
+		}
+		Class<?> type = value.getClass();
+		if (IMMUTABLE_TYPES.contains(type)) {
+			return true;
+		}
+		if (type.getName().startsWith("java.util.ImmutableCollections$")) {
+			// List.of, Set.of and Map.of
+			if (value instanceof Map) {
+				return areImmutable(((Map<?, ?>) value).keySet()) && areImmutable(((Map<?, ?>) value).values());
+			}
+			return areImmutable((Collection<?>) value);
+		}
+		return false;
+	}
+
+	private static boolean areImmutable(Collection<?> values) {
+		for (Object value : values) {
+			if (!isImmutable(value)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isCopyable(Object value) {
+		Class<?> type = value.getClass();
+		if (type.isArray()) {
+			if (type.getComponentType().isPrimitive()) {
+				return true;
+			}
+			for (int i = 0; i < Array.getLength(value); i++) {
+				if (!isImmutable(Array.get(value, i))) {
+					return false;
+				}
+			}
+			return true;
+		}
+		if (!COPYABLE_TYPES.contains(type)) {
+			return false;
+		}
+		if (value instanceof Map) {
+			return areImmutable(((Map<?, ?>) value).keySet()) && areImmutable(((Map<?, ?>) value).values());
+		}
+		return areImmutable((Collection<?>) value);
+	}
+
+	/**
+	 * Shallow copy of an array, or of one of the {@link #COPYABLE_TYPES}
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static Object copy(Object value) {
+		Class<?> type = value.getClass();
+		if (type.isArray()) {
+			int length = Array.getLength(value);
+			Object copy = Array.newInstance(type.getComponentType(), length);
+			System.arraycopy(value, 0, copy, 0, length);
+			return copy;
+		}
+		if (type.equals(ArrayList.class)) {
+			return new ArrayList<>((Collection<?>) value);
+		} else if (type.equals(LinkedList.class)) {
+			return new LinkedList<>((Collection<?>) value);
+		} else if (type.equals(HashSet.class)) {
+			return new HashSet<>((Collection<?>) value);
+		} else if (type.equals(LinkedHashSet.class)) {
+			return new LinkedHashSet<>((Collection<?>) value);
+		} else if (type.equals(TreeSet.class)) {
+			return new TreeSet<>((SortedSet) value);
+		} else if (type.equals(HashMap.class)) {
+			return new HashMap<>((Map<?, ?>) value);
+		} else if (type.equals(LinkedHashMap.class)) {
+			return new LinkedHashMap<>((Map<?, ?>) value);
+		} else if (type.equals(TreeMap.class)) {
+			return new TreeMap<>((SortedMap) value);
+		} else {
+			return new ConcurrentHashMap<>((Map<?, ?>) value);
+		}
+	}
+}
@@ -26,13 +26,17 @@ import org.objectweb.asm.Opcodes;
 
 
 /**
- * Add a kill switch call at each line statement and before each jump
+ * Add a kill switch check at each line statement and before each jump.
+ * The flag is read inline, and {@link KillSwitchHandler#killIfTimeout()} is only
+ * called when it is on.
  *  
  * @author arcuri
  *
  */
 public class KillSwitchMethodAdapter extends MethodVisitor {
 
+	private static final String KILL_SWITCH_HANDLER = KillSwitchHandler.class.getName().replace('.', '/');
+
 	public KillSwitchMethodAdapter(MethodVisitor mv, String methodName, String desc) {
 		super(Opcodes.ASM9, mv);
 	}
@@ -51,13 +55,19 @@ public class KillSwitchMethodAdapter extends MethodVisitor {
 	
 	@Override
 	public void visitJumpInsn(int opcode, Label label) {
-		addInstrumentation(); //add instrumentation before of the jump
+		if (!(label instanceof AnnotatedLabel && ((AnnotatedLabel) label).shouldIgnore())) {
+			//jumps added by other instrumentation, eg loop checks, do not need a check
+			addInstrumentation(); //add instrumentation before of the jump
+		}
 		super.visitJumpInsn(opcode, label);
 	}
 	
 	private void addInstrumentation(){
-		mv.visitMethodInsn(Opcodes.INVOKESTATIC,
-				KillSwitchHandler.class.getName().replace('.', '/'),
+		Label skip = new AnnotatedLabel(true, false);
+		mv.visitFieldInsn(Opcodes.GETSTATIC, KILL_SWITCH_HANDLER, "killSwitchOn", "Z");
+		mv.visitJumpInsn(Opcodes.IFEQ, skip);
+		mv.visitMethodInsn(Opcodes.INVOKESTATIC, KILL_SWITCH_HANDLER,
                 "killIfTimeout", "()V" , false);
+		mv.visitLabel(skip);
 	}
 }
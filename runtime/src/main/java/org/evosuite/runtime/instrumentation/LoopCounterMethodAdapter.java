@@ -20,6 +20,7 @@
 package org.evosuite.runtime.instrumentation;
 
 import org.evosuite.runtime.LoopCounter;
+import org.evosuite.runtime.RuntimeSettings;
 import org.objectweb.asm.Label;
 import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Opcodes;
@@ -33,19 +34,32 @@ import org.objectweb.asm.Type;
  * Non-loops are for examples if/switch.
  * However, such extra instrumentation should not really be a problem
  *
+ * <p>
+ * The counter of the loop is incremented and compared with the limit inline,
+ * so the common case costs an array increment and a comparison, and
+ * {@link LoopCounter} is only called once the limit is reached:
+ * <pre>
+ * if (Long.compareUnsigned(++LoopCounter.iterations[index], RuntimeSettings.maxNumberOfIterationsPerLoop) &gt;= 0)
+ *     LoopCounter.loopLimitReached(index);
+ * </pre>
+ * The comparison is unsigned so that a negative limit (ie, the check is off) is never
+ * reached, in case it is changed after the class was instrumented.
+ *
  * Created by Andrea Arcuri on 29/03/15.
  */
 public class LoopCounterMethodAdapter extends MethodVisitor {
 
     private static final String LOOP_COUNTER = Type.getInternalName(LoopCounter.class);
 
+    private static final String RUNTIME_SETTINGS = Type.getInternalName(RuntimeSettings.class);
+
     public LoopCounterMethodAdapter(MethodVisitor mv, String methodName, String desc) {
         super(Opcodes.ASM9, mv);
     }
 
     @Override
     public void visitMaxs(int maxStack, int maxLocals) {
-        super.visitMaxs(maxStack+2, maxLocals);
+        super.visitMaxs(maxStack+6, maxLocals);
     }
 
     @Override
@@ -58,12 +72,26 @@ public class LoopCounterMethodAdapter extends MethodVisitor {
 
         int index = LoopCounter.getInstance().getNewIndex();
 
-        mv.visitMethodInsn(Opcodes.INVOKESTATIC,LOOP_COUNTER,
-                "getInstance", "()L"+LOOP_COUNTER+";" , false);
+        // ignored label, so that other instrumentation does not treat the check as a branch of the CUT
+        Label skip = new AnnotatedLabel(true, false);
+
+        mv.visitFieldInsn(Opcodes.GETSTATIC, LOOP_COUNTER, "iterations", "[J");
+        mv.visitLdcInsn(index);
+        mv.visitInsn(Opcodes.DUP2);
+        mv.visitInsn(Opcodes.LALOAD);
+        mv.visitInsn(Opcodes.LCONST_1);
+        mv.visitInsn(Opcodes.LADD);
+        mv.visitInsn(Opcodes.DUP2_X2);
+        mv.visitInsn(Opcodes.LASTORE);
+
+        mv.visitFieldInsn(Opcodes.GETSTATIC, RUNTIME_SETTINGS, "maxNumberOfIterationsPerLoop", "J");
+        mv.visitMethodInsn(Opcodes.INVOKESTATIC, "java/lang/Long", "compareUnsigned", "(JJ)I", false);
+        mv.visitJumpInsn(Opcodes.IFLT, skip);
 
         mv.visitLdcInsn(index);
+        mv.visitMethodInsn(Opcodes.INVOKESTATIC, LOOP_COUNTER,
+                "loopLimitReached", "(I)V", false);
 
-        mv.visitMethodInsn(Opcodes.INVOKEVIRTUAL, LOOP_COUNTER,
-                "checkLoop", "(I)V", false);
+        mv.visitLabel(skip);
     }
 }
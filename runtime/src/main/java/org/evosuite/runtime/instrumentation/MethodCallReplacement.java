@@ -20,6 +20,7 @@
 package org.evosuite.runtime.instrumentation;
 
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -50,6 +51,10 @@ public class MethodCallReplacement {
 
 	private final boolean popCallee;
 	private final boolean popUninitialisedReference;
+
+	/** resolved by {@link #getReplacementMethod()}, if ever needed */
+	private volatile Method replacementMethod;
+	private volatile boolean isResolved;
 	
 	private static final Logger logger = LoggerFactory.getLogger(MethodCallReplacement.class);
 
@@ -215,4 +220,38 @@ public class MethodCallReplacement {
 		return methodName+desc;
 	}
 
+	/**
+	 * @return whether the callee of the original method is passed as first
+	 *         parameter to the replacement
+	 */
+	public boolean takesCallee() {
+		return origOpcode != Opcodes.INVOKESTATIC && !popCallee;
+	}
+
+	/**
+	 * Look up the replacement with reflection, eg to call it instead of the
+	 * original method when the SUT calls the latter through reflection
+	 *
+	 * @return the static replacement method, or null if it cannot be found
+	 */
+	public Method getReplacementMethod() {
+		if (!isResolved) {
+			try {
+				Class<?> replacementClass = Class.forName(replacementClassName.replace('/', '.'), false,
+						MethodCallReplacement.class.getClassLoader());
+				for (Method m : replacementClass.getMethods()) {
+					if (m.getName().equals(replacementMethodName) && Modifier.isStatic(m.getModifiers())
+							&& Type.getMethodDescriptor(m).equals(replacementDesc)) {
+						replacementMethod = m;
+						break;
+					}
+				}
+			} catch (ClassNotFoundException | LinkageError e) {
+				logger.warn("Cannot load replacement " + replacementClassName + ": " + e);
+			}
+			isResolved = true;
+		}
+		return replacementMethod;
+	}
+
 }
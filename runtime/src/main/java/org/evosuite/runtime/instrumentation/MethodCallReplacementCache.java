@@ -36,6 +36,7 @@ import org.evosuite.runtime.mock.OverrideMock;
 import org.evosuite.runtime.mock.StaticReplacementMethod;
 import org.evosuite.runtime.mock.StaticReplacementMock;
 import org.evosuite.runtime.mock.java.lang.MockThrowable;
+import org.evosuite.runtime.sandbox.CallSiteSandbox;
 import org.evosuite.runtime.util.ReflectionUtils;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.Type;
@@ -43,13 +44,26 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
+ * Table of the calls to replace in the instrumented classes.
+ *
+ * <p>
+ * Building the table needs reflection on all the mocks, so it is done once per
+ * JVM for each combination of the settings that determine its content, and
+ * {@link #resetSingleton()} just selects the table again. Tables are never
+ * modified after construction, so they can be shared.
+ *
  * @author gordon
  */
 public class MethodCallReplacementCache {
 
 	private static final Logger logger = LoggerFactory.getLogger(MethodCallReplacementCache.class);
 
-	private static MethodCallReplacementCache instance = null;
+	private static volatile MethodCallReplacementCache instance = null;
+
+	/**
+	 * Tables built so far, by {@link #getConfigurationKey()}
+	 */
+	private static final Map<Integer, MethodCallReplacementCache> builtCaches = new HashMap<>();
 
 	/**
 	 * method replacements, which are called with Opcodes.INVOKESTATIC
@@ -67,6 +81,8 @@ public class MethodCallReplacementCache {
 	 */
 	private final Map<String, Map<String, MethodCallReplacement>> specialReplacementCalls = new HashMap<>();
 
+	private final boolean usingCallSiteSandbox;
+
 	private MethodCallReplacementCache() {
 
 		if (RuntimeSettings.mockJVMNonDeterminism) {
@@ -86,19 +102,55 @@ public class MethodCallReplacementCache {
 
 		handleMockList();
 
+		usingCallSiteSandbox = RuntimeSettings.isUsingCallSiteSandbox();
+		if (usingCallSiteSandbox) {
+			addSandboxCalls();
+		}
 	}
 
 	public static MethodCallReplacementCache getInstance() {
-		if (instance == null) {
-			instance = new MethodCallReplacementCache();
+		MethodCallReplacementCache cache = instance;
+		if (cache == null) {
+			int key = getConfigurationKey();
+			synchronized (builtCaches) {
+				cache = builtCaches.get(key);
+				if (cache == null) {
+					cache = new MethodCallReplacementCache();
+					builtCaches.put(key, cache);
+				}
+			}
+			instance = cache;
 		}
-		return instance;
+		return cache;
 	}
 
+	/**
+	 * Select the table again on the next {@link #getInstance()}, eg after the
+	 * {@link RuntimeSettings} have changed
+	 */
 	public static void resetSingleton() {
 		instance = null;
 	}
 
+	/**
+	 * @return a value identifying the settings that the content of the table
+	 *         depends on
+	 */
+	private static int getConfigurationKey() {
+		int key = 0;
+		if (RuntimeSettings.mockJVMNonDeterminism)
+			key |= 1;
+		if (RuntimeSettings.useVFS)
+			key |= 2;
+		if (RuntimeSettings.useVNET)
+			key |= 4;
+		if (RuntimeSettings.mockGUI)
+			key |= 8;
+		if (RuntimeSettings.isUsingCallSiteSandbox())
+			key |= 16;
+		return key;
+	}
+
 	private void addReplacementCall(MethodCallReplacement replacement) {
 		if (!replacementCalls.containsKey(replacement.getClassName())) {
 			replacementCalls.put(replacement.getClassName(), new HashMap<>());
@@ -118,6 +170,18 @@ public class MethodCallReplacementCache {
 	// virtualReplacementCalls.add(replacement);
 	// }
 
+	/**
+	 * Quick check to do before any other lookup, as most calls of the SUT are
+	 * on classes that have no replacements at all
+	 *
+	 * @param className
+	 *            owner of the call, with slashes
+	 * @return whether any method of the class has a replacement
+	 */
+	public boolean hasReplacementCalls(String className) {
+		return replacementCalls.containsKey(className) || specialReplacementCalls.containsKey(className);
+	}
+
 	public boolean hasReplacementCall(String className, String methodNameWithDesc) {
 		if (!replacementCalls.containsKey(className))
 			return false;
@@ -125,8 +189,29 @@ public class MethodCallReplacementCache {
 		return replacementCalls.get(className).containsKey(methodNameWithDesc);
 	}
 
+	/**
+	 * @return the replacement, or null if the call is not replaced
+	 */
 	public MethodCallReplacement getReplacementCall(String className, String methodNameWithDesc) {
-		return replacementCalls.get(className).get(methodNameWithDesc);
+		Map<String, MethodCallReplacement> calls = replacementCalls.get(className);
+		return calls == null ? null : calls.get(methodNameWithDesc);
+	}
+
+	/**
+	 * @return the replacement of calls to the given method, or null if they
+	 *         are not replaced
+	 */
+	public MethodCallReplacement getReplacementCall(Method method) {
+		return getReplacementCall(Type.getInternalName(method.getDeclaringClass()),
+				method.getName() + Type.getMethodDescriptor(method));
+	}
+
+	/**
+	 * @return whether the sensitive calls of the SUT are checked by
+	 *         {@link CallSiteSandbox}
+	 */
+	public boolean isUsingCallSiteSandbox() {
+		return usingCallSiteSandbox;
 	}
 
 	public boolean hasSpecialReplacementCall(String className, String methodNameWithDesc) {
@@ -136,8 +221,12 @@ public class MethodCallReplacementCache {
 		return specialReplacementCalls.get(className).containsKey(methodNameWithDesc);
 	}
 
+	/**
+	 * @return the replacement, or null if the call is not replaced
+	 */
 	public MethodCallReplacement getSpecialReplacementCall(String className, String methodNameWithDesc) {
-		return specialReplacementCalls.get(className).get(methodNameWithDesc);
+		Map<String, MethodCallReplacement> calls = specialReplacementCalls.get(className);
+		return calls == null ? null : calls.get(methodNameWithDesc);
 	}
 
 	// public Iterator<MethodCallReplacement> getVirtualReplacementCalls() {
@@ -351,6 +440,162 @@ public class MethodCallReplacementCache {
 		 */
 	}
 
+	/**
+	 * Route the sensitive calls of the SUT through {@link CallSiteSandbox}.
+	 * Calls that are already replaced by a mock are left alone, as the mock
+	 * does not reach the real environment anyway.
+	 */
+	private void addSandboxCalls() {
+		String sandbox = PackageInfo.getNameWithSlash(CallSiteSandbox.class);
+
+		addSandboxCall("java/lang/System", "getProperty", "(Ljava/lang/String;)Ljava/lang/String;", false, sandbox);
+		addSandboxCall("java/lang/System", "getProperty", "(Ljava/lang/String;Ljava/lang/String;)Ljava/lang/String;",
+				false, sandbox);
+		addSandboxCall("java/lang/System", "setProperty", "(Ljava/lang/String;Ljava/lang/String;)Ljava/lang/String;",
+				false, sandbox);
+		addSandboxCall("java/lang/System", "clearProperty", "(Ljava/lang/String;)Ljava/lang/String;", false, sandbox);
+		addSandboxCall("java/lang/System", "getProperties", "()Ljava/util/Properties;", false, sandbox);
+		addSandboxCall("java/lang/System", "setProperties", "(Ljava/util/Properties;)V", false, sandbox);
+		addSandboxCall("java/lang/System", "getenv", "(Ljava/lang/String;)Ljava/lang/String;", false, sandbox);
+		addSandboxCall("java/lang/System", "getenv", "()Ljava/util/Map;", false, sandbox);
+		addSandboxCall("java/lang/System", "exit", "(I)V", false, sandbox);
+		addSandboxCall("java/lang/System", "load", "(Ljava/lang/String;)V", false, sandbox);
+		addSandboxCall("java/lang/System", "loadLibrary", "(Ljava/lang/String;)V", false, sandbox);
+		addSandboxCall("java/lang/System", "setSecurityManager", "(Ljava/lang/SecurityManager;)V", false, sandbox);
+		addSandboxCall("java/lang/System", "setIn", "(Ljava/io/InputStream;)V", false, sandbox);
+		addSandboxCall("java/lang/System", "setOut", "(Ljava/io/PrintStream;)V", false, sandbox);
+		addSandboxCall("java/lang/System", "setErr", "(Ljava/io/PrintStream;)V", false, sandbox);
+
+		addSandboxCall("java/lang/Runtime", "exit", "(I)V", true, sandbox);
+		addSandboxCall("java/lang/Runtime", "halt", "(I)V", true, sandbox);
+		addSandboxCall("java/lang/Runtime", "addShutdownHook", "(Ljava/lang/Thread;)V", true, sandbox);
+		addSandboxCall("java/lang/Runtime", "removeShutdownHook", "(Ljava/lang/Thread;)Z", true, sandbox);
+		addSandboxCall("java/lang/Runtime", "load", "(Ljava/lang/String;)V", true, sandbox);
+		addSandboxCall("java/lang/Runtime", "loadLibrary", "(Ljava/lang/String;)V", true, sandbox);
+		addSandboxCall("java/lang/Runtime", "exec", "(Ljava/lang/String;)Ljava/lang/Process;", true, sandbox);
+		addSandboxCall("java/lang/Runtime", "exec", "(Ljava/lang/String;[Ljava/lang/String;)Ljava/lang/Process;", true,
+				sandbox);
+		addSandboxCall("java/lang/Runtime", "exec",
+				"(Ljava/lang/String;[Ljava/lang/String;Ljava/io/File;)Ljava/lang/Process;", true, sandbox);
+		addSandboxCall("java/lang/Runtime", "exec", "([Ljava/lang/String;)Ljava/lang/Process;", true, sandbox);
+		addSandboxCall("java/lang/Runtime", "exec", "([Ljava/lang/String;[Ljava/lang/String;)Ljava/lang/Process;", true,
+				sandbox);
+		addSandboxCall("java/lang/Runtime", "exec",
+				"([Ljava/lang/String;[Ljava/lang/String;Ljava/io/File;)Ljava/lang/Process;", true, sandbox);
+
+		addSandboxCall("java/lang/ProcessBuilder", "start", "()Ljava/lang/Process;", true, sandbox);
+
+		addSandboxCall("java/lang/reflect/AccessibleObject", "setAccessible",
+				"([Ljava/lang/reflect/AccessibleObject;Z)V", false, sandbox);
+		addSandboxCall("java/lang/reflect/AccessibleObject", "setAccessible", "(Z)V", true, sandbox);
+		addSandboxCall("java/lang/reflect/Field", "setAccessible", "(Z)V", true, sandbox);
+		addSandboxCall("java/lang/reflect/Method", "setAccessible", "(Z)V", true, sandbox);
+		addSandboxCall("java/lang/reflect/Constructor", "setAccessible", "(Z)V", true, sandbox);
+
+		addSandboxCall("java/lang/Thread", "setDefaultUncaughtExceptionHandler",
+				"(Ljava/lang/Thread$UncaughtExceptionHandler;)V", false, sandbox);
+
+		/*
+		 * Direct calls of these two are not replaced, but checked by
+		 * MethodCallReplacementMethodAdapter, as reflection checks the access
+		 * of its caller. The entries are only used when the SUT calls them
+		 * through reflection
+		 */
+		addSandboxCall("java/lang/reflect/Method", "invoke",
+				"(Ljava/lang/Object;[Ljava/lang/Object;)Ljava/lang/Object;", true, sandbox);
+		addSandboxCall("java/lang/reflect/Constructor", "newInstance", "([Ljava/lang/Object;)Ljava/lang/Object;",
+				true, sandbox);
+
+		addSandboxCall("java/net/URLClassLoader", "newInstance", "([Ljava/net/URL;)Ljava/net/URLClassLoader;", false,
+				sandbox);
+		addSandboxCall("java/net/URLClassLoader", "newInstance",
+				"([Ljava/net/URL;Ljava/lang/ClassLoader;)Ljava/net/URLClassLoader;", false, sandbox);
+
+		// the java.io classes are handled by the VFS, but java.nio.file is not
+		String files = "java/nio/file/Files";
+		String path = "Ljava/nio/file/Path;";
+		String options = "[Ljava/nio/file/OpenOption;";
+		String attributes = "[Ljava/nio/file/attribute/FileAttribute;";
+		addSandboxCall(files, "newOutputStream", "(" + path + options + ")Ljava/io/OutputStream;", false, sandbox);
+		addSandboxCall(files, "newByteChannel",
+				"(" + path + "Ljava/util/Set;" + attributes + ")Ljava/nio/channels/SeekableByteChannel;", false,
+				sandbox);
+		addSandboxCall(files, "newByteChannel", "(" + path + options + ")Ljava/nio/channels/SeekableByteChannel;",
+				false, sandbox);
+		addSandboxCall(files, "newBufferedWriter",
+				"(" + path + "Ljava/nio/charset/Charset;" + options + ")Ljava/io/BufferedWriter;", false, sandbox);
+		addSandboxCall(files, "newBufferedWriter", "(" + path + options + ")Ljava/io/BufferedWriter;", false,
+				sandbox);
+		addSandboxCall(files, "createFile", "(" + path + attributes + ")" + path, false, sandbox);
+		addSandboxCall(files, "createDirectory", "(" + path + attributes + ")" + path, false, sandbox);
+		addSandboxCall(files, "createDirectories", "(" + path + attributes + ")" + path, false, sandbox);
+		addSandboxCall(files, "createTempFile",
+				"(" + path + "Ljava/lang/String;Ljava/lang/String;" + attributes + ")" + path, false, sandbox);
+		addSandboxCall(files, "createTempFile", "(Ljava/lang/String;Ljava/lang/String;" + attributes + ")" + path,
+				false, sandbox);
+		addSandboxCall(files, "createTempDirectory", "(" + path + "Ljava/lang/String;" + attributes + ")" + path,
+				false, sandbox);
+		addSandboxCall(files, "createTempDirectory", "(Ljava/lang/String;" + attributes + ")" + path, false,
+				sandbox);
+		addSandboxCall(files, "createSymbolicLink", "(" + path + path + attributes + ")" + path, false, sandbox);
+		addSandboxCall(files, "createLink", "(" + path + path + ")" + path, false, sandbox);
+		addSandboxCall(files, "delete", "(" + path + ")V", false, sandbox);
+		addSandboxCall(files, "deleteIfExists", "(" + path + ")Z", false, sandbox);
+		addSandboxCall(files, "copy", "(" + path + path + "[Ljava/nio/file/CopyOption;)" + path, false, sandbox);
+		addSandboxCall(files, "copy", "(Ljava/io/InputStream;" + path + "[Ljava/nio/file/CopyOption;)J", false,
+				sandbox);
+		addSandboxCall(files, "move", "(" + path + path + "[Ljava/nio/file/CopyOption;)" + path, false, sandbox);
+		addSandboxCall(files, "write", "(" + path + "[B" + options + ")" + path, false, sandbox);
+		addSandboxCall(files, "write",
+				"(" + path + "Ljava/lang/Iterable;Ljava/nio/charset/Charset;" + options + ")" + path, false, sandbox);
+		addSandboxCall(files, "write", "(" + path + "Ljava/lang/Iterable;" + options + ")" + path, false, sandbox);
+		addSandboxCall(files, "setAttribute",
+				"(" + path + "Ljava/lang/String;Ljava/lang/Object;[Ljava/nio/file/LinkOption;)" + path, false,
+				sandbox);
+		addSandboxCall(files, "setPosixFilePermissions", "(" + path + "Ljava/util/Set;)" + path, false, sandbox);
+		addSandboxCall(files, "setOwner", "(" + path + "Ljava/nio/file/attribute/UserPrincipal;)" + path, false,
+				sandbox);
+		addSandboxCall(files, "setLastModifiedTime", "(" + path + "Ljava/nio/file/attribute/FileTime;)" + path,
+				false, sandbox);
+		addSandboxCall(files, "getFileAttributeView",
+				"(" + path + "Ljava/lang/Class;[Ljava/nio/file/LinkOption;)Ljava/nio/file/attribute/FileAttributeView;",
+				false, sandbox);
+
+		addSandboxCall("java/nio/channels/FileChannel", "open",
+				"(" + path + options + ")Ljava/nio/channels/FileChannel;", false, sandbox);
+		addSandboxCall("java/nio/channels/FileChannel", "open",
+				"(" + path + "Ljava/util/Set;" + attributes + ")Ljava/nio/channels/FileChannel;", false, sandbox);
+		addSandboxCall("java/nio/channels/AsynchronousFileChannel", "open",
+				"(" + path + options + ")Ljava/nio/channels/AsynchronousFileChannel;", false, sandbox,
+				"openAsynchronous");
+		addSandboxCall("java/nio/channels/AsynchronousFileChannel", "open",
+				"(" + path + "Ljava/util/Set;Ljava/util/concurrent/ExecutorService;" + attributes
+						+ ")Ljava/nio/channels/AsynchronousFileChannel;",
+				false, sandbox, "openAsynchronous");
+	}
+
+	/**
+	 * @param isInstanceMethod
+	 *            if so, the replacement takes the callee as first parameter
+	 */
+	private void addSandboxCall(String owner, String name, String desc, boolean isInstanceMethod, String sandbox) {
+		addSandboxCall(owner, name, desc, isInstanceMethod, sandbox, name);
+	}
+
+	private void addSandboxCall(String owner, String name, String desc, boolean isInstanceMethod, String sandbox,
+			String replacementName) {
+		if (hasReplacementCall(owner, name + desc)) {
+			return;
+		}
+		String replacementDesc = desc;
+		if (isInstanceMethod) {
+			replacementDesc = "(L" + owner + ";" + desc.substring(1);
+		}
+		addReplacementCall(new MethodCallReplacement(owner, name, desc,
+				isInstanceMethod ? Opcodes.INVOKEVIRTUAL : Opcodes.INVOKESTATIC, sandbox, replacementName,
+				replacementDesc, false, false));
+	}
+
 	private void replaceAllInstanceMethodsWithStatic(Class<?> mockClass, Class<?> target) {
 
 		/*
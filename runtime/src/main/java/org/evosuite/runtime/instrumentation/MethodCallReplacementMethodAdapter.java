@@ -21,8 +21,14 @@
 package org.evosuite.runtime.instrumentation;
 
 
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.evosuite.runtime.sandbox.CallSiteSandbox;
 import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
 import org.objectweb.asm.commons.GeneratorAdapter;
 
 /**
@@ -38,10 +44,19 @@ public class MethodCallReplacementMethodAdapter extends GeneratorAdapter {
 
 	private final String superClassName;
 
+	private final MethodCallReplacementCache replacements;
+
 	private boolean needToWaitForSuperConstructor = false;
 	
 	private boolean hasBeenInstrumented = false;
 
+	private static final String INVOKE_DESC = "(Ljava/lang/Object;[Ljava/lang/Object;)Ljava/lang/Object;";
+
+	private static final String NEW_INSTANCE_DESC = "([Ljava/lang/Object;)Ljava/lang/Object;";
+
+	/** JDK classes seen as owners of constructor calls, and whether they are class loaders */
+	private static final Map<String, Boolean> jdkClassLoaders = new ConcurrentHashMap<>();
+
 	/**
 	 * <p>
 	 * Constructor for MethodCallReplacementMethodAdapter.
@@ -63,6 +78,7 @@ public class MethodCallReplacementMethodAdapter extends GeneratorAdapter {
 		super(Opcodes.ASM9, mv, access, methodName, desc);
 		this.className = className;
 		this.superClassName = superClassName;
+		this.replacements = MethodCallReplacementCache.getInstance();
 		if (methodName.equals("<init>")) {
 			needToWaitForSuperConstructor = true;
 		}
@@ -82,41 +98,11 @@ public class MethodCallReplacementMethodAdapter extends GeneratorAdapter {
 	public void visitMethodInsn(int opcode, String owner, String name, String desc, boolean itf) {
 
 		boolean isReplaced = false;
-		// Static replacement methods
-		// For invokespecial this can only be used if a constructor is called,
-		// not for super calls because not all mock classes may be superclasses
-		// of the actual object. E.g. Throwable -> Exception -> RuntimeException
-		// A MockRuntimeException is not a subclass of MockException and MockThrowable
-		if(MethodCallReplacementCache.getInstance().hasReplacementCall(owner, name+desc) && 
-				(opcode != Opcodes.INVOKESPECIAL || name.equals("<init>"))) {
-			MethodCallReplacement replacement = MethodCallReplacementCache.getInstance().getReplacementCall(owner, name+desc);
-			isReplaced = true;
-			replacement.insertMethodCall(this, Opcodes.INVOKESTATIC);
-			hasBeenInstrumented = true;
+		if (replacements.isUsingCallSiteSandbox()) {
+			isReplaced = insertSandboxCheck(opcode, owner, name, desc, itf);
 		}
-
-		// for constructors
-		if (!isReplaced) {
-			if(MethodCallReplacementCache.getInstance().hasSpecialReplacementCall(owner, name+desc)) {
-				MethodCallReplacement replacement = MethodCallReplacementCache.getInstance().getSpecialReplacementCall(owner, name+desc);
-				if (replacement.isTarget(owner, name, desc)
-						&& opcode == Opcodes.INVOKESPECIAL && name.equals("<init>")) {
-					isReplaced = true;
-					hasBeenInstrumented = true;
-					boolean isSelf = false;
-					if (needToWaitForSuperConstructor) {
-						String originalClassNameWithDots = owner.replace('/', '.');
-						if (originalClassNameWithDots.equals(superClassName)) {
-							isSelf = true;
-						}
-					}
-					if (replacement.getMethodName().equals("<init>"))
-						replacement.insertConstructorCall(this, replacement, isSelf);
-					else {
-						replacement.insertMethodCall(this, Opcodes.INVOKESPECIAL);
-					}
-				}
-			}
+		if (!isReplaced && replacements.hasReplacementCalls(owner)) {
+			isReplaced = replaceCall(opcode, owner, name, desc);
 		}
 
 		// non-static replacement methods
@@ -145,6 +131,115 @@ public class MethodCallReplacementMethodAdapter extends GeneratorAdapter {
 		}
 	}
 	
+	/**
+	 * Insert the checks of {@link CallSiteSandbox} that cannot be done by
+	 * replacing the call
+	 *
+	 * @return whether the call has been inserted as well
+	 */
+	private boolean insertSandboxCheck(int opcode, String owner, String name, String desc, boolean itf) {
+		String sandbox = Type.getInternalName(CallSiteSandbox.class);
+		if (opcode == Opcodes.INVOKEVIRTUAL && owner.equals("java/lang/reflect/Method") && name.equals("invoke")
+				&& desc.equals(INVOKE_DESC)) {
+			// method, obj, args -> redirected method, obj, args
+			int args = newLocal(Type.getType(Object[].class));
+			storeLocal(args);
+			int obj = newLocal(Type.getType(Object.class));
+			storeLocal(obj);
+			int method = newLocal(Type.getType(Method.class));
+			storeLocal(method);
+			String redirectDesc = "(Ljava/lang/reflect/Method;Ljava/lang/Object;[Ljava/lang/Object;)";
+			for (String redirect : new String[] { "getInvokedMethod", "getInvokedObject", "getInvokedArguments" }) {
+				loadLocal(method);
+				loadLocal(obj);
+				loadLocal(args);
+				String returnDesc = redirect.equals("getInvokedMethod") ? "Ljava/lang/reflect/Method;"
+						: redirect.equals("getInvokedObject") ? "Ljava/lang/Object;" : "[Ljava/lang/Object;";
+				super.visitMethodInsn(Opcodes.INVOKESTATIC, sandbox, redirect, redirectDesc + returnDesc, false);
+			}
+			super.visitMethodInsn(opcode, owner, name, desc, itf);
+			hasBeenInstrumented = true;
+			return true;
+		}
+		if (opcode == Opcodes.INVOKEVIRTUAL && owner.equals("java/lang/reflect/Constructor")
+				&& name.equals("newInstance") && desc.equals(NEW_INSTANCE_DESC)) {
+			// constructor, args -> constructor, args, constructor
+			swap();
+			dupX1();
+			super.visitMethodInsn(Opcodes.INVOKESTATIC, sandbox, "checkNewInstance",
+					"(Ljava/lang/reflect/Constructor;)V", false);
+			super.visitMethodInsn(opcode, owner, name, desc, itf);
+			hasBeenInstrumented = true;
+			return true;
+		}
+		if (opcode == Opcodes.INVOKESPECIAL && name.equals("<init>") && isJDKClassLoader(owner)) {
+			// takes nothing from the stack, so it is fine before the super constructor call as well
+			super.visitMethodInsn(Opcodes.INVOKESTATIC, sandbox, "checkCreateClassLoader", "()V", false);
+		}
+		return false;
+	}
+
+	/**
+	 * The constructors of the class loaders of the SUT are instrumented and
+	 * checked themselves, but not the ones of the JDK
+	 */
+	private static boolean isJDKClassLoader(String owner) {
+		if (!(owner.startsWith("java/") || owner.startsWith("javax/") || owner.startsWith("sun/")
+				|| owner.startsWith("com/sun/") || owner.startsWith("jdk/"))) {
+			return false;
+		}
+		return jdkClassLoaders.computeIfAbsent(owner, k -> {
+			try {
+				return ClassLoader.class.isAssignableFrom(
+						Class.forName(k.replace('/', '.'), false, ClassLoader.getSystemClassLoader()));
+			} catch (ClassNotFoundException | LinkageError e) {
+				return false;
+			}
+		});
+	}
+
+	/**
+	 * Insert the replacement of the call, if there is one
+	 *
+	 * @return whether the call has been replaced
+	 */
+	private boolean replaceCall(int opcode, String owner, String name, String desc) {
+		String nameWithDesc = name + desc;
+		// Static replacement methods
+		// For invokespecial this can only be used if a constructor is called,
+		// not for super calls because not all mock classes may be superclasses
+		// of the actual object. E.g. Throwable -> Exception -> RuntimeException
+		// A MockRuntimeException is not a subclass of MockException and MockThrowable
+		MethodCallReplacement replacement = replacements.getReplacementCall(owner, nameWithDesc);
+		if(replacement != null && (opcode != Opcodes.INVOKESPECIAL || name.equals("<init>"))) {
+			replacement.insertMethodCall(this, Opcodes.INVOKESTATIC);
+			hasBeenInstrumented = true;
+			return true;
+		}
+
+		// for constructors
+		replacement = replacements.getSpecialReplacementCall(owner, nameWithDesc);
+		if (replacement != null && replacement.isTarget(owner, name, desc)
+				&& opcode == Opcodes.INVOKESPECIAL && name.equals("<init>")) {
+			hasBeenInstrumented = true;
+			boolean isSelf = false;
+			if (needToWaitForSuperConstructor) {
+				String originalClassNameWithDots = owner.replace('/', '.');
+				if (originalClassNameWithDots.equals(superClassName)) {
+					isSelf = true;
+				}
+			}
+			if (replacement.getMethodName().equals("<init>"))
+				replacement.insertConstructorCall(this, replacement, isSelf);
+			else {
+				replacement.insertMethodCall(this, Opcodes.INVOKESPECIAL);
+			}
+			return true;
+		}
+
+		return false;
+	}
+
 	@Override
 	public void visitMaxs(int maxStack, int maxLocals) {
 		// The instrumentation adds a boolean to the stack at one point
@@ -133,7 +133,7 @@ public class RuntimeInstrumentation {
 				cv = resetClassAdapter;
 			}
 
-			if (RuntimeSettings.isUsingAnyMocking()) {
+			if (RuntimeSettings.isUsingAnyMocking() || RuntimeSettings.isUsingCallSiteSandbox()) {
 				cv = new MethodCallReplacementClassAdapter(cv, className, !retransformingMode);
 			}
 
@@ -76,7 +76,20 @@ public class SocketIn extends InputStream{
 
 	@Override
 	public int read(byte[] b, int off, int len) throws IOException {
-		return super.read(b,off,len);
+
+		checkClosed();
+
+		if (off < 0 || len < 0 || len > b.length - off) {
+			throw new IndexOutOfBoundsException();
+		} else if (len == 0) {
+			return 0;
+		}
+
+		if(isLocal){
+			return tcp.readInSUTfromRemote(b, off, len);
+		} else {
+			return tcp.readInTestFromSUT(b, off, len);
+		}
 	}
 
 	@Override
@@ -70,7 +70,15 @@ public class SocketOut extends OutputStream{
 
 	@Override
 	public void write(byte[] b, int off, int len) throws IOException {
-		super.write(b, off, len);
+		checkClosed();
+		if (off < 0 || len < 0 || len > b.length - off) {
+			throw new IndexOutOfBoundsException();
+		}
+		if(isLocal){
+			tcp.writeToRemote(b, off, len);
+		} else {
+			tcp.writeToSUT(b, off, len);
+		}
 	}
 
 
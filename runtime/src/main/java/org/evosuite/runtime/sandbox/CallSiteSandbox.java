@@ -0,0 +1,617 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.runtime.sandbox;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FilePermission;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ReflectPermission;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.file.CopyOption;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.FileAttributeView;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.UserPrincipal;
+import java.security.Permission;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.PropertyPermission;
+import java.util.Set;
+import java.util.StringTokenizer;
+import java.util.concurrent.ExecutorService;
+
+import org.evosuite.runtime.instrumentation.MethodCallReplacement;
+import org.evosuite.runtime.instrumentation.MethodCallReplacementCache;
+import org.evosuite.runtime.mock.MockFramework;
+
+/**
+ * Replacements for the calls of the SUT to sensitive JDK methods, used when
+ * the sandbox is in {@link Sandbox.SandboxMode#CALL_SITE} mode. Each method
+ * checks the permission the original method would ask the security manager
+ * for, and then delegates to the original.
+ *
+ * <p>
+ * Checks are only done while a test is executed, and do not need to look at
+ * the stack, as the caller is always the instrumented SUT. Calls made by non
+ * instrumented code (eg the JDK itself) are not checked.
+ *
+ * <p>
+ * File and socket accesses through {@code java.io} and {@code java.net} are
+ * not replaced here: they are expected to be already redirected by the virtual
+ * file system and the virtual network, which this mode requires. Writes
+ * through {@code java.nio.file} are checked here, reads are allowed anyway.
+ *
+ * <p>
+ * As classes defined by a class loader of the SUT would not be instrumented,
+ * and so not checked, the SUT is not allowed to create class loaders in this
+ * mode. This is stricter than the policy of the security manager.
+ */
+public final class CallSiteSandbox {
+
+	private CallSiteSandbox() {
+	}
+
+	private static void check(Permission perm) {
+		Sandbox.checkCallSitePermission(perm);
+	}
+
+	private static void checkExec(String command) {
+		if (Sandbox.isOnAndExecutingSUTCode()) {
+			// same as SecurityManager.checkExec
+			String path = new File(command).isAbsolute() ? command : "<<ALL FILES>>";
+			check(new FilePermission(path, "execute"));
+		}
+	}
+
+	private static void checkExec(String[] cmdarray) {
+		if (cmdarray != null && cmdarray.length > 0 && cmdarray[0] != null) {
+			checkExec(cmdarray[0]);
+		}
+	}
+
+	private static void checkRuntime(String name) {
+		if (Sandbox.isOnAndExecutingSUTCode()) {
+			check(new RuntimePermission(name));
+		}
+	}
+
+	private static void checkFile(Path path, String actions) {
+		if (path != null && Sandbox.isOnAndExecutingSUTCode()) {
+			check(new FilePermission(path.toString(), actions));
+		}
+	}
+
+	private static void checkOpen(Path path, Collection<? extends OpenOption> options) {
+		if (options.contains(StandardOpenOption.WRITE) || options.contains(StandardOpenOption.APPEND)) {
+			checkFile(path, "write");
+		}
+		if (options.contains(StandardOpenOption.DELETE_ON_CLOSE)) {
+			checkFile(path, "delete");
+		}
+	}
+
+	private static void checkOpen(Path path, OpenOption... options) {
+		checkOpen(path, Arrays.asList(options));
+	}
+
+	private static void checkProperty(String key, String actions) {
+		if (Sandbox.isOnAndExecutingSUTCode()) {
+			check(new PropertyPermission(key, actions));
+		}
+	}
+
+	// ------------ java.lang.System ------------
+
+	public static String getProperty(String key) {
+		checkProperty(key, "read");
+		return System.getProperty(key);
+	}
+
+	public static String getProperty(String key, String def) {
+		checkProperty(key, "read");
+		return System.getProperty(key, def);
+	}
+
+	public static String setProperty(String key, String value) {
+		checkProperty(key, "write");
+		return System.setProperty(key, value);
+	}
+
+	public static String clearProperty(String key) {
+		checkProperty(key, "write");
+		return System.clearProperty(key);
+	}
+
+	public static Properties getProperties() {
+		checkProperty("*", "read,write");
+		return System.getProperties();
+	}
+
+	public static void setProperties(Properties props) {
+		checkProperty("*", "read,write");
+		System.setProperties(props);
+	}
+
+	public static String getenv(String name) {
+		checkRuntime("getenv." + name);
+		return System.getenv(name);
+	}
+
+	public static Map<String, String> getenv() {
+		checkRuntime("getenv.*");
+		return System.getenv();
+	}
+
+	public static void exit(int status) {
+		checkRuntime("exitVM." + status);
+		System.exit(status);
+	}
+
+	public static void load(String filename) {
+		checkRuntime("loadLibrary." + filename);
+		System.load(filename);
+	}
+
+	public static void loadLibrary(String libname) {
+		checkRuntime("loadLibrary." + libname);
+		System.loadLibrary(libname);
+	}
+
+	public static void setSecurityManager(SecurityManager manager) {
+		checkRuntime("setSecurityManager");
+		System.setSecurityManager(manager);
+	}
+
+	public static void setIn(InputStream in) {
+		checkRuntime("setIO");
+		System.setIn(in);
+	}
+
+	public static void setOut(PrintStream out) {
+		checkRuntime("setIO");
+		System.setOut(out);
+	}
+
+	public static void setErr(PrintStream err) {
+		checkRuntime("setIO");
+		System.setErr(err);
+	}
+
+	// ------------ java.lang.Runtime ------------
+
+	public static void exit(Runtime runtime, int status) {
+		checkRuntime("exitVM." + status);
+		runtime.exit(status);
+	}
+
+	public static void halt(Runtime runtime, int status) {
+		checkRuntime("exitVM." + status);
+		runtime.halt(status);
+	}
+
+	public static void addShutdownHook(Runtime runtime, Thread hook) {
+		checkRuntime("shutdownHooks");
+		runtime.addShutdownHook(hook);
+	}
+
+	public static boolean removeShutdownHook(Runtime runtime, Thread hook) {
+		checkRuntime("shutdownHooks");
+		return runtime.removeShutdownHook(hook);
+	}
+
+	public static void load(Runtime runtime, String filename) {
+		checkRuntime("loadLibrary." + filename);
+		runtime.load(filename);
+	}
+
+	public static void loadLibrary(Runtime runtime, String libname) {
+		checkRuntime("loadLibrary." + libname);
+		runtime.loadLibrary(libname);
+	}
+
+	public static Process exec(Runtime runtime, String command) throws IOException {
+		checkExec(firstToken(command));
+		return runtime.exec(command);
+	}
+
+	public static Process exec(Runtime runtime, String command, String[] envp) throws IOException {
+		checkExec(firstToken(command));
+		return runtime.exec(command, envp);
+	}
+
+	public static Process exec(Runtime runtime, String command, String[] envp, File dir) throws IOException {
+		checkExec(firstToken(command));
+		return runtime.exec(command, envp, dir);
+	}
+
+	public static Process exec(Runtime runtime, String[] cmdarray) throws IOException {
+		checkExec(cmdarray);
+		return runtime.exec(cmdarray);
+	}
+
+	public static Process exec(Runtime runtime, String[] cmdarray, String[] envp) throws IOException {
+		checkExec(cmdarray);
+		return runtime.exec(cmdarray, envp);
+	}
+
+	public static Process exec(Runtime runtime, String[] cmdarray, String[] envp, File dir) throws IOException {
+		checkExec(cmdarray);
+		return runtime.exec(cmdarray, envp, dir);
+	}
+
+	private static String[] firstToken(String command) {
+		if (command == null) {
+			return null;
+		}
+		StringTokenizer tokenizer = new StringTokenizer(command);
+		return tokenizer.hasMoreTokens() ? new String[] { tokenizer.nextToken() } : null;
+	}
+
+	// ------------ java.lang.ProcessBuilder ------------
+
+	public static Process start(ProcessBuilder builder) throws IOException {
+		List<String> command = builder.command();
+		checkExec(command.toArray(new String[0]));
+		return builder.start();
+	}
+
+	// ------------ java.lang.reflect ------------
+
+	private static void checkSuppressAccessChecks(boolean flag) {
+		if (flag && Sandbox.isOnAndExecutingSUTCode()) {
+			// same as AccessibleObject.setAccessible
+			check(new ReflectPermission("suppressAccessChecks"));
+		}
+	}
+
+	public static void setAccessible(AccessibleObject[] array, boolean flag) {
+		checkSuppressAccessChecks(flag);
+		AccessibleObject.setAccessible(array, flag);
+	}
+
+	public static void setAccessible(AccessibleObject object, boolean flag) {
+		checkSuppressAccessChecks(flag);
+		object.setAccessible(flag);
+	}
+
+	public static void setAccessible(Field field, boolean flag) {
+		checkSuppressAccessChecks(flag);
+		field.setAccessible(flag);
+	}
+
+	public static void setAccessible(Method method, boolean flag) {
+		checkSuppressAccessChecks(flag);
+		method.setAccessible(flag);
+	}
+
+	public static void setAccessible(Constructor<?> constructor, boolean flag) {
+		checkSuppressAccessChecks(flag);
+		constructor.setAccessible(flag);
+	}
+
+	// ------------ java.lang.reflect.Method.invoke ------------
+
+	/*
+	 * A call "m.invoke(obj, args)" of the SUT is instrumented into
+	 * "getInvokedMethod(m, obj, args).invoke(getInvokedObject(m, obj, args), getInvokedArguments(m, obj, args))",
+	 * so that reflective calls of replaced methods go to their replacements
+	 * (and so are checked), whereas the other calls are still made by the SUT
+	 * itself, as reflection checks the access rights of its caller
+	 */
+
+	private static MethodCallReplacement getReplacement(Method method, Object obj, Object[] args) {
+		if (method == null || !MockFramework.isEnabled()) {
+			return null;
+		}
+		MethodCallReplacement replacement = MethodCallReplacementCache.getInstance().getReplacementCall(method);
+		if (replacement == null || replacement.getReplacementMethod() == null) {
+			return null;
+		}
+		// leave it to the original call to fail on wrong arguments
+		int numArgs = args == null ? 0 : args.length;
+		if (numArgs != method.getParameterCount()) {
+			return null;
+		}
+		if (!Modifier.isStatic(method.getModifiers()) && !method.getDeclaringClass().isInstance(obj)) {
+			return null;
+		}
+		return replacement;
+	}
+
+	public static Method getInvokedMethod(Method method, Object obj, Object[] args) {
+		MethodCallReplacement replacement = getReplacement(method, obj, args);
+		return replacement == null ? method : replacement.getReplacementMethod();
+	}
+
+	public static Object getInvokedObject(Method method, Object obj, Object[] args) {
+		MethodCallReplacement replacement = getReplacement(method, obj, args);
+		return replacement == null ? obj : null;
+	}
+
+	public static Object[] getInvokedArguments(Method method, Object obj, Object[] args) {
+		MethodCallReplacement replacement = getReplacement(method, obj, args);
+		if (replacement == null || !replacement.takesCallee()) {
+			return args;
+		}
+		Object[] arguments = new Object[args == null ? 1 : args.length + 1];
+		arguments[0] = obj;
+		if (args != null) {
+			System.arraycopy(args, 0, arguments, 1, args.length);
+		}
+		return arguments;
+	}
+
+	/**
+	 * Only used when {@link Method#invoke} is itself called through reflection
+	 */
+	public static Object invoke(Method method, Object obj, Object[] args)
+			throws IllegalAccessException, InvocationTargetException {
+		return getInvokedMethod(method, obj, args).invoke(getInvokedObject(method, obj, args),
+				getInvokedArguments(method, obj, args));
+	}
+
+	// ------------ class loaders ------------
+
+	/**
+	 * Called by the instrumented SUT before any constructor of a class loader
+	 */
+	public static void checkCreateClassLoader() {
+		checkRuntime("createClassLoader");
+	}
+
+	/**
+	 * Called by the instrumented SUT before {@link Constructor#newInstance},
+	 * which is not replaced for the same reason as {@link Method#invoke}
+	 */
+	public static void checkNewInstance(Constructor<?> constructor) {
+		if (constructor != null && ClassLoader.class.isAssignableFrom(constructor.getDeclaringClass())) {
+			checkCreateClassLoader();
+		}
+	}
+
+	/**
+	 * Only used when {@link Constructor#newInstance} is itself called through
+	 * reflection
+	 */
+	public static Object newInstance(Constructor<?> constructor, Object[] args)
+			throws InstantiationException, IllegalAccessException, InvocationTargetException {
+		checkNewInstance(constructor);
+		return constructor.newInstance(args);
+	}
+
+	public static URLClassLoader newInstance(URL[] urls) {
+		checkCreateClassLoader();
+		return URLClassLoader.newInstance(urls);
+	}
+
+	public static URLClassLoader newInstance(URL[] urls, ClassLoader parent) {
+		checkCreateClassLoader();
+		return URLClassLoader.newInstance(urls, parent);
+	}
+
+	// ------------ java.nio.file.Files ------------
+
+	public static OutputStream newOutputStream(Path path, OpenOption... options) throws IOException {
+		checkFile(path, "write");
+		if (Arrays.asList(options).contains(StandardOpenOption.DELETE_ON_CLOSE)) {
+			checkFile(path, "delete");
+		}
+		return Files.newOutputStream(path, options);
+	}
+
+	public static SeekableByteChannel newByteChannel(Path path, Set<? extends OpenOption> options,
+			FileAttribute<?>... attrs) throws IOException {
+		checkOpen(path, options);
+		return Files.newByteChannel(path, options, attrs);
+	}
+
+	public static SeekableByteChannel newByteChannel(Path path, OpenOption... options) throws IOException {
+		checkOpen(path, options);
+		return Files.newByteChannel(path, options);
+	}
+
+	public static BufferedWriter newBufferedWriter(Path path, Charset cs, OpenOption... options)
+			throws IOException {
+		checkFile(path, "write");
+		return Files.newBufferedWriter(path, cs, options);
+	}
+
+	public static BufferedWriter newBufferedWriter(Path path, OpenOption... options) throws IOException {
+		checkFile(path, "write");
+		return Files.newBufferedWriter(path, options);
+	}
+
+	public static Path createFile(Path path, FileAttribute<?>... attrs) throws IOException {
+		checkFile(path, "write");
+		return Files.createFile(path, attrs);
+	}
+
+	public static Path createDirectory(Path dir, FileAttribute<?>... attrs) throws IOException {
+		checkFile(dir, "write");
+		return Files.createDirectory(dir, attrs);
+	}
+
+	public static Path createDirectories(Path dir, FileAttribute<?>... attrs) throws IOException {
+		checkFile(dir, "write");
+		return Files.createDirectories(dir, attrs);
+	}
+
+	public static Path createTempFile(Path dir, String prefix, String suffix, FileAttribute<?>... attrs)
+			throws IOException {
+		checkFile(dir, "write");
+		return Files.createTempFile(dir, prefix, suffix, attrs);
+	}
+
+	public static Path createTempFile(String prefix, String suffix, FileAttribute<?>... attrs) throws IOException {
+		checkFile(Paths.get(System.getProperty("java.io.tmpdir")), "write");
+		return Files.createTempFile(prefix, suffix, attrs);
+	}
+
+	public static Path createTempDirectory(Path dir, String prefix, FileAttribute<?>... attrs) throws IOException {
+		checkFile(dir, "write");
+		return Files.createTempDirectory(dir, prefix, attrs);
+	}
+
+	public static Path createTempDirectory(String prefix, FileAttribute<?>... attrs) throws IOException {
+		checkFile(Paths.get(System.getProperty("java.io.tmpdir")), "write");
+		return Files.createTempDirectory(prefix, attrs);
+	}
+
+	public static Path createSymbolicLink(Path link, Path target, FileAttribute<?>... attrs) throws IOException {
+		checkFile(link, "write");
+		return Files.createSymbolicLink(link, target, attrs);
+	}
+
+	public static Path createLink(Path link, Path existing) throws IOException {
+		checkFile(link, "write");
+		checkFile(existing, "write");
+		return Files.createLink(link, existing);
+	}
+
+	public static void delete(Path path) throws IOException {
+		checkFile(path, "delete");
+		Files.delete(path);
+	}
+
+	public static boolean deleteIfExists(Path path) throws IOException {
+		checkFile(path, "delete");
+		return Files.deleteIfExists(path);
+	}
+
+	public static Path copy(Path source, Path target, CopyOption... options) throws IOException {
+		checkFile(target, "write");
+		return Files.copy(source, target, options);
+	}
+
+	public static long copy(InputStream in, Path target, CopyOption... options) throws IOException {
+		checkFile(target, "write");
+		return Files.copy(in, target, options);
+	}
+
+	public static Path move(Path source, Path target, CopyOption... options) throws IOException {
+		checkFile(source, "write");
+		checkFile(target, "write");
+		return Files.move(source, target, options);
+	}
+
+	public static Path write(Path path, byte[] bytes, OpenOption... options) throws IOException {
+		checkFile(path, "write");
+		return Files.write(path, bytes, options);
+	}
+
+	public static Path write(Path path, Iterable<? extends CharSequence> lines, Charset cs, OpenOption... options)
+			throws IOException {
+		checkFile(path, "write");
+		return Files.write(path, lines, cs, options);
+	}
+
+	public static Path write(Path path, Iterable<? extends CharSequence> lines, OpenOption... options)
+			throws IOException {
+		checkFile(path, "write");
+		return Files.write(path, lines, options);
+	}
+
+	public static Path setAttribute(Path path, String attribute, Object value, LinkOption... options)
+			throws IOException {
+		checkFile(path, "write");
+		return Files.setAttribute(path, attribute, value, options);
+	}
+
+	public static Path setPosixFilePermissions(Path path, Set<PosixFilePermission> perms) throws IOException {
+		checkFile(path, "write");
+		return Files.setPosixFilePermissions(path, perms);
+	}
+
+	public static Path setOwner(Path path, UserPrincipal owner) throws IOException {
+		checkFile(path, "write");
+		return Files.setOwner(path, owner);
+	}
+
+	public static Path setLastModifiedTime(Path path, FileTime time) throws IOException {
+		checkFile(path, "write");
+		return Files.setLastModifiedTime(path, time);
+	}
+
+	/**
+	 * Checked as a write, as the view can change the attributes without any
+	 * further check
+	 */
+	public static <V extends FileAttributeView> V getFileAttributeView(Path path, Class<V> type,
+			LinkOption... options) {
+		checkFile(path, "write");
+		return Files.getFileAttributeView(path, type, options);
+	}
+
+	// ------------ java.nio.channels ------------
+
+	public static FileChannel open(Path path, OpenOption... options) throws IOException {
+		checkOpen(path, options);
+		return FileChannel.open(path, options);
+	}
+
+	public static FileChannel open(Path path, Set<? extends OpenOption> options, FileAttribute<?>... attrs)
+			throws IOException {
+		checkOpen(path, options);
+		return FileChannel.open(path, options, attrs);
+	}
+
+	public static AsynchronousFileChannel openAsynchronous(Path path, OpenOption... options) throws IOException {
+		checkOpen(path, options);
+		return AsynchronousFileChannel.open(path, options);
+	}
+
+	public static AsynchronousFileChannel openAsynchronous(Path path, Set<? extends OpenOption> options,
+			ExecutorService executor, FileAttribute<?>... attrs) throws IOException {
+		checkOpen(path, options);
+		return AsynchronousFileChannel.open(path, options, executor, attrs);
+	}
+
+	// ------------ java.lang.Thread ------------
+
+	public static void setDefaultUncaughtExceptionHandler(Thread.UncaughtExceptionHandler handler) {
+		checkRuntime("setDefaultUncaughtExceptionHandler");
+		Thread.setDefaultUncaughtExceptionHandler(handler);
+	}
+}
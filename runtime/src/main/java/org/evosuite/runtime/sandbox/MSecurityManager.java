@@ -41,6 +41,7 @@ import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.PropertyPermission;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.logging.FileHandler;
 import java.util.logging.LoggingPermission;
@@ -190,7 +191,7 @@ public class MSecurityManager extends SecurityManager {
 	 * instance is automatically added as "privileged"
 	 */
 	public MSecurityManager() {
-		privilegedThreads = new CopyOnWriteArraySet<>();
+		privilegedThreads = ConcurrentHashMap.newKeySet();
 		privilegedThreads.add(Thread.currentThread());
 		defaultManager = System.getSecurityManager();
 		executingTestCase = false;
@@ -427,12 +428,21 @@ public class MSecurityManager extends SecurityManager {
 	 */
 	@Override
 	public void checkPermission(Permission perm) throws SecurityException {
+		if (!statistics.isProfiling()) {
+			checkPermissionAndCount(perm);
+			return;
+		}
+		final long start = System.nanoTime();
+		try {
+			checkPermissionAndCount(perm);
+		} finally {
+			statistics.permissionChecked(System.nanoTime() - start);
+		}
+	}
+
+	private void checkPermissionAndCount(Permission perm) throws SecurityException {
 		// check access
 		if (!allowPermission(perm)) {
-			String stack = "\n";
-			for (StackTraceElement e : Thread.currentThread().getStackTrace()) {
-				stack += e + "\n";
-			}
 			if (executingTestCase) {
 				/*
 				 * report statistics only during test case execution, although still log them. The reason is to avoid EvoSuite threads which might not
@@ -440,9 +450,19 @@ public class MSecurityManager extends SecurityManager {
 				 */
 				statistics.permissionDenied(perm);
 			}
-			logger.debug("Security manager blocks permission " + perm + stack);
+			/*
+			 * the stack trace of the thrown exception already tells where the
+			 * permission was requested, so only pay for a copy when logging it
+			 */
+			if (logger.isDebugEnabled()) {
+				String stack = "\n";
+				for (StackTraceElement e : Thread.currentThread().getStackTrace()) {
+					stack += e + "\n";
+				}
+				logger.debug("Security manager blocks permission " + perm + stack);
+			}
 
-			throw new SecurityException("Security manager blocks " + perm + stack);
+			throw new SecurityException("Security manager blocks " + perm);
 		} else {
 			if (executingTestCase) {
 				statistics.permissionAllowed(perm);
@@ -452,6 +472,39 @@ public class MSecurityManager extends SecurityManager {
 		return;
 	}
 
+	/**
+	 * Check a permission needed by a call of the SUT that was replaced by
+	 * {@link CallSiteSandbox}. As the caller is known to be instrumented SUT
+	 * code, there is no need to look at the stack: outside of test execution
+	 * and on privileged threads everything is allowed, otherwise the same rules
+	 * as in {@link #checkPermission(Permission)} apply, except that creating a
+	 * class loader is denied: the classes it defines would not be instrumented,
+	 * and so no call of theirs would be checked.
+	 *
+	 * @param perm
+	 *            the permission the replaced call would need
+	 * @throws SecurityException
+	 *             if the SUT is not allowed to make the call
+	 */
+	public void checkCallSitePermission(Permission perm) throws SecurityException {
+		if (!executingTestCase) {
+			return;
+		}
+
+		Thread current = Thread.currentThread();
+		if (privilegedThreads.contains(current) && privilegedThreadToIgnore != current) {
+			return;
+		}
+
+		boolean isClassLoader = perm instanceof RuntimePermission && perm.getName().equals("createClassLoader");
+		if (isClassLoader || !checkSUTPermission(perm)) {
+			statistics.permissionDenied(perm);
+			logger.debug("Sandbox blocks call requiring " + perm);
+			throw new SecurityException("Sandbox blocks " + perm);
+		}
+		statistics.permissionAllowed(perm);
+	}
+
 	// ------------------------------------------------------------------------------------------
 
 	private boolean isAWTThread() {
@@ -525,7 +578,21 @@ public class MSecurityManager extends SecurityManager {
 			}
 		}
 
+		return checkSUTPermission(perm);
+	}
+
+	/**
+	 * Check a permission requested by a thread that is not privileged, ie by
+	 * the SUT
+	 *
+	 * @param perm
+	 * @return false if access is forbidden, true otherwise
+	 */
+	private boolean checkSUTPermission(Permission perm) {
 
+		if (RuntimeSettings.sandboxMode.equals(Sandbox.SandboxMode.OFF)) {
+			return true;
+		}
 
 		if (RuntimeSettings.sandboxMode.equals(Sandbox.SandboxMode.IO)) {
 			// TODO: This makes JVM8 on MacOS crash
@@ -1029,7 +1096,12 @@ public class MSecurityManager extends SecurityManager {
 
 		// AWT needs to be treated specially
 		//FIXME handling of awt read permission
-		if ("true".equals(AWT_HEADLESS) && isAWTThread()) {
+		/*
+		 * with call site checks, the permission is always requested by SUT
+		 * code, and never by the AWT internals
+		 */
+		if ("true".equals(AWT_HEADLESS)
+				&& !RuntimeSettings.sandboxMode.equals(Sandbox.SandboxMode.CALL_SITE) && isAWTThread()) {
 			if (name.equals("shutdownHooks"))
 				return true;
 			if (name.equals("modifyThreadGroup"))
@@ -28,6 +28,7 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.slf4j.Logger;
 
@@ -68,6 +69,16 @@ public class PermissionStatistics {
 
 
     private String threadGroupToMonitor;
+
+	/**
+	 * Whether the security manager should measure the time spent in permission
+	 * checks. Set by the client from its profiling property.
+	 */
+	private volatile boolean profiling = false;
+
+	private final LongAdder checks = new LongAdder();
+
+	private final LongAdder checkNanos = new LongAdder();
   
 
     // Private constructor
@@ -111,6 +122,37 @@ public class PermissionStatistics {
 		recentAccess.clear();
 	}
 
+	public boolean isProfiling() {
+		return profiling;
+	}
+
+	public void setProfiling(boolean profiling) {
+		this.profiling = profiling;
+	}
+
+	/**
+	 * Records the duration of one permission check while profiling
+	 * 
+	 * @param nanos
+	 */
+	public void permissionChecked(long nanos) {
+		checks.increment();
+		checkNanos.add(nanos);
+	}
+
+	public long getNumChecks() {
+		return checks.sum();
+	}
+
+	public long getCheckTimeNanos() {
+		return checkNanos.sum();
+	}
+
+	public void resetCheckTime() {
+		checks.reset();
+		checkNanos.reset();
+	}
+
 	private void rememberRecentReadFilePermissions(Permission permission) {
 		try {
 			FilePermission fp = (FilePermission) permission;
@@ -19,9 +19,10 @@
  */
 package org.evosuite.runtime.sandbox;
 
+import java.security.Permission;
 import java.util.Set;
 
-
+import org.evosuite.runtime.RuntimeSettings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,7 +34,26 @@ import org.slf4j.LoggerFactory;
 public class Sandbox {
 
     public static enum SandboxMode {
-        OFF, RECOMMENDED, IO
+        OFF, RECOMMENDED, IO,
+        /**
+         * RECOMMENDED policy, but checked by {@link CallSiteSandbox} on the
+         * sensitive calls of the instrumented SUT, without installing a
+         * security manager. Checked are system properties, environment,
+         * exit/halt, exec, native libraries, shutdown hooks, standard streams,
+         * setAccessible, writes through java.nio.file and file channels, and
+         * the same calls made with Method.invoke; the SUT cannot create class
+         * loaders. File and socket accesses through java.io and java.net are
+         * left to the virtual file system and network, so this mode is only
+         * accepted together with both.
+         *
+         * <p>
+         * This is not as complete as the security manager: calls through
+         * method handles or native code, and any code that is not loaded by
+         * the instrumenting class loader (eg classes defined with
+         * MethodHandles.Lookup or Unsafe, or scripts run by a script engine)
+         * are not checked.
+         */
+        CALL_SITE
     }
 
 	private static final Logger logger = LoggerFactory.getLogger(Sandbox.class);
@@ -51,6 +71,11 @@ public class Sandbox {
 	 */
 	private static volatile int counter;
 
+	/**
+	 * Whether the manager was installed with {@link java.lang.System#setSecurityManager}
+	 */
+	private static boolean managerApplied;
+
     private static boolean checkForInitialization = false;
 
     public static void setCheckForInitialization(boolean checkForInitialization) {
@@ -62,6 +87,11 @@ public class Sandbox {
 	 */
 	public static synchronized void initializeSecurityManagerForSUT(Set<Thread> privileged) {
 		if (manager == null) {
+			if (RuntimeSettings.isUsingCallSiteSandbox() && !(RuntimeSettings.useVFS && RuntimeSettings.useVNET)) {
+				throw new IllegalStateException("Sandbox mode " + SandboxMode.CALL_SITE
+						+ " does not check file and socket accesses through java.io and java.net, so it needs"
+						+ " both the virtual file system and the virtual network to be enabled");
+			}
 			manager = new MSecurityManager();
 			
 			if(privileged == null){
@@ -72,7 +102,10 @@ public class Sandbox {
 				}
 			}
 			
-			manager.apply();
+			managerApplied = !RuntimeSettings.sandboxMode.equals(SandboxMode.CALL_SITE);
+			if (managerApplied) {
+				manager.apply();
+			}
 		} else {
 			logger.warn("Sandbox can be initalized only once");
 		}
@@ -107,7 +140,7 @@ public class Sandbox {
 		counter--;
 		
 		if(counter==0){
-			if (manager != null) {
+			if (manager != null && managerApplied) {
 				manager.restoreDefaultManager();
 			}
 			manager = null;
@@ -148,6 +181,24 @@ public class Sandbox {
 		return manager.isExecutingTestCase();
 	}
 
+	/**
+	 * Check a permission needed by a sensitive call of the SUT. Only to be
+	 * used by {@link CallSiteSandbox}, ideally after checking
+	 * {@link #isOnAndExecutingSUTCode()} to avoid creating the permission
+	 * object for nothing.
+	 *
+	 * @param perm
+	 * @throws SecurityException
+	 *             if the SUT is not allowed to make the call
+	 */
+	public static void checkCallSitePermission(Permission perm) throws SecurityException {
+		MSecurityManager current = manager;
+		if (current == null) {
+			return;
+		}
+		current.checkCallSitePermission(perm);
+	}
+
 	public static void goingToExecuteUnsafeCodeOnSameThread() throws SecurityException,
 	        IllegalStateException {
 		if (!isSecurityManagerInitialized()) {
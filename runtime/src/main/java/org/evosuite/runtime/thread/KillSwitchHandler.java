@@ -23,13 +23,18 @@ public class KillSwitchHandler implements KillSwitch{
 
 	private static final KillSwitchHandler singleton = new KillSwitchHandler();
 	
-	private volatile boolean kill;
+	/**
+	 * Read directly by the instrumented code, to avoid a call
+	 * in the common case where the switch is off.
+	 * Use {@link #setKillSwitch(boolean)} to change it
+	 */
+	public static volatile boolean killSwitchOn;
 	
 	/**
 	 * singleton constructor
 	 */
 	private KillSwitchHandler(){
-		kill = false;
+		killSwitchOn = false;
 	}
 	
 	public static KillSwitchHandler getInstance(){
@@ -38,7 +43,7 @@ public class KillSwitchHandler implements KillSwitch{
 
 	@Override
 	public void setKillSwitch(boolean kill) {
-		this.kill = kill;
+		killSwitchOn = kill;
 	}
 	
 	/**
@@ -46,7 +51,7 @@ public class KillSwitchHandler implements KillSwitch{
 	 * @throws RuntimeException
 	 */
 	public void checkTimeout() throws RuntimeException{
-		if(kill){
+		if(killSwitchOn){
 			throw new RuntimeException("Kill switch"); 
 		}
 	}
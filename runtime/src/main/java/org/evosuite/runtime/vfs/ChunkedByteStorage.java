@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.runtime.vfs;
+
+import java.util.Arrays;
+
+/**
+ * Content of a virtual file, stored as a growable array of fixed size
+ * {@code byte[]} chunks.
+ *
+ * <p>
+ * This class is not thread-safe, synchronization is done by {@link VFile}
+ */
+final class ChunkedByteStorage {
+
+	static final int CHUNK_SIZE = 8 * 1024;
+
+	private static final byte[][] NO_CHUNKS = new byte[0][];
+
+	/**
+	 * Only the chunks needed for the current size are allocated, the rest of
+	 * the array is spare capacity
+	 */
+	private byte[][] chunks;
+
+	private int size;
+
+	ChunkedByteStorage() {
+		chunks = NO_CHUNKS;
+		size = 0;
+	}
+
+	int size() {
+		return size;
+	}
+
+	/**
+	 * @return the unsigned byte at {@code position}, or -1 if beyond the end
+	 */
+	int read(int position) {
+		if (position >= size) {
+			return -1;
+		}
+		return chunks[position / CHUNK_SIZE][position % CHUNK_SIZE] & 0xFF;
+	}
+
+	/**
+	 * Copy up to {@code len} bytes starting at {@code position} into {@code b}
+	 *
+	 * @return the number of bytes copied, or -1 if {@code position} is at or
+	 *         beyond the end
+	 */
+	int read(int position, byte[] b, int off, int len) {
+		if (position >= size) {
+			return -1;
+		}
+		int toRead = Math.min(len, size - position);
+		int done = 0;
+		while (done < toRead) {
+			int chunk = (position + done) / CHUNK_SIZE;
+			int inChunk = (position + done) % CHUNK_SIZE;
+			int n = Math.min(toRead - done, CHUNK_SIZE - inChunk);
+			System.arraycopy(chunks[chunk], inChunk, b, off + done, n);
+			done += n;
+		}
+		return toRead;
+	}
+
+	/**
+	 * Write {@code len} bytes of {@code b} at {@code position}, filling any
+	 * gap after the current end with zeros
+	 */
+	void write(int position, byte[] b, int off, int len) {
+		if (len <= 0) {
+			return;
+		}
+		int end = position + len;
+		if (end > size) {
+			setLength(end);
+		}
+		int done = 0;
+		while (done < len) {
+			int chunk = (position + done) / CHUNK_SIZE;
+			int inChunk = (position + done) % CHUNK_SIZE;
+			int n = Math.min(len - done, CHUNK_SIZE - inChunk);
+			System.arraycopy(b, off + done, chunks[chunk], inChunk, n);
+			done += n;
+		}
+	}
+
+	/**
+	 * Truncate or extend (with zeros) the storage to the given length
+	 */
+	void setLength(int newLength) {
+		if (newLength == size) {
+			return;
+		}
+		if (newLength == 0) {
+			clear();
+			return;
+		}
+
+		int neededChunks = numberOfChunks(newLength);
+
+		if (newLength < size) {
+			for (int i = neededChunks; i < chunks.length; i++) {
+				chunks[i] = null;
+			}
+			// bytes after the new end have to read as zeros if the file grows again
+			int inChunk = newLength % CHUNK_SIZE;
+			if (inChunk != 0) {
+				Arrays.fill(chunks[neededChunks - 1], inChunk, CHUNK_SIZE, (byte) 0);
+			}
+		} else {
+			if (neededChunks > chunks.length) {
+				chunks = Arrays.copyOf(chunks, Math.max(neededChunks, chunks.length * 2));
+			}
+			for (int i = numberOfChunks(size); i < neededChunks; i++) {
+				chunks[i] = new byte[CHUNK_SIZE];
+			}
+		}
+		size = newLength;
+	}
+
+	void clear() {
+		chunks = NO_CHUNKS;
+		size = 0;
+	}
+
+	private static int numberOfChunks(int length) {
+		return (int) (((long) length + CHUNK_SIZE - 1) / CHUNK_SIZE);
+	}
+}
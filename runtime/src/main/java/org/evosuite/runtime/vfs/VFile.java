@@ -19,9 +19,6 @@
  */
 package org.evosuite.runtime.vfs;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * Representation of a virtual file
  * 
@@ -31,18 +28,17 @@ import java.util.List;
 public class VFile extends FSObject{
 
 	/**
-	 * the actual data contained in file as a list of bytes
+	 * the actual data contained in file, in chunks of bytes
 	 */
-	private final List<Byte> data;
+	private ChunkedByteStorage data;
 
 	public VFile(String path, VFolder parent) {
 		super(path, parent);
 
-		//TODO might need a better type of data structure supporting multi-threading
-		data = new ArrayList<>(1024);
+		data = new ChunkedByteStorage();
 	}
 
-	public void eraseData(){
+	public synchronized void eraseData(){
 		data.clear();
 	}
 
@@ -52,24 +48,7 @@ public class VFile extends FSObject{
 
 
 	public synchronized void setLength(int newLength){
-
-		/*
-		 * Note: this implementation is not particularly efficient...
-		 * but setLength is rarely called
-		 */
-
-		while(newLength > data.size()){
-			data.add((byte)0);
-		}
-
-		if(newLength==0){
-			data.clear();
-			return;
-		}
-		
-		while(data.size() > newLength){
-			data.remove(data.size()-1);
-		}
+		data.setLength(newLength);
 	}
 
     /**
@@ -82,11 +61,27 @@ public class VFile extends FSObject{
 			throw new IllegalArgumentException("Position in the file cannot be negative");
 		}
 
-		if(position >= data.size()){
-			return -1; //this represent the end of the stream
+		return data.read(position);
+	}
+
+	/**
+	 * Read up to {@code len} bytes starting at {@code position} into {@code b}
+	 *
+	 * @return the number of bytes read, or -1 if {@code position} is at or beyond the end of the file
+	 */
+	public synchronized int read(int position, byte[] b, int off, int len) throws IllegalArgumentException{
+		if(position<0){
+			throw new IllegalArgumentException("Position in the file cannot be negative");
+		}
+		if(off<0 || len<0 || len > b.length-off){
+			throw new IndexOutOfBoundsException();
 		}
 
-		return data.get(position) & 0xFF;
+		if(len==0){
+			return 0;
+		}
+
+		return data.read(position, b, off, len);
 	}
 
 	public synchronized int writeBytes(byte[] b, int off, int len){
@@ -105,26 +100,18 @@ public class VFile extends FSObject{
 		}
 
 		if(position >= data.size()){
-			setLength(position);
+			data.setLength(position);
 		}
 
-		int written = 0;
-		for(int i=off; i<b.length & (i-off)<len; i++){
-			if(position < data.size()){
-				data.set(position,(b[i]));
-			} else {
-				data.add(b[i]);
-			}
-			position++;
-			written++;
-		}
+		//as before, never write more than what is left in the array after the offset
+		int written = Math.max(0, Math.min(len, b.length - off));
+		data.write(position, b, off, written);
 
 		setLastModified(getCurrentTimeMillis());
 
 		return written;
 	}
 
-
 	@Override
 	public synchronized boolean delete(){
 		eraseData();
@@ -24,11 +24,14 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.evosuite.runtime.testdata.EvoSuiteFile;
+import org.evosuite.runtime.ExecutionContext;
 import org.evosuite.runtime.LeakingResource;
 import org.evosuite.runtime.sandbox.MSecurityManager;
 import org.slf4j.Logger;
@@ -54,11 +57,6 @@ public final class VirtualFileSystem {
 
 	private static final Logger logger = LoggerFactory.getLogger(VirtualFileSystem.class);
 
-	/**
-	 * The only instance of this class
-	 */
-	private static final VirtualFileSystem singleton = new VirtualFileSystem();
-
 	/**
 	 * The root of the VFS
 	 * 
@@ -67,6 +65,13 @@ public final class VirtualFileSystem {
 	 */
 	private VFolder root;
 
+	/**
+	 * Absolute paths of the objects found so far, to avoid walking the folder tree
+	 * on each lookup. Entries are only a cache: they are checked for deletion on use,
+	 * and the whole index is dropped whenever objects can change their path.
+	 */
+	private final Map<String, FSObject> pathIndex;
+
 	/**
 	 * An atomic counter for generating unique names for tmp files
 	 */
@@ -111,15 +116,26 @@ public final class VirtualFileSystem {
 		accessedFiles = new CopyOnWriteArraySet<>(); //we only add during test execution, and read after
 		leakingResources =  new CopyOnWriteArraySet<>();
 		classesThatShouldThrowIOException = new CopyOnWriteArraySet<>(); //should only contain very few values
+		pathIndex = new ConcurrentHashMap<>();
 	}
 
 	/**
-	 * Get the final instance of this singleton
+	 * Get the file system of the {@link ExecutionContext}
 	 * 
 	 * @return
 	 */
 	public static VirtualFileSystem getInstance() {
-		return singleton;
+		return ExecutionContext.current().getFileSystem();
+	}
+
+	/**
+	 * Create a new, empty file system. This is only meant to be used by
+	 * {@link ExecutionContext}, everything else should use {@link #getInstance()}
+	 *
+	 * @return
+	 */
+	public static VirtualFileSystem createInstance() {
+		return new VirtualFileSystem();
 	}
 
 	/**
@@ -127,6 +143,7 @@ public final class VirtualFileSystem {
 	 */
 	public void resetSingleton() {
 		root = null;
+		pathIndex.clear();
 		tmpFileCounter.set(0);
 		accessedFiles.clear();
 		shouldAllThrowIOException = false;
@@ -208,6 +225,7 @@ public final class VirtualFileSystem {
 	public void init() {
 
 		root = new VFolder(null, null);
+		pathIndex.clear();
 
 		String workingDir = getWorkingDirPath();
 		createFolder(workingDir);
@@ -299,10 +317,24 @@ public final class VirtualFileSystem {
 	 */
 	public FSObject findFSObject(String rawPath) {
 		String path = new File(rawPath).getAbsolutePath();
-		String[] tokens = tokenize(path);
 
 		markAccessedFile(path);
 
+		FSObject indexed = pathIndex.get(path);
+		if (indexed != null && !indexed.isDeleted()) {
+			return indexed;
+		}
+
+		FSObject found = findFSObjectInTree(path);
+		if (found != null) {
+			pathIndex.put(path, found);
+		}
+		return found;
+	}
+
+	private FSObject findFSObjectInTree(String path) {
+		String[] tokens = tokenize(path);
+
 		VFolder parent = root;
 		for (int i = 0; i < tokens.length; i++) {
 			String name = tokens[i];
@@ -381,7 +413,12 @@ public final class VirtualFileSystem {
 			return false;
 		}
 
-		return src.rename(destination);
+		boolean renamed = src.rename(destination);
+		if (renamed) {
+			//the paths of the renamed object and of all its content have changed
+			pathIndex.clear();
+		}
+		return renamed;
 	}
 
 	public boolean createFolder(String rawPath) {
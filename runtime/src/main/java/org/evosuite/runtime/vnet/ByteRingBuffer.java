@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.runtime.vnet;
+
+/**
+ * Growable circular buffer of bytes, used for one direction of a TCP
+ * connection. Data is copied in bulk with {@link System#arraycopy}, and
+ * reads never block: on an empty buffer they return -1.
+ *
+ * <p>
+ * This class is thread-safe. Each buffer has its own lock, so the two
+ * directions of a connection never contend with each other, and a lock is
+ * taken once per bulk operation rather than once per byte.
+ */
+final class ByteRingBuffer {
+
+	private static final int INITIAL_CAPACITY = 256;
+
+	private static final byte[] EMPTY = new byte[0];
+
+	private byte[] data;
+
+	/** Index of the next byte to read */
+	private int head;
+
+	private int size;
+
+	ByteRingBuffer() {
+		data = EMPTY;
+		head = 0;
+		size = 0;
+	}
+
+	synchronized void write(byte b) {
+		ensureCapacity(size + 1);
+		data[(head + size) % data.length] = b;
+		size++;
+	}
+
+	synchronized void write(byte[] b, int off, int len) {
+		if (len <= 0) {
+			return;
+		}
+		ensureCapacity(size + len);
+		int tail = (head + size) % data.length;
+		int first = Math.min(len, data.length - tail);
+		System.arraycopy(b, off, data, tail, first);
+		System.arraycopy(b, off + first, data, 0, len - first);
+		size += len;
+	}
+
+	/**
+	 * @return the next byte as a value in 0-255, or -1 if the buffer is empty
+	 */
+	synchronized int read() {
+		if (size == 0) {
+			return -1;
+		}
+		int value = data[head] & 0xFF;
+		head = (head + 1) % data.length;
+		size--;
+		return value;
+	}
+
+	/**
+	 * Move up to {@code len} bytes into {@code b}
+	 *
+	 * @return the number of bytes read, or -1 if the buffer is empty
+	 */
+	synchronized int read(byte[] b, int off, int len) {
+		if (size == 0) {
+			return -1;
+		}
+		int n = Math.min(len, size);
+		int first = Math.min(n, data.length - head);
+		System.arraycopy(data, head, b, off, first);
+		System.arraycopy(data, 0, b, off + first, n - first);
+		head = (head + n) % data.length;
+		size -= n;
+		return n;
+	}
+
+	synchronized int size() {
+		return size;
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (capacity <= data.length) {
+			return;
+		}
+		int newCapacity = Math.max(INITIAL_CAPACITY, data.length);
+		while (newCapacity < capacity) {
+			newCapacity *= 2;
+		}
+		byte[] newData = new byte[newCapacity];
+		if (size > 0) {
+			int first = Math.min(size, data.length - head);
+			System.arraycopy(data, head, newData, 0, first);
+			System.arraycopy(data, 0, newData, first, size - first);
+		}
+		data = newData;
+		head = 0;
+	}
+}
@@ -19,9 +19,6 @@
  */
 package org.evosuite.runtime.vnet;
 
-import java.util.ArrayDeque;
-import java.util.Queue;
-
 /**
  * Class used to simulate a bi-directional TCP socket connection between two hosts.
  * This class only handle the exchange of data between SUT and EvoSuite tests, and not
@@ -43,12 +40,12 @@ public class NativeTcp {
 	/**
 	 * The TCP buffer used locally by the SUT
 	 */
-	private final Queue<Byte> localBuffer;
+	private final ByteRingBuffer localBuffer;
 	
 	/**
 	 * The TCP buffer used by the EvoSuite tests to simulate a remote connection
 	 */
-	private final Queue<Byte> remoteBuffer;
+	private final ByteRingBuffer remoteBuffer;
 	
 	/**
 	 * Info on local (SUT) address/port
@@ -68,8 +65,8 @@ public class NativeTcp {
 		
 		this.localEndPoint = localEndPoint; //this can be null
 		this.remoteEndPoint = remoteEndPoint;
-		localBuffer = new ArrayDeque<>();
-		remoteBuffer = new ArrayDeque<>();
+		localBuffer = new ByteRingBuffer();
+		remoteBuffer = new ByteRingBuffer();
 	}
 	
 	public boolean isBound(){
@@ -87,9 +84,16 @@ public class NativeTcp {
 	/**
 	 *  Used by SUT to simulate sending of data to remote host
 	 */
-	public synchronized void writeToRemote(byte b){
+	public void writeToRemote(byte b){
 		//the data is directly added to remote buffer
-		remoteBuffer.add(b);
+		remoteBuffer.write(b);
+	}
+
+	/**
+	 *  Used by SUT to simulate sending of data to remote host
+	 */
+	public void writeToRemote(byte[] b, int off, int len){
+		remoteBuffer.write(b, off, len);
 	}
 	
 	/**
@@ -99,23 +103,35 @@ public class NativeTcp {
      *   Note: in Java bytes are signed in -128,127, whereas here we need to return a unsigned
      *   int representation
 	 */
-	public synchronized int readInSUTfromRemote(){
-		if(localBuffer.isEmpty()){
-			/*
-			 * Note: in  TCP, a read operation on a empty buffer would be blocking 
-			 */
-			return -1;  
-		}
-		
-		return localBuffer.poll() & 0xFF;
+	public int readInSUTfromRemote(){
+		/*
+		 * Note: in  TCP, a read operation on a empty buffer would be blocking 
+		 */
+		return localBuffer.read();
+	}
+
+	/**
+	 * Read up to {@code len} bytes sent by the remote host
+	 *
+	 * @return the number of bytes read, or -1 if stream is empty
+	 */
+	public int readInSUTfromRemote(byte[] b, int off, int len){
+		return localBuffer.read(b, off, len);
 	}
 	
 	/**
 	 * Used by tests to simulate sending of data to the SUT opening a server connection
 	 * @param b
 	 */
-	public synchronized void writeToSUT(byte b){
-		localBuffer.add(b);
+	public void writeToSUT(byte b){
+		localBuffer.write(b);
+	}
+
+	/**
+	 * Used by tests to simulate sending of data to the SUT opening a server connection
+	 */
+	public void writeToSUT(byte[] b, int off, int len){
+		localBuffer.write(b, off, len);
 	}
 		
 	/**
@@ -125,25 +141,31 @@ public class NativeTcp {
 	 * 
 	 * @return
 	 */
-	public synchronized int readInTestFromSUT(){
-		if(remoteBuffer.isEmpty()){
-			return -1;
-		}
-		return remoteBuffer.poll() & 0xFF;
+	public int readInTestFromSUT(){
+		return remoteBuffer.read();
+	}
+
+	/**
+	 * Read up to {@code len} bytes of the data sent by the SUT
+	 *
+	 * @return the number of bytes read, or -1 if stream is empty
+	 */
+	public int readInTestFromSUT(byte[] b, int off, int len){
+		return remoteBuffer.read(b, off, len);
 	}
 
 	/**
 	 * @return the amount of data sent by the remote host and that
 	 * has not been read yet by the local SUT 
 	 */
-	public synchronized int getAmountOfDataInLocalBuffer(){
+	public int getAmountOfDataInLocalBuffer(){
 		return localBuffer.size();
 	}
 	
 	/**
 	 * @return the amount of data sent by the SUT to the remote host
 	 */
-	public synchronized int getAmountOfDataInRemoteBuffer(){
+	public int getAmountOfDataInRemoteBuffer(){
 		return remoteBuffer.size();
 	}
 
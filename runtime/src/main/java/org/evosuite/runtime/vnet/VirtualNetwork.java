@@ -31,6 +31,7 @@ import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import org.evosuite.runtime.ExecutionContext;
 import org.evosuite.runtime.mock.java.net.MockInetAddress;
 import org.evosuite.runtime.mock.java.net.MockURL;
 
@@ -50,11 +51,6 @@ public class VirtualNetwork {
 	public enum ConnectionType {UDP,TCP};
 
 
-	/**
-	 * Singleton instance
-	 */
-	private static final VirtualNetwork instance = new VirtualNetwork();
-
 	/**
 	 * When we simulate a remote incoming connection, we still need a remote port.
 	 * Note: in theory we could have the same port if we simulate several different
@@ -127,6 +123,11 @@ public class VirtualNetwork {
 	 */
 	private final List<NetworkInterfaceState> networkInterfaces;
 
+	/**
+	 * Interfaces shared by all instances, created on first use
+	 */
+	private static List<NetworkInterfaceState> defaultNetworkInterfaces;
+
 
     /**
      * Key -> resolved URL (ie based on DNS) of the remote file
@@ -155,7 +156,7 @@ public class VirtualNetwork {
 	private DNS dns;
 
 	/**
-	 * private, singleton constructor
+	 * private constructor, instances are created through {@link #createInstance()}
 	 */
 	private VirtualNetwork() {
 		localListeningPorts = new CopyOnWriteArraySet<>();
@@ -173,8 +174,19 @@ public class VirtualNetwork {
 		dns = new DNS();
 	}
 
+	/**
+	 * Get the network of the {@link ExecutionContext}
+	 */
 	public static VirtualNetwork getInstance() {
-		return instance;
+		return ExecutionContext.current().getNetwork();
+	}
+
+	/**
+	 * Create a new, empty network. This is only meant to be used by
+	 * {@link ExecutionContext}, everything else should use {@link #getInstance()}
+	 */
+	public static VirtualNetwork createInstance() {
+		return new VirtualNetwork();
 	}
 
 	//------------------------------------------
@@ -535,16 +547,28 @@ public class VirtualNetwork {
 	}
 
 	private void initNetworkInterfaces() {
+		networkInterfaces.addAll(getDefaultNetworkInterfaces());
+	}
+
+	/**
+	 * The interfaces are the same for every test, and are never modified, so
+	 * they are created only once instead of at each reset
+	 */
+	private static synchronized List<NetworkInterfaceState> getDefaultNetworkInterfaces() {
+		if (defaultNetworkInterfaces != null) {
+			return defaultNetworkInterfaces;
+		}
 
 		try{
 			NetworkInterfaceState loopback = new NetworkInterfaceState(
 					"Evo_lo0", 1, null, 16384, true, MockInetAddress.getByName("127.0.0.1"));
-			networkInterfaces.add(loopback);
 
 			NetworkInterfaceState wifi = new NetworkInterfaceState(
 					"Evo_en0", 5, new byte[]{0, 42, 0, 42, 0, 42}, 
 					1500, false, MockInetAddress.getByName("192.168.1.42"));
-			networkInterfaces.add(wifi);
+
+			defaultNetworkInterfaces = Collections.unmodifiableList(Arrays.asList(loopback, wifi));
+			return defaultNetworkInterfaces;
 		} catch(Exception e) {
 			//this should never happen
 			throw new RuntimeException("EvoSuite error: "+e.getMessage());
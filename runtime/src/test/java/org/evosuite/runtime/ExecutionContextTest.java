@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.runtime;
+
+import org.evosuite.runtime.vfs.VirtualFileSystem;
+import org.evosuite.runtime.vnet.VirtualNetwork;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ExecutionContextTest {
+
+	@After
+	public void tearDown() {
+		System.resetRuntime();
+		Random.reset();
+	}
+
+	@Test
+	public void testEnvironmentIsTheContextOne() {
+		Assert.assertSame(ExecutionContext.current(), ExecutionContext.current());
+		Assert.assertSame(ExecutionContext.current().getFileSystem(), VirtualFileSystem.getInstance());
+		Assert.assertSame(ExecutionContext.current().getNetwork(), VirtualNetwork.getInstance());
+	}
+
+	@Test
+	public void testClockAndRandomAreKeptInContext() {
+		System.setCurrentTimeMillis(42L);
+		Random.setNextRandom(7);
+		Assert.assertEquals(42L, ExecutionContext.current().currentTime);
+		Assert.assertEquals(7, ExecutionContext.current().randomNumber);
+
+		System.resetRuntime();
+		Random.reset();
+		Assert.assertEquals(ExecutionContext.INITIAL_TIME, System.currentTimeMillis());
+		Assert.assertEquals(0, Random.nextInt());
+	}
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.runtime;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class IdentityHashCodeRegistryTest {
+
+	@Test
+	public void testIdsInRegistrationOrder() {
+		IdentityHashCodeRegistry registry = new IdentityHashCodeRegistry();
+		Object first = new Object();
+		Object second = new Object();
+
+		Assert.assertEquals(1, registry.getId(first));
+		Assert.assertEquals(2, registry.getId(second));
+		Assert.assertEquals(1, registry.getId(first));
+		Assert.assertEquals(2, registry.getId(second));
+	}
+
+	@Test
+	public void testEqualObjectsGetDifferentIds() {
+		IdentityHashCodeRegistry registry = new IdentityHashCodeRegistry();
+		String a = new String("foo");
+		String b = new String("foo");
+		Assert.assertNotEquals(registry.getId(a), registry.getId(b));
+	}
+
+	@Test
+	public void testGrow() {
+		IdentityHashCodeRegistry registry = new IdentityHashCodeRegistry();
+		List<Object> objects = new ArrayList<>();
+		for (int i = 0; i < 10_000; i++) {
+			Object o = new Object();
+			objects.add(o);
+			Assert.assertEquals(i + 1, registry.getId(o));
+		}
+		for (int i = 0; i < objects.size(); i++) {
+			Assert.assertEquals(i + 1, registry.getId(objects.get(i)));
+		}
+		Assert.assertEquals(objects.size(), registry.size());
+	}
+
+	@Test
+	public void testClear() {
+		IdentityHashCodeRegistry registry = new IdentityHashCodeRegistry();
+		Object first = new Object();
+		Object second = new Object();
+		registry.getId(first);
+		registry.getId(second);
+
+		registry.clear();
+		Assert.assertEquals(0, registry.size());
+		Assert.assertEquals(1, registry.getId(second));
+		Assert.assertEquals(2, registry.getId(first));
+	}
+
+	@Test
+	public void testDeterministicAfterReset() {
+		Object a = new Object();
+		Object b = new Object();
+
+		System.resetRuntime();
+		int ha = System.identityHashCode(a);
+		int hb = System.identityHashCode(b);
+
+		System.resetRuntime();
+		Assert.assertEquals(ha, System.identityHashCode(new Object()));
+		Assert.assertEquals(hb, System.identityHashCode(new Object()));
+		Assert.assertEquals(0, System.identityHashCode(null));
+	}
+}
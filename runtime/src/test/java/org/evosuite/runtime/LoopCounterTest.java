@@ -19,10 +19,15 @@
  */
 package org.evosuite.runtime;
 
+import java.io.InputStream;
+
+import org.evosuite.runtime.instrumentation.LoopCounterClassAdapter;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
 
 /**
  * Created by Andrea Arcuri on 29/03/15.
@@ -69,4 +74,87 @@ public class LoopCounterTest {
 		LoopCounter.getInstance().checkLoop(5);
 		LoopCounter.getInstance().checkLoop(6);
     }
+
+    @Test
+    public void testInactiveDoesNotThrow(){
+        int index = LoopCounter.getInstance().getNewIndex();
+        LoopCounter.getInstance().setActive(false);
+        try {
+            for (long i = 0; i < 3 * RuntimeSettings.maxNumberOfIterationsPerLoop; i++) {
+                LoopCounter.getInstance().checkLoop(index);
+            }
+        } finally {
+            LoopCounter.getInstance().setActive(true);
+        }
+        Assert.assertTrue(LoopCounter.iterations[index] < RuntimeSettings.maxNumberOfIterationsPerLoop);
+    }
+
+    @Test
+    public void testDisabledNeverReachesLimit(){
+        int index = LoopCounter.getInstance().getNewIndex();
+        long limit = RuntimeSettings.maxNumberOfIterationsPerLoop;
+        RuntimeSettings.maxNumberOfIterationsPerLoop = -1;
+        try {
+            for (long i = 0; i < 3 * limit; i++) {
+                LoopCounter.getInstance().checkLoop(index);
+            }
+        } finally {
+            RuntimeSettings.maxNumberOfIterationsPerLoop = limit;
+        }
+        //loopLimitReached would have restarted the count
+        Assert.assertEquals(3 * limit, LoopCounter.iterations[index]);
+    }
+
+    public static class Looping {
+        public static long loop(long n) {
+            long sum = 0;
+            for (long i = 0; i < n; i++) {
+                sum += i;
+            }
+            return sum;
+        }
+    }
+
+    private static Class<?> instrument(Class<?> clazz) throws Exception {
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_FRAMES);
+        try (InputStream in = clazz.getResourceAsStream("/" + clazz.getName().replace('.', '/') + ".class")) {
+            new ClassReader(in).accept(new LoopCounterClassAdapter(writer), ClassReader.EXPAND_FRAMES);
+        }
+        byte[] bytes = writer.toByteArray();
+        return new ClassLoader(LoopCounterTest.class.getClassLoader()) {
+            Class<?> define() {
+                return defineClass(clazz.getName(), bytes, 0, bytes.length);
+            }
+        }.define();
+    }
+
+    @Test
+    public void testInstrumentedLoopWhenDisabled() throws Exception {
+        int before = LoopCounter.getInstance().getNewIndex();
+        Class<?> looping = instrument(Looping.class);
+        int after = LoopCounter.getInstance().getNewIndex();
+        long limit = RuntimeSettings.maxNumberOfIterationsPerLoop;
+
+        try {
+            looping.getMethod("loop", long.class).invoke(null, 3 * limit);
+            Assert.fail();
+        } catch (java.lang.reflect.InvocationTargetException e) {
+            Assert.assertTrue(e.getCause() instanceof TooManyResourcesException);
+        }
+
+        LoopCounter.getInstance().reset();
+        RuntimeSettings.maxNumberOfIterationsPerLoop = -1;
+        try {
+            looping.getMethod("loop", long.class).invoke(null, 3 * limit);
+        } finally {
+            RuntimeSettings.maxNumberOfIterationsPerLoop = limit;
+        }
+
+        long max = 0;
+        for (int i = before + 1; i < after; i++) {
+            max = Math.max(max, LoopCounter.iterations[i]);
+        }
+        //the limit was never considered reached, so the count was never restarted
+        Assert.assertTrue(max >= 3 * limit);
+    }
 }
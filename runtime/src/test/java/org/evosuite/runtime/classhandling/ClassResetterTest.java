@@ -27,6 +27,7 @@ import org.junit.Ignore;
 import org.junit.Test;
 
 import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 public class ClassResetterTest {
@@ -56,6 +57,25 @@ public class ClassResetterTest {
         Assert.assertTrue(val);
     }
 
+    @Test
+    public void testFailedLookupIsCached() throws Exception{
+
+        AtomicInteger lookups = new AtomicInteger(0);
+        ClassLoader loader = new ClassLoader() {
+            @Override
+            public Class<?> loadClass(String name) throws ClassNotFoundException {
+                lookups.incrementAndGet();
+                throw new ClassNotFoundException(name);
+            }
+        };
+        ClassResetter.getInstance().setClassLoader(loader);
+
+        String cut = "com.examples.with.different.packagename.classhandling.DoesNotExist";
+        Assert.assertNull(ClassResetter.getInstance().getResetMethod(cut));
+        Assert.assertNull(ClassResetter.getInstance().getResetMethod(cut));
+        Assert.assertEquals(1, lookups.get());
+    }
+
     // TODO: We could consider providing a workaround to reset mutable enums.
     @Ignore
     @Test
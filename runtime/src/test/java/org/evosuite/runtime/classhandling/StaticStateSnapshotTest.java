@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.runtime.classhandling;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class StaticStateSnapshotTest {
+
+	private static class Simple {
+		static int counter = 1;
+		static String name = "foo";
+		static List<String> names = new ArrayList<>(Arrays.asList("a", "b"));
+		static final int[] values = { 1, 2, 3 };
+		static final Map<String, Integer> map = new HashMap<>();
+		static final String CONSTANT = "bar";
+	}
+
+	private static class Holder {
+		static StringBuilder builder = new StringBuilder();
+	}
+
+	@Before
+	public void init() {
+		Simple.counter = 1;
+		Simple.name = "foo";
+		Simple.names = new ArrayList<>(Arrays.asList("a", "b"));
+		Simple.values[0] = 1;
+		Simple.map.clear();
+		Simple.map.put("x", 1);
+	}
+
+	@Test
+	public void testRestore() throws Exception {
+		StaticStateSnapshot snapshot = StaticStateSnapshot.capture(Simple.class);
+		Assert.assertNotNull(snapshot);
+
+		List<String> original = Simple.names;
+		Simple.counter = 42;
+		Simple.name = null;
+		Simple.names.add("c");
+		Simple.values[0] = 7;
+		Simple.map.put("y", 2);
+
+		snapshot.restore();
+
+		Assert.assertEquals(1, Simple.counter);
+		Assert.assertEquals("foo", Simple.name);
+		Assert.assertEquals(Arrays.asList("a", "b"), Simple.names);
+		Assert.assertEquals(1, Simple.values[0]);
+		Assert.assertEquals(1, Simple.map.size());
+		Assert.assertEquals(Integer.valueOf(1), Simple.map.get("x"));
+		// the snapshot keeps its own copy
+		Assert.assertFalse(original == Simple.names);
+
+		Simple.names.add("d");
+		snapshot.restore();
+		Assert.assertEquals(Arrays.asList("a", "b"), Simple.names);
+	}
+
+	@Test
+	public void testNoSnapshotOfMutableObjects() {
+		Assert.assertNull(StaticStateSnapshot.capture(Holder.class));
+	}
+}
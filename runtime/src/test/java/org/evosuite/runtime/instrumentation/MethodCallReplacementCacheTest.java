@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.runtime.instrumentation;
+
+import org.evosuite.runtime.RuntimeSettings;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MethodCallReplacementCacheTest {
+
+	private boolean mockJVMNonDeterminism;
+
+	@Before
+	public void init() {
+		mockJVMNonDeterminism = RuntimeSettings.mockJVMNonDeterminism;
+		MethodCallReplacementCache.resetSingleton();
+	}
+
+	@After
+	public void tearDown() {
+		RuntimeSettings.mockJVMNonDeterminism = mockJVMNonDeterminism;
+		MethodCallReplacementCache.resetSingleton();
+	}
+
+	@Test
+	public void testTableIsBuiltOncePerConfiguration() {
+		RuntimeSettings.mockJVMNonDeterminism = true;
+		MethodCallReplacementCache withMocks = MethodCallReplacementCache.getInstance();
+		Assert.assertSame(withMocks, MethodCallReplacementCache.getInstance());
+
+		RuntimeSettings.mockJVMNonDeterminism = false;
+		MethodCallReplacementCache.resetSingleton();
+		MethodCallReplacementCache withoutMocks = MethodCallReplacementCache.getInstance();
+		Assert.assertNotSame(withMocks, withoutMocks);
+
+		RuntimeSettings.mockJVMNonDeterminism = true;
+		MethodCallReplacementCache.resetSingleton();
+		Assert.assertSame(withMocks, MethodCallReplacementCache.getInstance());
+	}
+
+	@Test
+	public void testLookup() {
+		RuntimeSettings.mockJVMNonDeterminism = true;
+		MethodCallReplacementCache cache = MethodCallReplacementCache.getInstance();
+
+		Assert.assertTrue(cache.hasReplacementCalls("java/lang/System"));
+		Assert.assertNotNull(cache.getReplacementCall("java/lang/System", "currentTimeMillis()J"));
+		Assert.assertNull(cache.getReplacementCall("java/lang/System", "lineSeparator()Ljava/lang/String;"));
+
+		Assert.assertFalse(cache.hasReplacementCalls("com/example/Foo"));
+		Assert.assertNull(cache.getReplacementCall("com/example/Foo", "foo()V"));
+		Assert.assertNull(cache.getSpecialReplacementCall("com/example/Foo", "<init>()V"));
+	}
+}
@@ -0,0 +1,285 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.runtime.sandbox;
+
+import java.io.InputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.PropertyPermission;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.evosuite.runtime.RuntimeSettings;
+import org.evosuite.runtime.instrumentation.MethodCallReplacementCache;
+import org.evosuite.runtime.instrumentation.MethodCallReplacementClassAdapter;
+import org.evosuite.runtime.mock.MockFramework;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+
+public class CallSiteSandboxTest {
+
+	private Sandbox.SandboxMode mode;
+	private boolean useVFS;
+	private boolean useVNET;
+	private boolean mockFramework;
+
+	@Before
+	public void init() {
+		mode = RuntimeSettings.sandboxMode;
+		useVFS = RuntimeSettings.useVFS;
+		useVNET = RuntimeSettings.useVNET;
+		mockFramework = MockFramework.isEnabled();
+		RuntimeSettings.sandboxMode = Sandbox.SandboxMode.CALL_SITE;
+		RuntimeSettings.useVFS = true;
+		RuntimeSettings.useVNET = true;
+		MethodCallReplacementCache.resetSingleton();
+		MockFramework.enable();
+		Sandbox.initializeSecurityManagerForSUT();
+		PermissionStatistics.getInstance().resetRecentStatistic();
+	}
+
+	@After
+	public void reset() {
+		if (Sandbox.isOnAndExecutingSUTCode()) {
+			Sandbox.doneWithExecutingSUTCode();
+		}
+		Sandbox.resetDefaultSecurityManager();
+		RuntimeSettings.sandboxMode = mode;
+		RuntimeSettings.useVFS = useVFS;
+		RuntimeSettings.useVNET = useVNET;
+		MethodCallReplacementCache.resetSingleton();
+		if (!mockFramework) {
+			MockFramework.disable();
+		}
+	}
+
+	@Test
+	public void testNoSecurityManagerIsInstalled() {
+		Assert.assertTrue(Sandbox.isSecurityManagerInitialized());
+		Assert.assertFalse(System.getSecurityManager() instanceof MSecurityManager);
+	}
+
+	@Test
+	public void testSUTThreadIsChecked() throws Exception {
+		Sandbox.goingToExecuteSUTCode();
+		int denied = PermissionStatistics.getInstance().getPermissionDeniedCount(new RuntimePermission("exitVM.42"));
+
+		Throwable thrown = runOnNewThread(() -> CallSiteSandbox.exit(42));
+		Assert.assertTrue(thrown instanceof SecurityException);
+		Assert.assertEquals(denied + 1,
+				PermissionStatistics.getInstance().getPermissionDeniedCount(new RuntimePermission("exitVM.42")));
+
+		thrown = runOnNewThread(() -> CallSiteSandbox.setSecurityManager(null));
+		Assert.assertTrue(thrown instanceof SecurityException);
+
+		int properties = PermissionStatistics.getInstance().getNumPropertyPermission();
+		AtomicReference<String> value = new AtomicReference<>();
+		thrown = runOnNewThread(() -> value.set(CallSiteSandbox.getProperty("java.version")));
+		Assert.assertNull(thrown);
+		Assert.assertEquals(System.getProperty("java.version"), value.get());
+		Assert.assertEquals(properties, PermissionStatistics.getInstance().getNumPropertyPermission());
+	}
+
+	@Test
+	public void testPrivilegedThreadIsNotChecked() throws Exception {
+		Sandbox.goingToExecuteSUTCode();
+		int denied = PermissionStatistics.getInstance().getNumRuntimePermission();
+
+		// would throw if the current thread was not privileged
+		Sandbox.checkCallSitePermission(new RuntimePermission("exitVM.42"));
+
+		Assert.assertEquals(denied, PermissionStatistics.getInstance().getNumRuntimePermission());
+	}
+
+	@Test
+	public void testNeedsVirtualFileSystemAndNetwork() {
+		Sandbox.resetDefaultSecurityManager();
+		RuntimeSettings.useVNET = false;
+		try {
+			Sandbox.initializeSecurityManagerForSUT();
+			Assert.fail();
+		} catch (IllegalStateException e) {
+			// expected
+		}
+		Assert.assertFalse(Sandbox.isSecurityManagerInitialized());
+		// so that reset() has something to reset
+		RuntimeSettings.useVNET = true;
+		Sandbox.initializeSecurityManagerForSUT();
+	}
+
+	@Test
+	public void testSetAccessibleIsAllowed() throws Exception {
+		Sandbox.goingToExecuteSUTCode();
+		int denied = PermissionStatistics.getInstance().getNumReflectPermission();
+		Field field = CallSiteSandboxTest.class.getDeclaredField("mode");
+
+		// reflection is allowed by the RECOMMENDED policy, but still goes through the check
+		Throwable thrown = runOnNewThread(() -> CallSiteSandbox.setAccessible(field, true));
+		Assert.assertNull(thrown);
+		Assert.assertTrue(field.isAccessible());
+		Assert.assertEquals(denied, PermissionStatistics.getInstance().getNumReflectPermission());
+	}
+
+	@Test
+	public void testFileWriteIsDenied() throws Exception {
+		Sandbox.goingToExecuteSUTCode();
+		Path path = Paths.get(System.getProperty("java.io.tmpdir"), "CallSiteSandboxTest_" + System.nanoTime());
+
+		Throwable thrown = runOnNewThread(() -> {
+			try {
+				CallSiteSandbox.write(path, new byte[] { 42 });
+			} catch (java.io.IOException e) {
+				throw new RuntimeException(e);
+			}
+		});
+		Assert.assertTrue(thrown instanceof SecurityException);
+		Assert.assertFalse(Files.exists(path));
+	}
+
+	@Test
+	public void testReflectiveCallIsChecked() throws Exception {
+		Sandbox.goingToExecuteSUTCode();
+		Method setSecurityManager = System.class.getMethod("setSecurityManager", SecurityManager.class);
+
+		Throwable thrown = runOnNewThread(() -> {
+			try {
+				CallSiteSandbox.invoke(setSecurityManager, null, new Object[] { null });
+			} catch (IllegalAccessException e) {
+				throw new RuntimeException(e);
+			} catch (InvocationTargetException e) {
+				throw (RuntimeException) e.getCause();
+			}
+		});
+		Assert.assertTrue(thrown instanceof SecurityException);
+	}
+
+	@Test
+	public void testClassLoaderCannotBeCreated() throws Exception {
+		Sandbox.goingToExecuteSUTCode();
+
+		Throwable thrown = runOnNewThread(() -> CallSiteSandbox.newInstance(new URL[0]));
+		Assert.assertTrue(thrown instanceof SecurityException);
+	}
+
+	public static class Sensitive {
+		private static String secret() {
+			return "secret";
+		}
+
+		public static Object callSecret() throws Exception {
+			// allowed without setAccessible, as long as the caller is this class
+			return Sensitive.class.getDeclaredMethod("secret").invoke(null);
+		}
+
+		public static Object invoke(Method method, Object[] args) throws Exception {
+			return method.invoke(null, args);
+		}
+
+		public static Object newInstance(Constructor<?> constructor, Object[] args) throws Exception {
+			return constructor.newInstance(args);
+		}
+
+		public static ClassLoader createClassLoader() {
+			return new URLClassLoader(new URL[0]);
+		}
+	}
+
+	private static Class<?> instrument(Class<?> clazz) throws Exception {
+		String name = clazz.getName().replace('.', '/');
+		ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_FRAMES);
+		try (InputStream in = clazz.getResourceAsStream("/" + name + ".class")) {
+			new ClassReader(in).accept(new MethodCallReplacementClassAdapter(writer, name, false),
+					ClassReader.SKIP_FRAMES);
+		}
+		byte[] bytes = writer.toByteArray();
+		return new ClassLoader(CallSiteSandboxTest.class.getClassLoader()) {
+			Class<?> define() {
+				return defineClass(clazz.getName(), bytes, 0, bytes.length);
+			}
+		}.define();
+	}
+
+	private static Throwable call(Class<?> clazz, String name, Class<?>[] types, Object... args) throws Exception {
+		AtomicReference<Throwable> cause = new AtomicReference<>();
+		Throwable thrown = runOnNewThread(() -> {
+			try {
+				clazz.getMethod(name, types).invoke(null, args);
+			} catch (InvocationTargetException e) {
+				cause.set(e.getCause());
+			} catch (Exception e) {
+				throw new RuntimeException(e);
+			}
+		});
+		Assert.assertNull(thrown);
+		return cause.get();
+	}
+
+	@Test
+	public void testInstrumentedCallsAreChecked() throws Exception {
+		Class<?> sensitive = instrument(Sensitive.class);
+		Sandbox.goingToExecuteSUTCode();
+
+		Assert.assertNull(call(sensitive, "callSecret", new Class<?>[0]));
+
+		Method setSecurityManager = System.class.getMethod("setSecurityManager", SecurityManager.class);
+		Throwable thrown = call(sensitive, "invoke", new Class<?>[] { Method.class, Object[].class },
+				setSecurityManager, new Object[] { null });
+		Assert.assertTrue(thrown instanceof InvocationTargetException);
+		Assert.assertTrue(thrown.getCause() instanceof SecurityException);
+
+		thrown = call(sensitive, "createClassLoader", new Class<?>[0]);
+		Assert.assertTrue(thrown instanceof SecurityException);
+
+		thrown = call(sensitive, "newInstance", new Class<?>[] { Constructor.class, Object[].class },
+				URLClassLoader.class.getConstructor(URL[].class), new Object[] { new URL[0] });
+		Assert.assertTrue(thrown instanceof SecurityException);
+	}
+
+	@Test
+	public void testNothingIsCheckedOutsideOfTests() throws Exception {
+		Throwable thrown = runOnNewThread(
+				() -> Sandbox.checkCallSitePermission(new PropertyPermission("*", "read,write")));
+		Assert.assertNull(thrown);
+	}
+
+	private static Throwable runOnNewThread(Runnable runnable) throws InterruptedException {
+		AtomicReference<Throwable> thrown = new AtomicReference<>();
+		Thread thread = new Thread(() -> {
+			try {
+				runnable.run();
+			} catch (Throwable t) {
+				thrown.set(t);
+			}
+		});
+		thread.start();
+		thread.join();
+		return thrown.get();
+	}
+}
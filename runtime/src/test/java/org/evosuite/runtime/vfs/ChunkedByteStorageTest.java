@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.runtime.vfs;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ChunkedByteStorageTest {
+
+	private static byte[] sequence(int length) {
+		byte[] data = new byte[length];
+		for (int i = 0; i < length; i++) {
+			data[i] = (byte) i;
+		}
+		return data;
+	}
+
+	@Test
+	public void testWriteAndReadAcrossChunks() {
+		ChunkedByteStorage storage = new ChunkedByteStorage();
+		int length = 3 * ChunkedByteStorage.CHUNK_SIZE + 17;
+		byte[] data = sequence(length);
+
+		storage.write(0, data, 0, length);
+		Assert.assertEquals(length, storage.size());
+
+		byte[] read = new byte[length + 10];
+		Assert.assertEquals(length, storage.read(0, read, 5, length + 5));
+		for (int i = 0; i < length; i++) {
+			Assert.assertEquals(data[i], read[i + 5]);
+		}
+		Assert.assertEquals(-1, storage.read(length, read, 0, 1));
+		Assert.assertEquals(data[ChunkedByteStorage.CHUNK_SIZE] & 0xFF, storage.read(ChunkedByteStorage.CHUNK_SIZE));
+	}
+
+	@Test
+	public void testWriteAfterEndFillsWithZeros() {
+		ChunkedByteStorage storage = new ChunkedByteStorage();
+		int position = ChunkedByteStorage.CHUNK_SIZE + 3;
+		storage.write(position, new byte[]{42}, 0, 1);
+
+		Assert.assertEquals(position + 1, storage.size());
+		Assert.assertEquals(0, storage.read(0));
+		Assert.assertEquals(0, storage.read(position - 1));
+		Assert.assertEquals(42, storage.read(position));
+	}
+
+	@Test
+	public void testTruncateAndExtend() {
+		ChunkedByteStorage storage = new ChunkedByteStorage();
+		int length = 2 * ChunkedByteStorage.CHUNK_SIZE;
+		storage.write(0, sequence(length), 0, length);
+
+		storage.setLength(10);
+		Assert.assertEquals(10, storage.size());
+		Assert.assertEquals(9, storage.read(9));
+		Assert.assertEquals(-1, storage.read(10));
+
+		storage.setLength(length);
+		Assert.assertEquals(0, storage.read(10));
+		Assert.assertEquals(0, storage.read(length - 1));
+	}
+}
@@ -253,4 +253,22 @@ public class VirtualFileSystemTest {
 		Assert.assertFalse(folder.exists());		
 	}
 
+	@Test
+	public void testLookupAfterRenameAndDelete() throws IOException{
+		File bla = new MockFile("bla");
+		File doh = new MockFile("doh");
+		Assert.assertTrue(bla.createNewFile());
+		//look it up once, so that it is indexed
+		Assert.assertTrue(bla.exists());
+
+		Assert.assertTrue(bla.renameTo(doh));
+		Assert.assertFalse(bla.exists());
+		Assert.assertTrue(doh.exists());
+
+		Assert.assertTrue(doh.delete());
+		Assert.assertFalse(doh.exists());
+		Assert.assertTrue(doh.createNewFile());
+		Assert.assertTrue(doh.exists());
+	}
+
 }
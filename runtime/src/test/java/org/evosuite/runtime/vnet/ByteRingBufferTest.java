@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.runtime.vnet;
+
+import org.evosuite.runtime.vnet.VirtualNetwork.ConnectionType;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ByteRingBufferTest {
+
+	@Test
+	public void testEmpty() {
+		ByteRingBuffer buffer = new ByteRingBuffer();
+		Assert.assertEquals(0, buffer.size());
+		Assert.assertEquals(-1, buffer.read());
+		Assert.assertEquals(-1, buffer.read(new byte[4], 0, 4));
+	}
+
+	@Test
+	public void testSingleBytes() {
+		ByteRingBuffer buffer = new ByteRingBuffer();
+		buffer.write((byte) 1);
+		buffer.write((byte) -1);
+		Assert.assertEquals(2, buffer.size());
+		Assert.assertEquals(1, buffer.read());
+		Assert.assertEquals(255, buffer.read());
+		Assert.assertEquals(-1, buffer.read());
+	}
+
+	@Test
+	public void testBulkWrapAround() {
+		ByteRingBuffer buffer = new ByteRingBuffer();
+		byte[] data = new byte[200];
+		for (int i = 0; i < data.length; i++) {
+			data[i] = (byte) i;
+		}
+
+		// move the head forward, so that the next writes wrap around
+		buffer.write(data, 0, 200);
+		byte[] out = new byte[150];
+		Assert.assertEquals(150, buffer.read(out, 0, 150));
+		buffer.write(data, 0, 200);
+		Assert.assertEquals(250, buffer.size());
+
+		byte[] all = new byte[1000];
+		Assert.assertEquals(250, buffer.read(all, 10, 990));
+		for (int i = 0; i < 50; i++) {
+			Assert.assertEquals((byte) (150 + i), all[10 + i]);
+		}
+		for (int i = 0; i < 200; i++) {
+			Assert.assertEquals((byte) i, all[60 + i]);
+		}
+		Assert.assertEquals(0, buffer.size());
+	}
+
+	@Test
+	public void testGrowKeepsOrder() {
+		ByteRingBuffer buffer = new ByteRingBuffer();
+		int n = 10_000;
+		for (int i = 0; i < n; i++) {
+			buffer.write((byte) i);
+			if (i % 3 == 0) {
+				Assert.assertEquals((i / 3) & 0xFF, buffer.read());
+			}
+		}
+		int expected = (n + 2) / 3;
+		while (buffer.size() > 0) {
+			Assert.assertEquals(expected & 0xFF, buffer.read());
+			expected++;
+		}
+		Assert.assertEquals(n, expected);
+	}
+
+	@Test
+	public void testNativeTcpBulk() {
+		NativeTcp tcp = new NativeTcp(new EndPointInfo("127.0.0.1", 42, ConnectionType.TCP),
+				new EndPointInfo("127.0.0.2", 4242, ConnectionType.TCP));
+		byte[] message = "Hello World".getBytes();
+		tcp.writeToSUT(message, 0, message.length);
+		Assert.assertEquals(message.length, tcp.getAmountOfDataInLocalBuffer());
+		Assert.assertEquals(0, tcp.getAmountOfDataInRemoteBuffer());
+
+		byte[] read = new byte[64];
+		int n = tcp.readInSUTfromRemote(read, 0, read.length);
+		Assert.assertEquals("Hello World", new String(read, 0, n));
+		Assert.assertEquals(-1, tcp.readInSUTfromRemote());
+	}
+}